@@ -4,8 +4,17 @@ import Model.*;
 import View.contract.GameView;
 import Helper.ChoosablePlayerCallback; // Assuming this is needed for makePlayersChoosable
 
+import Search.MctsAgent;
+import Search.SearchResult;
+import Simulation.WinProbabilityEstimator;
+
+import java.awt.EventQueue;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The main controller in the MVC pattern for the Forbidden Island game.
@@ -13,10 +22,25 @@ import java.util.HashSet;
  * It receives user actions from the View, translates them into calls to the Model,
  * and updates the View based on changes in the Model's state.
  * Uses modelActionHandler to manage exceptions from the Model.
+ * The hints are searched on a background thread, so the event thread never waits for the engine.
+ * At the start of every turn, the probability of winning is estimated in the background too.
  */
 public class GameController {
+    private static final long HINT_BUDGET_MILLIS = 1500; // wall-clock time of the search of a hint
+    private static final int WIN_ESTIMATE_ROLLOUTS = 4000; // rollouts of the estimate of the win probability
+
     private BoardGame boardGame; // The game state and logic
     private GameView gameView;   // The user interface
+    private final AtomicLong modelVersion = new AtomicLong(); // bumped by every change of the model and every new hint
+    private final AtomicLong modelChanges = new AtomicLong(); // bumped by every change of the model only
+    private final ExecutorService hintExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "hint-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MctsAgent hintAgent; // created on the first hint, used by the hint thread only
+    private WinProbabilityEstimator winEstimator; // created on the first estimate
+    private long winEstimateVersion = -1; // the model changes of the estimate being shown, on the event thread only
 
     /**
      * Creates a new GameController.
@@ -27,6 +51,116 @@ public class GameController {
         this.boardGame = new BoardGame();
     }
 
+    /**
+     * Runs an action on the model through the modelActionHandler.
+     * The model may change, so the hint being searched is cancelled and the hint shown is cleared.
+     * @param r The action on the model.
+     */
+    private void handleModelAction(Runnable r) {
+        this.modelVersion.incrementAndGet();
+        this.modelChanges.incrementAndGet();
+        this.gameView.clearHint();
+        modelActionHandler.handleModelAction(r, gameView);
+    }
+
+    /**
+     * Handles the user asking for a hint: searches the best action for the current position in the background
+     * and shows it in the view when the search is over.
+     * The search runs on a copy of the game for {@link #HINT_BUDGET_MILLIS}, and it is cancelled as soon as the
+     * model changes or another hint is asked, in which case nothing is shown.
+     * The controller keeps the hint area of the view up to date: it says the search is running while it is,
+     * and says so when no hint can be given.
+     */
+    public void requestHint() {
+        this.gameView.clearHint();
+        if (this.boardGame.getPlayerForTheTurn() == null) {
+            this.gameView.showHintMessage("No hint before the game starts");
+            return;
+        }
+        long version = this.modelVersion.incrementAndGet();
+        GameSnapshot position = this.boardGame.snapshot();
+        this.gameView.showHintMessage("Searching...");
+        this.hintExecutor.execute(() -> {
+            if (this.modelVersion.get() != version) {
+                return;
+            }
+            try {
+                BoardGame copy = position.restore();
+                if (copy.getLegalActions().length == 0) {
+                    this.showHintLater(version, () -> this.gameView.showHintMessage("No hint: no action can be taken"));
+                    return;
+                }
+                if (this.hintAgent == null) {
+                    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // a core for the event thread
+                    this.hintAgent = new MctsAgent(threads, HINT_BUDGET_MILLIS, System.nanoTime());
+                }
+                SearchResult result = this.hintAgent.search(copy, () -> this.modelVersion.get() != version);
+                int action = result.getAction();
+                this.showHintLater(version,
+                        () -> this.gameView.showHint(this.getZonesOfAction(action), this.describeAction(action)));
+            } catch (RuntimeException e) {
+                this.showHintLater(version, () -> this.gameView.showHintMessage("No hint: the search failed"));
+            }
+        });
+    }
+
+    /** Updates the hint area on the event thread, unless the model has changed or another hint was asked since. */
+    private void showHintLater(long version, Runnable update) {
+        EventQueue.invokeLater(() -> {
+            if (this.modelVersion.get() == version) {
+                update.run();
+            }
+        });
+    }
+
+    /** Gets the zones an action leads to or happens on, to highlight them. */
+    private HashSet<Zone> getZonesOfAction(int action) {
+        HashSet<Zone> zones = new HashSet<>();
+        IslandBitboard island = this.boardGame.getIsland();
+        switch (GameAction.kind(action)) {
+            case ShoreUpPair:
+                zones.add(island.getZone(GameAction.secondTile(action)));
+                zones.add(island.getZone(GameAction.tile(action)));
+                break;
+            case GiveCard:
+            case TakeArtefact:
+            case Discard:
+                zones.add(this.boardGame.getPlayerForTheTurn().getPlayer_zone());
+                break;
+            case EndTurn:
+                break;
+            default:
+                zones.add(island.getZone(GameAction.tile(action)));
+                break;
+        }
+        return zones;
+    }
+
+    /** Describes an action to the players. */
+    private String describeAction(int action) {
+        IslandBitboard island = this.boardGame.getIsland();
+        Player[] players = this.boardGame.getPlayers();
+        String zone = nameOf(island.getZone(GameAction.tile(action)));
+        switch (GameAction.kind(action)) {
+            case Move: return "Move to " + zone;
+            case ShoreUp: return "Shore up " + zone;
+            case ShoreUpPair: return "Shore up " + zone + " and " + nameOf(island.getZone(GameAction.secondTile(action)));
+            case Fly: return "Fly to " + zone;
+            case MovePlayer: return "Move " + players[GameAction.player(action)].getPlayer_name() + " to " + zone;
+            case GiveCard: return "Give a " + GameAction.card(action) + " to " + players[GameAction.player(action)].getPlayer_name();
+            case TakeArtefact: return "Take the artefact";
+            case HelicopterLift: return players[GameAction.player(action)].getPlayer_name() + " lifts to " + zone;
+            case Sandbags: return players[GameAction.player(action)].getPlayer_name() + " uses sandbags on " + zone;
+            case Discard: return "Discard a " + GameAction.card(action);
+            case Escape: return players[GameAction.player(action)].getPlayer_name() + " swims to " + zone;
+            default: return "End the turn";
+        }
+    }
+
+    private static String nameOf(Zone zone) {
+        return zone == null || zone.getZoneCard() == null ? "?" : zone.getZoneCard().name().replace('_', ' ');
+    }
+
     /**
      * Retrieves the current state of the game board zones from the model.
      * @return A 2D array of Zone objects representing the board.
@@ -42,10 +176,11 @@ public class GameController {
      */
     public void endTurn(){
             this.gameView.removeActionsForPlayerPanel();
-            modelActionHandler.handleModelAction(() -> this.boardGame.endTurn(), gameView);
+            this.handleModelAction(() -> this.boardGame.endTurn());
             this.gameView.updatePlayerPanels();
             this.gameView.updateZonePanels();
             this.gameView.updateWaterMeter();
+            this.estimateWinProbability();
     }
 
     /**
@@ -55,10 +190,10 @@ public class GameController {
      * @param playerName The name for the new player.
      */
     public void addPlayerToTheGame(String playerName){
-        modelActionHandler.handleModelAction(() ->{
+        this.handleModelAction(() ->{
             Player p = boardGame.addPlayer(playerName);
             this.gameView.addPlayerPanel(p);
-        }, gameView);
+        });
     }
 
     /**
@@ -67,10 +202,39 @@ public class GameController {
      * to reflect the start of the game (e.g., hiding setup controls).
      */
     public void startGame(){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             boardGame.startGame();
             this.gameView.startGameHandleView();
-        }, gameView);
+        });
+        this.estimateWinProbability();
+    }
+
+    /**
+     * Starts estimating the probability of winning from the current position with random rollouts in the background.
+     * The view gets the estimate refined after every round of rollouts, until the rollouts are done or the model
+     * changes. Does nothing if the game is not in the middle of a turn (not started, over, or waiting for a discard
+     * or an escape).
+     */
+    private void estimateWinProbability() {
+        Player current = this.boardGame.getPlayerForTheTurn();
+        if (current == null || this.boardGame.getLossCause() != null
+                || this.boardGame.arePlayersRunningFromInaccesbleZone()
+                || this.boardGame.isPlayerChoosingCardToDiscard() || current.getHand().isOverflow()) {
+            return;
+        }
+        if (this.winEstimator == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // a core for the event thread
+            this.winEstimator = new WinProbabilityEstimator(threads, System.nanoTime());
+        }
+        long version = this.modelChanges.get(); // asking for a hint leaves the estimate running
+        this.winEstimateVersion = version;
+        this.winEstimator.estimate(this.boardGame, WIN_ESTIMATE_ROLLOUTS, () -> this.modelChanges.get() != version,
+                estimate -> EventQueue.invokeLater(() -> {
+                    if (this.winEstimateVersion == version) { // not an estimate of an older turn
+                        this.gameView.showWinEstimate(estimate.getProbability(), estimate.getLower(),
+                                estimate.getUpper(), estimate.getGames());
+                    }
+                }));
     }
 
 
@@ -116,9 +280,9 @@ public class GameController {
      * and updates the view to highlight possible move destinations.
      */
     public void setPlayerChooseZoneToMoveTo(){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.setPlayerChooseZoneToMoveTo();
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
         this.gameView.updateZonePanels();
     }
@@ -128,10 +292,10 @@ public class GameController {
      * and updates the view to highlight possible shoring up targets.
      */
     public void setPlayerChooseZoneToShoreUp(){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.setPlayerChooseZoneToShoreUp();
 
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
         this.gameView.updateZonePanels();
     }
@@ -141,9 +305,9 @@ public class GameController {
      * and updates the view to highlight possible flight destinations.
      */
     public void setPilotChooseWhereToFlyTo(){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
         this.boardGame.setPilotChooseWhereToFlyTo();
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
         this.gameView.updateZonePanels();
     }
@@ -154,11 +318,11 @@ public class GameController {
      * to make those players selectable.
      */
     public void setNavigatorChoosePlayerToMove(){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.setNavigatorChoosePlayerToMove();
             HashSet<Player> players = this.boardGame.getPlayersToChoose();
             this.gameView.makePlayersChoosable(players, this::choosePlayerByNavigator);
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
         this.gameView.updateZonePanels();
     }
@@ -170,9 +334,9 @@ public class GameController {
      * @param player The player who needs to escape.
      */
     public void setPlayerChooseZoneToRunFromInaccessbileZone(Player player){
-        modelActionHandler.handleModelAction(() ->  {
+        this.handleModelAction(() ->  {
             this.boardGame.setPlayerChooseZoneToRunFromInaccessibleZone(player);
-        }, gameView);
+        });
         this.gameView.updateZonePanels();
         this.gameView.updatePlayerPanels();
     }
@@ -240,11 +404,11 @@ public class GameController {
      * @param zone The selected destination Zone.
      */
     public void movePlayerToTheZone(Zone zone){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.movePlayerToZone(zone);
             this.gameView.updateZonePanels();
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -253,11 +417,11 @@ public class GameController {
      * @param zone The selected destination Zone.
      */
     public void flyPilotToTheZone(Zone zone){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.flyPilotToZone(zone);
             gameView.updatePlayerPanels();
             gameView.updateZonePanels();
-        },gameView);
+        });
     }
 
     /**
@@ -266,11 +430,11 @@ public class GameController {
      * @param zone The selected Zone to shore up.
      */
     public void playerShoreUpZone(Zone zone) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.playerShoreUpZone(zone);
             this.gameView.updateZonePanels();
             this.gameView.updatePlayerPanels();
-        },gameView);
+        });
     }
 
     /**
@@ -280,9 +444,9 @@ public class GameController {
      * @param chosen_player The Player selected by the Navigator.
      */
     private void choosePlayerByNavigator(Player chosen_player) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.choosePlayerByNavigator(chosen_player);
-        }, gameView);
+        });
         this.gameView.makePlayersUnChoosable();
         this.gameView.updateZonePanels();
         this.gameView.updatePlayerPanels();
@@ -295,13 +459,13 @@ public class GameController {
      * @param chosen_player The Player selected to fly with.
      */
     public void choosePlayerToFlyWithCard(Player chosen_player){
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.choosePlayerToFlyWithCard(chosen_player);
             this.gameView.makePlayersUnChoosable();
             HashSet<Player> remaining = boardGame.getPlayersToChoose();
             this.gameView.makePlayersChoosable(this.boardGame.getPlayersToChoose(), this::choosePlayerToFlyWithCard);
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -310,11 +474,11 @@ public class GameController {
      * @param zone The selected destination Zone.
      */
     public void movePlayerToTheZoneByNavigator(Zone zone) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.movePlayerToZoneByNavigator(zone);
             this.gameView.updateZonePanels();
             this.gameView.updatePlayerPanels();
-        },gameView);
+        });
     }
     //------------
 
@@ -329,9 +493,9 @@ public class GameController {
     /**
      * Gets the list of cards in the specified player's hand from the model.
      * @param player The player whose hand is requested.
-     * @return An ArrayList of Card objects.
+     * @return A read-only list of Card objects.
      */
-    public ArrayList<Card> getCurrentPlayerCards(Player player){
+    public List<Card> getCurrentPlayerCards(Player player){
         return this.boardGame.getCurrentPlayerCards(player);
     }
 
@@ -343,7 +507,7 @@ public class GameController {
      * @param card The Card being used.
      */
     public void playerUseActionCard(Player player, Card card) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.playerUseActionCard(player, card);
             if(card.getType() == CardType.HELICOPTER_LIFT){
                 HashSet<Player> players = this.boardGame.getPlayersToChoose();
@@ -351,7 +515,7 @@ public class GameController {
             }
             this.gameView.updatePlayerPanels();
             this.gameView.updateZonePanels();
-        },gameView);
+        });
     }
 
     /**
@@ -360,12 +524,12 @@ public class GameController {
      * @param zone The selected destination Zone.
      */
     public void flyPlayerToZoneWithCard(Zone zone) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.flyPlayerToZoneWithCard(zone);
             this.gameView.makePlayersUnChoosable();
             this.gameView.updateZonePanels();
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -374,11 +538,11 @@ public class GameController {
      * @param zone The selected Zone to shore up.
      */
     public void shoreUpZoneWithCard(Zone zone) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.shoreUpZoneWithCard(zone);
             this.gameView.updateZonePanels();
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -386,9 +550,9 @@ public class GameController {
      * from the current player's hand and updates the view.
      */
     public void setPlayerGiveTreasureCards() {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.setPlayerGiveTreasureCards();
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
     }
 
@@ -409,12 +573,12 @@ public class GameController {
      * @param c The Card selected to give.
      */
     public void playerChooseCardToGive(Player p, Card c) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.playerChooseCardToGive(p, c);
             this.gameView.updatePlayerPanels();
             HashSet<Player> players = this.boardGame.getPlayersToChoose();
             this.gameView.makePlayersChoosable(players, this::choosePlayerToGiveCardTo);
-        }, gameView);
+        });
     }
 
     /**
@@ -423,10 +587,10 @@ public class GameController {
      * @param player The selected recipient Player.
      */
     public void choosePlayerToGiveCardTo(Player player) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.choosePlayerToGiveCardTo(player);
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -435,10 +599,10 @@ public class GameController {
      * and updates the view to highlight the hand for discarding.
      */
     public void setPlayerDiscardCard() {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.setPlayerDiscardCard();
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -448,10 +612,10 @@ public class GameController {
      * @param c The Card selected to discard.
      */
     public void playerDiscardCard(Player player, Card c) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.playerDiscardCard(player, c);
             this.gameView.updatePlayerPanels();
-        }, gameView);
+        });
     }
 
     /**
@@ -469,9 +633,9 @@ public class GameController {
      * (player panels for cards, zone panels for artefact presence, corner artefacts display).
      */
     public void takeArtefact() {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             boardGame.takeArtefact();
-        }, gameView);
+        });
         this.gameView.updatePlayerPanels();
         this.gameView.updateZonePanels();
         this.gameView.updateCornerArtefacts();
@@ -492,9 +656,9 @@ public class GameController {
      * @param zone The selected escape destination Zone.
      */
     public void chooseZoneToRunFromInaccessible(Zone zone) {
-        modelActionHandler.handleModelAction(() -> {
+        this.handleModelAction(() -> {
             this.boardGame.chooseZoneToRunFromInaccessible(zone);
-        },gameView);
+        });
 
         this.gameView.updateZonePanels();
         this.gameView.updatePlayerPanels();
@@ -507,6 +671,25 @@ public class GameController {
         return this.boardGame.getFloodRate();
     }
 
+    /**
+     * Gets the probability that a zone is flooded by the flood phase of the current turn, from the model.
+     * @param zone The zone.
+     * @return The probability, 0 for the sea.
+     */
+    public double getFloodProbability(Zone zone) {
+        return zone.getZoneCard() == null ? 0 : this.boardGame.getFloodProbability(zone.getZoneCard());
+    }
+
+    /**
+     * Gets the probability that a zone sinks within a number of turns if nobody shores it up, from the model.
+     * @param zone The zone.
+     * @param turns The number of flood phases to look at.
+     * @return The probability, 0 for the sea.
+     */
+    public double getSinkingRisk(Zone zone, int turns) {
+        return this.boardGame.getSinkingRisk(zone, turns);
+    }
+
     /**
      * Gets the current water level from the model.
      * @return The current water level (0-10).
@@ -1,7 +1,22 @@
 package Errors;
 
+import Model.LossCause;
+
 public class GameOverException extends RuntimeException {
+    private final LossCause lossCause;
+
     public GameOverException(String reason) {
         super("Game over: " + reason);
+        this.lossCause = null;
+    }
+
+    public GameOverException(LossCause lossCause) {
+        super("Game over: " + lossCause.getReason());
+        this.lossCause = lossCause;
+    }
+
+    /** Gets the cause of the loss, or null if it was not specified. */
+    public LossCause getLossCause() {
+        return lossCause;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,414 @@
+package Model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * An append-only journal of the moves of a {@link BoardGame}, written to a memory-mapped file.
+ * <p>
+ * The journal starts with the seed and a {@link GameSave} of the game as it was when the journal was attached, then
+ * holds one entry per call of a public method changing the game ({@link BoardGame#movePlayerToZone(Zone)},
+ * {@link BoardGame#endTurn()}, {@link BoardGame#apply(int)} and the rest), with its arguments: zones as tiles,
+ * players as indexes, cards as their owner and position in the hand. A call is recorded with its outcome, whether it
+ * returned or threw (a move the game refused, or the end of the game), and the steps a call makes through other public
+ * methods are not recorded twice. Every random choice of the game comes from its seed, so {@link #replay(Path)}
+ * rebuilds the exact state by loading the save and calling the same methods again; it checks that every call has the
+ * same outcome again, so a damaged journal, or a game which no longer plays the same way, is reported instead of
+ * giving another state.
+ * <p>
+ * The game writes the arguments of a call into the mapped file before making it and publishes the entry once the call
+ * is over, by writing its kind last so that a half-written entry is never read back; the file grows by {@value #CHUNK} bytes at a time and its unused tail reads
+ * as the end of the journal.
+ * Changes made to the game by other means (a {@link GameSnapshot} restored into it, {@link BoardGame#redealHiddenCards},
+ * the decks or hands changed directly) are not recorded.
+ *
+ * <pre>
+ * journal  magic "FIJL" (int), version (short), seed (long), save ({@link GameSave}), then the entries
+ * entry    kind (byte, 0 ends the journal), outcome (byte, 1 if the call threw, 0 if it returned), arguments:
+ *          zone    tile (byte), see {@link BoardGame#getZone(int, int)}, -1 for none
+ *          player  index (byte), -1 for none
+ *          card    owner (byte) and position in the hand (byte), or -1 and the card type (byte), -1 and -1 for none
+ * </pre>
+ */
+public final class ActionJournal implements AutoCloseable {
+    public static final int MAGIC = 0x4c4a4946; // "FIJL" read as a little-endian int
+    public static final short VERSION = 2;
+    private static final int CHUNK = 1 << 16;
+    private static final int MAX_ENTRY = 64; // the largest entry, a player added with a name of 12 characters
+
+    static final byte START_GAME = 1;
+    static final byte FLOOD_ALL_ZONES = 2;
+    static final byte ADD_PLAYER = 3; // role, length of the name, name in UTF-8
+    static final byte NEXT_PLAYER_TURN = 4;
+    static final byte MOVE_TURN_TO_NEXT_PLAYER = 5;
+    static final byte APPLY = 6; // action (int)
+    static final byte SET_GAME_STATE = 7; // state
+    static final byte MOVE_PLAYER_TO_ZONE = 8; // zone
+    static final byte FLY_PILOT_TO_ZONE = 9; // zone
+    static final byte CHOOSE_PLAYER_BY_NAVIGATOR = 10; // player
+    static final byte END_TURN = 11;
+    static final byte FINISH_TURN = 12;
+    static final byte SHORE_UP_ZONE = 13; // zone
+    static final byte MOVE_PLAYER_BY_NAVIGATOR = 14; // zone
+    static final byte SET_PILOT_CHOOSE_WHERE_TO_FLY = 15;
+    static final byte SET_NAVIGATOR_CHOOSE_PLAYER = 16;
+    static final byte SET_PLAYER_CHOOSE_ZONE_TO_MOVE = 17;
+    static final byte SET_PLAYER_CHOOSE_ZONE_TO_SHORE_UP = 18;
+    static final byte SET_PLAYER_GIVE_TREASURE_CARDS = 19;
+    static final byte SET_PLAYER_DISCARD_CARD = 20;
+    static final byte DISCARD_TREASURE_CARD = 21; // card
+    static final byte USE_ACTION_CARD = 22; // player, card
+    static final byte FLY_WITH_CARD = 23; // zone
+    static final byte SHORE_UP_WITH_CARD = 24; // zone
+    static final byte TAKE_ARTEFACT = 25;
+    static final byte CHOOSE_PLAYER_TO_FLY_WITH = 26; // player
+    static final byte CHOOSE_CARD_TO_GIVE = 27; // player, card
+    static final byte CHOOSE_PLAYER_TO_GIVE_TO = 28; // player
+    static final byte DISCARD_CARD = 29; // player, card
+    static final byte SET_PLAYER_RUN_FROM_INACCESSIBLE = 30; // player
+    static final byte RUN_FROM_INACCESSIBLE = 31; // zone
+
+    private static final PlayerRole[] ROLES = PlayerRole.values();
+    private static final GameState[] GAME_STATES = GameState.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private final BoardGame game;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer; // the chunk entries are written to
+    private long chunkStart; // the position of the chunk in the file
+    private int entries;
+    private byte pendingKind; // the entry of the call being made
+    private int pendingArguments;
+
+    private ActionJournal(BoardGame game, FileChannel channel) {
+        this.game = game;
+        this.channel = channel;
+    }
+
+    /**
+     * Starts a journal of a game in a new file and records the moves of the game in it until it is closed.
+     * @param game The game to record, which may already be under way.
+     * @param file The file of the journal, overwritten if it exists.
+     * @return The journal, attached to the game.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalStateException if the game is already recorded by another journal.
+     */
+    public static ActionJournal record(BoardGame game, Path file) throws IOException {
+        if (game.getJournal() != null) {
+            throw new IllegalStateException("The game is already recorded by a journal");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ActionJournal journal = new ActionJournal(game, channel);
+        try {
+            journal.map(0);
+            journal.buffer.putInt(MAGIC).putShort(VERSION).putLong(game.getSeed());
+            GameSave.write(game, journal.buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        game.setJournal(journal);
+        return journal;
+    }
+
+    /**
+     * Rebuilds a game from its journal.
+     * @param file The file of the journal.
+     * @return A new game in the state the recorded game was in after its last recorded move.
+     * @throws IOException if the file cannot be read or is not a journal of this version.
+     */
+    public static BoardGame replay(Path file) throws IOException {
+        return replay(file, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rebuilds a game from the first moves of its journal, to go back to an earlier state of the game.
+     * @param file The file of the journal.
+     * @param moves The number of moves to replay.
+     * @return A new game in the state the recorded game was in after the given number of moves, or after its last
+     * recorded move if the journal holds fewer moves.
+     * @throws IOException if the file cannot be read or is not a journal of this version.
+     */
+    public static BoardGame replay(Path file, int moves) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            BoardGame game;
+            try {
+                if (in.remaining() < 14 || in.getInt() != MAGIC || in.getShort() != VERSION) {
+                    throw new IllegalArgumentException("Bad header");
+                }
+                long seed = in.getLong();
+                game = GameSave.read(in);
+                if (game.getSeed() != seed) {
+                    throw new IllegalArgumentException("The save is not of the seed of the journal");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Not a game journal of version " + VERSION + ": " + file, e);
+            }
+            for (int i = 0; i < moves && in.hasRemaining(); i++) {
+                byte kind = in.get();
+                if (kind == 0) {
+                    break;
+                }
+                byte recorded = in.get();
+                if (kind < 0 || kind > RUN_FROM_INACCESSIBLE || (recorded != 0 && recorded != 1)) {
+                    throw new IOException("Corrupted game journal: " + file);
+                }
+                boolean threw = recorded == 1;
+                RuntimeException outcome = null;
+                try {
+                    replay(game, kind, in);
+                } catch (CorruptedEntryException e) {
+                    throw new IOException("Corrupted game journal: " + file, e);
+                } catch (RuntimeException e) {
+                    outcome = e; // the game refused the move, or ended with it (GameOverException...)
+                }
+                if (threw != (outcome != null)) {
+                    throw new IOException("The replay of move " + (i + 1) + " of " + file + " "
+                            + (threw ? "did not throw as" : "threw unlike") + " the recorded game did", outcome);
+                }
+            }
+            return game;
+        }
+    }
+
+    /** Gets the number of moves recorded so far. */
+    public int size() {
+        return entries;
+    }
+
+    /** Writes the recorded moves through to the disk. */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Stops recording the game and closes the file. The moves recorded so far stay in the file.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (game.getJournal() == this) {
+            game.setJournal(null);
+        }
+        if (channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the arguments of a call about to be made by the game, see {@link #end(boolean)}.
+     * @param kind The kind of the entry, which tells the arguments it has.
+     * @param first The first argument of the call, or null if it has none.
+     * @param second The second argument of the call, or null if it has fewer.
+     */
+    void begin(byte kind, Object first, Object second) {
+        int at = reserve() + 2;
+        int arguments;
+        switch (kind) {
+            case APPLY:
+                buffer.putInt(at, (Integer) first);
+                arguments = 4;
+                break;
+            case SET_GAME_STATE:
+                buffer.put(at, (byte) ((GameState) first).ordinal());
+                arguments = 1;
+                break;
+            case MOVE_PLAYER_TO_ZONE: case FLY_PILOT_TO_ZONE: case SHORE_UP_ZONE: case MOVE_PLAYER_BY_NAVIGATOR:
+            case FLY_WITH_CARD: case SHORE_UP_WITH_CARD: case RUN_FROM_INACCESSIBLE:
+                Zone zone = (Zone) first;
+                buffer.put(at, (byte) (zone == null ? -1 : zone.getX() * game.getSize() + zone.getY()));
+                arguments = 1;
+                break;
+            case CHOOSE_PLAYER_BY_NAVIGATOR: case CHOOSE_PLAYER_TO_FLY_WITH: case CHOOSE_PLAYER_TO_GIVE_TO:
+            case SET_PLAYER_RUN_FROM_INACCESSIBLE:
+                buffer.put(at, (byte) indexOf((Player) first));
+                arguments = 1;
+                break;
+            case DISCARD_TREASURE_CARD:
+                putCard(at, (Card) first);
+                arguments = 2;
+                break;
+            case USE_ACTION_CARD: case CHOOSE_CARD_TO_GIVE: case DISCARD_CARD:
+                buffer.put(at, (byte) indexOf((Player) first));
+                putCard(at + 1, (Card) second);
+                arguments = 3;
+                break;
+            default:
+                arguments = 0;
+        }
+        pendingKind = kind;
+        pendingArguments = arguments;
+    }
+
+    /** Publishes the entry of the call begun by {@link #begin(byte, Object, Object)} once the call is over. */
+    void end(boolean threw) {
+        publish(pendingArguments, pendingKind, threw);
+    }
+
+    /** Records a player added to the game, with the role it was given so that the replay gives it the same one. */
+    void recordPlayerAdded(Player player) {
+        int at = reserve();
+        byte[] name = player.getPlayer_name().getBytes(StandardCharsets.UTF_8);
+        buffer.put(at + 2, (byte) player.getPlayer_role().ordinal());
+        buffer.put(at + 3, (byte) name.length);
+        for (int i = 0; i < name.length; i++) {
+            buffer.put(at + 4 + i, name[i]);
+        }
+        publish(2 + name.length, ADD_PLAYER, false);
+    }
+
+    /** Makes room for an entry, and gets the position it starts at in the buffer. */
+    private int reserve() {
+        if (buffer.remaining() < MAX_ENTRY) {
+            try {
+                map(chunkStart + buffer.position());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot extend the game journal", e);
+            }
+        }
+        return buffer.position();
+    }
+
+    /** Publishes the entry whose arguments were written after the position, by writing its outcome then its kind. */
+    private void publish(int arguments, byte kind, boolean threw) {
+        int at = buffer.position();
+        buffer.put(at + 1, (byte) (threw ? 1 : 0));
+        buffer.put(at, kind);
+        buffer.position(at + 2 + arguments);
+        entries++;
+    }
+
+    private void map(long position) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        chunkStart = position;
+    }
+
+    private int indexOf(Player player) {
+        Player[] players = game.getPlayers();
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void putCard(int at, Card card) {
+        if (card == null) {
+            buffer.put(at, (byte) -1);
+            buffer.put(at + 1, (byte) -1);
+            return;
+        }
+        Player[] players = game.getPlayers();
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            int position = players[i].getHand().getCards().indexOf(card);
+            if (position >= 0) {
+                buffer.put(at, (byte) i);
+                buffer.put(at + 1, (byte) position);
+                return;
+            }
+        }
+        buffer.put(at, (byte) -1);
+        buffer.put(at + 1, (byte) card.getType().ordinal());
+    }
+
+    /** Makes the call of an entry, whose arguments are read first. */
+    private static void replay(BoardGame game, byte kind, ByteBuffer in) {
+        switch (kind) {
+            case START_GAME: game.startGame(); break;
+            case FLOOD_ALL_ZONES: game.floodAllZones(); break;
+            case ADD_PLAYER: {
+                PlayerRole role = ROLES[index(in.get(), ROLES.length)];
+                byte[] name = new byte[index(in.get(), MAX_ENTRY)];
+                in.get(name);
+                game.addPlayer(new String(name, StandardCharsets.UTF_8), role);
+                break;
+            }
+            case NEXT_PLAYER_TURN: game.nextPlayerTurn(); break;
+            case MOVE_TURN_TO_NEXT_PLAYER: game.moveTurnToNextPlayer(); break;
+            case APPLY: game.apply(in.getInt()); break;
+            case SET_GAME_STATE: game.setGameState(GAME_STATES[index(in.get(), GAME_STATES.length)]); break;
+            case MOVE_PLAYER_TO_ZONE: game.movePlayerToZone(zone(game, in)); break;
+            case FLY_PILOT_TO_ZONE: game.flyPilotToZone(zone(game, in)); break;
+            case CHOOSE_PLAYER_BY_NAVIGATOR: game.choosePlayerByNavigator(player(game, in)); break;
+            case END_TURN: game.endTurn(); break;
+            case FINISH_TURN: game.finishTurn(); break;
+            case SHORE_UP_ZONE: game.playerShoreUpZone(zone(game, in)); break;
+            case MOVE_PLAYER_BY_NAVIGATOR: game.movePlayerToZoneByNavigator(zone(game, in)); break;
+            case SET_PILOT_CHOOSE_WHERE_TO_FLY: game.setPilotChooseWhereToFlyTo(); break;
+            case SET_NAVIGATOR_CHOOSE_PLAYER: game.setNavigatorChoosePlayerToMove(); break;
+            case SET_PLAYER_CHOOSE_ZONE_TO_MOVE: game.setPlayerChooseZoneToMoveTo(); break;
+            case SET_PLAYER_CHOOSE_ZONE_TO_SHORE_UP: game.setPlayerChooseZoneToShoreUp(); break;
+            case SET_PLAYER_GIVE_TREASURE_CARDS: game.setPlayerGiveTreasureCards(); break;
+            case SET_PLAYER_DISCARD_CARD: game.setPlayerDiscardCard(); break;
+            case DISCARD_TREASURE_CARD: game.discardTreasureCard(card(game, in)); break;
+            case USE_ACTION_CARD: game.playerUseActionCard(player(game, in), card(game, in)); break;
+            case FLY_WITH_CARD: game.flyPlayerToZoneWithCard(zone(game, in)); break;
+            case SHORE_UP_WITH_CARD: game.shoreUpZoneWithCard(zone(game, in)); break;
+            case TAKE_ARTEFACT: game.takeArtefact(); break;
+            case CHOOSE_PLAYER_TO_FLY_WITH: game.choosePlayerToFlyWithCard(player(game, in)); break;
+            case CHOOSE_CARD_TO_GIVE: game.playerChooseCardToGive(player(game, in), card(game, in)); break;
+            case CHOOSE_PLAYER_TO_GIVE_TO: game.choosePlayerToGiveCardTo(player(game, in)); break;
+            case DISCARD_CARD: game.playerDiscardCard(player(game, in), card(game, in)); break;
+            case SET_PLAYER_RUN_FROM_INACCESSIBLE: game.setPlayerChooseZoneToRunFromInaccessibleZone(player(game, in)); break;
+            case RUN_FROM_INACCESSIBLE: game.chooseZoneToRunFromInaccessible(zone(game, in)); break;
+            default:
+                throw new IllegalStateException("Unknown journal entry " + kind);
+        }
+    }
+
+    private static Zone zone(BoardGame game, ByteBuffer in) {
+        int tile = in.get();
+        if (tile < 0) {
+            return null;
+        }
+        int size = game.getSize();
+        tile = index(tile, size * size);
+        return game.getZone(tile / size, tile % size);
+    }
+
+    private static Player player(BoardGame game, ByteBuffer in) {
+        int idx = in.get();
+        return idx < 0 ? null : game.getPlayers()[index(idx, game.getPlayerCount())];
+    }
+
+    private static Card card(BoardGame game, ByteBuffer in) {
+        int owner = in.get();
+        int position = in.get();
+        if (owner < 0) {
+            return position < 0 ? null : new Card(CARD_TYPES[index(position, CARD_TYPES.length)]);
+        }
+        List<Card> hand = game.getPlayers()[index(owner, game.getPlayerCount())].getHand().getCards();
+        return hand.get(index(position, hand.size()));
+    }
+
+    /** Checks an index read from an entry. */
+    private static int index(int value, int bound) {
+        if (value < 0 || value >= bound) {
+            throw new CorruptedEntryException();
+        }
+        return value;
+    }
+
+    /** Thrown when the arguments of an entry do not fit the game, so the entry is not mistaken for a refused move. */
+    private static final class CorruptedEntryException extends RuntimeException {
+        CorruptedEntryException() {
+            super("Argument out of range");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package Model;
+
+/**
+ * The neighbours of every tile of a square board, computed once.
+ * Tiles are indexed like in the {@link IslandBitboard} (x * size + y), and the neighbours of a tile are given
+ * both as a mask, to be filtered with the masks of the bitboard, and as a table of tile indexes
+ * in increasing order, to be iterated without allocating.
+ */
+public final class AdjacencyIndex {
+    private final int size;
+    private final long board;     // every tile of the board
+    private final long notFirstY; // tiles with y > 0
+    private final long notLastY;  // tiles with y < size - 1
+    private final long[] orthogonal;
+    private final long[] diagonal;
+    private final int[][] orthogonalTiles;
+    private final int[][] diagonalTiles;
+
+    /**
+     * Builds the neighbour tables of a square board.
+     * @param size The side of the board, at most 8.
+     */
+    public AdjacencyIndex(int size) {
+        if (size * size > Long.SIZE) {
+            throw new IllegalArgumentException("The board is too large for an adjacency index: " + size);
+        }
+        this.size = size;
+        int tiles = size * size;
+        this.orthogonal = new long[tiles];
+        this.diagonal = new long[tiles];
+        this.orthogonalTiles = new int[tiles][];
+        this.diagonalTiles = new int[tiles][];
+        long all = 0;
+        long notFirst = 0;
+        long notLast = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int index = x * size + y;
+                all |= 1L << index;
+                if (y > 0) notFirst |= 1L << index;
+                if (y < size - 1) notLast |= 1L << index;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int nx = x + i;
+                        int ny = y + j;
+                        if ((i == 0 && j == 0) || nx < 0 || ny < 0 || nx >= size || ny >= size) {
+                            continue;
+                        }
+                        long bit = 1L << (nx * size + ny);
+                        if (i != 0 && j != 0) {
+                            diagonal[index] |= bit;
+                        } else {
+                            orthogonal[index] |= bit;
+                        }
+                    }
+                }
+                orthogonalTiles[index] = tilesOf(orthogonal[index]);
+                diagonalTiles[index] = tilesOf(diagonal[index]);
+            }
+        }
+        this.board = all;
+        this.notFirstY = notFirst;
+        this.notLastY = notLast;
+    }
+
+    private static int[] tilesOf(long mask) {
+        int[] res = new int[Long.bitCount(mask)];
+        for (int k = 0; mask != 0; k++) {
+            res[k] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return res;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** Gets the mask of all the tiles of the board. */
+    public long getBoardMask() {
+        return board;
+    }
+
+    /** Gets the index of the tile at the given coordinates, or -1 if they are outside the board. */
+    public int indexOf(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            return -1;
+        }
+        return x * size + y;
+    }
+
+    /** Gets the mask of the tiles sharing a side with the tile. */
+    public long orthogonal(int index) {
+        return orthogonal[index];
+    }
+
+    /** Gets the mask of the tiles sharing only a corner with the tile. */
+    public long diagonal(int index) {
+        return diagonal[index];
+    }
+
+    /**
+     * Gets the mask of the neighbours of a tile.
+     * @param index The tile.
+     * @param acceptDiagonals If true, the diagonal neighbours are included.
+     * @return The mask of the neighbours.
+     */
+    public long neighbours(int index, boolean acceptDiagonals) {
+        return acceptDiagonals ? orthogonal[index] | diagonal[index] : orthogonal[index];
+    }
+
+    /**
+     * Gets the union of the neighbours of all the tiles of a mask, with shifts instead of table lookups.
+     * A tile of the mask is in the result only if it is itself the neighbour of another tile of the mask.
+     * @param mask The tiles to dilate.
+     * @param acceptDiagonals If true, the diagonal neighbours are included.
+     * @return The mask of the neighbours.
+     */
+    public long dilate(long mask, boolean acceptDiagonals) {
+        long sideways = ((mask << 1) & notFirstY) | ((mask >>> 1) & notLastY);
+        long res = sideways | (mask << size) | (mask >>> size);
+        if (acceptDiagonals) {
+            res |= (sideways << size) | (sideways >>> size);
+        }
+        return res & board;
+    }
+
+    /** Gets the number of tiles sharing a side with the tile. */
+    public int orthogonalCount(int index) {
+        return orthogonalTiles[index].length;
+    }
+
+    /** Gets the k-th tile sharing a side with the tile, in increasing order. */
+    public int orthogonalTile(int index, int k) {
+        return orthogonalTiles[index][k];
+    }
+
+    /** Gets the number of tiles sharing only a corner with the tile. */
+    public int diagonalCount(int index) {
+        return diagonalTiles[index].length;
+    }
+
+    /** Gets the k-th tile sharing only a corner with the tile, in increasing order. */
+    public int diagonalTile(int index, int k) {
+        return diagonalTiles[index][k];
+    }
+}
@@ -5,10 +5,11 @@ import Errors.*;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
+import java.util.function.Function;
 
 /**
  * Represents the main game logic and state for Forbidden Island.
@@ -18,6 +19,12 @@ import java.util.function.Predicate;
 public class BoardGame {
     private int size;
     private Zone[][] board;
+    private final IslandBitboard island;
+    private Zone[][] syncedBoard; // the board the island was last synced with, null once the board is handed out
+    private final AdjacencyIndex adjacency;
+    private final DiverReachability diverReachability;
+    private final Zone[] zonesByCard = new Zone[ZoneCard.values().length]; // indexed by the ordinal of the card
+    private Zone[][] indexedBoard; // the board zonesByCard was built from
     private Player[] players;
     private int playerCount;
     private GameState gameState;
@@ -37,7 +44,23 @@ public class BoardGame {
     private WaterMeter waterMeter;
     private ArrayList<Player> playersOnInaccessibleZones;
     private Player currentPlayerRunningFromInaccessibleZone;
-    private static final int TREASURES_PER_TURN = 2; // Number of treasure cards drawn per turn
+    private long seed; // replaced when a snapshot of another game is restored
+    private final CardPool spareCards = new CardPool(); // the cards put aside while a snapshot is restored, not part of the state
+    private ActionJournal journal; // records the moves while attached, not part of the state
+    private boolean recording; // a call is being recorded, the public methods it goes through are not recorded again
+    private final SinkingForecast sinkingForecast = new SinkingForecast(); // memo of the decks, not part of the state
+    private static final int TREASURES_PER_TURN = SinkingForecast.TREASURES_PER_TURN; // Number of treasure cards drawn per turn
+    private static final Artefact[] ARTEFACTS = Artefact.values();
+    /** The size a buffer given to {@link #getLegalActions(int[])} needs. */
+    public static final int MAX_LEGAL_ACTIONS = LegalActions.MAX_ACTIONS;
+
+    /**
+     * Initializes a new game of Forbidden Island with a random seed.
+     * @see #BoardGame(long)
+     */
+    public BoardGame() {
+        this(new SplittableRandom().nextLong());
+    }
 
     /**
      * Initializes a new game of Forbidden Island.
@@ -45,14 +68,32 @@ public class BoardGame {
      * creates Treasure and Flood decks, sets up the WaterMeter,
      * and sets the initial game state to SettingUp.
      * A central zone is made inaccessible initially.
+     * Every random choice of the game (layout, roles, shuffles) comes from a source split from the seed,
+     * so two games with the same seed and the same moves are identical.
+     *
+     * @param seed The seed of the game.
      */
-    public BoardGame() {
+    public BoardGame(long seed) {
+        this(seed, null);
+    }
+
+    /**
+     * Initializes a new game of Forbidden Island on a given layout, see {@link #BoardGame(long)}.
+     * The seed still decides the roles and the shuffles, exactly like for a game on a random layout,
+     * so games with the same seed on different layouts are dealt the same cards.
+     *
+     * @param seed The seed of the game.
+     * @param layout The card of every zone, or null to draw the layout from the seed.
+     */
+    public BoardGame(long seed, IslandLayout layout) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.seed = seed;
         // zone init
         this.playerCount = 0;
-        this.zoneFactory = new ZoneFactory();
-        this.playerFactory = new PlayerFactory();
-        this.treasureDeck = new TreasureDeck();
-        this.floodDeck = new FloodDeck();
+        this.zoneFactory = new ZoneFactory(random.split());
+        this.playerFactory = new PlayerFactory(random.split());
+        this.treasureDeck = new TreasureDeck(random.split());
+        this.floodDeck = new FloodDeck(random.split());
         this.waterMeter = new WaterMeter();
         this.playersOnInaccessibleZones = new ArrayList<>();
         this.currentPlayerRunningFromInaccessibleZone = null;
@@ -61,18 +102,33 @@ public class BoardGame {
         this.cardToGiveByPlayer = null;
         this.board = new Zone[size][size];
         this.playersToFlyWith = new ArrayList<>();
-        for(int i = 0; i < size; i++) {
-            for(int j = 0; j < size; j++) {
-                boolean is_accessible = !(i == 2 && j == 2);
-                if(!is_accessible) {
-                    this.board[i][j] = zoneFactory.createInaccessibleZone(i, j);
+        if(layout != null) {
+            for(int i = 0; i < size; i++) {
+                for(int j = 0; j < size; j++) {
+                    ZoneCard card = layout.getCard(i, j);
+                    this.board[i][j] = card == null ? zoneFactory.createInaccessibleZone(i, j) : zoneFactory.createZone(i, j, card);
                 }
-                else {
-                    this.board[i][j] = zoneFactory.createRandomZone(i, j);
+            }
+        }
+        else {
+            for(int i = 0; i < size; i++) {
+                for(int j = 0; j < size; j++) {
+                    boolean is_accessible = !(i == 2 && j == 2);
+                    if(!is_accessible) {
+                        this.board[i][j] = zoneFactory.createInaccessibleZone(i, j);
+                    }
+                    else {
+                        this.board[i][j] = zoneFactory.createRandomZone(i, j);
+                    }
                 }
             }
+            this.board[2][2].makeInaccessible();
         }
-        this.board[2][2].makeInaccessible();
+        this.island = new IslandBitboard(size);
+        this.syncIsland();
+        this.adjacency = new AdjacencyIndex(size);
+        this.diverReachability = new DiverReachability(adjacency);
+        this.indexZonesByCard();
 
 
         // player init
@@ -97,6 +153,10 @@ public class BoardGame {
      * @throws InvalidNumberOfPlayersException if the player count is not between 2 and 4.
      */
     public void startGame() {
+        record(ActionJournal.START_GAME, BoardGame::doStartGame);
+    }
+
+    private void doStartGame() {
         if(gameState != GameState.SettingUp) {
             throw new RuntimeException("Can't start the game because the game isn't in the state of setting up");
         }
@@ -117,10 +177,304 @@ public class BoardGame {
             p.takeCard(treasureDeck.draw());
         }
         treasureDeck.addWaterRiseCards();
-        this.moveTurnToNextPlayer();
+        this.advanceTurn();
+    }
+
+    /** Gets the seed every random choice of this game derives from. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Captures the whole state of the game in a compact immutable snapshot.
+     * @see GameSnapshot#restore()
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.of(this);
+    }
+
+    /**
+     * Shuffles the cards the players cannot see: the draw piles of both decks and the order of their next reshuffles.
+     * Searching a copy of the game redealt this way samples the draws of the coming turns instead of knowing them.
+     * @param random The source of the new order.
+     */
+    public void redealHiddenCards(SplittableRandom random) {
+        treasureDeck.redeal(random);
+        floodDeck.redeal(random);
+    }
+
+    // The state of the turn, read by GameSnapshot, LegalActions and StateEncoding.
+    GameState getGameState() {
+        return gameState;
+    }
+    int getShoreUpsLeft() {
+        return shoreUpsLeft;
+    }
+    boolean isTreasureDrawnThisTurn() {
+        return treasureDrawnThisTurn;
+    }
+    Player getChosenPlayerByNavigator() {
+        return chosenPlayerByNavigator;
+    }
+    Player getPlayerChoosingCardToUse() {
+        return playerChoosingCardToUse;
+    }
+    Card getCardToGiveByPlayer() {
+        return cardToGiveByPlayer;
+    }
+    Player getCurrentPlayerRunningFromInaccessibleZone() {
+        return currentPlayerRunningFromInaccessibleZone;
+    }
+    /** Gets the players flying with the user of a Helicopter Lift, the list itself so a snapshot can refill it. */
+    ArrayList<Player> getPlayersToFlyWith() {
+        return playersToFlyWith;
+    }
+    /** Gets the players who must escape a sunk zone, the list itself so a snapshot can refill it. */
+    ArrayList<Player> getPlayersOnInaccessibleZones() {
+        return playersOnInaccessibleZones;
+    }
+    /** Gets the pool the cards are put aside in while a snapshot is restored. */
+    CardPool getSpareCards() {
+        return spareCards;
+    }
+    ActionJournal getJournal() {
+        return journal;
+    }
+    /** Attaches or detaches the journal recording the moves. */
+    void setJournal(ActionJournal journal) {
+        this.journal = journal;
+    }
+
+    /** A public method changing the game with a player and a card, for {@link #record(byte, Player, Card, PlayerCardCall)}. */
+    private interface PlayerCardCall {
+        void call(BoardGame game, Player player, Card card);
     }
 
+    /**
+     * Makes the call of a public method changing the game, recorded with its outcome if a journal is attached.
+     * The steps the call makes through other public methods are not recorded again.
+     */
+    private void record(byte kind, Consumer<BoardGame> call) {
+        if (journal == null || recording) {
+            call.accept(this);
+            return;
+        }
+        journal.begin(kind, null, null);
+        recording = true;
+        boolean threw = true;
+        try {
+            call.accept(this);
+            threw = false;
+        } finally {
+            recording = false;
+            journal.end(threw);
+        }
+    }
+
+    /** @see #record(byte, Consumer) */
+    private <R> R recordReturning(byte kind, Function<BoardGame, R> call) {
+        if (journal == null || recording) {
+            return call.apply(this);
+        }
+        journal.begin(kind, null, null);
+        recording = true;
+        boolean threw = true;
+        try {
+            R result = call.apply(this);
+            threw = false;
+            return result;
+        } finally {
+            recording = false;
+            journal.end(threw);
+        }
+    }
+
+    /** @see #record(byte, Consumer) */
+    private <A> void record(byte kind, A argument, BiConsumer<BoardGame, A> call) {
+        if (journal == null || recording) {
+            call.accept(this, argument);
+            return;
+        }
+        journal.begin(kind, argument, null);
+        recording = true;
+        boolean threw = true;
+        try {
+            call.accept(this, argument);
+            threw = false;
+        } finally {
+            recording = false;
+            journal.end(threw);
+        }
+    }
+
+    /** @see #record(byte, Consumer) */
+    private <A, R> R recordReturning(byte kind, A argument, BiFunction<BoardGame, A, R> call) {
+        if (journal == null || recording) {
+            return call.apply(this, argument);
+        }
+        journal.begin(kind, argument, null);
+        recording = true;
+        boolean threw = true;
+        try {
+            R result = call.apply(this, argument);
+            threw = false;
+            return result;
+        } finally {
+            recording = false;
+            journal.end(threw);
+        }
+    }
+
+    /** @see #record(byte, Consumer) */
+    private void record(byte kind, Player player, Card card, PlayerCardCall call) {
+        if (journal == null || recording) {
+            call.call(this, player, card);
+            return;
+        }
+        journal.begin(kind, player, card);
+        recording = true;
+        boolean threw = true;
+        try {
+            call.call(this, player, card);
+            threw = false;
+        } finally {
+            recording = false;
+            journal.end(threw);
+        }
+    }
+
+    /**
+     * Gives the game the seed of a restored snapshot, see {@link GameSnapshot#restoreInto(BoardGame)}.
+     * The player factory is a fresh source of the seed until it assigns a role, then it has to be replaced.
+     */
+    void restoreSeed(long seed) {
+        if (seed != this.seed || !playerFactory.resetIfUnused()) {
+            playerFactory = new PlayerFactory(playerFactorySource(seed));
+        }
+        this.seed = seed;
+    }
+
+    /** Marks the role of a restored player as taken, so the players added later get other roles. */
+    void restoreRole(PlayerRole role) {
+        playerFactory.markRoleUsed(role);
+    }
+
+    /** Drops the players past the number of players of a restored snapshot. */
+    void restorePlayerCount(int playerCount) {
+        Arrays.fill(players, playerCount, players.length, null);
+        this.playerCount = playerCount;
+    }
+
+    /**
+     * Restores the turn and its pending choices from a snapshot; the players flying together and the players who must
+     * escape are refilled in their lists by the snapshot.
+     * @param claimed The mask of the claimed artefacts, one bit per ordinal.
+     */
+    void restoreTurn(GameState gameState, int playerTurnId, int actions, int shoreUpsLeft, boolean treasureDrawn,
+                     Player chosenPlayerByNavigator, Player playerChoosingCardToUse, Card cardToGive,
+                     Player runningPlayer, int waterLevel, int claimed) {
+        this.gameState = gameState;
+        this.playerTurnId = playerTurnId;
+        this.currentPlayerActionsNum = actions;
+        this.shoreUpsLeft = shoreUpsLeft;
+        this.treasureDrawnThisTurn = treasureDrawn;
+        this.chosenPlayerByNavigator = chosenPlayerByNavigator;
+        this.playerChoosingCardToUse = playerChoosingCardToUse;
+        this.cardToGiveByPlayer = cardToGive;
+        this.currentPlayerRunningFromInaccessibleZone = runningPlayer;
+        this.waterMeter.setLevel(waterLevel);
+        this.claimedArtefacts.clear();
+        for (Artefact artefact : ARTEFACTS) {
+            if ((claimed & (1 << artefact.ordinal())) != 0) {
+                this.claimedArtefacts.add(artefact);
+            }
+        }
+    }
+
+    /** Puts a game waiting for a zone, a player or a card to choose back to its normal state. */
+    void cancelPendingChoice() {
+        switch (gameState) {
+            case PlayerChooseWhereToMove:
+            case PlayerChooseWhereToShoreUp:
+            case PilotChooseWhereToFly:
+            case PlayerChoosingCardToGive:
+            case PlayerChoosePlayerToGiveCardTo:
+            case NavigatorChooseAPlayerToMove:
+            case NavigatorChooseAZoneToMovePlayerTo:
+            case PlayerChooseAZoneToShoreUpWithCard:
+            case PlayerChooseAZoneToFlyWithCard:
+                gameState = GameState.Playing;
+                chosenPlayerByNavigator = null;
+                cardToGiveByPlayer = null;
+                playerChoosingCardToUse = null;
+                playersToFlyWith.clear();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** The source the player factory of a game of a seed is created from, as split in {@link #BoardGame(long, IslandLayout)}. */
+    private static SplittableRandom playerFactorySource(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        random.split(); // zone factory
+        return random.split();
+    }
+
+    /**
+     * Gets the 64-bit Zobrist hash of the position: the state of every zone, the tile and the card counts of every player,
+     * the water level, the claimed artefacts, the player of the turn, the actions left and the state of the game.
+     * The zones and the players keep their parts up to date at every change, so the hash costs a few XORs.
+     * The order of the decks is not part of the position: two games that differ only by their hidden cards hash the same.
+     * @return The hash of the position.
+     */
+    public long getZobristHash() {
+        long hash = this.getIsland().getZoneHash();
+        for (int i = 0; i < playerCount; i++) {
+            hash ^= players[i].getZobristHash();
+        }
+        for (Artefact artefact : ARTEFACTS) {
+            if (claimedArtefacts.contains(artefact)) {
+                hash ^= Zobrist.claimed(artefact);
+            }
+        }
+        return hash ^ Zobrist.water(waterMeter.getLevel())
+                ^ Zobrist.turn(playerTurnId)
+                ^ Zobrist.actions(currentPlayerActionsNum)
+                ^ Zobrist.state(gameState);
+    }
+
+    /**
+     * Gets a hash of everything that decides how the game plays on: the {@link #getZobristHash() position},
+     * the order of both decks, the phase of the turn and the players who must still escape.
+     * Two games with the same state hash give the same outcome to the same actions, so a search that knows
+     * the decks can merge the positions it reaches by several lines.
+     * Unlike the Zobrist hash, it walks the decks, so it costs a few dozen multiplications.
+     * @return The hash of the state.
+     */
+    public long getStateHash() {
+        long hash = getZobristHash()
+                ^ Long.rotateLeft(treasureDeck.orderHash(card -> card.getType().ordinal()), 17)
+                ^ Long.rotateLeft(floodDeck.orderHash(ZoneCard::ordinal), 41);
+        hash = hash * 31 + shoreUpsLeft;
+        hash = hash * 31 + (treasureDrawnThisTurn ? 1 : 0);
+        if (playersOnInaccessibleZones != null) {
+            for (Player player : playersOnInaccessibleZones) {
+                hash = hash * 31 + player.getPlayer_role().ordinal();
+            }
+        }
+        if (currentPlayerRunningFromInaccessibleZone != null) {
+            hash = hash * 31 + currentPlayerRunningFromInaccessibleZone.getPlayer_role().ordinal() + 1;
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the board, whose zones the caller may replace: the island is synced with it again on its next use.
+     * @return The board, indexed by x then y.
+     */
     public Zone[][] getBoard() {
+        this.syncedBoard = null;
         return board;
     }
     public int getSize() {
@@ -129,41 +483,81 @@ public class BoardGame {
     public Player[] getPlayers() {
         return this.players;
     }
+    /** Gets the number of players added to the game. */
+    public int getPlayerCount() {
+        return this.playerCount;
+    }
     public Zone getZone(int x, int y){
         return this.board[x][y];
     }
 
+    /**
+     * Gets the packed dry/flooded/sunk masks of the board, in sync with its zones.
+     * @return The bitboard of the island.
+     */
+    public IslandBitboard getIsland(){
+        if(this.syncedBoard != this.board){
+            this.syncIsland();
+        }
+        return this.island;
+    }
+
+    /**
+     * Binds the zones put on the board since the island was last synced, see {@link IslandBitboard#sync(Zone[][])}.
+     * The zones keep the island up to date when their state changes, so this is only needed when a zone of the board
+     * may have been replaced: after {@link #getBoard()} handed the board out, or a snapshot was restored.
+     */
+    void syncIsland(){
+        this.island.sync(this.board);
+        this.syncedBoard = this.board;
+    }
+
     /**
      * Finds a Zone on the board based on its corresponding ZoneCard identifier.
      * Used primarily for resolving Flood card draws.
+     * Looks the card up in an index built with the board, and only scans the board again
+     * if the indexed zone is no longer on its tile.
      *
      * @param zone_card The ZoneCard identifier of the zone to find.
      * @return The Zone object corresponding to the card.
      * @throws IllegalStateException if no zone with the given card is found on the board.
      */
     public Zone getZoneByCard(ZoneCard zone_card){
+        Zone zone = this.indexedBoard == this.board ? this.zonesByCard[zone_card.ordinal()] : null;
+        if(zone == null || !this.isOnItsTile(zone) || zone.getZoneCard() != zone_card){
+            this.indexZonesByCard();
+            zone = this.zonesByCard[zone_card.ordinal()];
+        }
+        if(zone == null){
+            throw new IllegalStateException("No zone found for flood card " + zone_card);
+        }
+        return zone;
+    }
+
+    /** Rebuilds the index of the zones by card, keeping the first zone in board order for every card. */
+    private void indexZonesByCard(){
+        Arrays.fill(this.zonesByCard, null);
         for(int x = 0; x < size; x++){
             for(int y = 0; y < size; y++){
                 Zone zone = this.board[x][y];
-                if(zone.getZoneCard() == zone_card){
-                    return zone;
+                ZoneCard card = zone.getZoneCard();
+                if(card != null && this.zonesByCard[card.ordinal()] == null){
+                    this.zonesByCard[card.ordinal()] = zone;
                 }
             }
         }
-        throw new IllegalStateException("No zone found for flood card " + zone_card);
+        this.indexedBoard = this.board;
+    }
+
+    /** Checks that a zone is on the board at its own coordinates. */
+    private boolean isOnItsTile(Zone zone){
+        int x = zone.getX();
+        int y = zone.getY();
+        return x >= 0 && y >= 0 && x < size && y < size && this.board[x][y] == zone;
     }
 
     public int getNumOfActiveZones(){
-        int count = 0;
-        for(int i = 0; i < size; i++){
-            for(int j = 0; j < size; j++){
-                if(this.getZone(i, j).getZone_state() == ZoneState.Inaccessible){
-                    continue;
-                }
-                count++;
-            }
-        }
-        return count;
+        return this.getIsland().countAccessible();
     }
     private void forAllZones(Consumer<Zone> func){
         for(int i = 0; i < size; i++){
@@ -173,6 +567,10 @@ public class BoardGame {
         }
     }
     public void floodAllZones(){
+        record(ActionJournal.FLOOD_ALL_ZONES, BoardGame::doFloodAllZones);
+    }
+
+    private void doFloodAllZones() {
         this.forAllZones(Zone::floodZone);
     }
     /**
@@ -213,7 +611,32 @@ public class BoardGame {
         if(playerCount > 3){
             throw new MaximumNumberOfPlayersReachedException();
         }
-        Player player = this.playerFactory.createPlayer(name);
+        return this.placeNewPlayer(this.playerFactory.createPlayer(name));
+    }
+
+    /**
+     * Adds a new player with the given role to the game during the setup phase, like {@link #addPlayer(String)}.
+     * Used to play the same board with chosen teams.
+     *
+     * @param name The name for the new player (max 12 characters).
+     * @param role The role of the new player.
+     * @return The newly created Player object.
+     * @throws InvalidParameterException if the name is longer than 12 characters.
+     * @throws MaximumNumberOfPlayersReachedException if the game already has 4 players.
+     * @throws InvalidStateOfTheGameException if the role is already taken.
+     */
+    public Player addPlayer(String name, PlayerRole role){
+        if(name.length() > 12){
+            throw new InvalidParameterException("The name is too long, must be at most 12 characters");
+        }
+        if(playerCount > 3){
+            throw new MaximumNumberOfPlayersReachedException();
+        }
+        return this.placeNewPlayer(this.playerFactory.createPlayer(name, role));
+    }
+
+    /** Puts a new player on its start zone and adds it to the players. */
+    private Player placeNewPlayer(Player player){
         Zone new_zone = this.chooseZoneForPlayer(player);
         if(new_zone == null){
             throw new MaximumNumberOfPlayersReachedException();
@@ -221,6 +644,7 @@ public class BoardGame {
         player.setPlayerToZone(new_zone);
         ((PlayerStartZone)new_zone).associatePlayer(player);
         this.players[playerCount++] = player;
+        if (journal != null && !recording) journal.recordPlayerAdded(player);
         return player;
     }
 
@@ -235,15 +659,26 @@ public class BoardGame {
     }
     /// Gives the turn to the next player
     public void nextPlayerTurn(){
+        record(ActionJournal.NEXT_PLAYER_TURN, BoardGame::doNextPlayerTurn);
+    }
+
+    private void doNextPlayerTurn() {
+        this.advanceTurn();
+    }
+    public Player moveTurnToNextPlayer(){
+        return recordReturning(ActionJournal.MOVE_TURN_TO_NEXT_PLAYER, BoardGame::doMoveTurnToNextPlayer);
+    }
+
+    private Player doMoveTurnToNextPlayer() {
+        this.advanceTurn();
+        return this.getPlayerForTheTurn();
+    }
+    private void advanceTurn(){
         playerTurnId++;
         if(playerTurnId >= this.playerCount){
             this.playerTurnId = 0;
         }
     }
-    public Player moveTurnToNextPlayer(){
-        this.nextPlayerTurn();
-        return this.getPlayerForTheTurn();
-    }
     public boolean isGameSettingUp(){
         return this.gameState == GameState.SettingUp;
     }
@@ -329,20 +764,71 @@ public class BoardGame {
         if (player == getPlayerForTheTurn() && getPlayerForTheTurn().getHand().getSize() > 5) {
             possibleActions.add(PlayerAction.DiscardCard);
         }
+        if(this.canTakeArtefact(player)){
+            possibleActions.add(PlayerAction.TakeArtefact);
+        }
+        return possibleActions;
+    }
+
+    /**
+     * Checks if a player stands on the zone of an unclaimed artefact and the current player has the cards to take it.
+     * @param player The player to check.
+     * @return true if the artefact of the player's zone can be taken.
+     */
+    boolean canTakeArtefact(Player player){
         if(player.getPlayer_zone() instanceof ArtefactZone){
             ArtefactZone artefact_zone = (ArtefactZone) player.getPlayer_zone();
             Artefact artefact = artefact_zone.getArtefact();
             CardType needed = cardTypeFor(artefact);
-            if (!claimedArtefacts.contains(artefact) && hasAtLeast(needed)) {
-                possibleActions.add(PlayerAction.TakeArtefact);
-            }
+            return !claimedArtefacts.contains(artefact) && hasAtLeast(needed);
         }
-        return possibleActions;
+        return false;
     }
 
 
 
+    /**
+     * Writes every complete legal action of the current position into a buffer, encoded by {@link GameAction}.
+     * Each action stands for a whole step-by-step sequence (e.g. give card X to player Y), so agents can enumerate
+     * the moves without driving the choose states. Nothing is allocated.
+     *
+     * @param out The buffer, of at least {@link #MAX_LEGAL_ACTIONS} entries.
+     * @return The number of actions written.
+     * @see #apply(int)
+     */
+    public int getLegalActions(int[] out){
+        return LegalActions.generate(this, out);
+    }
+
+    /**
+     * Lists every complete legal action of the current position, see {@link #getLegalActions(int[])}.
+     * @return The encoded actions.
+     */
+    public int[] getLegalActions(){
+        int[] out = new int[MAX_LEGAL_ACTIONS];
+        return Arrays.copyOf(out, getLegalActions(out));
+    }
+
+    /**
+     * Plays a complete action encoded by {@link GameAction}, as listed by {@link #getLegalActions(int[])}.
+     * A choice left pending by the step-by-step methods is abandoned first.
+     *
+     * @param action The encoded action.
+     * @return The outcome of the turn if the action ends it ({@link GameAction#END_TURN}), null otherwise.
+     * @throws RuntimeException the exception of the step-by-step method refusing the action if it is not legal.
+     */
+    public TurnOutcome apply(int action){
+        if (journal == null || recording) {
+            return LegalActions.apply(this, action); // not boxing the action when it is not recorded
+        }
+        return recordReturning(ActionJournal.APPLY, action, LegalActions::apply);
+    }
+
     public void setGameState(GameState gameState){
+        record(ActionJournal.SET_GAME_STATE, gameState, BoardGame::doSetGameState);
+    }
+
+    private void doSetGameState(GameState gameState) {
         this.gameState = gameState;
     }
 
@@ -359,6 +845,10 @@ public class BoardGame {
      * @param zone a zone that player chose to move to
      */
     public void movePlayerToZone(Zone zone){
+        record(ActionJournal.MOVE_PLAYER_TO_ZONE, zone, BoardGame::doMovePlayerToZone);
+    }
+
+    private void doMovePlayerToZone(Zone zone) {
         Player player = this.getPlayerForTheTurn();
         if(!this.isEnoughActions()){
             throw new NoActionsLeft();
@@ -367,14 +857,14 @@ public class BoardGame {
         if(!this.isPlayerChoosingZoneToMove()){
             throw new InvalidMoveForCurrentGameState("The player is not currently choosing a zone to move");
         }
-        if(!this.getZonesForPlayerToMove(player).contains(zone)){
+        if((this.getMoveMask(player) & this.getIsland().bitOf(zone)) == 0){
             throw new InvalidZoneToMove("The zone you choose is not in the zone");
         }
 
         player.getPlayer_zone().removePlayerFromZone(player);
         player.move_Player(zone);
         zone.addPlayerToZone(player);
-        this.setGameState(GameState.Playing);
+        this.gameState = GameState.Playing;
         this.useOneAction();
     }
 
@@ -383,6 +873,10 @@ public class BoardGame {
      * @param zone a zone that player chose to fly to
      */
     public void flyPilotToZone(Zone zone){
+        record(ActionJournal.FLY_PILOT_TO_ZONE, zone, BoardGame::doFlyPilotToZone);
+    }
+
+    private void doFlyPilotToZone(Zone zone) {
         Player player = this.getPlayerForTheTurn();
         if(!this.isEnoughActions()){
             throw new NoActionsLeft();
@@ -394,17 +888,21 @@ public class BoardGame {
         if(player.getPlayer_role() != PlayerRole.Pilot){
             throw new InvalidActionForRole("This player is not a pilot");
         }
-        if(!this.getZonesForPlayerToFlyTo(player).contains(zone)){
+        if(zone == player.getPlayer_zone() || (this.getIsland().getAccessible() & this.getIsland().bitOf(zone)) == 0){
             throw new InvalidZoneToMove("The zone you choose is not in the zone");
         }
 
         player.getPlayer_zone().removePlayerFromZone(player);
         player.move_Player(zone);
         zone.addPlayerToZone(player);
-        this.setGameState(GameState.Playing);
+        this.gameState = GameState.Playing;
         this.useOneAction();
     }
     public void choosePlayerByNavigator(Player player){
+        record(ActionJournal.CHOOSE_PLAYER_BY_NAVIGATOR, player, BoardGame::doChoosePlayerByNavigator);
+    }
+
+    private void doChoosePlayerByNavigator(Player player) {
         if(!this.isNavgiatorChoosingAPlayerToMove()){
             throw new InvalidActionForTheCurrentState("The navigator is not currently choosing a player to move");
         }
@@ -427,15 +925,60 @@ public class BoardGame {
     }
 
     /**
-     * Performs checks for various game-losing conditions before ending a turn.
-     * Checks water level, player deaths, helicopter pad sinking, and artefact tile sinking.
-     * May throw GameOverException if a lose condition is met.
+     * Gets the lose condition the game is currently in.
+     * Checks water level, player deaths, helicopter pad sinking, and artefact tile sinking, in this order.
+     * The sunk tiles of the artefacts and of the helicopter landing are kept by the {@link IslandBitboard},
+     * so this only costs a few popcounts plus the escape routes of the stranded players, if any.
+     * @return The cause of the loss, or null if the game is not lost.
+     */
+    public LossCause getLossCause(){
+        if(this.isWaterMeterMax()){
+            return LossCause.WaterLevel;
+        }
+        if(this.isStrandedPlayerTrapped()){
+            return LossCause.PlayerDrowned;
+        }
+        IslandBitboard island = this.getIsland();
+        if(island.isHelicopterSunk()){
+            return LossCause.HelicopterSunk;
+        }
+        for(Artefact artefact : ARTEFACTS){
+            if(!claimedArtefacts.contains(artefact) && island.countSunk(artefact) >= 2){
+                return LossCause.ArtefactLost;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Executes the end-of-turn sequence for the current player and reports its outcome with exceptions,
+     * as the controller expects. Thin adapter over {@link #finishTurn()}.
+     *
+     * @throws GameOverException if a lose condition is met during the checks.
+     * @throws GameWonException if the win condition is met.
+     * @throws InvalidActionForTheCurrentState if trying to end turn while players must escape.
+     * @throws TooManyCardsInTheHand if the player ends the turn over the hand limit after drawing.
+     * @throws WaterRiseException if a Water Rise card was drawn during the treasure phase.
      */
-    private void checkLose(){
-        checkWaterMeterMax();
-        checkPlayerDead();                                    // may throw
-        checkHelicopterZone();
-        checkArtefactLost();
+    public void endTurn() {
+        record(ActionJournal.END_TURN, BoardGame::doEndTurn);
+    }
+
+    private void doEndTurn() {
+        TurnOutcome outcome = resolveTurnEnd();
+        switch (outcome.getType()) {
+            case Lost:
+                throw new GameOverException(outcome.getLossCause());
+            case Won:
+                throw new GameWonException();
+            case MustDiscard:
+                throw new TooManyCardsInTheHand();
+            default:
+                break;
+        }
+        if (outcome.hasWaterRisen()) {
+            throw new WaterRiseException();  // controller pops the dialog
+        }
     }
 
     /**
@@ -446,19 +989,30 @@ public class BoardGame {
      * 4. Handles the Flood Card drawing phase (draws cards based on water level, floods zones, potentially strands players).
      * 5. Advances turn to the next player, resets their actions.
      * 6. Checks for lose conditions again (e.g., if flooding caused a loss).
-     * 7. Throws WaterRiseException if a Water Rise card was drawn (handled by controller/view).
+     * 7. Reports if a Water Rise card was drawn (the view shows it) and if players must escape.
+     * Unlike {@link #endTurn()} the outcome is returned, so ending a turn in a simulation throws nothing.
      *
-     * @throws GameOverException if a lose condition is met during the checks.
-     * @throws GameWonException if the win condition is met.
+     * @return The outcome of the turn.
      * @throws InvalidActionForTheCurrentState if trying to end turn while players must escape.
-     * @throws TooManyCardsInTheHand if the player ends the turn over the hand limit after drawing.
-     * @throws WaterRiseException if a Water Rise card was drawn during the treasure phase.
      */
-    public void endTurn() {
-        /* ---------- 0. victory / defeat checks ------ */
-        checkLose();
-        checkWin();
+    public TurnOutcome finishTurn() {
+        return recordReturning(ActionJournal.FINISH_TURN, BoardGame::doFinishTurn);
+    }
 
+    private TurnOutcome doFinishTurn() {
+        return resolveTurnEnd();
+    }
+
+    /** The end-of-turn sequence of {@link #finishTurn()}, also run by {@link #endTurn()}. */
+    private TurnOutcome resolveTurnEnd() {
+        /* ---------- 0. victory / defeat checks ------ */
+        LossCause cause = getLossCause();
+        if (cause != null) {
+            return TurnOutcome.lost(cause);
+        }
+        if (isWon()) {
+            return TurnOutcome.WON;
+        }
 
         /* ---------- 0.5 move from inaccessible ------ */
         ensureNotResolvingInaccessibleRun();                  // ❶ state-guard
@@ -467,6 +1021,12 @@ public class BoardGame {
 
         /* ---------- 1. treasure-card phase ---------- */
         boolean waterRiseTriggered = handleTreasurePhase(current);
+        if (isWaterMeterMax()) {
+            return TurnOutcome.lost(LossCause.WaterLevel);
+        }
+        if (!enforceHandLimitOrContinue(current)) {
+            return TurnOutcome.MUST_DISCARD;
+        }
 
         /* ---------- 2. flood-deck phase ------------- */
         resolveFloodPhase(waterMeter.getCurrentFloodRate());
@@ -474,7 +1034,7 @@ public class BoardGame {
 
         /* ---------- 4. prepare next player ---------- */
         treasureDrawnThisTurn = false;       // reset for next player
-        nextPlayerTurn();
+        advanceTurn();
         setDefaultActionsNum();
 
         if (gameState != GameState.PlayersRunningFromAnInaccessibleZone) {
@@ -482,12 +1042,13 @@ public class BoardGame {
         }
 
         // check lose again
-        checkLose();
+        cause = getLossCause();
+        if (cause != null) {
+            return TurnOutcome.lost(cause);
+        }
 
         /* ---------- 5. notify view if needed -------- */
-        if (waterRiseTriggered) {
-            throw new WaterRiseException();  // controller pops the dialog
-        }
+        return TurnOutcome.continued(waterRiseTriggered, gameState == GameState.PlayersRunningFromAnInaccessibleZone);
     }
 
     // ============
@@ -504,17 +1065,16 @@ public class BoardGame {
      * Handles the treasure card drawing phase at the end of a turn.
      * Draws {@link #TREASURES_PER_TURN} cards. If a Water Rise card is drawn,
      * handles its effects (increase water level, reshuffle flood discard) and sets a flag.
-     * Other cards are added to the player's hand. Finally, enforces the hand limit.
+     * Other cards are added to the player's hand.
+     * Stops at once if the water level reaches the maximum.
      * Skips drawing if cards were already drawn this turn (e.g., due to resolving hand limit).
      *
      * @param current The player whose turn is ending.
      * @return true if a Water Rise card was drawn, false otherwise.
-     * @throws TooManyCardsInTheHand if the player is over the hand limit after drawing.
      */
     private boolean handleTreasurePhase(Player current) {
         // If we already did it this turn, only hand-limit may still apply
         if (treasureDrawnThisTurn) {
-            enforceHandLimitOrContinue(current);
             return false;
         }
 
@@ -528,7 +1088,7 @@ public class BoardGame {
 
                 // 1. increase level
                 if (waterMeter.increaseLevel()) {
-                    throw new GameOverException("water level has reached maximum");
+                    return true;
                 }
                 // 2. reshuffle flood discard into draw pile
                 floodDeck.reshuffleDiscardIntoDraw();
@@ -537,25 +1097,25 @@ public class BoardGame {
             }
         }
         treasureDrawnThisTurn = true;
-        enforceHandLimitOrContinue(current);
 
         return sawWaterRise;
     }
 
     /**
      * Checks if the player's hand is over the limit (5 cards).
-     * If it is, sets the game state to Discarding and throws TooManyCardsInTheHand.
+     * If it is, sets the game state to Discarding.
      * Otherwise, ensures the game state is Playing.
      *
      * @param current The player whose hand to check.
-     * @throws TooManyCardsInTheHand if hand size > 5.
+     * @return false if hand size > 5 and the player must discard, true otherwise.
      */
-    private void enforceHandLimitOrContinue(Player current) {
+    private boolean enforceHandLimitOrContinue(Player current) {
         if (current.getHand().isOverflow()) {
             gameState = GameState.Discarding;
-            throw new TooManyCardsInTheHand();
+            return false;
         }
         gameState = GameState.Playing;
+        return true;
     }
 
     /**
@@ -564,6 +1124,7 @@ public class BoardGame {
      * For each card drawn, finds the corresponding zone and floods it (Dry -> Flooded, Flooded -> Inaccessible).
      * If a zone becomes inaccessible, any players on it are marked for escape.
      * Discards the drawn flood card.
+     * Stops drawing as soon as a card makes the game lost, the loss is then reported by the checks ending the turn.
      *
      * @param cardsToDraw The number of flood cards to draw.
      * @throws IslandFloodedException if the flood deck runs out completely.
@@ -588,6 +1149,9 @@ public class BoardGame {
                 }
             }
             floodDeck.discard(drawn);
+            if (getLossCause() != null) {
+                return;
+            }
         }
     }
 
@@ -745,111 +1309,49 @@ public class BoardGame {
      * @return An ArrayList of valid escape Zones.
      */
     public ArrayList<Zone> getZonesToRunFromInaccessibleZone(){
-        Player current_player = this.currentPlayerRunningFromInaccessibleZone;
-        switch(current_player.getPlayer_role()){
+        return this.getIsland().zonesOf(this.getEscapeMask(this.currentPlayerRunningFromInaccessibleZone));
+    }
+
+    /**
+     * Gets the mask of the zones a player can escape to from an inaccessible zone, depending on their role:
+     * the Pilot flies to any accessible zone, the Diver swims, the Explorer also moves diagonally.
+     * @param player The player who has to escape.
+     * @return The mask of the accessible escape tiles, 0 if the player is trapped.
+     */
+    long getEscapeMask(Player player){
+        IslandBitboard island = this.getIsland();
+        Zone zone = player.getPlayer_zone();
+        switch(player.getPlayer_role()){
             case Pilot:
-                return this.getZonesForPlayerToFlyTo(current_player);
+                return island.getAccessible() & ~island.bitOf(zone);
             case Diver:
-                return this.getZonesForDiverRunningFromInaccessible(current_player.getPlayer_zone());
+                int start = adjacency.indexOf(zone.getX(), zone.getY());
+                return start == -1 ? 0 : diverReachability.escapes(start, island.getDry(), island.getFlooded());
             case Explorer:
-                return this.getAdjacentZones(current_player.getPlayer_zone(), true, Zone::isAccessible);
+                return this.getAdjacentMask(zone, true) & island.getAccessible();
         }
-        return this.getAdjacentZones(current_player.getPlayer_zone(), false, Zone::isAccessible);
+        return this.getAdjacentMask(zone, false) & island.getAccessible();
     }
     /**
      * Helper method to get adjacent zones to a given zone.
      * Can include orthogonal only or orthogonal + diagonal.
-     * Can filter results based on a predicate (e.g., Zone::isAccessible, Zone::isDry).
+     * Keeps the zones in a mask of the island (e.g. the accessible or flooded tiles).
      *
      * @param zone The central zone.
      * @param accept_diagonals If true, includes diagonal zones.
-     * @param filter A Predicate to filter the resulting zones.
-     * @return An ArrayList of adjacent zones matching the criteria.
-     */
-    private ArrayList<Zone> getAdjacentZones(Zone zone, boolean accept_diagonals, Predicate<Zone> filter){
-        ArrayList<Zone> adjacentZones = new ArrayList<>();
-        for(int i : new int[]{-1, 0, 1}){
-            for(int j : new int[]{-1, 0, 1}) {
-                if(i == 0 && j == 0){continue;}
-                if(i != 0 && j != 0 && !accept_diagonals){continue;}
-                int new_x = zone.getX() + i;
-                int new_y = zone.getY() + j;
-                if(new_x < 0 || new_y < 0 || new_x >= this.board.length || new_y >= this.board[0].length){continue;}
-                Zone zone_to_add = this.getZone(new_x, new_y);
-                if(filter == null || filter.test(zone_to_add)){
-                    adjacentZones.add(zone_to_add);
-                }
-            }
-        }
-        return adjacentZones;
-    }
-
-    /**
-     * Gets the possible move destinations for a Diver during a normal move action.
-     * Includes adjacent dry tiles and reachable dry tiles through connected flooded/sunk tiles.
-     * @param zone The Diver's current zone.
-     * @return An ArrayList of valid move destinations.
+     * @param filter The mask of the tiles to keep, from the {@link IslandBitboard}.
+     * @return An ArrayList of adjacent zones in the mask.
      */
-    private ArrayList<Zone> getZonesForDiver(Zone zone){
-       return this.getZonesForDiverWithChoice(zone, true);
+    private ArrayList<Zone> getAdjacentZones(Zone zone, boolean accept_diagonals, long filter){
+        return this.getIsland().zonesOf(this.getAdjacentMask(zone, accept_diagonals) & filter);
     }
-    /**
-     * Gets the possible escape destinations for a Diver running from an inaccessible zone.
-     * Includes adjacent accessible tiles and reachable accessible tiles through connected flooded/sunk tiles.
-     * @param zone The Diver's current (sinking) zone.
-     * @return An ArrayList of valid escape destinations.
-     */
-    private ArrayList<Zone> getZonesForDiverRunningFromInaccessible(Zone zone){
-        return this.getZonesForDiverWithChoice(zone, false);
-    }
-    /**
-     * Core logic for Diver movement calculation (both normal move and escape).
-     * Uses a breadth-first search starting from the origin zone, exploring through
-     * adjacent flooded/sunk tiles to find reachable target tiles matching the `is_dry` criteria.
-     *
-     * @param zone The starting zone.
-     * @param is_dry If true, finds reachable dry zones (normal move). If false, finds reachable accessible (dry or flooded) zones (escape move).
-     * @return An ArrayList of reachable zones based on the criteria.
-     */
-    private ArrayList<Zone> getZonesForDiverWithChoice(Zone zone, boolean is_dry){
-        HashSet<Zone> res_zones = new HashSet<>(this.getAdjacentZones(zone, false, z -> {
-            if(is_dry) return z.isDry();
-            return z.isAccessible();
-        }));
-        LinkedList<Zone> floodedQueue = new LinkedList<>(this.getAdjacentZones(zone, true, z -> !z.isDry()));
-        HashSet<Zone> exploredFlooded = new HashSet<>();
-
-        while(!floodedQueue.isEmpty()){
-            Zone floodedZone = floodedQueue.poll();
-            exploredFlooded.add(floodedZone);
-            if(is_dry) {
-                ArrayList<Zone> dryZones = this.getAdjacentZones(floodedZone, true, z -> {
-                    if (res_zones.contains(z)) {
-                        return false;
-                    }
-                    return z.isDry();
-                });
-                res_zones.addAll(dryZones);
-            }else{
 
-                ArrayList<Zone> accZones = this.getAdjacentZones(floodedZone, true, z -> {
-                    if (res_zones.contains(z)) {
-                        return false;
-                    }
-                    return z.isAccessible();
-                });
-                res_zones.addAll(accZones);
-            }
-
-            ArrayList<Zone> floodedZones = this.getAdjacentZones(floodedZone, true, z -> {
-                if(exploredFlooded.contains(z)){ return false;}
-                return !z.isDry();
-            });
-            floodedQueue.addAll(floodedZones);
-        }
-
-        return new ArrayList<>(res_zones);
+    /** Gets the mask of the tiles adjacent to a zone, from its coordinates. */
+    long getAdjacentMask(Zone zone, boolean accept_diagonals){
+        int index = adjacency.indexOf(zone.getX(), zone.getY());
+        return index == -1 ? 0 : adjacency.neighbours(index, accept_diagonals);
     }
+
     /**
      * Gets the list of zones a player can move to during a standard move action.
      * Considers the player's role for special movement (Diver, Explorer).
@@ -857,13 +1359,27 @@ public class BoardGame {
      * @return An ArrayList of valid destination Zones.
      */
     public ArrayList<Zone> getZonesForPlayerToMove(Player player) {
-        if(player.getPlayer_role() == PlayerRole.Diver){
-            return this.getZonesForDiver(player.getPlayer_zone());
-        }
-        if(player.getPlayer_role() == PlayerRole.Explorer){
-            return this.getAdjacentZones(player.getPlayer_zone(), true, Zone::isAccessible);
+        return this.getIsland().zonesOf(this.getMoveMask(player));
+    }
+
+    /**
+     * Gets the mask of the tiles a player can move to during a standard move action.
+     * The Diver reaches the dry tiles through connected flooded/sunk tiles, computed on the masks of the island
+     * by the {@link DiverReachability} engine, the Explorer also moves diagonally.
+     * @param player The player who is moving.
+     * @return The mask of the destinations.
+     */
+    long getMoveMask(Player player) {
+        IslandBitboard island = this.getIsland();
+        Zone zone = player.getPlayer_zone();
+        switch(player.getPlayer_role()){
+            case Diver:
+                int start = adjacency.indexOf(zone.getX(), zone.getY());
+                return start == -1 ? 0 : diverReachability.moves(start, island.getDry());
+            case Explorer:
+                return this.getAdjacentMask(zone, true) & island.getAccessible();
         }
-        return this.getAdjacentZones(player.getPlayer_zone(), false, Zone::isAccessible);
+        return this.getAdjacentMask(zone, false) & island.getAccessible();
     }
 
     /**
@@ -874,7 +1390,7 @@ public class BoardGame {
      * @return An ArrayList of valid Zones to shore up.
      */
     public ArrayList<Zone> getZonesToForPlayerShoreUp(Player player) {
-        ArrayList<Zone> res = this.getAdjacentZones(player.getPlayer_zone(), player.getPlayer_role() == PlayerRole.Explorer, Zone::isFlooded);
+        ArrayList<Zone> res = this.getAdjacentZones(player.getPlayer_zone(), player.getPlayer_role() == PlayerRole.Explorer, this.getIsland().getFlooded());
 
         Zone curr = player.getPlayer_zone(); // adding current if it's also flooded
         if(curr.isFlooded()){
@@ -882,6 +1398,18 @@ public class BoardGame {
         }
         return res;
     }
+
+    /**
+     * Gets the mask of the tiles a player can target with the Shore Up action, see {@link #getZonesToForPlayerShoreUp(Player)}.
+     * @param player The player performing the Shore Up action.
+     * @return The mask of the flooded tiles around the player and of their own tile if it is flooded.
+     */
+    long getShoreUpMask(Player player) {
+        IslandBitboard island = this.getIsland();
+        Zone curr = player.getPlayer_zone();
+        long res = this.getAdjacentMask(curr, player.getPlayer_role() == PlayerRole.Explorer) & island.getFlooded();
+        return curr.isFlooded() ? res | island.bitOf(curr) : res;
+    }
     /**
      * Gets the list of all accessible zones on the board. Used for the Pilot's fly action.
      * Excludes the Pilot's current zone.
@@ -889,16 +1417,8 @@ public class BoardGame {
      * @return An ArrayList of all accessible Zones (excluding the current one).
      */
     private ArrayList<Zone> getZonesForPlayerToFlyTo(Player player) {
-        ArrayList<Zone> res = new ArrayList<>();
-        for(int i = 0; i < this.board.length; i++){
-            for(int j = 0; j < this.board[i].length; j++){
-                Zone curr = this.board[i][j];
-                if(curr.isAccessible() && curr != player.getPlayer_zone()){
-                    res.add(curr);
-                }
-            }
-        }
-        return res;
+        IslandBitboard island = this.getIsland();
+        return island.zonesOf(island.getAccessible() & ~island.bitOf(player.getPlayer_zone()));
     }
     /**
      * Gets the list of zones the Navigator can move the chosen player to.
@@ -912,39 +1432,23 @@ public class BoardGame {
         if(player_to_move == null){
             throw new InvalidStateOfTheGameException("The player to move is null!");
         }
-        return this.getAdjacentZones(player_to_move.getPlayer_zone(), true, Zone::isAccessible);
+        return this.getAdjacentZones(player_to_move.getPlayer_zone(), true, this.getIsland().getAccessible());
     }
     /**
      * Gets the list of all flooded zones on the board. Used for the Sandbags card action.
      * @return An ArrayList of all flooded Zones.
      */
     private ArrayList<Zone> getZonesToShoreUpWithCard(){
-        ArrayList<Zone> res = new ArrayList<>();
-        for(int i = 0; i < this.board.length; i++){
-            for(int j = 0; j < this.board[i].length; j++){
-                Zone curr = this.board[i][j];
-                if(curr.isFlooded()){
-                    res.add(curr);
-                }
-            }
-        }
-        return res;
+        IslandBitboard island = this.getIsland();
+        return island.zonesOf(island.getFlooded());
     }
     /**
      * Gets the list of all accessible zones on the board. Used for the Helicopter Lift card action.
      * @return An ArrayList of all accessible Zones.
      */
     private ArrayList<Zone> getZonesToFlyWithCard(){
-        ArrayList<Zone> res = new ArrayList<>();
-        for(int i = 0; i < this.board.length; i++){
-            for(int j = 0; j < this.board[i].length; j++){
-                Zone curr = this.board[i][j];
-                if(curr.isAccessible()){
-                    res.add(curr);
-                }
-            }
-        }
-        return res;
+        IslandBitboard island = this.getIsland();
+        return island.zonesOf(island.getAccessible());
     }
     //end get zones
     //------------
@@ -960,6 +1464,10 @@ public class BoardGame {
      * @throws InvalidZoneToMove if the chosen zone is not a valid target for shoring up.
      */
     public void playerShoreUpZone(Zone zone) {
+        record(ActionJournal.SHORE_UP_ZONE, zone, BoardGame::doPlayerShoreUpZone);
+    }
+
+    private void doPlayerShoreUpZone(Zone zone) {
         Player player = this.getPlayerForTheTurn();
         if(!this.isEnoughActions()){
             throw new NoActionsLeft();
@@ -968,12 +1476,12 @@ public class BoardGame {
         if(!this.isPlayerChoosingZoneToShoreUp()){
             throw new InvalidMoveForCurrentGameState("The player is not currently choosing a zone to shore up");
         }
-        if(!this.getZonesToForPlayerShoreUp(player).contains(zone)){
+        if((this.getShoreUpMask(player) & this.getIsland().bitOf(zone)) == 0){
             throw new InvalidZoneToMove("The zone you choose is not in the zone");
         }
 
         zone.shoreUp();
-        this.setGameState(GameState.Playing);
+        this.gameState = GameState.Playing;
         if(player.getPlayer_role() == PlayerRole.Engineer){
             if(shoreUpsLeft == 0)
             {
@@ -998,6 +1506,10 @@ public class BoardGame {
      * @throws InvalidZoneToMove if the chosen zone is not a valid destination for the chosen player.
      */
     public void movePlayerToZoneByNavigator(Zone zone) {
+        record(ActionJournal.MOVE_PLAYER_BY_NAVIGATOR, zone, BoardGame::doMovePlayerToZoneByNavigator);
+    }
+
+    private void doMovePlayerToZoneByNavigator(Zone zone) {
         Player player_to_move = this.chosenPlayerByNavigator;
         if(player_to_move == null){
             throw new InvalidStateOfTheGameException("The player to move is null!");
@@ -1006,7 +1518,7 @@ public class BoardGame {
         placePlayerToZone(player_to_move, zone);
         this.chosenPlayerByNavigator = null;
         this.useOneAction();
-        this.setGameState(GameState.Playing);
+        this.gameState = GameState.Playing;
     }
 
     //----------------
@@ -1084,33 +1596,45 @@ public class BoardGame {
     //set player choose state setters
     /** Sets the game state to allow the Pilot to choose a destination zone for their special flight action. */
     public void setPilotChooseWhereToFlyTo() {
+        record(ActionJournal.SET_PILOT_CHOOSE_WHERE_TO_FLY, BoardGame::doSetPilotChooseWhereToFlyTo);
+    }
+
+    private void doSetPilotChooseWhereToFlyTo() {
         if(!canPlayerUseBasicAction(this.getPlayerForTheTurn())){
             throw new InvalidActionForTheCurrentState("You have to discard a card!");
         }
         if(this.currentPlayerActionsNum <= 0){
             throw new NoActionsLeft();
         }
-        this.setGameState(GameState.PilotChooseWhereToFly);
+        this.gameState = GameState.PilotChooseWhereToFly;
     }
     /** Sets the game state to allow the Navigator to choose another player to move. */
     public void setNavigatorChoosePlayerToMove() {
+        record(ActionJournal.SET_NAVIGATOR_CHOOSE_PLAYER, BoardGame::doSetNavigatorChoosePlayerToMove);
+    }
+
+    private void doSetNavigatorChoosePlayerToMove() {
         if(!canPlayerUseBasicAction(this.getPlayerForTheTurn())){
             throw new InvalidActionForTheCurrentState("You have to discard a card!");
         }
         if(this.currentPlayerActionsNum <= 0){
             throw new NoActionsLeft();
         }
-        this.setGameState(GameState.NavigatorChooseAPlayerToMove);
+        this.gameState = GameState.NavigatorChooseAPlayerToMove;
     }
     /** Sets the game state to allow the Navigator to choose a destination zone for the selected player. */
     private void setNavigatorChooseZoneToMoveThePlayerTo() {
         if(!canPlayerUseBasicAction(this.getPlayerForTheTurn())){
             throw new InvalidActionForTheCurrentState("You have to discard a card!");
         }
-        this.setGameState(GameState.NavigatorChooseAZoneToMovePlayerTo);
+        this.gameState = GameState.NavigatorChooseAZoneToMovePlayerTo;
     }
     /** Sets the game state to allow the current player to choose a destination zone for a standard move action. */
     public void setPlayerChooseZoneToMoveTo(){
+        record(ActionJournal.SET_PLAYER_CHOOSE_ZONE_TO_MOVE, BoardGame::doSetPlayerChooseZoneToMoveTo);
+    }
+
+    private void doSetPlayerChooseZoneToMoveTo() {
         if(!canPlayerUseBasicAction(this.getPlayerForTheTurn())){
             throw new InvalidActionForTheCurrentState("You have to discard a card!");
         }
@@ -1122,24 +1646,36 @@ public class BoardGame {
 
     /** Sets the game state to allow the current player to choose a zone to shore up. */
     public void setPlayerChooseZoneToShoreUp() {
+        record(ActionJournal.SET_PLAYER_CHOOSE_ZONE_TO_SHORE_UP, BoardGame::doSetPlayerChooseZoneToShoreUp);
+    }
+
+    private void doSetPlayerChooseZoneToShoreUp() {
         if(!canPlayerUseBasicAction(this.getPlayerForTheTurn())){
             throw new InvalidActionForTheCurrentState("You have to discard a card!");
         }
         if(this.currentPlayerActionsNum <= 0){
             throw new NoActionsLeft();
         }
-        this.setGameState(GameState.PlayerChooseWhereToShoreUp);
+        this.gameState = GameState.PlayerChooseWhereToShoreUp;
     }
     /** Sets the game state to allow the current player to choose a treasure card from their hand to give away. */
     public void setPlayerGiveTreasureCards() {
+        record(ActionJournal.SET_PLAYER_GIVE_TREASURE_CARDS, BoardGame::doSetPlayerGiveTreasureCards);
+    }
+
+    private void doSetPlayerGiveTreasureCards() {
         if(this.getCurrentPlayerActionsNum() <= 0){
             throw new NoActionsLeft();
         }
-        this.setGameState(GameState.PlayerChoosingCardToGive);
+        this.gameState = GameState.PlayerChoosingCardToGive;
         this.cardToGiveByPlayer = null;
     }
     /** Sets the game state to force the current player to choose a card to discard (due to hand limit). */
     public void setPlayerDiscardCard() {
+        record(ActionJournal.SET_PLAYER_DISCARD_CARD, BoardGame::doSetPlayerDiscardCard);
+    }
+
+    private void doSetPlayerDiscardCard() {
         this.gameState = GameState.PlayerChooseCardToDiscard;
     }
 
@@ -1169,6 +1705,10 @@ public class BoardGame {
      * @throws IllegalStateException if the game is not in the Discarding state.
      */
     public void discardTreasureCard(Card card) {
+        record(ActionJournal.DISCARD_TREASURE_CARD, card, BoardGame::doDiscardTreasureCard);
+    }
+
+    private void doDiscardTreasureCard(Card card) {
         if (gameState != GameState.Discarding) {
             throw new IllegalStateException("Not currently discarding");
         }
@@ -1177,19 +1717,19 @@ public class BoardGame {
         this.treasureDeck.discard(card);
 
         if (!p.getHand().isOverflow()) {
-            nextPlayerTurn();
+            advanceTurn();
             setDefaultActionsNum();
             this.gameState = GameState.Playing;
         }
     }
 
     /**
-     * Gets a copy of the cards currently in the specified player's hand.
+     * Gets the cards currently in the specified player's hand.
      * @param player The player whose hand to retrieve.
-     * @return An ArrayList containing the cards in the player's hand.
+     * @return A read-only view of the cards in the player's hand, in the order they were received.
      */
-    public ArrayList<Card> getCurrentPlayerCards(Player player) {
-        return new ArrayList<>(this.players[player.getPlayer_id()].getHand().getCards());
+    public List<Card> getCurrentPlayerCards(Player player) {
+        return player.getHand().getCards();
     }
 
     /**
@@ -1203,21 +1743,25 @@ public class BoardGame {
      * @throws InvalidParameterException if the player doesn't have the specified card or it's not an action card.
      */
     public void playerUseActionCard(Player player, Card card) {
+        record(ActionJournal.USE_ACTION_CARD, player, card, BoardGame::doPlayerUseActionCard);
+    }
+
+    private void doPlayerUseActionCard(Player player, Card card) {
         if(this.arePlayersRunningFromInaccesbleZone()){
             throw new InvalidActionForTheCurrentState("You can't use a card now!");
         }
-        if(!player.getHand().getCards().contains(card)){
+        if(!player.getHand().contains(card)){
             throw new InvalidParameterException("You do not have such a card!");
         }
         switch(card.getType()){
             case HELICOPTER_LIFT:
-                this.setGameState(GameState.PlayerChooseAZoneToFlyWithCard);
+                this.gameState = GameState.PlayerChooseAZoneToFlyWithCard;
                 this.playerChoosingCardToUse = player;
                 this.playersToFlyWith = new ArrayList<>();
                 break;
             case SANDBAGS:
                 this.playerChoosingCardToUse = player;
-                this.setGameState(GameState.PlayerChooseAZoneToShoreUpWithCard);
+                this.gameState = GameState.PlayerChooseAZoneToShoreUpWithCard;
                 break;
         }
     }
@@ -1232,18 +1776,16 @@ public class BoardGame {
      * @throws InvalidStateOfTheGameException if not currently resolving a Helicopter Lift action or if the card is missing.
      */
     public void flyPlayerToZoneWithCard(Zone zone) {
+        record(ActionJournal.FLY_WITH_CARD, zone, BoardGame::doFlyPlayerToZoneWithCard);
+    }
+
+    private void doFlyPlayerToZoneWithCard(Zone zone) {
         Player player = this.playerChoosingCardToUse;
         if(!this.isPlayerChoosingZoneToFlyWithCard()){
             throw new InvalidStateOfTheGameException("Player is not choosing to fly to a zone!");
         }
-        this.setGameState(GameState.Playing);
-        Card card = null;
-        for(Card c : player.getHand().getCards()){
-            if(c.getType() == CardType.HELICOPTER_LIFT){
-                card = c;
-                break;
-            }
-        }
+        this.gameState = GameState.Playing;
+        Card card = player.getHand().find(CardType.HELICOPTER_LIFT);
         if(card == null) {
             throw new InvalidStateOfTheGameException("The player doesn't have a card to fly!");
         }
@@ -1268,18 +1810,16 @@ public class BoardGame {
      * @throws InvalidStateOfTheGameException if not currently resolving a Sandbags action or if the card is missing.
      */
     public void shoreUpZoneWithCard(Zone zone) {
+        record(ActionJournal.SHORE_UP_WITH_CARD, zone, BoardGame::doShoreUpZoneWithCard);
+    }
+
+    private void doShoreUpZoneWithCard(Zone zone) {
         Player player = this.playerChoosingCardToUse;
         if(!this.isPlayerChoosingZoneToShoreUpWithCard()){
             throw new InvalidStateOfTheGameException("Player is not choosing to shore up a zone!");
         }
-        this.setGameState(GameState.Playing);
-        Card card = null;
-        for(Card c : player.getHand().getCards()){
-            if(c.getType() == CardType.SANDBAGS){
-                card = c;
-                break;
-            }
-        }
+        this.gameState = GameState.Playing;
+        Card card = player.getHand().find(CardType.SANDBAGS);
         if(card == null) {
             throw new InvalidStateOfTheGameException("The player doesn't have a card to shore up!");
         }
@@ -1296,6 +1836,11 @@ public class BoardGame {
         return EnumSet.copyOf(claimedArtefacts);
     }
 
+    /** Gets the number of artefacts that have already been claimed, without copying the set. */
+    public int countClaimedArtefacts() {
+        return claimedArtefacts.size();
+    }
+
     /**
      * Executes the action to claim an artefact.
      * Validates that the player is on the correct ArtefactZone, the artefact hasn't been claimed,
@@ -1307,6 +1852,10 @@ public class BoardGame {
      * @throws InvalidStateOfTheGameException if not on an artefact zone, artefact already claimed, or insufficient cards.
      */
     public void takeArtefact() {
+        record(ActionJournal.TAKE_ARTEFACT, BoardGame::doTakeArtefact);
+    }
+
+    private void doTakeArtefact() {
         Player p = getPlayerForTheTurn();
         if(this.currentPlayerActionsNum <= 0){
             throw new NoActionsLeft();
@@ -1324,14 +1873,8 @@ public class BoardGame {
         if (!hasAtLeast(needed)) {
             throw new IllegalStateException("Not enough " + needed + " cards");
         }
-        int discards = 0;
-        List<Card> handCards = new ArrayList<>(p.getHand().getCards());
-        for (Card c : handCards) {
-            if (c.getType() == needed && discards < 4) {
-                p.getHand().remove(c);
-                this.treasureDeck.discard(c);
-                discards++;
-            }
+        for (int i = 0; i < 4; i++) {
+            this.treasureDeck.discard(p.getHand().removeFirst(needed));
         }
         claimedArtefacts.add(artefact);
         this.useOneAction();
@@ -1346,14 +1889,7 @@ public class BoardGame {
      */
     private boolean hasAtLeast(CardType cardType) {
         Player p = getPlayerForTheTurn();
-        int cpt = 0;
-        for(Card card : p.getHand().getCards()) {
-            if(card.getType() == cardType) {
-                cpt++;
-                if(cpt >= 4){return true;}
-            }
-        }
-        return false;
+        return p.getHand().hasAtLeast(cardType, 4);
     }
 
     /**
@@ -1363,13 +1899,7 @@ public class BoardGame {
      * @throws IllegalArgumentException for invalid Artefact input.
      */
     private CardType cardTypeFor(Artefact art) {
-        switch (art) {
-            case Fire:  return CardType.FIRE_CARD;
-            case Water: return CardType.WATER_CARD;
-            case Wind:  return CardType.AIR_CARD;
-            case Earth: return CardType.EARTH_CARD;
-            default:    throw new IllegalArgumentException();
-        }
+        return CardType.treasureFor(art);
     }
 
     /**
@@ -1381,6 +1911,10 @@ public class BoardGame {
      * @throws InvalidParameterException if the chosen player is already selected or ineligible.
      */
     public void choosePlayerToFlyWithCard(Player chosen_player) {
+        record(ActionJournal.CHOOSE_PLAYER_TO_FLY_WITH, chosen_player, BoardGame::doChoosePlayerToFlyWithCard);
+    }
+
+    private void doChoosePlayerToFlyWithCard(Player chosen_player) {
         if(!this.isPlayerChoosingZoneToFlyWithCard()){
             throw new InvalidStateOfTheGameException("The player is not currently choosing a player to fly with card");
         }
@@ -1403,6 +1937,10 @@ public class BoardGame {
      * @throws InvalidStateOfTheGameException if not in the correct state or if p is not the current player.
      */
     public void playerChooseCardToGive(Player p, Card c) {
+        record(ActionJournal.CHOOSE_CARD_TO_GIVE, p, c, BoardGame::doPlayerChooseCardToGive);
+    }
+
+    private void doPlayerChooseCardToGive(Player p, Card c) {
         if(!this.isPlayerChoosingCardToGive()){
             throw new InvalidStateOfTheGameException("The player is not currently choosing a card to give");
         }
@@ -1410,7 +1948,7 @@ public class BoardGame {
             throw new InvalidStateOfTheGameException("This player doesn't have it's turn right now!");
         }
         this.cardToGiveByPlayer = c;
-        this.setGameState(GameState.PlayerChoosePlayerToGiveCardTo);
+        this.gameState = GameState.PlayerChoosePlayerToGiveCardTo;
     }
 
     /**
@@ -1423,6 +1961,10 @@ public class BoardGame {
      * @throws InvalidParameterException if trying to give to self or if recipient is out of range (for non-Messengers).
      */
     public void choosePlayerToGiveCardTo(Player player) {
+        record(ActionJournal.CHOOSE_PLAYER_TO_GIVE_TO, player, BoardGame::doChoosePlayerToGiveCardTo);
+    }
+
+    private void doChoosePlayerToGiveCardTo(Player player) {
         if(!this.isPlayerChoosingPlayerToGiveCardTo()){
             throw new InvalidStateOfTheGameException("The player is not currently choosing a player to give to give the card to");
         }
@@ -1446,21 +1988,25 @@ public class BoardGame {
     }
 
     public void playerDiscardCard(Player player, Card c) {
+        record(ActionJournal.DISCARD_CARD, player, c, BoardGame::doPlayerDiscardCard);
+    }
+
+    private void doPlayerDiscardCard(Player player, Card c) {
         if(!this.isPlayerChoosingCardToDiscard()){
             throw new InvalidStateOfTheGameException("The player is not currently choosing a card to discard");
         }
         if(player != this.getPlayerForTheTurn()){
             throw new InvalidStateOfTheGameException("This player doesn't have it's turn right now!");
         }
-        if(!player.getHand().getCards().contains(c)){
+        if(!player.getHand().contains(c)){
             throw new InvalidStateOfTheGameException("This player doesn't have this card!");
         }
 
-        this.setGameState(GameState.Playing);
+        this.gameState = GameState.Playing;
         player.getHand().remove(c);
         treasureDeck.discard(c);
         if(player.getHand().getSize() > 5){
-            this.setGameState(GameState.PlayerChooseCardToDiscard);
+            this.gameState = GameState.PlayerChooseCardToDiscard;
         }
     }
 
@@ -1487,82 +2033,85 @@ public class BoardGame {
         return waterMeter.getCurrentFloodRate();
     }
 
-    /** Checks if the Helicopter Landing zone (Fools' Landing) has sunk. Throws GameOverException if it has. */
-    private void checkHelicopterZone(){
-        Zone heli = getZoneByCard(ZoneCard.fodls_landing);
-        if (!heli.isAccessible()) {
-            throw new GameOverException("the helicopter landing site has sunk");
+    /**
+     * Gets the probability that the card of a zone comes up in the flood phase of the current turn,
+     * from the cards left in both flood piles and the current flood rate (see {@link FloodTracker}).
+     * A Water Rise drawn before the flood phase would change both.
+     * @param card The card of the zone.
+     * @return The probability, 0 for a card that cannot come up.
+     */
+    public double getFloodProbability(ZoneCard card) {
+        return floodDeck.getTracker().probability(card, waterMeter.getCurrentFloodRate());
+    }
+
+    /**
+     * Gets the probability that a zone sinks within a number of turns if nobody shores it up,
+     * from the state of both decks and the water level (see {@link SinkingForecast}).
+     * The forecast is cached until a deck changes, so asking for every zone costs little.
+     * @param zone The zone.
+     * @param turns The number of flood phases to look at, the one of the current turn included.
+     * @return The probability, 1 for a zone that has sunk and 0 for the sea.
+     */
+    public double getSinkingRisk(Zone zone, int turns) {
+        ZoneCard card = zone.getZoneCard();
+        if (card == null) {
+            return 0;
         }
+        if (!zone.isAccessible()) {
+            return 1;
+        }
+        return sinkingForecast.sinkProbability(turns, treasureDrawnThisTurn, treasureDeck, waterMeter.getLevel(),
+                floodDeck.getDrawSize(), floodDeck.getTracker().getDrawCount(card) > 0,
+                zone.getZone_state() == ZoneState.Flooded);
     }
 
     /**
-     * Checks if any zones required to claim an *unclaimed* artefact have sunk.
-     * If both zones for an unclaimed artefact are inaccessible, throws GameOverException.
+     * Gets the probability that the zone of every tile sinks within a number of turns, see {@link #getSinkingRisk(Zone, int)}.
+     * @param out The array to fill, indexed like the tiles of the {@link IslandBitboard}; 0 for the sea.
+     * @param turns The number of flood phases to look at.
      */
-    private void checkArtefactLost(){
-        for(Artefact artefact : EnumSet.complementOf(claimedArtefacts)) {
-            int cpt = 0;
-            for (int x = 0; x < size; x++) {
-                for (int y = 0; y < size; y++) {
-                    Zone z = board[x][y];
-                    if (z instanceof ArtefactZone && ((ArtefactZone) z).getArtefact() == artefact) {
-                        if (z.getZone_state() == ZoneState.Inaccessible) {
-                            cpt++;
-                            if(cpt == 2){
-                                throw new GameOverException("you have lost the artefact!");
-                            }
-                        }
-                    }
-                }
-            }
+    public void getSinkingRisks(double[] out, int turns) {
+        IslandBitboard island = this.getIsland();
+        for (int i = 0; i < size * size; i++) {
+            Zone zone = island.getZone(i);
+            out[i] = zone == null ? 0 : getSinkingRisk(zone, turns);
+        }
+    }
+
+    /**
+     * Gets the probability that the zone of every tile comes up in the coming flood phase, see {@link #getFloodProbability(ZoneCard)}.
+     * @param out The array to fill, indexed like the tiles of the {@link IslandBitboard}; 0 for the sea.
+     */
+    public void getFloodProbabilities(double[] out) {
+        FloodTracker tracker = floodDeck.getTracker();
+        int rate = waterMeter.getCurrentFloodRate();
+        IslandBitboard island = this.getIsland();
+        for (int i = 0; i < size * size; i++) {
+            Zone zone = island.getZone(i);
+            ZoneCard card = zone == null ? null : zone.getZoneCard();
+            out[i] = card == null ? 0 : tracker.probability(card, rate);
         }
     }
 
     /**
      * Checks if any player currently marked as needing to escape is unable to do so
      * (i.e., all adjacent/reachable zones according to their role are also inaccessible).
-     * Throws GameOverException if a player is trapped.
      */
-    private void checkPlayerDead() {
+    private boolean isStrandedPlayerTrapped() {
         if (playersOnInaccessibleZones == null || playersOnInaccessibleZones.isEmpty()) {
-            return;  // no one stranded
+            return false;  // no one stranded
         }
-
         for (Player p : playersOnInaccessibleZones) {
-            Zone current = p.getPlayer_zone();
-            List<Zone> escapeZones;
-
-            // determine legal “run from inaccessible” zones depending on role
-            switch (p.getPlayer_role()) {
-                case Pilot:
-                    // pilot may fly to any accessible tile
-                    escapeZones = getZonesForPlayerToFlyTo(p);
-                    break;
-                case Diver:
-                    // diver may swim through flooded/inaccessible to adjacent accessible
-                    escapeZones = getZonesForDiverRunningFromInaccessible(current);
-                    break;
-                case Explorer:
-                    // explorer may move diagonally but only to accessible tiles
-                    escapeZones = getAdjacentZones(current, true, Zone::isAccessible);
-                    break;
-                default:
-                    // everyone else only orthogonally to accessible tiles
-                    escapeZones = getAdjacentZones(current, false, Zone::isAccessible);
-                    break;
-            }
-
-            if (escapeZones.isEmpty()) {
-                throw new GameOverException("you have lost the player!");
+            if (getEscapeMask(p) == 0) {
+                return true;
             }
         }
+        return false;
     }
 
-    /** Checks if the water level has reached the maximum (skull and crossbones). Throws GameOverException if it has. */
-    private void checkWaterMeterMax() {
-        if (waterMeter.getLevel() >= WaterMeter.MAX_LEVEL) {
-            throw new GameOverException("water level has reached maximum");
-        }
+    /** Checks if the water level has reached the maximum (skull and crossbones). */
+    private boolean isWaterMeterMax() {
+        return waterMeter.getLevel() >= WaterMeter.MAX_LEVEL;
     }
 
 
@@ -1579,6 +2128,10 @@ public class BoardGame {
      * @throws InvalidStateOfTheGameException if another player is already choosing their escape route.
      */
     public void setPlayerChooseZoneToRunFromInaccessibleZone(Player player) {
+        record(ActionJournal.SET_PLAYER_RUN_FROM_INACCESSIBLE, player, BoardGame::doSetPlayerChooseZoneToRunFromInaccessibleZone);
+    }
+
+    private void doSetPlayerChooseZoneToRunFromInaccessibleZone(Player player) {
         if(this.currentPlayerRunningFromInaccessibleZone != null){
             throw new InvalidStateOfTheGameException("There is already a player running from inaccessible zone");
         }
@@ -1596,6 +2149,10 @@ public class BoardGame {
      * @throws InvalidZoneToMove if the chosen zone is not accessible.
      */
     public void chooseZoneToRunFromInaccessible(Zone zone) {
+        record(ActionJournal.RUN_FROM_INACCESSIBLE, zone, BoardGame::doChooseZoneToRunFromInaccessible);
+    }
+
+    private void doChooseZoneToRunFromInaccessible(Zone zone) {
         if(!this.isPlayerChoosingZoneToRunFromInaccesbleZone()){
             throw new InvalidStateOfTheGameException("Nobody is trying to run from inaccessible zone");
         }
@@ -1607,10 +2164,10 @@ public class BoardGame {
         this.currentPlayerRunningFromInaccessibleZone = null;
 
         if(!this.playersOnInaccessibleZones.isEmpty()){
-            this.setGameState(GameState.PlayersRunningFromAnInaccessibleZone);
+            this.gameState = GameState.PlayersRunningFromAnInaccessibleZone;
         }
         else{
-            this.setGameState(GameState.Playing);
+            this.gameState = GameState.Playing;
         }
     }
 
@@ -1619,29 +2176,21 @@ public class BoardGame {
      * 1. All artefacts have been claimed.
      * 2. All players are on the Helicopter Landing zone.
      * 3. At least one player has a Helicopter Lift card in hand.
-     * Throws GameWonException if all conditions are met.
+     * @return true if all conditions are met.
      */
-    private void checkWin(){
-        if(claimedArtefacts.size() < Artefact.values().length) return;
+    private boolean isWon(){
+        if(claimedArtefacts.size() < ARTEFACTS.length) return false;
 
         Zone heli = getZoneByCard(ZoneCard.fodls_landing);
         for (Player p : players) {
             if (p == null) continue;
-            if (p.getPlayer_zone() != heli) return;
+            if (p.getPlayer_zone() != heli) return false;
         }
-        boolean hasLift = false;
         for (Player p : players) {
-            if (p == null) continue;
-            for (Card c : p.getHand().getCards()) {
-                if (c.getType() == CardType.HELICOPTER_LIFT) {
-                    hasLift = true;
-                    break;
-                }
+            if (p != null && p.getHand().count(CardType.HELICOPTER_LIFT) > 0) {
+                return true;
             }
-            if (hasLift) break;
         }
-        if (!hasLift) return;
-
-        throw new GameWonException();
+        return false;
     }
 }
@@ -0,0 +1,41 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The treasure cards of a game put aside while a {@link GameSnapshot} is restored into it, handed back by type,
+ * so that restoring a game over and over creates no card. Cards of the same type are interchangeable.
+ */
+final class CardPool {
+    private static final int TYPE_COUNT = CardType.values().length;
+
+    private final Card[][] cards = new Card[TYPE_COUNT][8];
+    private final int[] counts = new int[TYPE_COUNT];
+
+    /** Puts aside every card of a list, which is left as it is. */
+    void putAll(List<Card> list) {
+        for (int i = 0, n = list.size(); i < n; i++) {
+            Card card = list.get(i);
+            int t = card.getType().ordinal();
+            if (counts[t] == cards[t].length) {
+                cards[t] = Arrays.copyOf(cards[t], counts[t] * 2);
+            }
+            cards[t][counts[t]++] = card;
+        }
+    }
+
+    /** Takes back a card of a type, or creates one if none was put aside. */
+    Card take(CardType type) {
+        int t = type.ordinal();
+        return counts[t] > 0 ? cards[t][--counts[t]] : new Card(type);
+    }
+
+    /** Forgets the cards put aside and not taken back. */
+    void clear() {
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            Arrays.fill(cards[t], 0, counts[t], null);
+            counts[t] = 0;
+        }
+    }
+}
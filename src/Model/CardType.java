@@ -36,6 +36,21 @@ public enum CardType {
         }
     }
 
+    /**
+     * Gets the type of the Treasure cards needed to claim an artefact.
+     * @param artefact The artefact.
+     * @return The matching Treasure card type.
+     */
+    public static CardType treasureFor(Artefact artefact){
+        switch (artefact){
+            case Fire:  return FIRE_CARD;
+            case Water: return WATER_CARD;
+            case Wind:  return AIR_CARD;
+            case Earth: return EARTH_CARD;
+            default:    throw new IllegalArgumentException();
+        }
+    }
+
     /**
      * Checks if this card type is a Special Action card (Helicopter Lift, Sandbags).
      * @return true if it's a Special Action card, false otherwise.
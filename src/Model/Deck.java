@@ -1,21 +1,38 @@
 package Model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
 
 /**
  * Represents a generic deck of cards (e.g., Treasure Deck, Flood Deck).
  * Manages a draw pile and a discard pile. Supports drawing, discarding,
  * shuffling, and automatically reshuffling the discard pile into the draw pile
  * when the draw pile is empty.
+ * <p>
+ * Both piles share one array: the draw pile fills it from the start, its top card last,
+ * and the discard pile fills it from the end, its first card last. Drawing, discarding and reshuffling
+ * move cards inside the array, and the shuffles draw their numbers without creating a random source,
+ * so playing a game allocates nothing in the decks. {@link #getDrawCards()} and {@link #getDiscardCards()}
+ * are list views over the two regions. A subclass can follow the cards entering and leaving either pile with
+ * {@link #cardAdded(Object, boolean)} and {@link #cardRemoved(Object, boolean)}.
  *
  * @param <T> The type of items stored in the deck (e.g., Card, ZoneCard).
  */
 public class Deck<T> {
-    protected final List<T> drawCards = new ArrayList<>(); // Cards available to be drawn
-    protected final List<T> discardCards = new ArrayList<>(); // Cards that have been discarded
+    private Object[] cards; // the draw pile in [0, drawSize), the discard pile reversed in [length - discardSize, length)
+    private int drawSize;
+    private int discardSize;
+    private final Pile drawCards = new DrawPile(); // view of the cards available to be drawn
+    private final Pile discardCards = new DiscardPile(); // view of the cards that have been discarded
+    private long shuffleSeed; // every shuffle of this deck derives from this seed and the shuffle count
+    private int shuffleCount; // number of shuffles done so far
+    private static final long SHUFFLE_STEP = 0x632BE59BD9B4E019L; // odd, so every shuffle gets its own seed
+    private static final long ORDER_PRIME = 0x100000001B3L; // FNV-1a
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // the increment of a new SplittableRandom
 
     /**
      * Creates a new deck initialized with a collection of items.
@@ -25,14 +42,101 @@ public class Deck<T> {
      * @param initial The initial collection of items to populate the deck's draw pile.
      */
     public Deck(Collection<T> initial) {
-        drawCards.addAll(initial);
+        this(initial, new SplittableRandom());
     }
 
     /**
-     * Shuffles the cards currently in the draw pile randomly.
+     * Creates a new deck initialized with a collection of items, shuffled with the given random source.
+     *
+     * @param initial The initial collection of items to populate the deck's draw pile.
+     * @param random The random source the shuffles of this deck are seeded from.
+     */
+    public Deck(Collection<T> initial, SplittableRandom random) {
+        this.cards = initial.toArray();
+        this.drawSize = cards.length;
+        this.shuffleSeed = random.nextLong();
+        this.shuffleCount = 0;
+    }
+
+    /**
+     * Shuffles the cards currently in the draw pile randomly (Fisher-Yates).
+     * The n-th shuffle of the deck is seeded from the deck's seed and n only, so the whole random state of the deck
+     * is the pair saved by {@link GameSnapshot}.
+     * The numbers are those a {@code new SplittableRandom(seed)} would give, drawn without creating it.
      */
     public void shuffle() {
-        Collections.shuffle(drawCards);
+        long state = shuffleSeed + SHUFFLE_STEP * shuffleCount++;
+        for (int i = drawSize - 1; i > 0; i--) {
+            int bound = i + 1;
+            int r = mix32(state += GOLDEN_GAMMA);
+            int m = bound - 1;
+            if ((bound & m) == 0) {
+                r &= m;
+            } else {
+                for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(state += GOLDEN_GAMMA) >>> 1) {
+                    // rejects the values that would bias the result, like SplittableRandom.nextInt(int)
+                }
+            }
+            swap(i, r);
+        }
+        drawCards.changed();
+    }
+
+    /** The 32-bit output function of SplittableRandom. */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private void swap(int i, int j) {
+        Object card = cards[i];
+        cards[i] = cards[j];
+        cards[j] = card;
+    }
+
+    /**
+     * Shuffles the draw pile with the given source and reseeds the next shuffles from it,
+     * so that nothing of the order the deck had is left.
+     */
+    void redeal(SplittableRandom random) {
+        for (int i = drawSize - 1; i > 0; i--) {
+            swap(i, random.nextInt(i + 1));
+        }
+        drawCards.changed();
+        this.shuffleSeed = random.nextLong();
+        this.shuffleCount = 0;
+    }
+
+    long getShuffleSeed() {
+        return shuffleSeed;
+    }
+
+    int getShuffleCount() {
+        return shuffleCount;
+    }
+
+    /** Restores the random state of the deck, as returned by {@link #getShuffleSeed()} and {@link #getShuffleCount()}. */
+    void restoreShuffles(long shuffleSeed, int shuffleCount) {
+        this.shuffleSeed = shuffleSeed;
+        this.shuffleCount = shuffleCount;
+    }
+
+    /**
+     * Hashes everything that decides the coming draws: the order of both piles and the seed of the next shuffle.
+     * @param id Gives the number identifying a card (two cards with the same number are interchangeable).
+     * @return The hash of the order of the deck.
+     */
+    @SuppressWarnings("unchecked")
+    long orderHash(ToIntFunction<? super T> id) {
+        long hash = shuffleSeed + SHUFFLE_STEP * shuffleCount;
+        for (int i = 0; i < drawSize; i++) {
+            hash = (hash ^ id.applyAsInt((T) cards[i])) * ORDER_PRIME;
+        }
+        hash = (hash ^ -1L) * ORDER_PRIME; // separates the piles
+        for (int i = 1; i <= discardSize; i++) {
+            hash = (hash ^ id.applyAsInt((T) cards[cards.length - i])) * ORDER_PRIME;
+        }
+        return hash ^ (hash >>> 29);
     }
 
     /**
@@ -40,7 +144,7 @@ public class Deck<T> {
      * @return The size of the draw pile.
      */
     public int getDrawSize() {
-        return drawCards.size();
+        return drawSize;
     }
 
     /**
@@ -48,20 +152,20 @@ public class Deck<T> {
      * @return The size of the discard pile.
      */
     public int getDiscardSize() {
-        return discardCards.size();
+        return discardSize;
     }
 
     /**
-     * Returns the list of cards currently in the draw pile.
-     * Note: Modifying the returned list directly might break the deck's state.
+     * Returns the list of cards currently in the draw pile, the top card last.
+     * The list is a view of the deck: it follows the draws, and changing it changes the deck.
      * @return The list of draw cards.
      */
     public List<T> getDrawCards() {
         return drawCards;
     }
     /**
-     * Returns the list of cards currently in the discard pile.
-     * Note: Modifying the returned list directly might break the deck's state.
+     * Returns the list of cards currently in the discard pile, the last discarded card last.
+     * The list is a view of the deck: it follows the discards, and changing it changes the deck.
      * @return The list of discard cards.
      */
     public List<T> getDiscardCards() {
@@ -76,15 +180,19 @@ public class Deck<T> {
      * @return The card drawn from the top of the draw pile.
      * @throws IllegalStateException if both the draw and discard piles are empty.
      */
+    @SuppressWarnings("unchecked")
     public T draw() {
-        if (drawCards.isEmpty()) {
+        if (drawSize == 0) {
             reshuffleDiscardIntoDraw();
         }
-        if (drawCards.isEmpty()) {
+        if (drawSize == 0) {
             throw new IllegalStateException("No cards left to draw or reshuffle.");
         }
-
-        return drawCards.remove(drawCards.size() - 1);
+        T card = (T) cards[--drawSize];
+        cards[drawSize] = null;
+        drawCards.changed();
+        cardRemoved(card, true);
+        return card;
     }
 
     /**
@@ -92,17 +200,209 @@ public class Deck<T> {
      * @param card The card to discard.
      */
     public void discard(T card) {
-        discardCards.add(card);
+        ensureFree(1);
+        discardSize++;
+        cards[cards.length - discardSize] = card;
+        discardCards.changed();
+        cardAdded(card, false);
+    }
+
+    /**
+     * Adds a card to the top of the draw pile, without shuffling.
+     * @param card The card to add.
+     */
+    protected void addToDrawPile(T card) {
+        ensureFree(1);
+        cards[drawSize++] = card;
+        drawCards.changed();
+        cardAdded(card, true);
+    }
+
+    /**
+     * Called after a card was put on one of the piles, in any way (a discard, a reshuffle, a change of a view).
+     * @param card The card.
+     * @param toDraw Whether the card went to the draw pile rather than the discard pile.
+     */
+    protected void cardAdded(T card, boolean toDraw) {
+    }
+
+    /**
+     * Called after a card was taken from one of the piles, in any way (a draw, a reshuffle, a change of a view).
+     * @param card The card.
+     * @param fromDraw Whether the card left the draw pile rather than the discard pile.
+     */
+    protected void cardRemoved(T card, boolean fromDraw) {
     }
 
     /**
      * Moves all cards from the discard pile to the draw pile and shuffles the draw pile.
+     * The discards go on top of the draw pile in the order they were discarded before the shuffle.
      * Does nothing if the discard pile is empty.
      */
-    private void reshuffleDiscardIntoDraw() {
-        if (discardCards.isEmpty()) return;
-        drawCards.addAll(discardCards);
-        discardCards.clear();
+    @SuppressWarnings("unchecked")
+    public void reshuffleDiscardIntoDraw() {
+        if (discardSize == 0) return;
+        int from = cards.length - discardSize;
+        for (int i = from; i < cards.length; i++) {
+            cardRemoved((T) cards[i], false);
+            cardAdded((T) cards[i], true);
+        }
+        for (int i = from, j = cards.length - 1; i < j; i++, j--) { // back in the order they were discarded
+            swap(i, j);
+        }
+        System.arraycopy(cards, from, cards, drawSize, discardSize);
+        drawSize += discardSize;
+        Arrays.fill(cards, Math.max(drawSize, from), cards.length, null);
+        discardSize = 0;
+        discardCards.changed();
         shuffle();
     }
+
+    /** Makes room for more cards between the piles, growing the array if needed. */
+    private void ensureFree(int needed) {
+        if (drawSize + discardSize + needed <= cards.length) {
+            return;
+        }
+        Object[] larger = new Object[Math.max(cards.length * 2, drawSize + discardSize + needed)];
+        System.arraycopy(cards, 0, larger, 0, drawSize);
+        System.arraycopy(cards, cards.length - discardSize, larger, larger.length - discardSize, discardSize);
+        cards = larger;
+    }
+
+    /** A list view over one of the piles. */
+    private abstract class Pile extends AbstractList<T> {
+        void changed() {
+            modCount++;
+        }
+    }
+
+    /** The draw pile, index i at cards[i]. */
+    private class DrawPile extends Pile {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            checkIndex(index, drawSize);
+            return (T) cards[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T set(int index, T card) {
+            checkIndex(index, drawSize);
+            T old = (T) cards[index];
+            cards[index] = card;
+            cardRemoved(old, true);
+            cardAdded(card, true);
+            return old;
+        }
+
+        @Override
+        public void add(int index, T card) {
+            checkIndex(index, drawSize + 1);
+            ensureFree(1);
+            System.arraycopy(cards, index, cards, index + 1, drawSize - index);
+            cards[index] = card;
+            drawSize++;
+            modCount++;
+            cardAdded(card, true);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T remove(int index) {
+            checkIndex(index, drawSize);
+            T old = (T) cards[index];
+            System.arraycopy(cards, index + 1, cards, index, drawSize - index - 1);
+            cards[--drawSize] = null;
+            modCount++;
+            cardRemoved(old, true);
+            return old;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void clear() {
+            for (int i = 0; i < drawSize; i++) {
+                cardRemoved((T) cards[i], true);
+            }
+            Arrays.fill(cards, 0, drawSize, null);
+            drawSize = 0;
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return drawSize;
+        }
+    }
+
+    /** The discard pile, index i at cards[length - 1 - i]. */
+    private class DiscardPile extends Pile {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            checkIndex(index, discardSize);
+            return (T) cards[cards.length - 1 - index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T set(int index, T card) {
+            checkIndex(index, discardSize);
+            T old = (T) cards[cards.length - 1 - index];
+            cards[cards.length - 1 - index] = card;
+            cardRemoved(old, false);
+            cardAdded(card, false);
+            return old;
+        }
+
+        @Override
+        public void add(int index, T card) {
+            checkIndex(index, discardSize + 1);
+            ensureFree(1);
+            int top = cards.length - discardSize; // the slot of the last card once added
+            System.arraycopy(cards, top, cards, top - 1, discardSize - index);
+            cards[cards.length - 1 - index] = card;
+            discardSize++;
+            modCount++;
+            cardAdded(card, false);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T remove(int index) {
+            checkIndex(index, discardSize);
+            int slot = cards.length - 1 - index;
+            T old = (T) cards[slot];
+            int top = cards.length - discardSize;
+            System.arraycopy(cards, top, cards, top + 1, slot - top);
+            cards[top] = null;
+            discardSize--;
+            modCount++;
+            cardRemoved(old, false);
+            return old;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void clear() {
+            for (int i = cards.length - discardSize; i < cards.length; i++) {
+                cardRemoved((T) cards[i], false);
+            }
+            Arrays.fill(cards, cards.length - discardSize, cards.length, null);
+            discardSize = 0;
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return discardSize;
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
 }
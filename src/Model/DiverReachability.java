@@ -0,0 +1,49 @@
+package Model;
+
+/**
+ * Computes the tiles the Diver can reach, on the masks of the {@link IslandBitboard}.
+ * The Diver swims through connected flooded and sunk tiles (diagonals included) and lands on a tile next to them,
+ * or on a tile adjacent to its own. The swimmable tiles are found by dilating the mask of the tiles around the Diver
+ * inside the non-dry tiles until it stops growing, so no search queue or visited set is needed.
+ */
+public final class DiverReachability {
+    private final AdjacencyIndex adjacency;
+
+    public DiverReachability(AdjacencyIndex adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * Gets the tiles the Diver can move to with a normal move: the dry tiles reachable from its tile.
+     * @param start The tile of the Diver.
+     * @param dry The mask of the dry tiles.
+     * @return The mask of the destinations.
+     */
+    public long moves(int start, long dry) {
+        return reach(start, dry, dry);
+    }
+
+    /**
+     * Gets the tiles the Diver can escape to when its tile sinks: the accessible tiles reachable from its tile.
+     * @param start The tile of the Diver.
+     * @param dry The mask of the dry tiles.
+     * @param flooded The mask of the flooded tiles.
+     * @return The mask of the destinations.
+     */
+    public long escapes(int start, long dry, long flooded) {
+        return reach(start, dry, dry | flooded);
+    }
+
+    private long reach(int start, long dry, long targets) {
+        long water = adjacency.getBoardMask() & ~dry; // flooded and sunk tiles of the board
+        long swum = adjacency.neighbours(start, true) & water;
+        while (true) {
+            long next = swum | (adjacency.dilate(swum, true) & water);
+            if (next == swum) {
+                break;
+            }
+            swum = next;
+        }
+        return (adjacency.orthogonal(start) | adjacency.dilate(swum, true)) & targets;
+    }
+}
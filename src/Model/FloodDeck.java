@@ -2,10 +2,20 @@ package Model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class FloodDeck extends Deck<ZoneCard> {
+    private final FloodTracker tracker = new FloodTracker();
+
     public FloodDeck() {
-        super(collectAllZoneCards());
+        this(new SplittableRandom());
+    }
+
+    public FloodDeck(SplittableRandom random) {
+        super(collectAllZoneCards(), random);
+        for (ZoneCard card : getDrawCards()) {
+            tracker.added(card, true);
+        }
         shuffle();
     }
 
@@ -17,12 +27,18 @@ public class FloodDeck extends Deck<ZoneCard> {
         return cards;
     }
 
-    public void reshuffleDiscardIntoDraw() {
-        if (discardCards.isEmpty()) return;
-        drawCards.addAll(discardCards);
-        discardCards.clear();
-        shuffle();
+    /** Gets the tracker of the cards of both piles, kept up to date by every change of the deck. */
+    public FloodTracker getTracker() {
+        return tracker;
     }
 
+    @Override
+    protected void cardAdded(ZoneCard card, boolean toDraw) {
+        tracker.added(card, toDraw);
+    }
 
+    @Override
+    protected void cardRemoved(ZoneCard card, boolean fromDraw) {
+        tracker.removed(card, fromDraw);
+    }
 }
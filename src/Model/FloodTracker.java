@@ -0,0 +1,101 @@
+package Model;
+
+/**
+ * Tracks which flood cards are in the draw pile and in the discard pile of the {@link FloodDeck}, to tell how likely
+ * every zone is to be flooded by the next flood phase.
+ * <p>
+ * The players know both piles but not the order of the draw pile, so the draws are taken as uniform over the draw
+ * pile: with a flood rate of k and n cards to draw, a card of the draw pile comes up with probability k/n. When k is
+ * larger than n, the whole draw pile comes up, then the discards (including the n cards just drawn, which are
+ * discarded even when their zone sinks) are reshuffled and the rest is drawn from them.
+ * <p>
+ * The deck reports every card it gains or loses on either pile, so the counts are always up to date and
+ * {@link #probability(ZoneCard, int)} costs a few operations.
+ */
+public final class FloodTracker {
+    private static final int CARD_COUNT = ZoneCard.values().length;
+
+    private final int[] drawCounts = new int[CARD_COUNT];
+    private final int[] discardCounts = new int[CARD_COUNT];
+    private int drawSize;
+    private int discardSize;
+    private int drawMask; // the cards with at least one copy in the draw pile, one bit per ordinal
+
+    void added(ZoneCard card, boolean toDraw) {
+        int c = card.ordinal();
+        if (toDraw) {
+            if (drawCounts[c]++ == 0) {
+                drawMask |= 1 << c;
+            }
+            drawSize++;
+        } else {
+            discardCounts[c]++;
+            discardSize++;
+        }
+    }
+
+    void removed(ZoneCard card, boolean fromDraw) {
+        int c = card.ordinal();
+        if (fromDraw) {
+            if (--drawCounts[c] == 0) {
+                drawMask &= ~(1 << c);
+            }
+            drawSize--;
+        } else {
+            discardCounts[c]--;
+            discardSize--;
+        }
+    }
+
+    /**
+     * Gets the probability that a card is drawn at least once by a flood phase starting now.
+     * @param card The card of the zone.
+     * @param draws The number of cards the phase draws, see {@link WaterMeter#getCurrentFloodRate()}.
+     */
+    public double probability(ZoneCard card, int draws) {
+        int c = card.ordinal();
+        if (draws <= drawSize) {
+            return drawnAtLeastOnce(drawCounts[c], drawSize, draws);
+        }
+        if (drawCounts[c] > 0) {
+            return 1;
+        }
+        int reshuffled = discardSize + drawSize;
+        return drawnAtLeastOnce(discardCounts[c], reshuffled, Math.min(draws - drawSize, reshuffled));
+    }
+
+    /**
+     * Gets the probability that one of the copies of a card is among the draws from a shuffled pile.
+     * @param copies The number of copies of the card in the pile.
+     * @param size The number of cards of the pile.
+     * @param draws The number of cards drawn, at most the size of the pile.
+     */
+    static double drawnAtLeastOnce(int copies, int size, int draws) {
+        if (copies == 0 || draws <= 0) {
+            return 0;
+        }
+        if (draws > size - copies) {
+            return 1;
+        }
+        double missed = 1;
+        for (int i = 0; i < draws; i++) {
+            missed *= (double) (size - copies - i) / (size - i);
+        }
+        return 1 - missed;
+    }
+
+    /** Gets the number of copies of a card in the draw pile. */
+    public int getDrawCount(ZoneCard card) {
+        return drawCounts[card.ordinal()];
+    }
+
+    /** Gets the number of copies of a card in the discard pile. */
+    public int getDiscardCount(ZoneCard card) {
+        return discardCounts[card.ordinal()];
+    }
+
+    /** Gets the mask of the cards in the draw pile, one bit per {@link ZoneCard} ordinal. */
+    public int getDrawMask() {
+        return drawMask;
+    }
+}
@@ -0,0 +1,159 @@
+package Model;
+
+/**
+ * Encodes a complete action of the game in a single int, as listed by {@link BoardGame#getLegalActions(int[])}
+ * and played by {@link BoardGame#apply(int)}.
+ * One encoded action stands for the whole sequence of steps the view goes through
+ * (e.g. choosing to give a card, choosing the card, then choosing the player).
+ * Tiles are indexed like in the {@link IslandBitboard} (x * size + y) and players by their index in the game.
+ *
+ * <pre>
+ * bits  0-3   kind
+ * bits  4-8   tile
+ * bits  9-13  second tile (Engineer's shore-up pair)
+ * bits 14-15  player (moved by the Navigator, receiving a card, holding the card used, escaping)
+ * bits 16-18  card type (given or discarded)
+ * bits 19-22  passengers of a Helicopter Lift, one bit per player index
+ * </pre>
+ */
+public final class GameAction {
+    /** The kinds of actions. */
+    public enum Kind {
+        /** The current player moves to a tile. */
+        Move,
+        /** The current player shores up a tile. */
+        ShoreUp,
+        /** The Engineer shores up two tiles for one action. */
+        ShoreUpPair,
+        /** The Pilot flies to a tile its normal move does not reach. */
+        Fly,
+        /** The Navigator moves another player to a tile. */
+        MovePlayer,
+        /** The current player gives a card to another player. */
+        GiveCard,
+        /** The current player takes the artefact of their tile. */
+        TakeArtefact,
+        /** A player plays a Helicopter Lift card, taking passengers from their tile. */
+        HelicopterLift,
+        /** A player plays a Sandbags card on a flooded tile. */
+        Sandbags,
+        /** The current player discards a card over the hand limit. */
+        Discard,
+        /** A player on a sunk tile escapes to a tile. */
+        Escape,
+        /** The current player ends their turn. */
+        EndTurn
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private static final int TILE_SHIFT = 4;
+    private static final int SECOND_TILE_SHIFT = 9;
+    private static final int PLAYER_SHIFT = 14;
+    private static final int CARD_SHIFT = 16;
+    private static final int PASSENGERS_SHIFT = 19;
+
+    /** The action ending the turn. */
+    public static final int END_TURN = Kind.EndTurn.ordinal();
+    /** The action taking the artefact of the current tile. */
+    public static final int TAKE_ARTEFACT = Kind.TakeArtefact.ordinal();
+
+    private GameAction() {
+    }
+
+    public static int move(int tile) {
+        return Kind.Move.ordinal() | tile << TILE_SHIFT;
+    }
+
+    public static int shoreUp(int tile) {
+        return Kind.ShoreUp.ordinal() | tile << TILE_SHIFT;
+    }
+
+    public static int shoreUpPair(int tile, int secondTile) {
+        return Kind.ShoreUpPair.ordinal() | tile << TILE_SHIFT | secondTile << SECOND_TILE_SHIFT;
+    }
+
+    public static int fly(int tile) {
+        return Kind.Fly.ordinal() | tile << TILE_SHIFT;
+    }
+
+    public static int movePlayer(int player, int tile) {
+        return Kind.MovePlayer.ordinal() | tile << TILE_SHIFT | player << PLAYER_SHIFT;
+    }
+
+    public static int giveCard(CardType card, int player) {
+        return Kind.GiveCard.ordinal() | player << PLAYER_SHIFT | card.ordinal() << CARD_SHIFT;
+    }
+
+    /**
+     * @param player The player holding the card.
+     * @param tile The destination.
+     * @param passengers The mask of the indexes of the players flying along.
+     */
+    public static int helicopterLift(int player, int tile, int passengers) {
+        return Kind.HelicopterLift.ordinal() | tile << TILE_SHIFT | player << PLAYER_SHIFT | passengers << PASSENGERS_SHIFT;
+    }
+
+    public static int sandbags(int player, int tile) {
+        return Kind.Sandbags.ordinal() | tile << TILE_SHIFT | player << PLAYER_SHIFT;
+    }
+
+    public static int discard(CardType card) {
+        return Kind.Discard.ordinal() | card.ordinal() << CARD_SHIFT;
+    }
+
+    public static int escape(int player, int tile) {
+        return Kind.Escape.ordinal() | tile << TILE_SHIFT | player << PLAYER_SHIFT;
+    }
+
+    public static Kind kind(int action) {
+        return KINDS[action & 0xF];
+    }
+
+    public static int tile(int action) {
+        return (action >>> TILE_SHIFT) & 0x1F;
+    }
+
+    public static int secondTile(int action) {
+        return (action >>> SECOND_TILE_SHIFT) & 0x1F;
+    }
+
+    public static int player(int action) {
+        return (action >>> PLAYER_SHIFT) & 0x3;
+    }
+
+    public static CardType card(int action) {
+        return CARD_TYPES[(action >>> CARD_SHIFT) & 0x7];
+    }
+
+    public static int passengers(int action) {
+        return (action >>> PASSENGERS_SHIFT) & 0xF;
+    }
+
+    /** Describes an encoded action, for logs and tests. */
+    public static String toString(int action) {
+        Kind kind = kind(action);
+        switch (kind) {
+            case Move:
+            case ShoreUp:
+            case Fly:
+                return kind + " " + tile(action);
+            case ShoreUpPair:
+                return kind + " " + tile(action) + " " + secondTile(action);
+            case MovePlayer:
+            case Sandbags:
+            case Escape:
+                return kind + " player " + player(action) + " to " + tile(action);
+            case GiveCard:
+                return kind + " " + card(action) + " to player " + player(action);
+            case HelicopterLift:
+                return kind + " player " + player(action) + " to " + tile(action)
+                        + " with " + Integer.toBinaryString(passengers(action));
+            case Discard:
+                return kind + " " + card(action);
+            default:
+                return kind.toString();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Saves and loads whole games in a compact versioned binary format, written through NIO buffers.
+ * <p>
+ * A save is a header followed by the bytes of a {@link GameSnapshot}, which hold the tiles and their states, the
+ * players with their roles (which give their colours), positions, hands and artefacts, the order and random state of
+ * both decks, the water level, the claimed artefacts and the pending choice of the turn. A game of four players
+ * takes about 300 bytes, and loading it into an existing game of the same seed reuses its board, so a server can park
+ * an idle session as a few hundred bytes and bring it back in microseconds.
+ *
+ * <pre>
+ * save     magic "FISV" (int), version (short), length of the snapshot (short), CRC32 of the snapshot (int),
+ *          then the snapshot
+ * </pre>
+ * The header is little-endian whatever the order of the buffer.
+ */
+public final class GameSave {
+    public static final int MAGIC = 0x56534946; // "FISV" read as a little-endian int
+    public static final short VERSION = 1;
+    public static final int HEADER = 12;
+
+    private GameSave() {
+    }
+
+    /**
+     * Writes a game to a buffer.
+     * @param game The game to save.
+     * @param out The buffer, written from its position, which is moved past the save.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException if the buffer has too little room left, in which case nothing is written.
+     */
+    public static int write(BoardGame game, ByteBuffer out) {
+        return write(game.snapshot(), out);
+    }
+
+    private static int write(GameSnapshot snapshot, ByteBuffer out) {
+        int size = HEADER + snapshot.size();
+        if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) snapshot.size()).putInt(0);
+        int start = out.position();
+        snapshot.writeTo(out);
+        out.putInt(start - 4, checksum(out, start, snapshot.size()));
+        out.order(order);
+        return size;
+    }
+
+    /**
+     * Reads a game from a buffer.
+     * @param in The buffer, read from its position, which is moved past the save.
+     * @return A new game in the saved state.
+     * @throws IllegalArgumentException if the buffer does not hold a save of this version, or a damaged one.
+     */
+    public static BoardGame read(ByteBuffer in) {
+        return readSnapshot(in).restore();
+    }
+
+    /**
+     * Reads a game from a buffer into an existing game, reusing its zones, players and decks where it can,
+     * see {@link GameSnapshot#restoreInto(BoardGame)}.
+     * @param in The buffer, read from its position, which is moved past the save.
+     * @param game The game to overwrite.
+     * @return The given game, in the saved state.
+     * @throws IllegalArgumentException if the buffer does not hold a save of this version, or a damaged one.
+     */
+    public static BoardGame readInto(ByteBuffer in, BoardGame game) {
+        return readSnapshot(in).restoreInto(game);
+    }
+
+    /**
+     * Saves a game to a file, through a temporary file moved over the old one, so an interrupted save never leaves
+     * a broken file.
+     * @param game The game to save.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(BoardGame game, Path file) throws IOException {
+        GameSnapshot snapshot = game.snapshot();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + snapshot.size());
+        write(snapshot, buffer);
+        buffer.flip();
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads a game from a file written by {@link #save(BoardGame, Path)}.
+     * @param file The file to read.
+     * @return A new game in the saved state.
+     * @throws IOException if the file cannot be read or is not a save of this version.
+     */
+    public static BoardGame load(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            BoardGame game = read(buffer);
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after the save");
+            }
+            return game;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a game save of version " + VERSION + ": " + file, e);
+        }
+    }
+
+    private static GameSnapshot readSnapshot(ByteBuffer in) {
+        if (in.remaining() < HEADER) {
+            throw new IllegalArgumentException("Not a game save of version " + VERSION);
+        }
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int magic = in.getInt();
+        short version = in.getShort();
+        int length = in.getShort() & 0xffff;
+        int crc = in.getInt();
+        in.order(order);
+        if (magic != MAGIC || version != VERSION) {
+            throw new IllegalArgumentException("Not a game save of version " + VERSION);
+        }
+        if (in.remaining() < length || checksum(in, in.position(), length) != crc) {
+            throw new IllegalArgumentException("Damaged game save");
+        }
+        return GameSnapshot.readFrom(in, length);
+    }
+
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(start + length).position(start);
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
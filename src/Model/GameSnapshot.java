@@ -0,0 +1,428 @@
+package Model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the whole state of a {@link BoardGame}: the tiles and their states, the positions, hands
+ * and artefacts of the players, the order of both decks and their random state, the water level, the claimed
+ * artefacts and the pending choice of the current turn.
+ * The state is packed in a few hundred bytes, players and cards being written as indexes and ordinals, so a snapshot
+ * is cheap to take, to keep and to compare. Restoring it gives a game that plays on exactly like the captured one.
+ */
+public final class GameSnapshot {
+    private static final byte VERSION = 1;
+    private static final int MAX_BYTES = 4096;
+    private static final ZoneCard[] ZONE_CARDS = ZoneCard.values();
+    private static final ZoneState[] ZONE_STATES = ZoneState.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final PlayerRole[] ROLES = PlayerRole.values();
+    private static final GameState[] GAME_STATES = GameState.values();
+    private static final Artefact[] ARTEFACTS = Artefact.values();
+    private static final ZoneFactory ZONE_FACTORY = new ZoneFactory(); // only used to create zones of given cards
+
+    private final byte[] bytes;
+    private final int hash;
+
+    private GameSnapshot(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    /**
+     * Captures the state of a game.
+     * @param game The game to capture.
+     * @return The snapshot of the game.
+     */
+    public static GameSnapshot of(BoardGame game) {
+        ByteBuffer out = ByteBuffer.allocate(MAX_BYTES);
+        Player[] players = game.getPlayers();
+        int playerCount = game.getPlayerCount();
+        out.put(VERSION);
+        out.putLong(game.getSeed());
+        out.put((byte) game.getSize());
+
+        // tiles: card, state, player who started there and players standing there in their order
+        for (int x = 0; x < game.getSize(); x++) {
+            for (int y = 0; y < game.getSize(); y++) {
+                Zone zone = game.getZone(x, y);
+                ZoneCard card = zone.getZoneCard();
+                out.put((byte) (card == null ? -1 : card.ordinal()));
+                out.put((byte) zone.getZone_state().ordinal());
+                out.put((byte) indexOf(players, playerCount, zone.start_for_player));
+                out.put((byte) zone.getPlayers_on_zone().size());
+                for (Player player : zone.getPlayers_on_zone()) {
+                    out.put((byte) indexOf(players, playerCount, player));
+                }
+            }
+        }
+
+        // players
+        out.put((byte) playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            Player player = players[i];
+            byte[] name = player.getPlayer_name().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.put((byte) player.getPlayer_role().ordinal());
+            out.put((byte) player.getActions_remaining());
+            out.put((byte) artefactMask(player.getArtefacts()));
+            List<Card> cards = player.getHand().getCards();
+            out.put((byte) cards.size());
+            for (Card card : cards) {
+                out.put((byte) card.getType().ordinal());
+            }
+        }
+
+        // turn and pending choices
+        out.put((byte) game.getGameState().ordinal());
+        out.put((byte) game.getPlayerTurnId());
+        out.put((byte) game.getCurrentPlayerActionsNum());
+        out.put((byte) game.getShoreUpsLeft());
+        out.put((byte) (game.isTreasureDrawnThisTurn() ? 1 : 0));
+        out.put((byte) indexOf(players, playerCount, game.getChosenPlayerByNavigator()));
+        out.put((byte) indexOf(players, playerCount, game.getPlayerChoosingCardToUse()));
+        putPlayers(out, players, playerCount, game.getPlayersToFlyWith());
+        putCardToGive(out, players, playerCount, game.getCardToGiveByPlayer());
+        putPlayers(out, players, playerCount, game.getPlayersOnInaccessibleZones());
+        out.put((byte) indexOf(players, playerCount, game.getCurrentPlayerRunningFromInaccessibleZone()));
+        out.put((byte) game.getWaterMeterLevel());
+        out.put((byte) claimedMask(game));
+
+        // decks
+        TreasureDeck treasureDeck = game.getTreasureDeck();
+        out.putLong(treasureDeck.getShuffleSeed());
+        out.putInt(treasureDeck.getShuffleCount());
+        putCards(out, treasureDeck.getDrawCards());
+        putCards(out, treasureDeck.getDiscardCards());
+        FloodDeck floodDeck = game.getFloodDeck();
+        out.putLong(floodDeck.getShuffleSeed());
+        out.putInt(floodDeck.getShuffleCount());
+        putZoneCards(out, floodDeck.getDrawCards());
+        putZoneCards(out, floodDeck.getDiscardCards());
+
+        return new GameSnapshot(Arrays.copyOf(out.array(), out.position()));
+    }
+
+    /**
+     * Rebuilds a snapshot from the bytes returned by {@link #toByteArray()}.
+     * @param bytes The bytes of the snapshot, copied.
+     * @return The snapshot.
+     * @throws IllegalArgumentException if the bytes are not a snapshot of this version.
+     */
+    public static GameSnapshot fromByteArray(byte[] bytes) {
+        if (bytes.length < 10 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not a game snapshot of version " + VERSION);
+        }
+        return new GameSnapshot(bytes.clone());
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo(ByteBuffer)}.
+     * @param in The buffer, positioned on the snapshot; its position is moved past it.
+     * @param length The number of bytes of the snapshot.
+     * @return The snapshot.
+     * @throws IllegalArgumentException if the bytes are not a snapshot of this version.
+     * @throws java.nio.BufferUnderflowException if the buffer holds fewer bytes than the length.
+     */
+    public static GameSnapshot readFrom(ByteBuffer in, int length) {
+        if (length < 10 || in.remaining() >= 1 && in.get(in.position()) != VERSION) {
+            throw new IllegalArgumentException("Not a game snapshot of version " + VERSION);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new GameSnapshot(bytes);
+    }
+
+    /**
+     * Restores the snapshot into a new game.
+     * @return A game in the captured state.
+     */
+    public BoardGame restore() {
+        return restoreInto(new BoardGame(getSeed()));
+    }
+
+    /**
+     * Restores the snapshot into an existing game, reusing its zones, players and decks where it can.
+     * Restoring into a game of the same seed reuses the whole board, which makes it the cheap way to reset a
+     * working copy of a game many times (rollouts, what-if evaluations).
+     * The players are only kept if their names and roles match, otherwise new players are created.
+     * A game restored while it was being set up assigns the roles of the players added later from a fresh source.
+     *
+     * @param game The game to overwrite.
+     * @return The given game, in the captured state.
+     * @throws IllegalArgumentException if the game has another board size.
+     */
+    public BoardGame restoreInto(BoardGame game) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        in.get(); // version
+        long seed = in.getLong();
+        int size = in.get();
+        if (size != game.getSize()) {
+            throw new IllegalArgumentException("Cannot restore a board of size " + size + " into one of size " + game.getSize());
+        }
+        game.restoreSeed(seed);
+
+        // tiles: create the missing zones, the players are put on them once they exist
+        Zone[][] board = game.getBoard();
+        int tiles = size * size;
+        int tilesStart = in.position();
+        for (int i = 0; i < tiles; i++) {
+            int x = i / size;
+            int y = i % size;
+            int cardIdx = in.get();
+            ZoneCard card = cardIdx < 0 ? null : ZONE_CARDS[cardIdx];
+            Zone zone = board[x][y];
+            if (zone == null || zone.getZoneCard() != card || zone.getX() != x || zone.getY() != y) {
+                zone = card == null ? ZONE_FACTORY.createInaccessibleZone(x, y) : ZONE_FACTORY.createZone(x, y, card);
+                board[x][y] = zone;
+            }
+            zone.restoreState(ZONE_STATES[in.get()]);
+            zone.start_for_player = null;
+            zone.getPlayers_on_zone().clear();
+            in.get(); // the player who started there
+            in.position(in.position() + 1 + in.get());
+        }
+        game.syncIsland(); // binds the zones created above
+
+        // the cards of the game are reused for the hands and the treasure deck
+        Player[] players = game.getPlayers();
+        CardPool spareCards = game.getSpareCards();
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            spareCards.putAll(players[i].getHand().getCards());
+        }
+        TreasureDeck treasureDeck = game.getTreasureDeck();
+        spareCards.putAll(treasureDeck.getDrawCards());
+        spareCards.putAll(treasureDeck.getDiscardCards());
+
+        // players
+        int playerCount = in.get();
+        for (int i = 0; i < playerCount; i++) {
+            int nameLength = in.getShort();
+            int nameStart = in.position();
+            in.position(nameStart + nameLength);
+            PlayerRole role = ROLES[in.get()];
+            Player player = players[i];
+            if (player == null || player.getPlayer_role() != role
+                    || !hasName(player, nameStart, nameLength)) {
+                player = new Player(new String(bytes, nameStart, nameLength, StandardCharsets.UTF_8), role);
+                players[i] = player;
+            }
+            game.restoreRole(role);
+            player.setActions_remaining(in.get());
+            player.setPlayer_zone(null);
+            int artefacts = in.get();
+            player.getArtefacts().clear();
+            for (Artefact artefact : ARTEFACTS) {
+                if ((artefacts & (1 << artefact.ordinal())) != 0) {
+                    player.addArtefact(artefact);
+                }
+            }
+            Hand hand = player.getHand();
+            hand.clear();
+            for (int c = in.get(); c > 0; c--) {
+                hand.add(spareCards.take(CARD_TYPES[in.get()]));
+            }
+        }
+        game.restorePlayerCount(playerCount);
+
+        for (int i = 0, at = tilesStart; i < tiles; i++) {
+            Zone zone = board[i / size][i % size];
+            at += 2; // card and state
+            int start = bytes[at++];
+            if (start >= 0) {
+                zone.start_for_player = players[start];
+            }
+            for (int c = bytes[at]; c > 0; c--) {
+                Player player = players[bytes[++at]];
+                zone.getPlayers_on_zone().add(player);
+                player.setPlayer_zone(zone);
+            }
+            at++;
+        }
+
+        // turn and pending choices
+        GameState gameState = GAME_STATES[in.get()];
+        int playerTurnId = in.get();
+        int actions = in.get();
+        int shoreUpsLeft = in.get();
+        boolean treasureDrawn = in.get() != 0;
+        Player chosenPlayerByNavigator = playerAt(players, in.get());
+        Player playerChoosingCardToUse = playerAt(players, in.get());
+        getPlayers(in, players, game.getPlayersToFlyWith());
+        int owner = in.get();
+        int position = in.get();
+        Card cardToGive = owner < 0 ? null : players[owner].getHand().getCards().get(position);
+        getPlayers(in, players, game.getPlayersOnInaccessibleZones());
+        Player runningPlayer = playerAt(players, in.get());
+        game.restoreTurn(gameState, playerTurnId, actions, shoreUpsLeft, treasureDrawn, chosenPlayerByNavigator,
+                playerChoosingCardToUse, cardToGive, runningPlayer, in.get(), in.get());
+
+        // decks
+        treasureDeck.restoreShuffles(in.getLong(), in.getInt());
+        getCards(in, treasureDeck.getDrawCards(), spareCards);
+        getCards(in, treasureDeck.getDiscardCards(), spareCards);
+        spareCards.clear();
+        FloodDeck floodDeck = game.getFloodDeck();
+        floodDeck.restoreShuffles(in.getLong(), in.getInt());
+        getZoneCards(in, floodDeck.getDrawCards());
+        getZoneCards(in, floodDeck.getDiscardCards());
+        return game;
+    }
+
+    /** Gets the seed of the captured game. */
+    public long getSeed() {
+        return ByteBuffer.wrap(bytes).getLong(1);
+    }
+
+    /** Gets the number of bytes of the snapshot. */
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Writes the bytes of the snapshot, which {@link #readFrom(ByteBuffer, int)} reads back.
+     * @param out The buffer to write to, with at least {@link #size()} bytes remaining.
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(bytes);
+    }
+
+    /** Gets a copy of the bytes of the snapshot, which {@link #fromByteArray(byte[])} turns back into a snapshot. */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameSnapshot)) return false;
+        GameSnapshot other = (GameSnapshot) o;
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot{seed=" + getSeed() + ", " + bytes.length + " bytes}";
+    }
+
+    private static int indexOf(Player[] players, int playerCount, Player player) {
+        if (player == null) {
+            return -1;
+        }
+        for (int i = 0; i < playerCount; i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Player " + player.getPlayer_name() + " is not part of the game");
+    }
+
+    /** Checks if a player has the name written at a position of the snapshot, decoding it only if it is not ASCII. */
+    private boolean hasName(Player player, int start, int length) {
+        String name = player.getPlayer_name();
+        if (name.length() != length) {
+            return name.equals(new String(bytes, start, length, StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return name.equals(new String(bytes, start, length, StandardCharsets.UTF_8));
+            }
+            if (bytes[start + i] != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Player playerAt(Player[] players, int idx) {
+        return idx < 0 ? null : players[idx];
+    }
+
+    private static int artefactMask(Iterable<Artefact> artefacts) {
+        int mask = 0;
+        for (Artefact artefact : artefacts) {
+            mask |= 1 << artefact.ordinal();
+        }
+        return mask;
+    }
+
+    /** Gets the mask of the artefacts claimed in a game, one bit per ordinal, without copying the set. */
+    private static int claimedMask(BoardGame game) {
+        int mask = 0;
+        for (Artefact artefact : ARTEFACTS) {
+            if (game.isArtefactTaken(artefact)) {
+                mask |= 1 << artefact.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static void putPlayers(ByteBuffer out, Player[] players, int playerCount, List<Player> list) {
+        out.put((byte) list.size());
+        for (Player player : list) {
+            out.put((byte) indexOf(players, playerCount, player));
+        }
+    }
+
+    private static void getPlayers(ByteBuffer in, Player[] players, List<Player> list) {
+        list.clear();
+        for (int c = in.get(); c > 0; c--) {
+            list.add(players[in.get()]);
+        }
+    }
+
+    /** Writes the card being given as the index of the player holding it and its position in the hand. */
+    private static void putCardToGive(ByteBuffer out, Player[] players, int playerCount, Card card) {
+        if (card != null) {
+            for (int i = 0; i < playerCount; i++) {
+                List<Card> cards = players[i].getHand().getCards();
+                for (int c = 0; c < cards.size(); c++) {
+                    if (cards.get(c) == card) {
+                        out.put((byte) i);
+                        out.put((byte) c);
+                        return;
+                    }
+                }
+            }
+        }
+        out.put((byte) -1);
+        out.put((byte) -1);
+    }
+
+    private static void putCards(ByteBuffer out, List<Card> cards) {
+        out.put((byte) cards.size());
+        for (Card card : cards) {
+            out.put((byte) card.getType().ordinal());
+        }
+    }
+
+    private static void getCards(ByteBuffer in, List<Card> cards, CardPool spareCards) {
+        cards.clear();
+        for (int c = in.get(); c > 0; c--) {
+            cards.add(spareCards.take(CARD_TYPES[in.get()]));
+        }
+    }
+
+    private static void putZoneCards(ByteBuffer out, List<ZoneCard> cards) {
+        out.put((byte) cards.size());
+        for (ZoneCard card : cards) {
+            out.put((byte) card.ordinal());
+        }
+    }
+
+    private static void getZoneCards(ByteBuffer in, List<ZoneCard> cards) {
+        cards.clear();
+        for (int c = in.get(); c > 0; c--) {
+            cards.add(ZONE_CARDS[in.get()]);
+        }
+    }
+}
@@ -4,12 +4,23 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * The cards of a player. The hand keeps its cards in the order they were received, for the view,
+ * and the number of cards of every type packed in a long, so that the rules ask "how many" without scanning the cards.
+ */
 public class Hand {
     private final List<Card> cards = new ArrayList<>();
+    private final List<Card> view = Collections.unmodifiableList(cards);
     private static final int MAX_SIZE = 5;
+    private static final int COUNT_BITS = 4; // no type has more than 5 cards in the treasure deck
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int TYPE_COUNT = CardType.values().length;
+    private long counts; // the number of cards of every type, COUNT_BITS bits per type in the order of the ordinals
+    private long hash; // the XOR of the Zobrist keys of the counts
 
     public void add(Card card) {
         cards.add(card);
+        count(card.getType(), 1);
     }
 
     public void remove(Card card) {
@@ -19,6 +30,75 @@ public class Hand {
                     "Cannot remove card " + card + " because it is not in the hand."
             );
         }
+        count(card.getType(), -1);
+    }
+
+    void clear() {
+        cards.clear();
+        counts = 0;
+        hash = 0;
+    }
+
+    private void count(CardType type, int delta) {
+        int count = count(type);
+        hash ^= Zobrist.hand(type, count) ^ Zobrist.hand(type, count + delta);
+        counts += (long) delta << (type.ordinal() * COUNT_BITS);
+    }
+
+    /** Gets the number of cards of a type in the hand. */
+    public int count(CardType type) {
+        return (int) (counts >>> (type.ordinal() * COUNT_BITS) & COUNT_MASK);
+    }
+
+    /** Checks whether the hand has at least a number of cards of a type. */
+    public boolean hasAtLeast(CardType type, int number) {
+        return count(type) >= number;
+    }
+
+    /** Checks whether this very card is in the hand. */
+    public boolean contains(Card card) {
+        return count(card.getType()) > 0 && cards.contains(card);
+    }
+
+    /** Gets the first card of a type in the hand, or null if there is none. */
+    public Card find(CardType type) {
+        if (count(type) == 0) {
+            return null;
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).getType() == type) {
+                return cards.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the first card of a type from the hand.
+     * @return The removed card, or null if the hand has no card of the type.
+     */
+    public Card removeFirst(CardType type) {
+        Card card = find(type);
+        if (card != null) {
+            remove(card);
+        }
+        return card;
+    }
+
+    /** Gets the mask of the card types in the hand, one bit per ordinal. */
+    int typeMask() {
+        int mask = 0;
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            if ((counts >>> (t * COUNT_BITS) & COUNT_MASK) != 0) {
+                mask |= 1 << t;
+            }
+        }
+        return mask;
+    }
+
+    /** Gets the hash of the number of cards of every type, kept up to date by every change of the hand. */
+    long getZobristHash() {
+        return hash;
     }
 
     public int getSize(){
@@ -29,7 +109,8 @@ public class Hand {
         return cards.size() > MAX_SIZE;
     }
 
+    /** Gets a read-only view of the cards, in the order they were received. */
     public List<Card> getCards(){
-        return Collections.unmodifiableList(cards);
+        return view;
     }
 }
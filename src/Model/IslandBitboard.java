@@ -0,0 +1,221 @@
+package Model;
+
+import java.util.ArrayList;
+
+/**
+ * A packed view of the state of the island, kept alongside the Zone objects of the board.
+ * Every tile has an index (x * size + y) and the dry, flooded and sunk tiles are stored as bits of three long masks,
+ * so board-wide queries are mask operations and popcounts instead of walks over the Zone objects.
+ * The masks follow the zones through their state listener, and {@link #sync(Zone[][])} rebinds the tiles
+ * whose Zone object was replaced on the board.
+ * The tiles of every artefact and of the helicopter landing are kept too, so the lose conditions
+ * are a popcount of the sunk tiles among them.
+ * The view also keeps the zone part of the Zobrist hash of the game, the XOR of the keys of the state of every tile.
+ */
+public final class IslandBitboard implements ZoneStateListener {
+    private final int size;
+    private final Zone[] tiles;
+    private long dry;
+    private long flooded;
+    private long sunk;
+    private final long[] artefactTiles = new long[Artefact.values().length];
+    private long helicopterTiles;
+    private long zoneHash;
+
+    /**
+     * Creates the packed view of a square board.
+     * @param size The side of the board, at most 8 so that every tile fits in a long.
+     */
+    public IslandBitboard(int size) {
+        if (size * size > Long.SIZE) {
+            throw new IllegalArgumentException("The board is too large for a bitboard: " + size);
+        }
+        this.size = size;
+        this.tiles = new Zone[size * size];
+    }
+
+    /**
+     * Binds every tile of the board that is not bound yet and refreshes its bit.
+     * Only does work when a Zone object of the board was replaced since the last call.
+     * @param board The board the view follows, of the size of this view.
+     */
+    public void sync(Zone[][] board) {
+        for (int x = 0; x < size; x++) {
+            Zone[] column = board[x];
+            for (int y = 0; y < size; y++) {
+                int index = x * size + y;
+                Zone zone = column[y];
+                if (tiles[index] != zone) {
+                    bind(index, zone);
+                }
+            }
+        }
+    }
+
+    private void bind(int index, Zone zone) {
+        Zone previous = tiles[index];
+        tiles[index] = zone;
+        if (previous != null && indexOf(previous) == -1) {
+            previous.setStateListener(null);
+        }
+        long bit = 1L << index;
+        clear(index);
+        helicopterTiles &= ~bit;
+        for (int a = 0; a < artefactTiles.length; a++) {
+            artefactTiles[a] &= ~bit;
+        }
+        if (zone != null) {
+            zone.setStateListener(this);
+            set(index, zone.getZone_state());
+            if (zone.getZoneCard() == ZoneCard.fodls_landing) {
+                helicopterTiles |= bit;
+            }
+            if (zone instanceof ArtefactZone && ((ArtefactZone) zone).getArtefact() != null) {
+                artefactTiles[((ArtefactZone) zone).getArtefact().ordinal()] |= bit;
+            }
+        }
+    }
+
+    private void clear(int index) {
+        long bit = 1L << index;
+        if ((dry & bit) != 0) {
+            zoneHash ^= Zobrist.zone(index, ZoneState.Normal);
+        } else if ((flooded & bit) != 0) {
+            zoneHash ^= Zobrist.zone(index, ZoneState.Flooded);
+        } else if ((sunk & bit) != 0) {
+            zoneHash ^= Zobrist.zone(index, ZoneState.Inaccessible);
+        }
+        dry &= ~bit;
+        flooded &= ~bit;
+        sunk &= ~bit;
+    }
+
+    private void set(int index, ZoneState state) {
+        long bit = 1L << index;
+        zoneHash ^= Zobrist.zone(index, state);
+        switch (state) {
+            case Normal: dry |= bit; break;
+            case Flooded: flooded |= bit; break;
+            case Inaccessible: sunk |= bit; break;
+        }
+    }
+
+    @Override
+    public void zoneStateChanged(Zone zone, ZoneState previous) {
+        int index = indexOf(zone);
+        if (index == -1) {
+            return; // the zone was taken off the board
+        }
+        clear(index);
+        set(index, zone.getZone_state());
+    }
+
+    /** Gets the index of the tile of a zone, or -1 if the zone is not on the board. */
+    public int indexOf(Zone zone) {
+        if (zone == null) {
+            return -1;
+        }
+        int x = zone.getX();
+        int y = zone.getY();
+        if (x >= 0 && y >= 0 && x < size && y < size && tiles[x * size + y] == zone) {
+            return x * size + y;
+        }
+        for (int i = 0; i < tiles.length; i++) { // zones whose coordinates do not match their tile
+            if (tiles[i] == zone) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Gets the bit of the tile of a zone, or 0 if the zone is not on the board. */
+    public long bitOf(Zone zone) {
+        int index = indexOf(zone);
+        return index == -1 ? 0 : 1L << index;
+    }
+
+    public Zone getZone(int index) {
+        return tiles[index];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getDry() {
+        return dry;
+    }
+
+    public long getFlooded() {
+        return flooded;
+    }
+
+    public long getSunk() {
+        return sunk;
+    }
+
+    /** Gets the mask of the tiles that are not sunk (dry or flooded). */
+    public long getAccessible() {
+        return dry | flooded;
+    }
+
+    /** Gets the zone part of the Zobrist hash of the game: the XOR of the keys of the states of the tiles. */
+    public long getZoneHash() {
+        return zoneHash;
+    }
+
+    public int countDry() {
+        return Long.bitCount(dry);
+    }
+
+    public int countFlooded() {
+        return Long.bitCount(flooded);
+    }
+
+    public int countAccessible() {
+        return Long.bitCount(dry | flooded);
+    }
+
+    /** Gets the mask of the tiles of the zones of an artefact. */
+    public long getArtefactTiles(Artefact artefact) {
+        return artefactTiles[artefact.ordinal()];
+    }
+
+    /** Gets the number of sunk zones of an artefact. */
+    public int countSunk(Artefact artefact) {
+        return Long.bitCount(sunk & artefactTiles[artefact.ordinal()]);
+    }
+
+    /**
+     * Checks if the helicopter landing has sunk. If several zones carry its card, the first one in board order counts.
+     * @throws IllegalStateException if the helicopter landing is not on the board.
+     */
+    public boolean isHelicopterSunk() {
+        if (helicopterTiles == 0) {
+            throw new IllegalStateException("No zone found for flood card " + ZoneCard.fodls_landing);
+        }
+        return (sunk & Long.lowestOneBit(helicopterTiles)) != 0;
+    }
+
+    /**
+     * Gets the bit of the tile of the helicopter landing. If several zones carry its card, the first one in board order counts.
+     * @return The bit, 0 if the helicopter landing is not on the board.
+     */
+    public long getHelicopterTile() {
+        return Long.lowestOneBit(helicopterTiles);
+    }
+
+    /**
+     * Gets the zones of the tiles of a mask, in the order of the tile indexes (row by row, like the board).
+     * @param mask The tiles to get.
+     * @return A new list of the zones.
+     */
+    public ArrayList<Zone> zonesOf(long mask) {
+        ArrayList<Zone> res = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            res.add(tiles[Long.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,211 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The layout of an island: the card of the zone on every tile of the 5x5 board, none for the sea.
+ * A game can be built on a given layout with {@link BoardGame#BoardGame(long, IslandLayout)}.
+ * <p>
+ * The rules only depend on which tiles are next to each other, orthogonally or diagonally, so the eight rotations and
+ * reflections of a layout play the same. {@link #canonical()} picks one of them, the same for the eight, and
+ * {@link #canonicalHash()} hashes it, so that what is known about a layout can be kept once for all of them.
+ */
+public final class IslandLayout {
+    /** The side of the board. */
+    public static final int SIZE = 5;
+    /** The number of rotations and reflections of the board. */
+    public static final int SYMMETRIES = 8;
+
+    private static final ZoneCard[] ZONE_CARDS = ZoneCard.values();
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int SEA = 0xFF;
+
+    private final ZoneCard[] cards; // indexed like the tiles of the bitboard, x * SIZE + y
+
+    /**
+     * Creates a layout.
+     * @param cards The card of every tile (x * SIZE + y), null for the sea. No card may appear twice.
+     * @throws IllegalArgumentException if the array does not have a card per tile or a card appears twice.
+     */
+    public IslandLayout(ZoneCard[] cards) {
+        if (cards.length != SIZE * SIZE) {
+            throw new IllegalArgumentException("A layout needs " + SIZE * SIZE + " tiles, got " + cards.length);
+        }
+        boolean[] seen = new boolean[ZONE_CARDS.length];
+        for (ZoneCard card : cards) {
+            if (card != null) {
+                if (seen[card.ordinal()]) {
+                    throw new IllegalArgumentException("The card " + card + " appears twice");
+                }
+                seen[card.ordinal()] = true;
+            }
+        }
+        this.cards = cards.clone();
+    }
+
+    /**
+     * Gets the layout of the board of a game.
+     * @throws IllegalArgumentException if the board is not 5x5.
+     */
+    public static IslandLayout of(BoardGame game) {
+        IslandBitboard island = game.getIsland();
+        if (island.getSize() != SIZE) {
+            throw new IllegalArgumentException("Only 5x5 boards have a layout");
+        }
+        ZoneCard[] cards = new ZoneCard[SIZE * SIZE];
+        for (int i = 0; i < cards.length; i++) {
+            Zone zone = island.getZone(i);
+            cards[i] = zone == null ? null : zone.getZoneCard();
+        }
+        return new IslandLayout(cards);
+    }
+
+    /**
+     * Draws a layout like a new game does: the sea in the middle and the 24 cards in a random order around it.
+     * @param random The random source.
+     */
+    public static IslandLayout random(SplittableRandom random) {
+        ZoneCard[] deck = ZONE_CARDS.clone();
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ZoneCard card = deck[i];
+            deck[i] = deck[j];
+            deck[j] = card;
+        }
+        ZoneCard[] cards = new ZoneCard[SIZE * SIZE];
+        int next = 0;
+        for (int i = 0; i < cards.length; i++) {
+            if (i != SIZE * SIZE / 2) {
+                cards[i] = deck[next++];
+            }
+        }
+        return new IslandLayout(cards);
+    }
+
+    /** Gets the card of a tile, or null for the sea. */
+    public ZoneCard getCard(int x, int y) {
+        return cards[x * SIZE + y];
+    }
+
+    /**
+     * Gets the layout turned by a rotation or reflection of the board.
+     * @param symmetry From 0 to 7: the number of quarter turns, plus 4 to also mirror the board along its diagonal.
+     */
+    public IslandLayout transform(int symmetry) {
+        ZoneCard[] res = new ZoneCard[cards.length];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                res[x * SIZE + y] = cards[source(symmetry, x, y)];
+            }
+        }
+        return new IslandLayout(res);
+    }
+
+    /** Gets the tile of the layout that a rotation or reflection moves to the tile (x, y). */
+    private static int source(int symmetry, int x, int y) {
+        if (symmetry >= 4) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        for (int r = 0; r < (symmetry & 3); r++) {
+            int t = x;
+            x = y;
+            y = SIZE - 1 - t;
+        }
+        return x * SIZE + y;
+    }
+
+    /** Gets the rotation or reflection of the layout whose cards, tile by tile, come first; the same for all eight. */
+    public IslandLayout canonical() {
+        IslandLayout best = this;
+        for (int s = 1; s < SYMMETRIES; s++) {
+            IslandLayout other = transform(s);
+            if (other.compareTiles(best) < 0) {
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    /** Gets the hash of the canonical layout, the same for the eight rotations and reflections of the layout. */
+    public long canonicalHash() {
+        return canonical().hash();
+    }
+
+    /** Gets the FNV-1a hash of the cards, tile by tile. */
+    public long hash() {
+        long hash = FNV_OFFSET;
+        for (ZoneCard card : cards) {
+            hash = (hash ^ code(card)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the card of every tile as a byte: the ordinal of the card, 0xFF for the sea.
+     * @return A new array, indexed like the tiles (x * SIZE + y).
+     */
+    public byte[] toBytes() {
+        byte[] res = new byte[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            res[i] = (byte) code(cards[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Reads a layout written by {@link #toBytes()}.
+     * @throws IllegalArgumentException if the bytes are not a layout.
+     */
+    public static IslandLayout fromBytes(byte[] bytes) {
+        ZoneCard[] cards = new ZoneCard[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            int code = bytes[i] & 0xFF;
+            if (code != SEA && code >= ZONE_CARDS.length) {
+                throw new IllegalArgumentException("Unknown card: " + code);
+            }
+            cards[i] = code == SEA ? null : ZONE_CARDS[code];
+        }
+        return new IslandLayout(cards);
+    }
+
+    private static int code(ZoneCard card) {
+        return card == null ? SEA : card.ordinal();
+    }
+
+    private int compareTiles(IslandLayout other) {
+        for (int i = 0; i < cards.length; i++) {
+            int diff = code(cards[i]) - code(other.cards[i]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IslandLayout && Arrays.equals(cards, ((IslandLayout) o).cards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cards);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                ZoneCard card = getCard(x, y);
+                sb.append(y == 0 ? "" : " ").append(card == null ? "~" : card.toString());
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
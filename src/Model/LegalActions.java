@@ -0,0 +1,246 @@
+package Model;
+
+/**
+ * Lists and plays the complete actions of a position, encoded by {@link GameAction}.
+ * The list is written into a caller's buffer from the masks of the {@link IslandBitboard} and the card counts of the
+ * hands, so enumerating the moves of a position allocates nothing. Playing an action drives the same BoardGame methods
+ * as the view, so it is checked by the same rules.
+ */
+final class LegalActions {
+    /** An upper bound of the number of actions of any position (Helicopter Lifts with passengers being the most). */
+    static final int MAX_ACTIONS = 1024;
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private LegalActions() {
+    }
+
+    /**
+     * Writes the legal actions of the position into a buffer, in a deterministic order.
+     * While players must escape from sunk tiles, only the escapes of the one choosing (or else the first) are listed,
+     * and while the current player is over the hand limit only the discards are.
+     * Otherwise, the actions of the current player come first and the action cards of every player follow,
+     * then {@link GameAction#END_TURN}. Once the treasure cards of the turn are drawn, only ending the turn is left.
+     *
+     * @return The number of actions written, 0 if there is none (the game is being set up or lost).
+     */
+    static int generate(BoardGame game, int[] out) {
+        if (game.getGameState() == GameState.SettingUp) {
+            return 0;
+        }
+        IslandBitboard island = game.getIsland();
+        Player[] players = game.getPlayers();
+        int n = 0;
+
+        if (game.getGameState() == GameState.PlayersRunningFromAnInaccessibleZone) {
+            Player stranded = game.getCurrentPlayerRunningFromInaccessibleZone();
+            if (stranded == null) {
+                stranded = game.getPlayersOnInaccessibleZones().get(0);
+            }
+            int idx = indexOf(game, stranded);
+            for (long m = game.getEscapeMask(stranded); m != 0; m &= m - 1) {
+                out[n++] = GameAction.escape(idx, Long.numberOfTrailingZeros(m));
+            }
+            return n;
+        }
+
+        Player current = game.getPlayerForTheTurn();
+        if (game.getGameState() == GameState.Discarding || game.getGameState() == GameState.PlayerChooseCardToDiscard) {
+            int types = cardTypes(current);
+            for (int t = types; t != 0; t &= t - 1) {
+                out[n++] = GameAction.discard(CARD_TYPES[Integer.numberOfTrailingZeros(t)]);
+            }
+            return n;
+        }
+        if (game.isTreasureDrawnThisTurn()) {
+            out[n++] = GameAction.END_TURN;
+            return n;
+        }
+
+        int actions = game.getCurrentPlayerActionsNum();
+        if (actions > 0 && game.canPlayerUseBasicAction(current)) {
+            long moves = game.getMoveMask(current);
+            for (long m = moves; m != 0; m &= m - 1) {
+                out[n++] = GameAction.move(Long.numberOfTrailingZeros(m));
+            }
+            long shoreUps = game.getShoreUpMask(current);
+            for (long m = shoreUps; m != 0; m &= m - 1) {
+                out[n++] = GameAction.shoreUp(Long.numberOfTrailingZeros(m));
+            }
+            // the second shore-up of the Engineer is free, but the model still wants an action left for it
+            if (current.getPlayer_role() == PlayerRole.Engineer && game.getShoreUpsLeft() == 0 && actions >= 2) {
+                for (long m = shoreUps; m != 0; m &= m - 1) {
+                    int first = Long.numberOfTrailingZeros(m);
+                    for (long r = m & (m - 1); r != 0; r &= r - 1) {
+                        out[n++] = GameAction.shoreUpPair(first, Long.numberOfTrailingZeros(r));
+                    }
+                }
+            }
+            if (current.getPlayer_role() == PlayerRole.Pilot) {
+                long flights = island.getAccessible() & ~island.bitOf(current.getPlayer_zone()) & ~moves;
+                for (long m = flights; m != 0; m &= m - 1) {
+                    out[n++] = GameAction.fly(Long.numberOfTrailingZeros(m));
+                }
+            }
+            if (current.getPlayer_role() == PlayerRole.Navigator) {
+                for (int i = 0; i < game.getPlayerCount(); i++) {
+                    Player other = players[i];
+                    if (other == current) {
+                        continue;
+                    }
+                    long targets = game.getAdjacentMask(other.getPlayer_zone(), true) & island.getAccessible();
+                    for (long m = targets; m != 0; m &= m - 1) {
+                        out[n++] = GameAction.movePlayer(i, Long.numberOfTrailingZeros(m));
+                    }
+                }
+            }
+        }
+        if (actions > 0) {
+            int types = cardTypes(current);
+            for (int i = 0; i < game.getPlayerCount(); i++) {
+                Player other = players[i];
+                if (other == current || other.getHand().getSize() >= 5) {
+                    continue;
+                }
+                if (current.getPlayer_role() != PlayerRole.Messenger && other.getPlayer_zone() != current.getPlayer_zone()) {
+                    continue;
+                }
+                for (int t = types; t != 0; t &= t - 1) {
+                    out[n++] = GameAction.giveCard(CARD_TYPES[Integer.numberOfTrailingZeros(t)], i);
+                }
+            }
+            if (game.canTakeArtefact(current)) {
+                out[n++] = GameAction.TAKE_ARTEFACT;
+            }
+        }
+
+        // action cards, which any player may play
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            Player holder = players[i];
+            int types = cardTypes(holder);
+            if ((types & 1 << CardType.HELICOPTER_LIFT.ordinal()) != 0) {
+                Zone from = holder.getPlayer_zone();
+                int passengers = 0;
+                for (int j = 0; j < game.getPlayerCount(); j++) {
+                    if (j != i && players[j].getPlayer_zone() == from) {
+                        passengers |= 1 << j;
+                    }
+                }
+                for (long m = island.getAccessible() & ~island.bitOf(from); m != 0; m &= m - 1) {
+                    int tile = Long.numberOfTrailingZeros(m);
+                    for (int s = passengers; ; s = (s - 1) & passengers) {
+                        out[n++] = GameAction.helicopterLift(i, tile, s);
+                        if (s == 0) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if ((types & 1 << CardType.SANDBAGS.ordinal()) != 0) {
+                for (long m = island.getFlooded(); m != 0; m &= m - 1) {
+                    out[n++] = GameAction.sandbags(i, Long.numberOfTrailingZeros(m));
+                }
+            }
+        }
+        out[n++] = GameAction.END_TURN;
+        return n;
+    }
+
+    /**
+     * Plays an action through the step-by-step methods of the game.
+     * A choice left pending by the step-by-step methods (e.g. a zone to move to) is abandoned first.
+     *
+     * @return The outcome of the turn if the action ends it, null otherwise.
+     * @throws RuntimeException the exceptions of the step-by-step methods if the action is not legal.
+     */
+    static TurnOutcome apply(BoardGame game, int action) {
+        game.cancelPendingChoice();
+        Player current = game.getPlayerForTheTurn();
+        IslandBitboard island = game.getIsland();
+        switch (GameAction.kind(action)) {
+            case Move:
+                game.setPlayerChooseZoneToMoveTo();
+                game.movePlayerToZone(island.getZone(GameAction.tile(action)));
+                break;
+            case ShoreUp:
+                game.setPlayerChooseZoneToShoreUp();
+                game.playerShoreUpZone(island.getZone(GameAction.tile(action)));
+                break;
+            case ShoreUpPair:
+                game.setPlayerChooseZoneToShoreUp();
+                game.playerShoreUpZone(island.getZone(GameAction.tile(action)));
+                game.setPlayerChooseZoneToShoreUp();
+                game.playerShoreUpZone(island.getZone(GameAction.secondTile(action)));
+                break;
+            case Fly:
+                game.setPilotChooseWhereToFlyTo();
+                game.flyPilotToZone(island.getZone(GameAction.tile(action)));
+                break;
+            case MovePlayer:
+                game.setNavigatorChoosePlayerToMove();
+                game.choosePlayerByNavigator(game.getPlayers()[GameAction.player(action)]);
+                game.movePlayerToZoneByNavigator(island.getZone(GameAction.tile(action)));
+                break;
+            case GiveCard:
+                game.setPlayerGiveTreasureCards();
+                game.playerChooseCardToGive(current, cardOf(current, GameAction.card(action)));
+                game.choosePlayerToGiveCardTo(game.getPlayers()[GameAction.player(action)]);
+                break;
+            case TakeArtefact:
+                game.takeArtefact();
+                break;
+            case HelicopterLift: {
+                Player holder = game.getPlayers()[GameAction.player(action)];
+                game.playerUseActionCard(holder, cardOf(holder, CardType.HELICOPTER_LIFT));
+                for (int s = GameAction.passengers(action); s != 0; s &= s - 1) {
+                    game.choosePlayerToFlyWithCard(game.getPlayers()[Integer.numberOfTrailingZeros(s)]);
+                }
+                game.flyPlayerToZoneWithCard(island.getZone(GameAction.tile(action)));
+                break;
+            }
+            case Sandbags: {
+                Player holder = game.getPlayers()[GameAction.player(action)];
+                game.playerUseActionCard(holder, cardOf(holder, CardType.SANDBAGS));
+                game.shoreUpZoneWithCard(island.getZone(GameAction.tile(action)));
+                break;
+            }
+            case Discard:
+                game.setPlayerDiscardCard();
+                game.playerDiscardCard(current, cardOf(current, GameAction.card(action)));
+                break;
+            case Escape: {
+                Player stranded = game.getPlayers()[GameAction.player(action)];
+                if (game.getCurrentPlayerRunningFromInaccessibleZone() != stranded) {
+                    game.setPlayerChooseZoneToRunFromInaccessibleZone(stranded);
+                }
+                game.chooseZoneToRunFromInaccessible(island.getZone(GameAction.tile(action)));
+                break;
+            }
+            case EndTurn:
+                return game.finishTurn();
+        }
+        return null;
+    }
+
+    /** Gets the mask of the card types in the hand of a player, one bit per ordinal. */
+    private static int cardTypes(Player player) {
+        return player.getHand().typeMask();
+    }
+
+    private static Card cardOf(Player player, CardType type) {
+        Card card = player.getHand().find(type);
+        if (card == null) {
+            throw new IllegalArgumentException(player.getPlayer_name() + " has no " + type + " card");
+        }
+        return card;
+    }
+
+    private static int indexOf(BoardGame game, Player player) {
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            if (game.getPlayers()[i] == player) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Player " + player.getPlayer_name() + " is not part of the game");
+    }
+}
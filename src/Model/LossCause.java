@@ -0,0 +1,30 @@
+package Model;
+
+/**
+ * Enumerates the ways a game of Forbidden Island can be lost.
+ * Each cause carries the reason reported to the players when the game ends.
+ */
+public enum LossCause {
+    /** The water level has reached the skull and crossbones. */
+    WaterLevel("water level has reached maximum"),
+    /** Fools' Landing has sunk, so nobody can leave the island. */
+    HelicopterSunk("the helicopter landing site has sunk"),
+    /** Both tiles of an artefact that was not claimed yet have sunk. */
+    ArtefactLost("you have lost the artefact!"),
+    /** A player was on a sinking tile with no tile to swim to. */
+    PlayerDrowned("you have lost the player!");
+
+    private final String reason;
+
+    LossCause(String reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Gets the human-readable reason of this loss.
+     * @return The reason, e.g. "water level has reached maximum".
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -19,6 +19,7 @@ public class Player {
     private Hand hand; // The player's hand of cards
     private PlayerColor player_color; // The color associated with the player/pawn
     private List<Artefact> artefacts; // Artefacts collected by the player
+    private long zoneHash; // the Zobrist key of the role of the player on its zone
 
     /**
      * Creates a new Player instance.
@@ -47,10 +48,23 @@ public class Player {
         if(this.player_zone != null){
             this.player_zone.removePlayerFromZone(this);
         }
-        this.player_zone = zone;
+        this.setZone(zone);
         zone.addPlayerToZone(this);
     }
 
+    private void setZone(Zone zone) {
+        this.player_zone = zone;
+        this.zoneHash = Zobrist.playerTile(this.player_role, zone);
+    }
+
+    /**
+     * Gets the part of the Zobrist hash of the game that belongs to the player: its tile and the counts of its cards,
+     * both keyed by its role.
+     */
+    long getZobristHash() {
+        return zoneHash ^ Long.rotateLeft(hand.getZobristHash(), 8 * (player_role.ordinal() + 1));
+    }
+
     public PlayerRole getPlayer_role() {
         return player_role;
     }
@@ -66,7 +80,7 @@ public class Player {
         if(this.actions_remaining > 0){
             this.actions_remaining--;
         }
-        this.player_zone = player_zone;
+        this.setZone(player_zone);
     }
 
     public void reset_actions(){
@@ -75,6 +89,12 @@ public class Player {
 
     public int getActions_remaining() {return actions_remaining;}
 
+    /** Sets the actions left without any check (used to restore a {@link GameSnapshot}). */
+    void setActions_remaining(int actions_remaining) {this.actions_remaining = actions_remaining;}
+
+    /** Sets the zone of the player without updating the players of any zone (used to restore a {@link GameSnapshot}). */
+    void setPlayer_zone(Zone player_zone) {this.setZone(player_zone);}
+
     public Hand getHand(){
         return hand;
     }
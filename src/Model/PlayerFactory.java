@@ -3,14 +3,26 @@ package Model;
 import Errors.InvalidStateOfTheGameException;
 import Errors.NoRoleToAssignError;
 
-import java.util.HashSet;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class PlayerFactory {
-    private HashSet<PlayerRole> used_roles;
+    private final EnumSet<PlayerRole> used_roles = EnumSet.noneOf(PlayerRole.class);
+    private final SplittableRandom random;
+    private boolean drawn; // whether a role was drawn from the random source
 
     public PlayerFactory() {
-        this.used_roles = new HashSet<>();
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a factory assigning the roles from the given random source.
+     * @param random The random source, two factories with equally seeded sources assign the same roles.
+     */
+    public PlayerFactory(SplittableRandom random) {
+        this.random = random;
     }
     public Player createPlayer(String player_name){
         PlayerRole role_to_assign = this.getAvailibleRole();
@@ -19,11 +31,68 @@ public class PlayerFactory {
 
         return player;
     }
+
+    /**
+     * Creates a player with the given role instead of a random one.
+     * @param player_name The name of the player.
+     * @param role The role of the player.
+     * @return The new player.
+     * @throws InvalidStateOfTheGameException if the role is already taken.
+     */
+    public Player createPlayer(String player_name, PlayerRole role){
+        if(this.used_roles.contains(role)){
+            throw new InvalidStateOfTheGameException("The role " + role + " is already taken");
+        }
+        Player player = new Player(player_name, role);
+        this.used_roles.add(role);
+        return player;
+    }
+
+    /**
+     * Lists every set of distinct roles a team of the given size can have, each in the order of the roles.
+     * @param count The number of players.
+     * @return The role combinations, e.g. 15 for two players.
+     */
+    public static List<PlayerRole[]> roleCombinations(int count){
+        List<PlayerRole[]> res = new ArrayList<>();
+        addCombinations(PlayerRole.values(), new PlayerRole[count], 0, 0, res);
+        return res;
+    }
+
+    private static void addCombinations(PlayerRole[] roles, PlayerRole[] chosen, int next, int size, List<PlayerRole[]> res){
+        if(size == chosen.length){
+            res.add(chosen.clone());
+            return;
+        }
+        for(int i = next; i <= roles.length - (chosen.length - size); i++){
+            chosen[size] = roles[i];
+            addCombinations(roles, chosen, i + 1, size + 1, res);
+        }
+    }
+
+    /** Marks a role as taken, so that it is not assigned again (used to restore a {@link GameSnapshot}). */
+    void markRoleUsed(PlayerRole role){
+        this.used_roles.add(role);
+    }
+
+    /**
+     * Frees every role, if no role was drawn from the random source yet: the factory is then as good as a new one
+     * on the same source (used to restore a {@link GameSnapshot} many times without creating a factory each time).
+     * @return true if the roles were freed, false if the factory has to be replaced.
+     */
+    boolean resetIfUnused(){
+        if(this.drawn){
+            return false;
+        }
+        this.used_roles.clear();
+        return true;
+    }
+
     private PlayerRole getAvailibleRole(){
         if(this.used_roles.size() >= 6){
             throw new NoRoleToAssignError();
         }
-        Random random = new Random();
+        this.drawn = true;
         int n = random.nextInt(6);
         PlayerRole role = PlayerRole.getByNum(n);
         while(used_roles.contains(role)){
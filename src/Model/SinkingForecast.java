@@ -0,0 +1,211 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Forecasts the probability that a zone sinks within the coming turns if nobody shores it up, from what the players
+ * know of the decks: how many cards and Water Rise cards are left in the treasure draw pile, the water level, and how
+ * the flood cards are split between the draw pile and the discard pile.
+ * <p>
+ * Every turn draws {@value #TREASURES_PER_TURN} treasure cards; a Water Rise raises the water and puts every flood
+ * card back in the draw pile, then the flood phase draws as many cards as the water level says. The chance that a
+ * zone sinks only depends on the state of the decks, on whether its card is in the flood draw pile and on whether
+ * the zone is flooded, not on the zone itself, so a dynamic program over these few numbers serves every zone.
+ * Its values are memoized in a primitive open-addressing table keyed by the packed state, which is emptied rather
+ * than reallocated when the reshuffled deck changes, so once warm a forecast allocates nothing. The four values of the
+ * current position (flood card drawn or not, zone flooded or not) are cached until one of the decks changes.
+ * <p>
+ * The forecast ignores the cards the players will discard, so a treasure deck running out is reshuffled into the
+ * current discard pile and the Water Rise cards drawn meanwhile. A game lost to the water stops the forecast:
+ * the zones that had not sunk by then count as not sunk. The other ways to lose are left out, so over long horizons
+ * the forecast is the risk of a zone in a game that goes on.
+ */
+final class SinkingForecast {
+    static final int TREASURES_PER_TURN = 2;
+    private static final int FLOOD_CARDS = ZoneCard.values().length;
+    private static final int MAX_TURNS = 63;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] keys = new long[INITIAL_CAPACITY]; // 0 for a free slot, the keys of the memo have turns > 0
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int count;
+    private int reshuffledSize = -1; // the treasure draw pile after a reshuffle of the discards
+    private int reshuffledWaterRises = -1;
+    private long position = -1; // the decks and the horizon the start values were computed for
+    private final double[] start = new double[4]; // by (card in the draw pile) * 2 + (zone flooded), NaN until computed
+
+    /**
+     * Gets the probability that a zone sinks within a number of turns.
+     * @param turns The number of flood phases to look at, at most 63.
+     * @param treasureDrawn Whether the treasure cards of the current turn were already drawn.
+     * @param treasureDeck The treasure deck.
+     * @param level The water level.
+     * @param floodDrawSize The number of cards in the flood draw pile.
+     * @param inDrawPile Whether the card of the zone is in the flood draw pile.
+     * @param flooded Whether the zone is flooded rather than dry.
+     */
+    double sinkProbability(int turns, boolean treasureDrawn, TreasureDeck treasureDeck, int level, int floodDrawSize,
+                           boolean inDrawPile, boolean flooded) {
+        if (turns < 0 || turns > MAX_TURNS) {
+            throw new IllegalArgumentException("The forecast covers 0 to " + MAX_TURNS + " turns, not " + turns);
+        }
+        int waterRises = treasureDeck.getWaterRisesInDrawPile();
+        int size = treasureDeck.getDiscardSize() + waterRises;
+        int rises = treasureDeck.getWaterRisesInDiscardPile() + waterRises;
+        if (size != reshuffledSize || rises != reshuffledWaterRises) {
+            clearMemo();
+            reshuffledSize = size;
+            reshuffledWaterRises = rises;
+            position = -1;
+        }
+        int treasureSize = treasureDeck.getDrawSize();
+        long key = key(turns, treasureDrawn ? 0 : TREASURES_PER_TURN, treasureSize, waterRises, level, floodDrawSize, false, false);
+        if (key != position) {
+            position = key;
+            Arrays.fill(start, Double.NaN);
+        }
+        int i = (inDrawPile ? 2 : 0) + (flooded ? 1 : 0);
+        if (Double.isNaN(start[i])) {
+            start[i] = value(turns, treasureDrawn ? 0 : TREASURES_PER_TURN, treasureSize, waterRises, level,
+                    floodDrawSize, inDrawPile, flooded);
+        }
+        return start[i];
+    }
+
+    /**
+     * Gets the probability that the zone sinks before the end of the horizon.
+     * @param turns The flood phases left, the current one included.
+     * @param toDraw The treasure cards left to draw before the current flood phase.
+     */
+    private double value(int turns, int toDraw, int treasureSize, int waterRises, int level, int floodDrawSize,
+                         boolean inDrawPile, boolean flooded) {
+        if (turns == 0) {
+            return 0;
+        }
+        long key = key(turns, toDraw, treasureSize, waterRises, level, floodDrawSize, inDrawPile, flooded);
+        double known = lookUp(key);
+        if (!Double.isNaN(known)) {
+            return known;
+        }
+        double res = toDraw > 0
+                ? drawTreasure(turns, toDraw, treasureSize, waterRises, level, floodDrawSize, inDrawPile, flooded)
+                : flood(turns, treasureSize, waterRises, level, floodDrawSize, inDrawPile, flooded);
+        store(key, res);
+        return res;
+    }
+
+    /** Gets the memoized value of a state, or NaN if it was not computed. */
+    private double lookUp(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    private void store(long key, double value) {
+        if (2 * (count + 1) > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            count++;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                store(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void clearMemo() {
+        if (count > 0) {
+            Arrays.fill(keys, 0);
+            count = 0;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private double drawTreasure(int turns, int toDraw, int treasureSize, int waterRises, int level, int floodDrawSize,
+                                boolean inDrawPile, boolean flooded) {
+        if (treasureSize == 0) {
+            treasureSize = reshuffledSize;
+            waterRises = reshuffledWaterRises;
+            if (treasureSize == 0) {
+                return value(turns, 0, 0, 0, level, floodDrawSize, inDrawPile, flooded);
+            }
+        }
+        double rise = (double) waterRises / treasureSize;
+        double res = 0;
+        if (rise < 1) {
+            res += (1 - rise) * value(turns, toDraw - 1, treasureSize - 1, waterRises, level, floodDrawSize,
+                    inDrawPile, flooded);
+        }
+        if (rise > 0 && level + 1 < WaterMeter.MAX_LEVEL) { // otherwise the game is lost to the water
+            res += rise * value(turns, toDraw - 1, treasureSize - 1, waterRises - 1, level + 1, FLOOD_CARDS,
+                    true, flooded);
+        }
+        return res;
+    }
+
+    /** Draws the flood cards of the phase, then goes on with the next turn. */
+    private double flood(int turns, int treasureSize, int waterRises, int level, int floodDrawSize,
+                         boolean inDrawPile, boolean flooded) {
+        int rate = WaterMeter.floodRate(level);
+        if (rate <= floodDrawSize) {
+            int left = floodDrawSize - rate;
+            if (!inDrawPile) {
+                return next(turns, treasureSize, waterRises, level, left, false, flooded);
+            }
+            double drawn = (double) rate / floodDrawSize;
+            double res = drawn * (flooded ? 1 : next(turns, treasureSize, waterRises, level, left, false, true));
+            return res + (1 - drawn) * next(turns, treasureSize, waterRises, level, left, true, flooded);
+        }
+        // the draw pile runs out: all of it comes up, then every card is reshuffled and the rest drawn from them
+        int rest = Math.min(rate - floodDrawSize, FLOOD_CARDS);
+        if (inDrawPile) {
+            if (flooded) {
+                return 1;
+            }
+            flooded = true;
+        }
+        double again = (double) rest / FLOOD_CARDS;
+        double res = again * (flooded ? 1 : next(turns, treasureSize, waterRises, level, FLOOD_CARDS - rest, false, true));
+        return res + (1 - again) * next(turns, treasureSize, waterRises, level, FLOOD_CARDS - rest, true, flooded);
+    }
+
+    /** Goes on with the next turn, after a flood phase. */
+    private double next(int turns, int treasureSize, int waterRises, int level, int floodDrawSize,
+                        boolean inDrawPile, boolean flooded) {
+        return value(turns - 1, TREASURES_PER_TURN, treasureSize, waterRises, level, floodDrawSize, inDrawPile, flooded);
+    }
+
+    private static long key(int turns, int toDraw, int treasureSize, int waterRises, int level, int floodDrawSize,
+                            boolean inDrawPile, boolean flooded) {
+        return (long) turns << 32 | (long) toDraw << 28 | (long) treasureSize << 20 | (long) waterRises << 16
+                | (long) level << 11 | (long) floodDrawSize << 2 | (inDrawPile ? 2 : 0) | (flooded ? 1 : 0);
+    }
+}
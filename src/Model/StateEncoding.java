@@ -0,0 +1,98 @@
+package Model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a position of the game in a fixed number of bytes, for training evaluators outside of the game.
+ * Every position of a 5x5 board has the same layout, so a file of encoded positions can be read as a plain array:
+ *
+ * <pre>
+ * offset  size  content
+ *      0    25  the tiles (x * 5 + y): the ordinal of the card of the zone &lt;&lt; 2 | its state (0 dry, 1 flooded,
+ *               2 sunk), 0xFF for the sea
+ *     25     8  per player slot: the ordinal of the role and the index of the tile, 0xFF 0xFF for an empty slot
+ *     33    28  per player slot: the number of cards of every {@link CardType}, in the order of the ordinals
+ *     61     4  the sizes of the draw and discard piles of the treasure deck, then of the flood deck
+ *     65     1  the water level
+ *     66     1  the index of the player whose turn it is, 0xFF before the game starts
+ *     67     1  the actions left to the current player
+ *     68     1  the claimed artefacts, one bit per ordinal
+ *     69     1  the ordinal of the {@link GameState}
+ *     70     1  the shore-ups left to the Engineer for the current action
+ *     71     1  1 once the treasure cards of the turn are drawn, 0 before
+ * </pre>
+ */
+public final class StateEncoding {
+    /** The number of tiles of an encoded board. */
+    public static final int TILES = 25;
+    /** The number of player slots of an encoded position. */
+    public static final int PLAYERS = 4;
+    /** The number of bytes of an encoded position. */
+    public static final int SIZE = 72;
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final Artefact[] ARTEFACTS = Artefact.values();
+    private static final int NONE = 0xFF;
+
+    private StateEncoding() {
+    }
+
+    /**
+     * Writes the encoded position of a game at the position of a buffer, advancing it by {@link #SIZE} bytes.
+     * @param game The game to encode, with a 5x5 board.
+     * @param out The buffer, with at least {@link #SIZE} bytes remaining.
+     * @throws IllegalArgumentException if the board of the game is not 5x5.
+     */
+    public static void encode(BoardGame game, ByteBuffer out) {
+        IslandBitboard island = game.getIsland();
+        if (island.getSize() * island.getSize() != TILES) {
+            throw new IllegalArgumentException("Only 5x5 boards can be encoded");
+        }
+        long flooded = island.getFlooded();
+        long sunk = island.getSunk();
+        for (int i = 0; i < TILES; i++) {
+            Zone zone = island.getZone(i);
+            ZoneCard card = zone == null ? null : zone.getZoneCard();
+            if (card == null) {
+                out.put((byte) NONE);
+                continue;
+            }
+            long bit = 1L << i;
+            int state = (sunk & bit) != 0 ? 2 : (flooded & bit) != 0 ? 1 : 0;
+            out.put((byte) (card.ordinal() << 2 | state));
+        }
+
+        Player[] players = game.getPlayers();
+        for (int p = 0; p < PLAYERS; p++) {
+            Player player = p < game.getPlayerCount() ? players[p] : null;
+            if (player == null) {
+                out.put((byte) NONE).put((byte) NONE);
+            } else {
+                int tile = island.indexOf(player.getPlayer_zone());
+                out.put((byte) player.getPlayer_role().ordinal()).put((byte) (tile == -1 ? NONE : tile));
+            }
+        }
+        for (int p = 0; p < PLAYERS; p++) {
+            Hand hand = p < game.getPlayerCount() && players[p] != null ? players[p].getHand() : null;
+            for (CardType type : CARD_TYPES) {
+                out.put((byte) (hand == null ? 0 : hand.count(type)));
+            }
+        }
+
+        out.put((byte) game.getTreasureDeck().getDrawSize()).put((byte) game.getTreasureDeck().getDiscardSize())
+                .put((byte) game.getFloodDeck().getDrawSize()).put((byte) game.getFloodDeck().getDiscardSize());
+        out.put((byte) game.getWaterMeterLevel());
+        out.put((byte) (game.getPlayerTurnId() < 0 ? NONE : game.getPlayerTurnId()));
+        out.put((byte) game.getCurrentPlayerActionsNum());
+        int claimed = 0;
+        for (Artefact artefact : ARTEFACTS) {
+            if (game.isArtefactTaken(artefact)) {
+                claimed |= 1 << artefact.ordinal();
+            }
+        }
+        out.put((byte) claimed);
+        out.put((byte) game.getGameState().ordinal());
+        out.put((byte) game.getShoreUpsLeft());
+        out.put((byte) (game.isTreasureDrawnThisTurn() ? 1 : 0));
+    }
+}
@@ -2,11 +2,18 @@ package Model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class TreasureDeck extends Deck<Card> {
+    private int waterRisesInDrawPile;
+    private int waterRisesInDiscardPile;
 
     public TreasureDeck() {
-        super(initTreasureCards());
+        this(new SplittableRandom());
+    }
+
+    public TreasureDeck(SplittableRandom random) {
+        super(initTreasureCards(), random);
         shuffle();
     }
 
@@ -27,8 +34,40 @@ public class TreasureDeck extends Deck<Card> {
 
     public void addWaterRiseCards() {
         for (int i = 0; i < 3; i++) {
-            drawCards.add(new Card(CardType.WATER_RISE));
+            addToDrawPile(new Card(CardType.WATER_RISE));
         }
         shuffle();
     }
+
+    /** Gets the number of Water Rise cards in the draw pile, kept up to date by every change of the deck. */
+    public int getWaterRisesInDrawPile() {
+        return waterRisesInDrawPile;
+    }
+
+    /** Gets the number of Water Rise cards in the discard pile. */
+    public int getWaterRisesInDiscardPile() {
+        return waterRisesInDiscardPile;
+    }
+
+    @Override
+    protected void cardAdded(Card card, boolean toDraw) {
+        if (card.isWaterRise()) {
+            if (toDraw) {
+                waterRisesInDrawPile++;
+            } else {
+                waterRisesInDiscardPile++;
+            }
+        }
+    }
+
+    @Override
+    protected void cardRemoved(Card card, boolean fromDraw) {
+        if (card.isWaterRise()) {
+            if (fromDraw) {
+                waterRisesInDrawPile--;
+            } else {
+                waterRisesInDiscardPile--;
+            }
+        }
+    }
 }
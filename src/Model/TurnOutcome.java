@@ -0,0 +1,107 @@
+package Model;
+
+/**
+ * The outcome of ending a turn, returned by {@link BoardGame#finishTurn()} instead of being thrown.
+ * Outcomes are immutable and shared, so ending a turn never allocates one.
+ */
+public final class TurnOutcome {
+    /** What ending the turn led to. */
+    public enum Type {
+        /** The turn passed to the next player. */
+        Continue,
+        /** The win condition is met. */
+        Won,
+        /** A lose condition is met, see {@link #getLossCause()}. */
+        Lost,
+        /** The player is over the hand limit and must discard before ending the turn again. */
+        MustDiscard
+    }
+
+    public static final TurnOutcome WON = new TurnOutcome(Type.Won, null, false, false);
+    public static final TurnOutcome MUST_DISCARD = new TurnOutcome(Type.MustDiscard, null, false, false);
+    private static final TurnOutcome[] CONTINUE = {
+            new TurnOutcome(Type.Continue, null, false, false),
+            new TurnOutcome(Type.Continue, null, true, false),
+            new TurnOutcome(Type.Continue, null, false, true),
+            new TurnOutcome(Type.Continue, null, true, true),
+    };
+    private static final TurnOutcome[] LOST = new TurnOutcome[LossCause.values().length];
+    static {
+        for (LossCause cause : LossCause.values()) {
+            LOST[cause.ordinal()] = new TurnOutcome(Type.Lost, cause, false, false);
+        }
+    }
+
+    private final Type type;
+    private final LossCause lossCause;
+    private final boolean waterRose;
+    private final boolean playersStranded;
+
+    private TurnOutcome(Type type, LossCause lossCause, boolean waterRose, boolean playersStranded) {
+        this.type = type;
+        this.lossCause = lossCause;
+        this.waterRose = waterRose;
+        this.playersStranded = playersStranded;
+    }
+
+    /**
+     * Gets the outcome of a turn that passed to the next player.
+     * @param waterRose If a Water Rise card was drawn during the turn.
+     * @param playersStranded If players must escape from sunk zones before the next player acts.
+     */
+    public static TurnOutcome continued(boolean waterRose, boolean playersStranded) {
+        return CONTINUE[(waterRose ? 1 : 0) | (playersStranded ? 2 : 0)];
+    }
+
+    /** Gets the outcome of a lost game. */
+    public static TurnOutcome lost(LossCause cause) {
+        return LOST[cause.ordinal()];
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isWon() {
+        return type == Type.Won;
+    }
+
+    public boolean isLost() {
+        return type == Type.Lost;
+    }
+
+    /** Checks if the game has ended, won or lost. */
+    public boolean isGameOver() {
+        return type == Type.Won || type == Type.Lost;
+    }
+
+    public boolean mustDiscard() {
+        return type == Type.MustDiscard;
+    }
+
+    /** Gets the cause of the loss, or null if the game is not lost. */
+    public LossCause getLossCause() {
+        return lossCause;
+    }
+
+    /** Checks if a Water Rise card was drawn during the turn (only for a turn that passed to the next player). */
+    public boolean hasWaterRisen() {
+        return waterRose;
+    }
+
+    /** Checks if players must escape from sunk zones (only for a turn that passed to the next player). */
+    public boolean arePlayersStranded() {
+        return playersStranded;
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.Lost) {
+            return "Lost: " + lossCause.getReason();
+        }
+        if (type == Type.Continue) {
+            return "Continue" + (waterRose ? ", water rose" : "") + (playersStranded ? ", players stranded" : "");
+        }
+        return type.toString();
+    }
+}
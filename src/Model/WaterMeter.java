@@ -20,10 +20,22 @@ public class WaterMeter {
         return level;
     }
 
+    void setLevel(int level) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Invalid water level: " + level);
+        }
+        this.level = level;
+    }
+
     public int getCurrentFloodRate() {
         return FLOOD_RATE[level];
     }
 
+    /** Gets the number of flood cards drawn per turn at a water level. */
+    static int floodRate(int level) {
+        return FLOOD_RATE[level];
+    }
+
     public void resetLevel() {
         level = 0;
     }
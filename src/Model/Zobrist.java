@@ -0,0 +1,93 @@
+package Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * The random keys of the Zobrist hash of a game (see {@link BoardGame#getZobristHash()}).
+ * Every part of the state that the hash covers has a key per value, and the hash of a state is the XOR
+ * of the keys of its values, so a change of one value is two XORs.
+ * The keys come from a fixed seed, so the hash of a position is the same in every run.
+ */
+final class Zobrist {
+    /** The largest count of cards of one type that has its own key; larger counts share the keys modulo this. */
+    static final int MAX_COUNT = 32;
+    private static final int TILES = Long.SIZE;
+    private static final int MAX_ACTIONS = 8;
+
+    private static final long[][] ZONE = new long[ZoneState.values().length][TILES];
+    private static final long[][] PLAYER_TILE = new long[PlayerRole.values().length][TILES];
+    private static final long[][] HAND = new long[CardType.values().length][MAX_COUNT];
+    private static final long[] WATER = new long[WaterMeter.MAX_LEVEL + 1];
+    private static final long[] CLAIMED = new long[Artefact.values().length];
+    private static final long[] TURN = new long[TILES + 1];
+    private static final long[] ACTIONS = new long[MAX_ACTIONS];
+    private static final long[] STATE = new long[GameState.values().length];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_F0B1_DDE1_1A4DL);
+        fill(random, ZONE);
+        fill(random, PLAYER_TILE);
+        for (long[] keys : HAND) {
+            for (int count = 1; count < keys.length; count++) { // no card of a type has no key
+                keys[count] = random.nextLong();
+            }
+        }
+        fill(random, WATER);
+        fill(random, CLAIMED);
+        fill(random, TURN);
+        fill(random, ACTIONS);
+        fill(random, STATE);
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(SplittableRandom random, long[][] keys) {
+        for (long[] row : keys) {
+            fill(random, row);
+        }
+    }
+
+    private static void fill(SplittableRandom random, long[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    static long zone(int index, ZoneState state) {
+        return ZONE[state.ordinal()][index];
+    }
+
+    /** Gets the key of a player of a role on the zone at (x, y); a player off the board has no key. */
+    static long playerTile(PlayerRole role, Zone zone) {
+        if (zone == null) {
+            return 0;
+        }
+        return PLAYER_TILE[role.ordinal()][((zone.getX() & 7) << 3) | (zone.getY() & 7)];
+    }
+
+    static long hand(CardType type, int count) {
+        return HAND[type.ordinal()][count % MAX_COUNT];
+    }
+
+    static long water(int level) {
+        return WATER[level];
+    }
+
+    static long claimed(Artefact artefact) {
+        return CLAIMED[artefact.ordinal()];
+    }
+
+    /** Gets the key of the turn of a player, or of no turn (-1) before the game starts. */
+    static long turn(int playerTurnId) {
+        return TURN[(playerTurnId + 1) % TURN.length];
+    }
+
+    static long actions(int actions) {
+        return ACTIONS[Math.floorMod(actions, MAX_ACTIONS)];
+    }
+
+    static long state(GameState state) {
+        return STATE[state.ordinal()];
+    }
+}
@@ -6,6 +6,7 @@ import Errors.ZoneIsInaccessibleException;
 
 import java.security.InvalidParameterException;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Random;
 
 public class Zone {
@@ -18,12 +19,13 @@ public class Zone {
     protected int X;
     protected int Y;
     protected ZoneCard zone_card;
+    private ZoneStateListener state_listener;
 
     public Zone(int x, int y, boolean accessible, ZoneCard zone_card) {
         this.zone_state = ZoneState.Normal;
         this.zone_name = "";
         this.zone_type = ZoneType.Casual;
-        this.players_on_zone = new HashSet<>();
+        this.players_on_zone = new LinkedHashSet<>();
         this.X = x;
         this.Y = y;
         this.zone_card = zone_card;
@@ -70,18 +72,37 @@ public class Zone {
     public void floodZone(){
         switch (zone_state){
             case Normal: {
-                this.zone_state = ZoneState.Flooded;
+                this.setZoneState(ZoneState.Flooded);
                 break;
             }
 
             case Flooded: {
-                this.zone_state = ZoneState.Inaccessible;
+                this.setZoneState(ZoneState.Inaccessible);
                 break;
             }
             default: break;
         }
     }
 
+    /** Changes the state of the zone and notifies the listener, if any. */
+    private void setZoneState(ZoneState state){
+        ZoneState previous = this.zone_state;
+        this.zone_state = state;
+        if(state_listener != null && previous != state){
+            state_listener.zoneStateChanged(this, previous);
+        }
+    }
+
+    /** Puts the zone back in the given state, whatever its current one (used to restore a {@link GameSnapshot}). */
+    void restoreState(ZoneState state){
+        this.setZoneState(state);
+    }
+
+    /** Sets the listener notified of every state change of this zone (used to keep the packed island in sync). */
+    void setStateListener(ZoneStateListener listener){
+        this.state_listener = listener;
+    }
+
     public ZoneState getZone_state() {
         return zone_state;
     }
@@ -98,7 +119,7 @@ public class Zone {
         }if(this.zone_state == ZoneState.Normal){
             throw new InvalidParameterException("This zone is not flooded!");
         }
-        this.zone_state = ZoneState.Normal;
+        this.setZoneState(ZoneState.Normal);
     }
 
     public String toString() {
@@ -132,9 +153,9 @@ public class Zone {
         this.players_on_zone.remove(player);
     }
     public void makeInaccessible(){
-        this.zone_state = ZoneState.Inaccessible;
+        this.setZoneState(ZoneState.Inaccessible);
     }
     public void makeAccessible(){
-        this.zone_state = ZoneState.Normal;
+        this.setZoneState(ZoneState.Normal);
     }
 }
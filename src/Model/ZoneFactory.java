@@ -3,14 +3,24 @@ package Model;
 import Errors.AllTheCardsAreUsedException;
 
 import java.util.HashSet;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class ZoneFactory {
 
     private HashSet<ZoneCard> used_cards ;
+    private final SplittableRandom random;
 
     public ZoneFactory() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a factory drawing the layout of the island from the given random source.
+     * @param random The random source, two factories with equally seeded sources create the same island.
+     */
+    public ZoneFactory(SplittableRandom random) {
         used_cards = new HashSet<>();
+        this.random = random;
     }
 
 
@@ -18,11 +28,10 @@ public class ZoneFactory {
         if(used_cards.size() >= 24){
             throw new AllTheCardsAreUsedException();
         }
-        Random rand = new Random();
-        int x = rand.nextInt(24);
+        int x = random.nextInt(24);
         ZoneCard zc = ZoneCard.fromInt(x);
         while(used_cards.contains(zc)) {
-            x = rand.nextInt(24);
+            x = random.nextInt(24);
             zc = ZoneCard.fromInt(x);
         }
         return zc;
@@ -31,6 +40,17 @@ public class ZoneFactory {
     public Zone createRandomZone(int x, int y){
         ZoneCard zc = getAvaliableCard();
         used_cards.add(zc);
+        return createZone(x, y, zc);
+    }
+
+    /**
+     * Creates the zone of the given card, of the type the card calls for (start, helicopter, artefact or simple zone).
+     * @param x The x-coordinate on the board.
+     * @param y The y-coordinate on the board.
+     * @param zc The card of the zone.
+     * @return The new zone.
+     */
+    public Zone createZone(int x, int y, ZoneCard zc){
         Zone zone = null;
         switch (zc){
             case fodls_landing:
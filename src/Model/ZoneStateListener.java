@@ -0,0 +1,13 @@
+package Model;
+
+/**
+ * Receives the state changes of the zones it is registered on.
+ */
+interface ZoneStateListener {
+    /**
+     * Called after the state of a zone has changed.
+     * @param zone The zone whose state changed.
+     * @param previous The state of the zone before the change.
+     */
+    void zoneStateChanged(Zone zone, ZoneState previous);
+}
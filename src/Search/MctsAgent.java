@@ -0,0 +1,158 @@
+package Search;
+
+import Model.BoardGame;
+import Model.GameAction;
+import Model.GameSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Chooses complete actions for the current position of a game with a Monte Carlo Tree Search.
+ * The search uses root parallelism: every thread grows its own tree from a snapshot of the position,
+ * with its own copy of the game and its own random source, until the wall-clock budget of the move runs out.
+ * The visits of the actions of the roots are then summed and the most visited action is chosen.
+ * The threads share nothing while they search, so the playouts per second grow with the number of cores.
+ * The hidden cards are redealt at every iteration, so the agent never reads the order of the decks.
+ */
+public class MctsAgent implements AutoCloseable {
+    /** The default weight of the exploration term of UCT. */
+    public static final double DEFAULT_EXPLORATION = 0.7;
+    /** The default number of turns a playout lasts before the position is scored. */
+    public static final int DEFAULT_PLAYOUT_TURNS = 6;
+
+    private final int threads;
+    private final long budgetNanos;
+    private final double exploration;
+    private final int playoutTurns;
+    private final SplittableRandom random;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an agent with the default search parameters.
+     * @param threads The number of threads searching in parallel.
+     * @param budgetMillis The wall-clock time of the search of one move.
+     * @param seed The seed of the random sources of the threads.
+     */
+    public MctsAgent(int threads, long budgetMillis, long seed) {
+        this(threads, budgetMillis, seed, DEFAULT_EXPLORATION, DEFAULT_PLAYOUT_TURNS);
+    }
+
+    /**
+     * Creates an agent.
+     * @param threads The number of threads searching in parallel.
+     * @param budgetMillis The wall-clock time of the search of one move.
+     * @param seed The seed of the random sources of the threads.
+     * @param exploration The weight of the exploration term of UCT.
+     * @param playoutTurns The number of turns a playout lasts before the position is scored.
+     */
+    public MctsAgent(int threads, long budgetMillis, long seed, double exploration, int playoutTurns) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.exploration = exploration;
+        this.playoutTurns = playoutTurns;
+        this.random = new SplittableRandom(seed);
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Chooses an action for the current position.
+     * @param game The game, left untouched.
+     * @return The chosen action, encoded by {@link GameAction}.
+     * @throws IllegalStateException if the position has no legal action.
+     */
+    public int chooseAction(BoardGame game) {
+        return search(game).getAction();
+    }
+
+    /**
+     * Searches the current position for the time budget.
+     * @param game The game, left untouched.
+     * @return The chosen action and the statistics of the search.
+     * @throws IllegalStateException if the position has no legal action.
+     */
+    public SearchResult search(BoardGame game) {
+        return search(game, () -> false);
+    }
+
+    /**
+     * Searches the current position for the time budget, or until the search is cancelled.
+     * A cancelled search still chooses an action, from the iterations it had time for.
+     * @param game The game, left untouched.
+     * @param cancelled Polled by every thread between its iterations; the search stops once it returns true.
+     * @return The chosen action and the statistics of the search.
+     * @throws IllegalStateException if the position has no legal action.
+     */
+    public SearchResult search(BoardGame game, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        int[] actions = game.getLegalActions();
+        if (actions.length == 0) {
+            throw new IllegalStateException("The position has no legal action");
+        }
+        if (actions.length == 1) {
+            return new SearchResult(actions[0], 0, 0, 0, System.nanoTime() - start, threads);
+        }
+        GameSnapshot root = game.snapshot();
+        long deadline = start + budgetNanos;
+
+        List<MctsTree> trees = new ArrayList<>(threads);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            MctsTree tree = new MctsTree(root, random.split(), exploration, playoutTurns);
+            trees.add(tree);
+            tasks.add(pool.submit(() -> tree.searchUntil(deadline, cancelled)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        // sum the statistics of the actions of the roots
+        int[] visits = new int[actions.length];
+        double[] rewards = new double[actions.length];
+        long playouts = 0;
+        for (MctsTree tree : trees) {
+            playouts += tree.getIterations();
+            MctsTree.Node node = tree.getRoot();
+            for (int c = 0; c < node.expanded; c++) {
+                MctsTree.Node child = node.children[c];
+                int idx = indexOf(actions, child.action);
+                visits[idx] += child.visits;
+                rewards[idx] += child.reward;
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < actions.length; i++) {
+            if (visits[i] > visits[best] || (visits[i] == visits[best] && rewards[i] > rewards[best])) {
+                best = i;
+            }
+        }
+        double value = visits[best] == 0 ? 0 : rewards[best] / visits[best];
+        return new SearchResult(actions[best], visits[best], value, playouts, System.nanoTime() - start, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Stops the threads of the agent. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static int indexOf(int[] actions, int action) {
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] == action) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown root action " + GameAction.toString(action));
+    }
+}
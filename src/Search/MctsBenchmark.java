@@ -0,0 +1,54 @@
+package Search;
+
+import Model.BoardGame;
+
+/**
+ * Measures how the playouts per second of the {@link MctsAgent} scale with the number of threads.
+ * The same position is searched with 1, 2, 4, ... threads up to the number of cores, and the throughput
+ * is reported with the speedup over one thread.
+ */
+public class MctsBenchmark {
+    private MctsBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark from the command line.
+     * Arguments (all optional): budget of a search in milliseconds, number of searches per thread count,
+     * maximal number of threads, seed of the game.
+     */
+    public static void main(String[] args) {
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        BoardGame game = new BoardGame(seed);
+        for (int i = 0; i < 4; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        game.startGame();
+
+        double base = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            try (MctsAgent agent = new MctsAgent(threads, budget, seed)) {
+                agent.search(game); // warm up
+                long playouts = 0;
+                long nanos = 0;
+                for (int i = 0; i < searches; i++) {
+                    SearchResult result = agent.search(game);
+                    playouts += result.getPlayouts();
+                    nanos += result.getElapsedNanos();
+                }
+                double rate = playouts * 1e9 / nanos;
+                if (threads == 1) {
+                    base = rate;
+                }
+                System.out.printf("%2d threads: %10.0f playouts/s  speedup %.2f%n", threads, rate, rate / base);
+            }
+        }
+    }
+
+    private static int nextThreadCount(int threads, int maxThreads) {
+        return threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2;
+    }
+}
@@ -0,0 +1,55 @@
+package Search;
+
+import Model.BoardGame;
+import Model.Card;
+import Model.GameAction;
+import Model.Player;
+import Model.Zone;
+import Simulation.GamePolicy;
+
+import java.util.List;
+
+/**
+ * Plays the games of the {@link Simulation.GameSimulator} with an {@link MctsAgent}.
+ * Every action of a turn, every discard and every escape is searched by the agent.
+ * Closing the policy closes the agent.
+ */
+public class MctsPolicy implements GamePolicy, AutoCloseable {
+    private final MctsAgent agent;
+
+    public MctsPolicy(MctsAgent agent) {
+        this.agent = agent;
+    }
+
+    @Override
+    public void playTurn(BoardGame game, Player player) {
+        while (true) {
+            int action = agent.chooseAction(game);
+            if (action == GameAction.END_TURN) {
+                return;
+            }
+            game.apply(action);
+        }
+    }
+
+    @Override
+    public Card chooseCardToDiscard(BoardGame game, Player player) {
+        int action = agent.chooseAction(game);
+        for (Card card : player.getHand().getCards()) {
+            if (card.getType() == GameAction.card(action)) {
+                return card;
+            }
+        }
+        throw new IllegalStateException("The agent chose to discard a card the player does not have");
+    }
+
+    @Override
+    public Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones) {
+        return game.getIsland().getZone(GameAction.tile(agent.chooseAction(game)));
+    }
+
+    @Override
+    public void close() {
+        agent.close();
+    }
+}
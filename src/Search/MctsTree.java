@@ -0,0 +1,261 @@
+package Search;
+
+import Model.Artefact;
+import Model.BoardGame;
+import Model.Card;
+import Model.GameAction;
+import Model.GameSnapshot;
+import Model.IslandBitboard;
+import Model.Player;
+import Model.TurnOutcome;
+import Model.WaterMeter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The search tree of one worker of the {@link MctsAgent}.
+ * Every iteration restores the root position into the worker's own game, redeals the hidden cards
+ * (so the search samples the coming draws instead of reading them), walks down the tree with UCT, adds one node,
+ * plays a random playout and backs the reward up.
+ * Ending a turn leads to a chance node whose children are the positions the draws led to, keyed by what they changed.
+ * Nothing is shared with the other workers.
+ */
+final class MctsTree {
+    private static final Artefact[] ARTEFACTS = Artefact.values();
+
+    /** A node of the tree: a decision node, or a chance node if it follows {@link GameAction#END_TURN}. */
+    static final class Node {
+        final int action; // the action leading to the node
+        int[] actions;     // the legal actions of the position, in random order, null until the node is visited
+        Node[] children;
+        int expanded;      // number of children created, the first ones of actions
+        int visits;
+        double reward;
+        HashMap<Long, Node> outcomes; // children of a chance node, by key of the position the draws led to
+
+        Node(int action) {
+            this.action = action;
+        }
+
+        boolean isChance() {
+            return action == GameAction.END_TURN;
+        }
+    }
+
+    private final GameSnapshot root;
+    private final BoardGame game;
+    private final SplittableRandom random;
+    private final double exploration;
+    private final int playoutTurns;
+    private final int[] buffer = new int[BoardGame.MAX_LEGAL_ACTIONS];
+    private final ArrayList<Node> path = new ArrayList<>();
+    private final Node rootNode = new Node(-1);
+    private int iterations;
+
+    MctsTree(GameSnapshot root, SplittableRandom random, double exploration, int playoutTurns) {
+        this.root = root;
+        this.game = root.restore();
+        this.random = random;
+        this.exploration = exploration;
+        this.playoutTurns = playoutTurns;
+    }
+
+    Node getRoot() {
+        return rootNode;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    /** Runs iterations until the deadline (of {@link System#nanoTime()}), or until the search is cancelled. */
+    void searchUntil(long deadline, BooleanSupplier cancelled) {
+        do {
+            iterate();
+        } while (System.nanoTime() < deadline && !cancelled.getAsBoolean());
+    }
+
+    /** Runs one iteration: selection, expansion, playout and backup. */
+    void iterate() {
+        root.restoreInto(game);
+        game.redealHiddenCards(random);
+        path.clear();
+        Node node = rootNode;
+        path.add(node);
+        double reward;
+        while (true) {
+            if (node.actions == null) {
+                node.actions = game.getLegalActions();
+                node.children = new Node[node.actions.length];
+            }
+            int n = node.actions.length;
+            if (n == 0) {
+                reward = 0; // a stranded player has nowhere to go
+                break;
+            }
+            Node child;
+            boolean isNew = node.expanded < n;
+            if (isNew) {
+                int pick = node.expanded + random.nextInt(n - node.expanded);
+                int action = node.actions[pick];
+                node.actions[pick] = node.actions[node.expanded];
+                node.actions[node.expanded] = action;
+                child = new Node(action);
+                node.children[node.expanded++] = child;
+            } else {
+                child = select(node);
+            }
+            path.add(child);
+            TurnOutcome outcome = game.apply(child.action);
+            if (outcome != null && outcome.isGameOver()) {
+                reward = outcome.isWon() ? 1 : 0;
+                break;
+            }
+            if (child.isChance()) {
+                if (child.outcomes == null) {
+                    child.outcomes = new HashMap<>();
+                }
+                Node next = child.outcomes.computeIfAbsent(outcomeKey(game), k -> new Node(-1));
+                path.add(next);
+                isNew = isNew || next.visits == 0;
+                child = next;
+            }
+            if (isNew) {
+                reward = playout();
+                break;
+            }
+            node = child;
+        }
+        for (Node visited : path) {
+            visited.visits++;
+            visited.reward += reward;
+        }
+        iterations++;
+    }
+
+    /** Picks the child with the best upper confidence bound. */
+    private Node select(Node node) {
+        double logVisits = Math.log(node.visits);
+        Node best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < node.expanded; i++) {
+            Node child = node.children[i];
+            double score = child.reward / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays random actions for a few turns and scores the position reached.
+     * Artefacts are always taken. Otherwise, most of the time, the action is picked among the moves, shore-ups and
+     * gives, so that the playout spends its actions instead of ending the turn or playing the many Helicopter Lifts.
+     */
+    private double playout() {
+        int turns = 0;
+        while (turns < playoutTurns) {
+            int n = game.getLegalActions(buffer);
+            if (n == 0) {
+                return 0;
+            }
+            int action = pick(n);
+            TurnOutcome outcome = game.apply(action);
+            if (outcome != null) {
+                if (outcome.isGameOver()) {
+                    return outcome.isWon() ? 1 : 0;
+                }
+                turns++;
+            }
+        }
+        return evaluate(game);
+    }
+
+    private int pick(int n) {
+        int likely = 0;
+        for (int i = 0; i < n; i++) {
+            if (buffer[i] == GameAction.TAKE_ARTEFACT) {
+                return buffer[i];
+            }
+            if (!isUnlikely(buffer[i])) {
+                likely++;
+            }
+        }
+        if (likely == 0 || random.nextInt(8) == 0) {
+            return buffer[random.nextInt(n)];
+        }
+        int k = random.nextInt(likely);
+        for (int i = 0; ; i++) {
+            if (!isUnlikely(buffer[i]) && k-- == 0) {
+                return buffer[i];
+            }
+        }
+    }
+
+    private static boolean isUnlikely(int action) {
+        switch (GameAction.kind(action)) {
+            case EndTurn:
+            case HelicopterLift:
+            case Sandbags:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Scores a position which is neither won nor lost, below the score of a win:
+     * mostly the claimed artefacts, then the best set of treasure cards towards the next one,
+     * the tiles still standing and the water level.
+     */
+    static double evaluate(BoardGame game) {
+        int claimed = 0;
+        for (Artefact artefact : ARTEFACTS) {
+            if (game.isArtefactTaken(artefact)) {
+                claimed++;
+            }
+        }
+        int bestSet = 0;
+        int[] counts = new int[4];
+        for (Player player : game.getPlayers()) {
+            if (player == null) {
+                continue;
+            }
+            Arrays.fill(counts, 0);
+            for (Card card : player.getHand().getCards()) {
+                if (card.isTreasure()) {
+                    bestSet = Math.max(bestSet, ++counts[card.getType().ordinal()]);
+                }
+            }
+        }
+        IslandBitboard island = game.getIsland();
+        return 0.45 * claimed / ARTEFACTS.length
+                + 0.15 * Math.min(bestSet, 4) / 4
+                + 0.2 * island.countAccessible() / (island.getSize() * island.getSize())
+                + 0.1 * (1 - (double) game.getWaterMeterLevel() / WaterMeter.MAX_LEVEL);
+    }
+
+    /** Gets a key of what the draws of a turn changed: the tiles, the water level, the player to act and the hands. */
+    private static long outcomeKey(BoardGame game) {
+        IslandBitboard island = game.getIsland();
+        long key = island.getDry() * 0x9E3779B97F4A7C15L;
+        key ^= island.getFlooded() * 0xC2B2AE3D27D4EB4FL;
+        key += game.getWaterMeterLevel() * 0x165667B19E3779F9L + game.getPlayerTurnId();
+        for (Player player : game.getPlayers()) {
+            if (player == null) {
+                continue;
+            }
+            key *= 0x100000001B3L;
+            for (Card card : player.getHand().getCards()) {
+                key += 1L << (card.getType().ordinal() * 4);
+            }
+        }
+        return key ^ (key >>> 29);
+    }
+}
@@ -0,0 +1,278 @@
+package Search;
+
+import Model.Artefact;
+import Model.BoardGame;
+import Model.GameSnapshot;
+import Model.TurnOutcome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solves a game whose deck orders are known: decides whether it can be won and finds the shortest winning line.
+ * Used to grade how hard a generated board is.
+ * <p>
+ * The solver reads the decks, so unlike the {@link MctsAgent} it sees the coming draws, and every line of actions has
+ * one outcome. It runs an iterative deepening depth-first search over the legal actions: every iteration searches
+ * all the lines of at most one more action than the last, so the first win found is a shortest one.
+ * <ul>
+ *     <li>The first levels of every iteration fork a task per action, so every core searches its own subtrees.
+ *     Each thread restores the positions into its own game ({@link GameSnapshot#restoreInto(BoardGame)} reuses
+ *     its objects), and every level below is a plain depth-first search on that game.</li>
+ *     <li>A line is cut as soon as a turn ends in a lose condition (water level, helicopter landing sunk,
+ *     both tiles of an unclaimed artefact sunk, a player drowned), and when it is shorter than the actions the
+ *     unclaimed artefacts still need.</li>
+ *     <li>A shared {@link TranspositionTable}, keyed by {@link BoardGame#getStateHash()}, remembers the positions
+ *     that cannot be won within some depth, so a position reached by several orders of the same actions is searched
+ *     once per iteration, and a position proven lost is never searched again.</li>
+ * </ul>
+ * If an iteration is not cut by its depth anywhere, every line loses and the game is proven unwinnable.
+ */
+public class PerfectInformationSolver implements AutoCloseable {
+    /** The default number of levels of the search that are split into parallel tasks. */
+    public static final int DEFAULT_PARALLEL_DEPTH = 2;
+    /** The default number of entries of the transposition table. */
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+    private static final int ARTEFACT_COUNT = Artefact.values().length;
+    // the results of the search of a subtree
+    private static final int WIN = 1;
+    private static final int CUT = 0; // no win within the depth, but the depth cut some lines
+    private static final int LOST = -1; // every line loses
+
+    private final int threads;
+    private final int parallelDepth;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /** Creates a solver using every core, with the default parameters. */
+    public PerfectInformationSolver() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_DEPTH, DEFAULT_TABLE_CAPACITY);
+    }
+
+    /**
+     * Creates a solver.
+     * @param threads The number of threads searching in parallel.
+     * @param parallelDepth The number of levels split into parallel tasks, 0 to search on one thread.
+     * @param tableCapacity The number of entries of the transposition table.
+     */
+    public PerfectInformationSolver(int threads, int parallelDepth, int tableCapacity) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        if (parallelDepth < 0) {
+            throw new IllegalArgumentException("Invalid parallel depth: " + parallelDepth);
+        }
+        this.threads = threads;
+        this.parallelDepth = parallelDepth;
+        this.pool = new ForkJoinPool(threads);
+        this.table = new TranspositionTable(tableCapacity);
+    }
+
+    /**
+     * Solves the current position of a game.
+     * @param game The game, left untouched.
+     * @param maxDepth The largest number of actions of a line the solver tries.
+     * @return Whether the game can be won, with a shortest winning line if it can.
+     */
+    public SolverResult solve(BoardGame game, int maxDepth) {
+        long start = System.nanoTime();
+        if (game.getLossCause() != null) {
+            return new SolverResult(SolverResult.Status.Unwinnable, new int[0], 0, 0, System.nanoTime() - start, threads);
+        }
+        GameSnapshot root = game.snapshot();
+        table.clear();
+        LongAdder nodes = new LongAdder();
+        for (int depth = Math.max(1, minimalLength(game)); depth <= maxDepth; depth++) {
+            table.newGeneration();
+            Iteration iteration = new Iteration(nodes);
+            pool.invoke(new SolveTask(iteration, root, new int[0], depth));
+            int[] line = iteration.winningLine.get();
+            if (line != null) {
+                return new SolverResult(SolverResult.Status.Winnable, line, depth, nodes.sum(),
+                        System.nanoTime() - start, threads);
+            }
+            if (!iteration.cut) {
+                return new SolverResult(SolverResult.Status.Unwinnable, new int[0], depth, nodes.sum(),
+                        System.nanoTime() - start, threads);
+            }
+        }
+        return new SolverResult(SolverResult.Status.Unknown, new int[0], maxDepth, nodes.sum(),
+                System.nanoTime() - start, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Stops the threads of the solver. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** Gets the fewest actions that can still win: one per unclaimed artefact, and the end of the turn. */
+    private static int minimalLength(BoardGame game) {
+        return ARTEFACT_COUNT - game.countClaimedArtefacts() + 1;
+    }
+
+    /** The state of one iteration shared by its tasks. */
+    private static final class Iteration {
+        final LongAdder nodes;
+        final AtomicReference<int[]> winningLine = new AtomicReference<>();
+        volatile boolean cut;
+
+        Iteration(LongAdder nodes) {
+            this.nodes = nodes;
+        }
+
+        boolean isSolved() {
+            return winningLine.get() != null;
+        }
+
+        void win(int[] line, int length) {
+            winningLine.compareAndSet(null, Arrays.copyOf(line, length));
+        }
+    }
+
+    /** The game and the action buffers of one thread. */
+    private static final class Worker {
+        BoardGame game;
+        int[][] actions = new int[0][];
+
+        BoardGame restore(GameSnapshot position) {
+            if (game == null) {
+                game = position.restore();
+            } else {
+                position.restoreInto(game);
+            }
+            return game;
+        }
+
+        int[] actionsAt(int ply) {
+            if (ply >= actions.length) {
+                actions = Arrays.copyOf(actions, ply + 1);
+            }
+            if (actions[ply] == null) {
+                actions[ply] = new int[BoardGame.MAX_LEGAL_ACTIONS];
+            }
+            return actions[ply];
+        }
+    }
+
+    /**
+     * Searches the lines from a position. On the first levels, forks a task per legal action;
+     * below, searches depth-first on the game of its thread.
+     */
+    private final class SolveTask extends RecursiveAction {
+        private final Iteration iteration;
+        private final GameSnapshot position;
+        private final int[] line; // the actions from the root to the position
+        private final int remaining;
+
+        SolveTask(Iteration iteration, GameSnapshot position, int[] line, int remaining) {
+            this.iteration = iteration;
+            this.position = position;
+            this.line = line;
+            this.remaining = remaining;
+        }
+
+        @Override
+        protected void compute() {
+            if (iteration.isSolved()) {
+                return;
+            }
+            Worker worker = workers.get();
+            BoardGame game = worker.restore(position);
+            if (line.length >= parallelDepth) {
+                int[] buffer = Arrays.copyOf(line, line.length + remaining);
+                if (search(worker, game, remaining, buffer, line.length) == CUT) {
+                    iteration.cut = true;
+                }
+                return;
+            }
+
+            // the game of the thread is free again once the children are created: they restore their own position
+            int[] actions = game.getLegalActions();
+            List<SolveTask> children = new ArrayList<>(actions.length);
+            for (int i = 0; i < actions.length; i++) {
+                if (i > 0) {
+                    position.restoreInto(game);
+                }
+                TurnOutcome outcome = game.apply(actions[i]);
+                iteration.nodes.increment();
+                int[] childLine = Arrays.copyOf(line, line.length + 1);
+                childLine[line.length] = actions[i];
+                if (outcome != null && outcome.isWon()) {
+                    iteration.win(childLine, childLine.length);
+                    return;
+                }
+                if (outcome != null && outcome.isLost()) {
+                    continue;
+                }
+                if (remaining - 1 < minimalLength(game)) {
+                    iteration.cut = true;
+                    continue;
+                }
+                children.add(new SolveTask(iteration, game.snapshot(), childLine, remaining - 1));
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * Searches the lines of at most the remaining actions from the position of the game, depth-first.
+         * Leaves the game in any state.
+         * @return {@link #WIN} (the line is in the buffer and given to the iteration), {@link #CUT} or {@link #LOST}.
+         */
+        private int search(Worker worker, BoardGame game, int remaining, int[] buffer, int ply) {
+            if (iteration.isSolved()) {
+                return CUT;
+            }
+            long key = game.getStateHash();
+            long data = table.probe(key);
+            if (data != TranspositionTable.MISS && TranspositionTable.depth(data) >= remaining) {
+                return TranspositionTable.depth(data) == TranspositionTable.MAX_DEPTH ? LOST : CUT;
+            }
+            if (remaining < minimalLength(game)) {
+                return CUT;
+            }
+            GameSnapshot here = game.snapshot();
+            int[] actions = worker.actionsAt(ply);
+            int count = game.getLegalActions(actions);
+            int result = LOST;
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    here.restoreInto(game);
+                }
+                TurnOutcome outcome = game.apply(actions[i]);
+                iteration.nodes.increment();
+                buffer[ply] = actions[i];
+                if (outcome != null && outcome.isWon()) {
+                    iteration.win(buffer, ply + 1);
+                    return WIN;
+                }
+                if (outcome != null && outcome.isLost()) {
+                    continue;
+                }
+                int child = remaining == 1 ? CUT : search(worker, game, remaining - 1, buffer, ply + 1);
+                if (child == WIN) {
+                    return WIN;
+                }
+                if (child == CUT) {
+                    result = CUT;
+                }
+            }
+            if (!iteration.isSolved()) { // an aborted search proves nothing
+                int depth = result == LOST ? TranspositionTable.MAX_DEPTH : Math.min(remaining, TranspositionTable.MAX_DEPTH - 1);
+                table.store(key, 0, depth, 0, TranspositionTable.UPPER);
+            }
+            return result;
+        }
+    }
+}
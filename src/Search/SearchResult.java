@@ -0,0 +1,63 @@
+package Search;
+
+import Model.GameAction;
+
+/**
+ * The outcome of one search of the {@link MctsAgent}: the chosen action and what the search cost.
+ */
+public class SearchResult {
+    private final int action;
+    private final int visits;
+    private final double value;
+    private final long playouts;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public SearchResult(int action, int visits, double value, long playouts, long elapsedNanos, int threads) {
+        this.action = action;
+        this.visits = visits;
+        this.value = value;
+        this.playouts = playouts;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /** Gets the chosen action, encoded by {@link GameAction}. */
+    public int getAction() {
+        return action;
+    }
+
+    /** Gets the number of times the chosen action was tried, summed over the threads. */
+    public int getVisits() {
+        return visits;
+    }
+
+    /** Gets the mean reward of the chosen action, between 0 (lost) and 1 (won). */
+    public double getValue() {
+        return value;
+    }
+
+    /** Gets the number of playouts of the search, summed over the threads. */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Gets the throughput of the search in playouts per second. */
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d visits, value %.3f) - %d playouts in %.0f ms on %d threads (%.0f playouts/s)",
+                GameAction.toString(action), visits, value, playouts, elapsedNanos / 1e6, threads, getPlayoutsPerSecond());
+    }
+}
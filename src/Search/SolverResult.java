@@ -0,0 +1,75 @@
+package Search;
+
+import Model.GameAction;
+
+/**
+ * The outcome of a {@link PerfectInformationSolver}: whether the game can be won and the shortest winning line.
+ */
+public class SolverResult {
+    /** What the solver could prove. */
+    public enum Status {
+        /** A winning line was found, and no shorter one exists. */
+        Winnable,
+        /** Every line loses, whatever its length. */
+        Unwinnable,
+        /** No line of at most the maximal depth wins, but longer lines were cut. */
+        Unknown
+    }
+
+    private final Status status;
+    private final int[] line;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public SolverResult(Status status, int[] line, int depth, long nodes, long elapsedNanos, int threads) {
+        this.status = status;
+        this.line = line.clone();
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isWinnable() {
+        return status == Status.Winnable;
+    }
+
+    /** Gets the shortest winning line, encoded by {@link GameAction}, or an empty line if none was found. */
+    public int[] getLine() {
+        return line.clone();
+    }
+
+    /** Gets the depth of the last completed iteration, which is the length of the line if one was found. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** Gets the number of positions searched, summed over every iteration and thread. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder actions = new StringBuilder();
+        for (int action : line) {
+            actions.append(actions.length() == 0 ? "" : ", ").append(GameAction.toString(action));
+        }
+        return String.format("%s at depth %d - %d nodes in %.0f ms on %d threads%s", status, depth, nodes,
+                elapsedNanos / 1e6, threads, line.length == 0 ? "" : ": " + actions);
+    }
+}
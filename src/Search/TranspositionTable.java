@@ -0,0 +1,183 @@
+package Search;
+
+import Model.BoardGame;
+import Model.GameAction;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded table of the results of searched positions, keyed by {@link BoardGame#getZobristHash()},
+ * that any number of threads can probe and fill without locks.
+ * <p>
+ * Every entry is two longs: the key XOR the data, then the data. A reader accepts an entry only if the XOR of the
+ * two longs it read is the key it looks for, so an entry torn by two writers racing is a miss instead of wrong data.
+ * The data packs the best action, the searched depth, the generation of the search that stored it, a value and
+ * the kind of bound the value is.
+ * <p>
+ * The table is split in buckets of two entries. A store for a key of the bucket updates that entry unless it holds
+ * a deeper result of the current generation; otherwise it takes an empty entry, or else evicts the entry that is the
+ * shallowest once every generation it is old counts as {@link #AGE_PENALTY} plies less.
+ */
+public class TranspositionTable {
+    /** The value is the exact value of the position. */
+    public static final int EXACT = 0;
+    /** The position is worth at least the value. */
+    public static final int LOWER = 1;
+    /** The position is worth at most the value. */
+    public static final int UPPER = 2;
+    /** The result of {@link #probe(long)} when the key is not in the table. */
+    public static final long MISS = 0;
+    /** The deepest depth an entry can keep. */
+    public static final int MAX_DEPTH = 0xFF;
+
+    private static final int BUCKET = 2;
+    private static final int AGE_PENALTY = 4;
+    private static final long PRESENT = 1L << 63;
+    private static final int ACTION_BITS = 24;
+    private static final int DEPTH_SHIFT = 24;
+    private static final int GENERATION_SHIFT = 32;
+    private static final int VALUE_SHIFT = 40;
+    private static final int BOUND_SHIFT = 56;
+
+    private final AtomicLongArray entries;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Creates a table.
+     * @param capacity The number of entries, rounded up to a power of two (at least two).
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("Invalid capacity of a transposition table: " + capacity);
+        }
+        int buckets = Math.max(1, Integer.highestOneBit(Math.max(BUCKET, capacity) * 2 - 1) / BUCKET);
+        this.entries = new AtomicLongArray(buckets * BUCKET * 2);
+        this.bucketMask = buckets - 1;
+    }
+
+    /** Gets the number of entries of the table. */
+    public int capacity() {
+        return entries.length() / 2;
+    }
+
+    /**
+     * Starts a new generation: the entries stored so far are kept but are evicted first.
+     * Call it before every new search.
+     */
+    public void newGeneration() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /** Empties the table. Not safe while other threads use it. */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0);
+        }
+        generation = 0;
+    }
+
+    /**
+     * Looks a position up.
+     * @param key The Zobrist hash of the position.
+     * @return The packed data of the entry, read with {@link #action(long)}, {@link #depth(long)},
+     *         {@link #value(long)} and {@link #bound(long)}, or {@link #MISS}.
+     */
+    public long probe(long key) {
+        int first = bucketOf(key);
+        for (int e = 0; e < BUCKET; e++) {
+            int i = first + 2 * e;
+            long data = entries.get(i + 1);
+            if (data != MISS && (entries.get(i) ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of the search of a position.
+     * @param key The Zobrist hash of the position.
+     * @param value The value of the position, between {@link Short#MIN_VALUE} and {@link Short#MAX_VALUE}.
+     * @param depth The depth the position was searched to, clamped to {@link #MAX_DEPTH}.
+     * @param action The best action found, encoded by {@link GameAction}.
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     */
+    public void store(long key, int value, int depth, int action, int bound) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        int gen = generation;
+        long data = pack(value, Math.min(Math.max(depth, 0), MAX_DEPTH), gen, action, bound);
+        int first = bucketOf(key);
+        int victim = -1;
+        int victimScore = Integer.MAX_VALUE;
+        for (int e = 0; e < BUCKET; e++) {
+            int i = first + 2 * e;
+            long old = entries.get(i + 1);
+            if (old == MISS) {
+                if (victimScore > Integer.MIN_VALUE) { // the first empty entry
+                    victim = i;
+                    victimScore = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((entries.get(i) ^ old) == key) {
+                if (generation(old) == gen && depth(old) > depth) {
+                    return; // keep the deeper result of this search
+                }
+                write(i, key, data);
+                return;
+            }
+            int age = (gen - generation(old)) & 0xFF;
+            int score = depth(old) - AGE_PENALTY * age;
+            if (score < victimScore) {
+                victim = i;
+                victimScore = score;
+            }
+        }
+        write(victim, key, data);
+    }
+
+    private void write(int i, long key, long data) {
+        entries.set(i + 1, data);
+        entries.set(i, key ^ data);
+    }
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET * 2;
+    }
+
+    private static long pack(int value, int depth, int generation, int action, int bound) {
+        return PRESENT
+                | ((long) (bound & 0x3) << BOUND_SHIFT)
+                | ((long) (value & 0xFFFF) << VALUE_SHIFT)
+                | ((long) generation << GENERATION_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | (action & ((1L << ACTION_BITS) - 1));
+    }
+
+    /** Gets the best action of the data of an entry. */
+    public static int action(long data) {
+        return (int) (data & ((1L << ACTION_BITS) - 1));
+    }
+
+    /** Gets the depth of the data of an entry. */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /** Gets the value of the data of an entry. */
+    public static int value(long data) {
+        return (short) (data >>> VALUE_SHIFT);
+    }
+
+    /** Gets the kind of bound of the value of the data of an entry. */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+}
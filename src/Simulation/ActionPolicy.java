@@ -0,0 +1,21 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.GameAction;
+
+/**
+ * Chooses one complete action at a time among the legal actions of a position, encoded by {@link GameAction}.
+ * Unlike a {@link GamePolicy}, it does not drive the game itself, so the caller sees every decision,
+ * e.g. to record it.
+ */
+@FunctionalInterface
+public interface ActionPolicy {
+    /**
+     * Chooses the action to play.
+     * @param game The game, which must not be changed.
+     * @param actions The legal actions of the position, as listed by {@link BoardGame#getLegalActions(int[])}.
+     * @param count The number of legal actions, at least 1.
+     * @return One of the legal actions.
+     */
+    int chooseAction(BoardGame game, int[] actions, int count);
+}
@@ -0,0 +1,44 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.Card;
+import Model.Player;
+import Model.Zone;
+
+import java.util.List;
+
+/**
+ * Decides the moves of the players when a game is played without the GUI.
+ * The {@link GameSimulator} asks the policy for every decision the rules leave to the players
+ * and takes care of ending the turns itself.
+ */
+public interface GamePolicy {
+    /**
+     * Plays the actions of the player whose turn it is.
+     * The policy drives the BoardGame directly (e.g. setPlayerChooseZoneToMoveTo then movePlayerToZone)
+     * and returns when it wants to end the turn. It must not call {@link BoardGame#endTurn()} itself.
+     *
+     * @param game The game being played.
+     * @param player The player whose turn it is.
+     */
+    void playTurn(BoardGame game, Player player);
+
+    /**
+     * Chooses a card to discard when the player is over the hand limit.
+     *
+     * @param game The game being played.
+     * @param player The player who must discard.
+     * @return A card from the player's hand.
+     */
+    Card chooseCardToDiscard(BoardGame game, Player player);
+
+    /**
+     * Chooses where a player escapes to when their zone has sunk.
+     *
+     * @param game The game being played.
+     * @param player The player who must escape.
+     * @param zones The zones the player can escape to, never empty.
+     * @return One of the given zones.
+     */
+    Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones);
+}
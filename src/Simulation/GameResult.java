@@ -0,0 +1,56 @@
+package Simulation;
+
+import Model.LossCause;
+
+/**
+ * The result of one simulated game: won, lost (with its cause) or stopped at the turn limit.
+ */
+public final class GameResult {
+    private final boolean won;
+    private final LossCause lossCause;
+    private final int turns;
+
+    private GameResult(boolean won, LossCause lossCause, int turns) {
+        this.won = won;
+        this.lossCause = lossCause;
+        this.turns = turns;
+    }
+
+    public static GameResult won(int turns) {
+        return new GameResult(true, null, turns);
+    }
+
+    public static GameResult lost(LossCause cause, int turns) {
+        return new GameResult(false, cause, turns);
+    }
+
+    /** A game that neither was won nor lost before the turn limit. */
+    public static GameResult unfinished(int turns) {
+        return new GameResult(false, null, turns);
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isLost() {
+        return lossCause != null;
+    }
+
+    /** Gets the cause of the loss, or null if the game was not lost. */
+    public LossCause getLossCause() {
+        return lossCause;
+    }
+
+    /** Gets the number of turns that were ended before the game finished. */
+    public int getTurns() {
+        return turns;
+    }
+
+    @Override
+    public String toString() {
+        if (won) return "won after " + turns + " turns";
+        if (lossCause != null) return "lost (" + lossCause.getReason() + ") after " + turns + " turns";
+        return "unfinished after " + turns + " turns";
+    }
+}
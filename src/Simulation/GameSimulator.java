@@ -0,0 +1,154 @@
+package Simulation;
+
+import Errors.GameOverException;
+import Errors.GameWonException;
+import Model.BoardGame;
+import Model.LossCause;
+import Model.Player;
+import Model.PlayerAction;
+import Model.PlayerRole;
+import Model.TurnOutcome;
+import Model.Zone;
+
+import java.util.List;
+
+/**
+ * Plays complete games of Forbidden Island without any view.
+ * Drives the BoardGame the same way the GameController does: adds the players, starts the game,
+ * lets the policy play every turn and then ends the turn, resolving discards and escapes from sunk zones,
+ * until the game is won, lost, or the turn limit is reached.
+ * Turns are ended with {@link BoardGame#finishTurn()}, so the normal course of a game throws no exception.
+ */
+public class GameSimulator {
+    public static final int DEFAULT_MAX_TURNS = 500;
+
+    private final int playerCount;
+    private final int maxTurns;
+
+    /**
+     * Creates a simulator for games with the given number of players.
+     * @param playerCount The number of players, between 2 and 4.
+     * @param maxTurns The number of turns after which a game is stopped as unfinished.
+     */
+    public GameSimulator(int playerCount, int maxTurns) {
+        if (playerCount < 2 || playerCount > 4) {
+            throw new IllegalArgumentException("The number of players must be between 2 and 4");
+        }
+        this.playerCount = playerCount;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Plays one game from setup to the end.
+     * @param seed The seed of the game, see {@link BoardGame#BoardGame(long)}.
+     * @param policy The policy choosing the moves of all players.
+     * @return The result of the game.
+     */
+    public GameResult play(long seed, GamePolicy policy) {
+        BoardGame game = new BoardGame(seed);
+        for (int i = 0; i < playerCount; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        game.startGame();
+        return playOut(game, policy);
+    }
+
+    /**
+     * Plays one game from setup to the end with a chosen team, so that the same deal can be replayed with other policies.
+     * @param seed The seed of the game, see {@link BoardGame#BoardGame(long)}.
+     * @param roles The roles of the players, one per player in the order they play.
+     * @param policy The policy choosing the moves of all players.
+     * @return The result of the game.
+     */
+    public GameResult play(long seed, PlayerRole[] roles, GamePolicy policy) {
+        if (roles.length != playerCount) {
+            throw new IllegalArgumentException("Expected " + playerCount + " roles, got " + roles.length);
+        }
+        BoardGame game = new BoardGame(seed);
+        for (int i = 0; i < playerCount; i++) {
+            game.addPlayer("Player " + (i + 1), roles[i]);
+        }
+        game.startGame();
+        return playOut(game, policy);
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Plays a started game from its current position to the end, for instance a game restored from a snapshot.
+     * The game must be at the start of a turn or in the middle of one, not waiting for a discard or an escape.
+     * @param game The game to play on.
+     * @param policy The policy choosing the moves of all players.
+     * @return The result of the game, counting the turns from the current position.
+     */
+    public GameResult playOut(BoardGame game, GamePolicy policy) {
+        int turns = 0;
+        try {
+            while (turns < maxTurns) {
+                Player current = game.getPlayerForTheTurn();
+                policy.playTurn(game, current);
+                TurnOutcome outcome = endTurn(game, policy, current);
+                if (outcome.isWon()) {
+                    return GameResult.won(turns);
+                }
+                if (outcome.isLost()) {
+                    return GameResult.lost(outcome.getLossCause(), turns);
+                }
+                turns++;
+                if (outcome.arePlayersStranded() && !runFromSunkZones(game, policy)) {
+                    return GameResult.lost(LossCause.PlayerDrowned, turns);
+                }
+            }
+        } catch (GameWonException e) { // policies may still use the throwing parts of the model
+            return GameResult.won(turns);
+        } catch (GameOverException e) {
+            return GameResult.lost(e.getLossCause(), turns);
+        }
+        return GameResult.unfinished(turns);
+    }
+
+    /**
+     * Ends the turn of the current player. A Water Rise only matters to the view,
+     * and a full hand is resolved by discarding the cards chosen by the policy before ending the turn again.
+     * @return The outcome of the turn, never {@link TurnOutcome.Type#MustDiscard}.
+     */
+    private TurnOutcome endTurn(BoardGame game, GamePolicy policy, Player current) {
+        TurnOutcome outcome = game.finishTurn();
+        while (outcome.mustDiscard()) {
+            game.setPlayerDiscardCard();
+            while (!game.canPlayerUseBasicAction(current)) {
+                game.playerDiscardCard(current, policy.chooseCardToDiscard(game, current));
+            }
+            outcome = game.finishTurn();
+        }
+        return outcome;
+    }
+
+    /**
+     * Moves every player standing on a sunk zone to the zone chosen by the policy.
+     * @return false if a player has nowhere to go.
+     */
+    private boolean runFromSunkZones(BoardGame game, GamePolicy policy) {
+        while (game.arePlayersRunningFromInaccesbleZone()) {
+            Player stranded = null;
+            for (Player p : game.getPlayers()) {
+                if (p != null && game.getPossiblePlayerActionsForCurrentTurn(p).contains(PlayerAction.RunFromInaccessibleZone)) {
+                    stranded = p;
+                    break;
+                }
+            }
+            if (stranded == null) {
+                return true;
+            }
+            game.setPlayerChooseZoneToRunFromInaccessibleZone(stranded);
+            List<Zone> zones = game.getZonesToRunFromInaccessibleZone();
+            if (zones.isEmpty()) {
+                return false;
+            }
+            game.chooseZoneToRunFromInaccessible(policy.chooseZoneToRunTo(game, stranded, zones));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,397 @@
+package Simulation;
+
+import Model.Artefact;
+import Model.BoardGame;
+import Model.Card;
+import Model.CardType;
+import Model.GameAction;
+import Model.Hand;
+import Model.IslandBitboard;
+import Model.Player;
+import Model.PlayerRole;
+import Model.Zone;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fast rule-based policies for rollouts. Every decision scores the complete legal actions of the position,
+ * listed into a buffer the policy keeps ({@link BoardGame#getLegalActions(int[])}), from the masks of the island and
+ * the card counts of the hands, and plays the best one with {@link BoardGame#apply(int)}: no zone list, action list
+ * or card list is built, so choosing an action allocates nothing. Playing it still does when a player moves, as the
+ * player is added to the player set of its new zone, which takes a set entry: a turn allocates a few dozen bytes.
+ * <p>
+ * Every policy takes the artefacts it can, gathers the team on the helicopter landing once the four artefacts are
+ * claimed, and walks a player holding four cards of an artefact to its tiles. On top of that:
+ * <ul>
+ *     <li>{@link #shoreUp(SplittableRandom)} shores up the helicopter landing and the tiles of the unclaimed artefacts
+ *     first, the last tile of an artefact before all;</li>
+ *     <li>{@link #treasureFunnel(SplittableRandom)} also funnels the Treasure cards of every type to the player holding
+ *     most of them, walking the players to each other to trade;</li>
+ *     <li>{@link #repositioning(SplittableRandom)} also flies the Pilot and lets the Navigator move the others
+ *     towards their goals.</li>
+ * </ul>
+ * Ties are broken at random, so the policies still explore in rollouts. The same choices are available one encoded
+ * action at a time through {@link #chooseAction(BoardGame, int[], int)}.
+ */
+public class HeuristicPolicy implements GamePolicy, ActionPolicy {
+    private static final Artefact[] ARTEFACTS = Artefact.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private static final double WIN = 1e6;
+    private static final double TAKE_ARTEFACT = 1e4;
+    private static final double NEVER = -1e6;
+    private static final double KEY_SHORE_UP = 40; // the helicopter landing or a tile of an unclaimed artefact
+    private static final double LAST_TILE_SHORE_UP = 80; // ...whose other tile has sunk
+    private static final double SHORE_UP = 4;
+    private static final double SINK_RISK = 0.5; // times the chance the tile sinks soon, to break ties
+    private static final int RISK_TURNS = 3; // the horizon of that chance
+    private static final double STEP = 10; // a step closer to the goal of a player
+    private static final double FUNNEL_GIFT = 20;
+    private static final double FLIGHT_COST = 15; // a flight has to gain more than a walk to be worth an action
+
+    private final SplittableRandom random;
+    private final boolean shoreUp;
+    private final boolean funnel;
+    private final boolean repositioning;
+    private final int[] actions = new int[BoardGame.MAX_LEGAL_ACTIONS];
+
+    /**
+     * Creates a policy.
+     * @param random The random source breaking the ties.
+     * @param shoreUp Whether the key tiles are shored up first.
+     * @param funnel Whether the Treasure cards are funnelled to one player per type.
+     * @param repositioning Whether the Pilot flies and the Navigator moves the others.
+     */
+    public HeuristicPolicy(SplittableRandom random, boolean shoreUp, boolean funnel, boolean repositioning) {
+        this.random = random;
+        this.shoreUp = shoreUp;
+        this.funnel = funnel;
+        this.repositioning = repositioning;
+    }
+
+    /** Creates the policy shoring up the key tiles greedily. */
+    public static HeuristicPolicy shoreUp(SplittableRandom random) {
+        return new HeuristicPolicy(random, true, false, false);
+    }
+
+    /** Creates the policy shoring up the key tiles and funnelling the Treasure cards. */
+    public static HeuristicPolicy treasureFunnel(SplittableRandom random) {
+        return new HeuristicPolicy(random, true, true, false);
+    }
+
+    /** Creates the policy using every heuristic, including the moves of the Pilot and the Navigator. */
+    public static HeuristicPolicy repositioning(SplittableRandom random) {
+        return new HeuristicPolicy(random, true, true, true);
+    }
+
+    @Override
+    public void playTurn(BoardGame game, Player player) {
+        while (true) {
+            int action = chooseAction(game, actions, game.getLegalActions(actions));
+            if (action == GameAction.END_TURN) {
+                return;
+            }
+            game.apply(action);
+        }
+    }
+
+    @Override
+    public int chooseAction(BoardGame game, int[] actions, int count) {
+        switch (GameAction.kind(actions[0])) {
+            case Discard:
+                return GameAction.discard(worstCard(game, game.getPlayerForTheTurn().getHand()));
+            case Escape: {
+                Player stranded = game.getPlayers()[GameAction.player(actions[0])];
+                int best = actions[0];
+                double bestScore = -Double.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    double score = escapeValue(game, stranded, GameAction.tile(actions[i]));
+                    if (score > bestScore) {
+                        best = actions[i];
+                        bestScore = score;
+                    }
+                }
+                return best;
+            }
+            default: {
+                Player player = game.getPlayerForTheTurn();
+                int best = GameAction.END_TURN;
+                double bestScore = 0;
+                for (int i = 0; i < count; i++) {
+                    double score = score(game, player, actions[i]) + random.nextDouble();
+                    if (score > bestScore) {
+                        best = actions[i];
+                        bestScore = score;
+                    }
+                }
+                return best;
+            }
+        }
+    }
+
+    @Override
+    public Card chooseCardToDiscard(BoardGame game, Player player) {
+        return player.getHand().find(worstCard(game, player.getHand()));
+    }
+
+    @Override
+    public Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones) {
+        IslandBitboard island = game.getIsland();
+        Zone best = zones.get(0);
+        double bestScore = -Double.MAX_VALUE;
+        for (int i = 0; i < zones.size(); i++) {
+            double score = escapeValue(game, player, island.indexOf(zones.get(i)));
+            if (score > bestScore) {
+                best = zones.get(i);
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /** Gets the type of the card of a hand least worth keeping. */
+    private CardType worstCard(BoardGame game, Hand hand) {
+        CardType worst = null;
+        double worstValue = Double.MAX_VALUE;
+        for (CardType type : CARD_TYPES) {
+            if (hand.count(type) == 0) {
+                continue;
+            }
+            double value = cardValue(game, hand, type) + random.nextDouble();
+            if (value < worstValue) {
+                worst = type;
+                worstValue = value;
+            }
+        }
+        return worst;
+    }
+
+    /** Scores escaping to a tile: close to the goal of the player, dry rather than flooded. */
+    private double escapeValue(BoardGame game, Player player, int tile) {
+        IslandBitboard island = game.getIsland();
+        double dry = (island.getDry() & 1L << tile) != 0 ? 1 : 0;
+        return -distance(island, tile, goal(game, player)) * STEP + dry + random.nextDouble();
+    }
+
+    /** Scores an action of the current player; the turn ends when no action scores above 0. */
+    private double score(BoardGame game, Player player, int action) {
+        IslandBitboard island = game.getIsland();
+        switch (GameAction.kind(action)) {
+            case EndTurn:
+                return isWinning(game) ? WIN : 0;
+            case TakeArtefact:
+                return TAKE_ARTEFACT;
+            case Move:
+                return progress(game, island, player, GameAction.tile(action)) * STEP;
+            case ShoreUp:
+                return shoreUpValue(game, island, GameAction.tile(action));
+            case ShoreUpPair:
+                return shoreUpValue(game, island, GameAction.tile(action))
+                        + shoreUpValue(game, island, GameAction.secondTile(action));
+            case Fly:
+                return repositioning ? progress(game, island, player, GameAction.tile(action)) * STEP - FLIGHT_COST : NEVER;
+            case MovePlayer: {
+                if (!repositioning) {
+                    return NEVER;
+                }
+                Player other = game.getPlayers()[GameAction.player(action)];
+                return progress(game, island, other, GameAction.tile(action)) * STEP - STEP / 2;
+            }
+            case GiveCard:
+                return funnel ? giftValue(game, player, GameAction.card(action), game.getPlayers()[GameAction.player(action)]) : NEVER;
+            case HelicopterLift:
+                return liftValue(game, island, action);
+            case Sandbags: {
+                double value = shoreUpValue(game, island, GameAction.tile(action));
+                return value >= LAST_TILE_SHORE_UP ? value - KEY_SHORE_UP : NEVER;
+            }
+            default:
+                return NEVER; // discards and escapes are chosen by their own methods
+        }
+    }
+
+    /** Tells whether ending the turn wins: every artefact claimed and the whole team on the landing with a Lift. */
+    private static boolean isWinning(BoardGame game) {
+        if (game.countClaimedArtefacts() < ARTEFACTS.length) {
+            return false;
+        }
+        IslandBitboard island = game.getIsland();
+        long landing = island.getHelicopterTile();
+        boolean lift = false;
+        Player[] players = game.getPlayers();
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            if (island.bitOf(players[i].getPlayer_zone()) != landing) {
+                return false;
+            }
+            lift |= players[i].getHand().count(CardType.HELICOPTER_LIFT) > 0;
+        }
+        return lift;
+    }
+
+    /**
+     * Gets the tiles a player should head for: the landing once every artefact is claimed, else the tiles of an
+     * artefact they hold four cards of, else (when shoring up) the flooded last tiles of the artefacts and the landing,
+     * else (when funnelling) the tile of the player collecting their main type, else the other flooded key tiles.
+     * @return The mask of the goal tiles, 0 if the player has none.
+     */
+    private long goal(BoardGame game, Player player) {
+        IslandBitboard island = game.getIsland();
+        if (game.countClaimedArtefacts() == ARTEFACTS.length) {
+            return island.getHelicopterTile();
+        }
+        Hand hand = player.getHand();
+        long res = 0;
+        for (Artefact artefact : ARTEFACTS) {
+            if (!game.isArtefactTaken(artefact) && hand.count(CardType.treasureFor(artefact)) >= 4) {
+                res |= island.getArtefactTiles(artefact) & island.getAccessible();
+            }
+        }
+        if (res != 0) {
+            return res;
+        }
+        long endangered = shoreUp ? keyTiles(game, island, true) & island.getFlooded() : 0;
+        if (endangered != 0) {
+            return endangered;
+        }
+        long meeting = funnel && player.getPlayer_role() != PlayerRole.Messenger ? meeting(game, player) : 0;
+        if (meeting != 0) {
+            return meeting;
+        }
+        return shoreUp ? keyTiles(game, island, false) & island.getFlooded() : 0;
+    }
+
+    /**
+     * Gets the tiles that must not sink: the helicopter landing and the tiles of the unclaimed artefacts.
+     * @param lastOnly Whether to keep only the landing and the tiles of the artefacts whose other tile has sunk.
+     */
+    private static long keyTiles(BoardGame game, IslandBitboard island, boolean lastOnly) {
+        long res = island.getHelicopterTile();
+        for (Artefact artefact : ARTEFACTS) {
+            long tiles = island.getArtefactTiles(artefact);
+            if (!game.isArtefactTaken(artefact) && (!lastOnly || (tiles & island.getSunk()) != 0)) {
+                res |= tiles;
+            }
+        }
+        return res;
+    }
+
+    /** Gets the tile of the player collecting the Treasure type a player holds most of, 0 if it is their own. */
+    private static long meeting(BoardGame game, Player player) {
+        Hand hand = player.getHand();
+        CardType main = null;
+        for (Artefact artefact : ARTEFACTS) {
+            CardType type = CardType.treasureFor(artefact);
+            if (!game.isArtefactTaken(artefact) && hand.count(type) > 0
+                    && (main == null || hand.count(type) > hand.count(main))) {
+                main = type;
+            }
+        }
+        if (main == null) {
+            return 0;
+        }
+        Player collector = collector(game, main);
+        return collector == player ? 0 : game.getIsland().bitOf(collector.getPlayer_zone());
+    }
+
+    /** Gets the player the cards of a type are funnelled to: the one holding most of them, the first one on a tie. */
+    private static Player collector(BoardGame game, CardType type) {
+        Player[] players = game.getPlayers();
+        Player res = players[0];
+        for (int i = 1; i < game.getPlayerCount(); i++) {
+            if (players[i].getHand().count(type) > res.getHand().count(type)) {
+                res = players[i];
+            }
+        }
+        return res;
+    }
+
+    /** Gets by how many steps moving a player to a tile brings them closer to their goal (negative if away). */
+    private double progress(BoardGame game, IslandBitboard island, Player player, int tile) {
+        long goal = goal(game, player);
+        if (goal == 0) {
+            return -0.5; // wandering is only a tie breaker against ending the turn
+        }
+        return distance(island, island.indexOf(player.getPlayer_zone()), goal) - distance(island, tile, goal);
+    }
+
+    /** Gets the Chebyshev distance from a tile to the closest tile of a mask, 0 for an empty mask. */
+    private static int distance(IslandBitboard island, int tile, long mask) {
+        if (mask == 0 || tile < 0) {
+            return 0;
+        }
+        int size = island.getSize();
+        int x = tile / size;
+        int y = tile % size;
+        int res = Integer.MAX_VALUE;
+        for (long m = mask; m != 0; m &= m - 1) {
+            int other = Long.numberOfTrailingZeros(m);
+            res = Math.min(res, Math.max(Math.abs(other / size - x), Math.abs(other % size - y)));
+        }
+        return res;
+    }
+
+    /**
+     * Scores shoring up a tile: the landing and the tiles of unclaimed artefacts first, the last tile of one above all,
+     * and among equals the tile most likely to sink in the next turns.
+     */
+    private double shoreUpValue(BoardGame game, IslandBitboard island, int tile) {
+        if (!shoreUp) {
+            return SHORE_UP;
+        }
+        long bit = 1L << tile;
+        double risk = SINK_RISK * game.getSinkingRisk(island.getZone(tile), RISK_TURNS);
+        if ((keyTiles(game, island, true) & bit) != 0) {
+            return LAST_TILE_SHORE_UP + risk;
+        }
+        return ((keyTiles(game, island, false) & bit) != 0 ? KEY_SHORE_UP : SHORE_UP) + risk;
+    }
+
+    /** Scores giving a card: only Treasure cards of unclaimed artefacts, and only to the player collecting them. */
+    private static double giftValue(BoardGame game, Player giver, CardType type, Player receiver) {
+        if (!type.isTreasure() || isClaimed(game, type) || collector(game, type) != receiver) {
+            return NEVER;
+        }
+        int held = receiver.getHand().count(type);
+        return held >= giver.getHand().count(type) ? FUNNEL_GIFT + held * STEP / 2 : NEVER;
+    }
+
+    /** Scores a Helicopter Lift: only to bring players to the landing once the artefacts are claimed, keeping a Lift. */
+    private static double liftValue(BoardGame game, IslandBitboard island, int action) {
+        long landing = island.getHelicopterTile();
+        if (game.countClaimedArtefacts() < ARTEFACTS.length || 1L << GameAction.tile(action) != landing) {
+            return NEVER;
+        }
+        Player[] players = game.getPlayers();
+        int lifts = 0;
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            lifts += players[i].getHand().count(CardType.HELICOPTER_LIFT);
+        }
+        if (lifts < 2) {
+            return NEVER; // the last Lift flies the team off the island
+        }
+        int flying = 1 + Integer.bitCount(GameAction.passengers(action));
+        return flying * KEY_SHORE_UP;
+    }
+
+    /** Values a card type in a hand for discarding: the claimed Treasures first, the Helicopter Lifts last. */
+    private static double cardValue(BoardGame game, Hand hand, CardType type) {
+        switch (type) {
+            case HELICOPTER_LIFT:
+                return 100;
+            case SANDBAGS:
+                return 60;
+            default:
+                return !type.isTreasure() || isClaimed(game, type) ? 0 : 10 + hand.count(type) * 10;
+        }
+    }
+
+    private static boolean isClaimed(BoardGame game, CardType type) {
+        for (Artefact artefact : ARTEFACTS) {
+            if (CardType.treasureFor(artefact) == type) {
+                return game.isArtefactTaken(artefact);
+            }
+        }
+        return true;
+    }
+}
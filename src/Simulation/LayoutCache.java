@@ -0,0 +1,210 @@
+package Simulation;
+
+import Model.IslandLayout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent database of the scores of island layouts, keyed by {@link IslandLayout#canonicalHash()},
+ * so that a layout is scored once for its eight rotations and reflections, and a board of a wanted difficulty
+ * can be picked at once among the layouts already scored.
+ * <p>
+ * A cache holds the scores of one scoring setup, the policy, the number of players, the deals and the rollouts per
+ * deal, kept in its header: a file scored with another setup is refused, as its scores could not be compared.
+ * <p>
+ * The cache is kept in memory and written to its file by {@link #save()}, through a temporary file moved over the
+ * old one, so an interrupted save never leaves a broken file.
+ *
+ * <pre>
+ * file     magic "FILC" (int), version (short), length of the policy name (byte), policy name in UTF-8,
+ *          players (byte), deals (int), rollouts per deal (int), number of entries (int), then the entries
+ * entry    canonical hash (long), canonical layout ({@link IslandLayout#toBytes()}, 25 bytes),
+ *          deals (int), games (int), wins (int), claimed artefacts (int), turns (long)
+ * </pre>
+ */
+public class LayoutCache {
+    public static final int MAGIC = 0x434c4946; // "FILC" read as a little-endian int
+    public static final short VERSION = 2;
+
+    private static final int ENTRY = 8 + IslandLayout.SIZE * IslandLayout.SIZE + 4 * 4 + 8;
+
+    private final Path file;
+    private final String policy;
+    private final int playerCount;
+    private final int deals;
+    private final int rolloutsPerDeal;
+    private final ConcurrentHashMap<Long, LayoutScore> scores = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a cache, reading its file if it exists.
+     * @param file The file of the cache.
+     * @param policy The name of the policy the layouts are scored with.
+     * @param playerCount The number of players of the games.
+     * @param deals The number of deck orders played on every layout.
+     * @param rolloutsPerDeal The number of games played on every deck order.
+     * @throws IOException if the file exists and cannot be read, is not a layout cache, or was scored with another
+     * setup.
+     */
+    public LayoutCache(Path file, String policy, int playerCount, int deals, int rolloutsPerDeal) throws IOException {
+        if (policy.getBytes(StandardCharsets.UTF_8).length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("The policy name is too long");
+        }
+        this.file = file;
+        this.policy = policy;
+        this.playerCount = playerCount;
+        this.deals = deals;
+        this.rolloutsPerDeal = rolloutsPerDeal;
+        if (Files.exists(file)) {
+            load();
+        }
+    }
+
+    /** Checks if the scores of the cache were played with a given setup. */
+    public boolean isScoredWith(String policy, int playerCount, int deals, int rolloutsPerDeal) {
+        return this.policy.equals(policy) && this.playerCount == playerCount && this.deals == deals
+                && this.rolloutsPerDeal == rolloutsPerDeal;
+    }
+
+    /** Gets the score of a layout or of one of its rotations and reflections, or null if it was never scored. */
+    public LayoutScore get(IslandLayout layout) {
+        IslandLayout canonical = layout.canonical();
+        LayoutScore score = scores.get(canonical.hash());
+        return score != null && score.getLayout().equals(canonical) ? score : null;
+    }
+
+    /**
+     * Adds or replaces the score of a layout.
+     * @throws IllegalArgumentException if the score was not played with the deals and rollouts of the cache.
+     */
+    public void put(LayoutScore score) {
+        if (score.getDeals() != deals || score.getGames() != deals * rolloutsPerDeal) {
+            throw new IllegalArgumentException("The score was not played with the setup of the cache");
+        }
+        IslandLayout canonical = score.getLayout().canonical();
+        if (!canonical.equals(score.getLayout())) {
+            score = new LayoutScore(canonical, score.getDeals(), score.getGames(), score.getWins(),
+                    score.getClaimed(), score.getTurns());
+        }
+        scores.put(canonical.hash(), score);
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    /** Gets the scores of the layouts whose rating is between two bounds, in no particular order. */
+    public List<LayoutScore> find(double minRating, double maxRating) {
+        List<LayoutScore> res = new ArrayList<>();
+        for (LayoutScore score : scores.values()) {
+            if (score.getRating() >= minRating && score.getRating() <= maxRating) {
+                res.add(score);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Picks a layout whose rating is between two bounds, turned by a random rotation or reflection.
+     * @param random The random source.
+     * @return The layout, or null if no layout of the cache is rated between the bounds.
+     */
+    public IslandLayout pick(double minRating, double maxRating, SplittableRandom random) {
+        List<LayoutScore> candidates = find(minRating, maxRating);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        candidates.sort((a, b) -> Long.compare(a.getLayout().hash(), b.getLayout().hash())); // independent of the map
+        IslandLayout layout = candidates.get(random.nextInt(candidates.size())).getLayout();
+        return layout.transform(random.nextInt(IslandLayout.SYMMETRIES));
+    }
+
+    /**
+     * Writes the cache to its file.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        List<LayoutScore> entries = new ArrayList<>(scores.values());
+        byte[] name = policy.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(header(name.length) + entries.size() * ENTRY)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) name.length).put(name)
+                .put((byte) playerCount).putInt(deals).putInt(rolloutsPerDeal).putInt(entries.size());
+        for (LayoutScore score : entries) {
+            buffer.putLong(score.getLayout().hash()).put(score.getLayout().toBytes())
+                    .putInt(score.getDeals()).putInt(score.getGames()).putInt(score.getWins())
+                    .putInt(score.getClaimed()).putLong(score.getTurns());
+        }
+        buffer.flip();
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void load() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < header(0) || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not a layout cache of version " + VERSION + ": " + file);
+        }
+        int nameLength = buffer.get();
+        if (nameLength < 0 || buffer.remaining() < header(nameLength) - 7) {
+            throw new IOException("Truncated layout cache: " + file);
+        }
+        byte[] name = new byte[nameLength];
+        buffer.get(name);
+        String filePolicy = new String(name, StandardCharsets.UTF_8);
+        int filePlayers = buffer.get();
+        int fileDeals = buffer.getInt();
+        int fileRollouts = buffer.getInt();
+        if (!isScoredWith(filePolicy, filePlayers, fileDeals, fileRollouts)) {
+            throw new IOException("The layout cache " + file + " was scored with " + filePolicy + " for "
+                    + filePlayers + " players, " + fileDeals + " deals and " + fileRollouts + " rollouts per deal");
+        }
+        int count = buffer.getInt();
+        if (buffer.remaining() != count * ENTRY) {
+            throw new IOException("Truncated layout cache: " + file);
+        }
+        byte[] cards = new byte[IslandLayout.SIZE * IslandLayout.SIZE];
+        for (int i = 0; i < count; i++) {
+            long hash = buffer.getLong();
+            buffer.get(cards);
+            IslandLayout layout;
+            try {
+                layout = IslandLayout.fromBytes(cards);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupted layout cache: " + file, e);
+            }
+            if (layout.hash() != hash) {
+                throw new IOException("Corrupted layout cache: " + file);
+            }
+            scores.put(hash, new LayoutScore(layout, buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt(), buffer.getLong()));
+        }
+    }
+
+    /** Gets the size of the header of a file whose policy name takes a number of bytes. */
+    private static int header(int nameLength) {
+        return 4 + 2 + 1 + nameLength + 1 + 4 + 4 + 4;
+    }
+}
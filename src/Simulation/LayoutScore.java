@@ -0,0 +1,96 @@
+package Simulation;
+
+import Model.Artefact;
+import Model.IslandLayout;
+
+/**
+ * How well a policy does on a layout of the island, from the games the {@link LayoutScorer} played on it.
+ * Since a policy rarely wins a game on its own, the layouts are mostly told apart by how many artefacts were claimed
+ * before the game was lost; {@link #getRating()} combines both.
+ */
+public final class LayoutScore {
+    private static final int ARTEFACT_COUNT = Artefact.values().length;
+
+    private final IslandLayout layout;
+    private final int deals;
+    private final int games;
+    private final int wins;
+    private final int claimed;
+    private final long turns;
+
+    /**
+     * @param layout The canonical layout the games were played on.
+     * @param deals The number of deck orders played.
+     * @param games The number of games played over all the deck orders.
+     * @param wins The number of games won.
+     * @param claimed The number of artefacts claimed over all the games.
+     * @param turns The number of turns played over all the games.
+     */
+    public LayoutScore(IslandLayout layout, int deals, int games, int wins, int claimed, long turns) {
+        if (wins < 0 || wins > games || claimed < wins * ARTEFACT_COUNT || claimed > games * ARTEFACT_COUNT) {
+            throw new IllegalArgumentException("Invalid score: " + wins + " wins and " + claimed
+                    + " artefacts in " + games + " games");
+        }
+        this.layout = layout;
+        this.deals = deals;
+        this.games = games;
+        this.wins = wins;
+        this.claimed = claimed;
+        this.turns = turns;
+    }
+
+    public IslandLayout getLayout() {
+        return layout;
+    }
+
+    public int getDeals() {
+        return deals;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    /** Gets the number of artefacts claimed over all the games. */
+    public int getClaimed() {
+        return claimed;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    /** Gets the win rate with its 95% Wilson interval. */
+    public WinEstimate getWinEstimate() {
+        return new WinEstimate(wins, games);
+    }
+
+    public double getAverageClaimed() {
+        return games == 0 ? 0 : (double) claimed / games;
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * Gets how easy the layout is, from 0 to 1: the average over the games of 1 for a win,
+     * and otherwise of a fifth per artefact claimed.
+     */
+    public double getRating() {
+        if (games == 0) {
+            return 0;
+        }
+        return (wins + (claimed - wins * ARTEFACT_COUNT) / (ARTEFACT_COUNT + 1.0)) / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rating %.3f, win rate %s, %.2f artefacts, %.1f turns over %d deals",
+                getRating(), getWinEstimate(), getAverageClaimed(), getAverageTurns(), deals);
+    }
+}
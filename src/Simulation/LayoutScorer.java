@@ -0,0 +1,207 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.GameSnapshot;
+import Model.IslandLayout;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores how hard a layout of the island is by playing it with a policy over many deck orders.
+ * <p>
+ * Every deal is a game on the layout with its own seed, which decides the roles and the order of both decks. The
+ * started game is captured once and restored into a working copy for every rollout, which only changes the random
+ * stream of the policy. The deals are split over a work-stealing ForkJoinPool, and every seed is derived from the
+ * canonical hash of the layout, so a layout scores the same whatever the number of threads and whichever of its
+ * rotations and reflections is scored.
+ * <p>
+ * With a {@link LayoutCache} of the same policy, players, deals and rollouts, a layout already scored is answered from
+ * the cache, and new scores are added to it.
+ */
+public class LayoutScorer implements AutoCloseable {
+    private static final int DEALS_PER_TASK = 2;
+
+    private final PolicyFactory factory;
+    private final int playerCount;
+    private final int deals;
+    private final int rolloutsPerDeal;
+    private final GameSimulator simulator;
+    private final ForkJoinPool pool;
+    private final LayoutCache cache;
+
+    /**
+     * Creates a scorer.
+     * @param policy The name of the policy, which tells the scores of a cache apart.
+     * @param factory Creates the policy of every rollout.
+     * @param playerCount The number of players of the games, between 2 and 4.
+     * @param deals The number of deck orders played on every layout.
+     * @param rolloutsPerDeal The number of games played on every deck order.
+     * @param parallelism The number of worker threads.
+     * @param cache The cache of the scores, or null to score every layout.
+     * @throws IllegalArgumentException if the cache holds the scores of another policy, number of players, number of
+     * deals or number of rollouts.
+     */
+    public LayoutScorer(String policy, PolicyFactory factory, int playerCount, int deals, int rolloutsPerDeal,
+                        int parallelism, LayoutCache cache) {
+        if (deals < 1 || rolloutsPerDeal < 1) {
+            throw new IllegalArgumentException("At least one deal and one rollout per deal are needed");
+        }
+        if (cache != null && !cache.isScoredWith(policy, playerCount, deals, rolloutsPerDeal)) {
+            throw new IllegalArgumentException("The cache holds the scores of another setup");
+        }
+        this.factory = factory;
+        this.playerCount = playerCount;
+        this.deals = deals;
+        this.rolloutsPerDeal = rolloutsPerDeal;
+        this.simulator = new GameSimulator(playerCount, GameSimulator.DEFAULT_MAX_TURNS);
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = cache;
+    }
+
+    /**
+     * Scores a layout, or gets its score from the cache.
+     * @param layout The layout, or any of its rotations and reflections.
+     * @return The score of the canonical layout.
+     */
+    public LayoutScore score(IslandLayout layout) {
+        IslandLayout canonical = layout.canonical();
+        if (cache != null) {
+            LayoutScore cached = cache.get(canonical);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long[] totals = pool.invoke(new DealsTask(canonical, canonical.hash(), 0, deals));
+        LayoutScore score = new LayoutScore(canonical, deals, deals * rolloutsPerDeal,
+                (int) totals[0], (int) totals[1], totals[2]);
+        if (cache != null) {
+            cache.put(score);
+        }
+        return score;
+    }
+
+    /**
+     * Plays the rollouts of one deal.
+     * @return The wins, the claimed artefacts and the turns, summed over the rollouts.
+     */
+    private long[] playDeal(IslandLayout layout, long dealSeed) {
+        BoardGame game = new BoardGame(dealSeed, layout);
+        for (int i = 0; i < playerCount; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        game.startGame();
+        GameSnapshot start = game.snapshot();
+        long[] totals = new long[3];
+        for (int r = 0; r < rolloutsPerDeal; r++) {
+            if (r > 0) {
+                start.restoreInto(game);
+            }
+            GamePolicy policy = factory.create(new SplittableRandom(SimulationRunner.gameSeed(dealSeed, r)));
+            GameResult result;
+            try {
+                result = simulator.playOut(game, policy);
+            } finally {
+                if (policy instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) policy).close();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Could not close the policy", e);
+                    }
+                }
+            }
+            totals[0] += result.isWon() ? 1 : 0;
+            totals[1] += game.countClaimedArtefacts();
+            totals[2] += result.getTurns();
+        }
+        return totals;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** Plays the deals of the range [from, to), splitting it in halves while it is large. */
+    private class DealsTask extends RecursiveTask<long[]> {
+        private final IslandLayout layout;
+        private final long layoutSeed;
+        private final int from;
+        private final int to;
+
+        DealsTask(IslandLayout layout, long layoutSeed, int from, int to) {
+            this.layout = layout;
+            this.layoutSeed = layoutSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > DEALS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                DealsTask right = new DealsTask(layout, layoutSeed, mid, to);
+                right.fork();
+                long[] totals = new DealsTask(layout, layoutSeed, from, mid).compute();
+                long[] other = right.join();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += other[i];
+                }
+                return totals;
+            }
+            long[] totals = new long[3];
+            for (int d = from; d < to; d++) {
+                long[] deal = playDeal(layout, SimulationRunner.gameSeed(layoutSeed, d));
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += deal[i];
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Scores random layouts with the repositioning heuristic from the command line, adds them to a cache file,
+     * and prints the easiest and the hardest layouts of the cache.
+     * Arguments (all optional): number of layouts, deals per layout, rollouts per deal, number of players,
+     * number of threads, cache file, seed.
+     */
+    public static void main(String[] args) throws IOException {
+        int layouts = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int deals = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int rollouts = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Path file = Paths.get(args.length > 5 ? args[5] : "layouts.bin");
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : new SplittableRandom().nextLong();
+
+        LayoutCache cache = new LayoutCache(file, "repositioning", players, deals, rollouts);
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        try (LayoutScorer scorer = new LayoutScorer("repositioning", HeuristicPolicy::repositioning, players, deals,
+                rollouts, threads, cache)) {
+            for (int i = 0; i < layouts; i++) {
+                scorer.score(IslandLayout.random(random));
+            }
+        }
+        cache.save();
+        System.out.printf("seed: %d%n%d layouts scored in %.2f s, %d in %s%n", seed, layouts,
+                (System.nanoTime() - start) / 1e9, cache.size(), file);
+
+        List<LayoutScore> scores = new ArrayList<>(cache.find(0, 1));
+        scores.sort(Comparator.comparingDouble(LayoutScore::getRating));
+        if (!scores.isEmpty()) {
+            System.out.println("hardest: " + scores.get(0));
+            System.out.print(scores.get(0).getLayout());
+            System.out.println("easiest: " + scores.get(scores.size() - 1));
+            System.out.print(scores.get(scores.size() - 1).getLayout());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package Simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Creates a fresh policy for every simulated game, so that policies may keep per-game state
+ * and never have to be shared between threads.
+ */
+@FunctionalInterface
+public interface PolicyFactory {
+    /**
+     * Creates the policy for one game.
+     * @param random The random source the policy must use for its own choices.
+     * @return A new policy.
+     */
+    GamePolicy create(SplittableRandom random);
+}
@@ -0,0 +1,89 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.Card;
+import Model.GameAction;
+import Model.Player;
+import Model.Zone;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Baseline policy which plays the random moves of {@link RandomPolicy} through the encoded actions of the position
+ * ({@link BoardGame#getLegalActions(int[])}), listed into a buffer the policy keeps, so a rollout builds no zone or
+ * action list. It always takes an artefact when it can, otherwise it sometimes ends the turn early, and shores up
+ * or moves at random. It never plays a card, and discards and escapes at random.
+ */
+public class RandomActionPolicy implements GamePolicy, ActionPolicy {
+    private final SplittableRandom random;
+    private final int[] actions = new int[BoardGame.MAX_LEGAL_ACTIONS];
+
+    public RandomActionPolicy(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void playTurn(BoardGame game, Player player) {
+        while (true) {
+            int action = chooseAction(game, actions, game.getLegalActions(actions));
+            if (action == GameAction.END_TURN) {
+                return;
+            }
+            game.apply(action);
+        }
+    }
+
+    @Override
+    public int chooseAction(BoardGame game, int[] actions, int count) {
+        GameAction.Kind first = GameAction.kind(actions[0]);
+        if (first == GameAction.Kind.Discard || first == GameAction.Kind.Escape) {
+            return actions[random.nextInt(count)];
+        }
+        int shoreUps = 0;
+        int moves = 0;
+        for (int i = 0; i < count; i++) {
+            switch (GameAction.kind(actions[i])) {
+                case TakeArtefact:
+                    return actions[i];
+                case ShoreUp:
+                    shoreUps++;
+                    break;
+                case Move:
+                    moves++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (shoreUps + moves == 0 || random.nextInt(8) == 0) {
+            return GameAction.END_TURN; // pass the remaining actions
+        }
+        if (shoreUps > 0 && random.nextBoolean()) {
+            return pick(actions, count, GameAction.Kind.ShoreUp, shoreUps);
+        }
+        return moves == 0 ? GameAction.END_TURN : pick(actions, count, GameAction.Kind.Move, moves);
+    }
+
+    /** Picks one of the actions of a kind at random. */
+    private int pick(int[] actions, int count, GameAction.Kind kind, int ofKind) {
+        int n = random.nextInt(ofKind);
+        for (int i = 0; i < count; i++) {
+            if (GameAction.kind(actions[i]) == kind && n-- == 0) {
+                return actions[i];
+            }
+        }
+        throw new IllegalStateException("No action of kind " + kind);
+    }
+
+    @Override
+    public Card chooseCardToDiscard(BoardGame game, Player player) {
+        List<Card> cards = player.getHand().getCards();
+        return cards.get(random.nextInt(cards.size()));
+    }
+
+    @Override
+    public Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones) {
+        return zones.get(random.nextInt(zones.size()));
+    }
+}
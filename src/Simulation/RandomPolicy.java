@@ -0,0 +1,62 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.Card;
+import Model.Player;
+import Model.PlayerAction;
+import Model.Zone;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Baseline policy which plays random legal moves.
+ * It always takes an artefact when it can, otherwise it shores up or moves at random,
+ * and sometimes ends the turn early.
+ */
+public class RandomPolicy implements GamePolicy {
+    private final SplittableRandom random;
+
+    public RandomPolicy(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void playTurn(BoardGame game, Player player) {
+        while (game.getCurrentPlayerActionsNum() > 0 && game.canPlayerUseBasicAction(player)) {
+            if (game.getPossiblePlayerActions(player).contains(PlayerAction.TakeArtefact)) {
+                game.takeArtefact();
+                continue;
+            }
+            if (random.nextInt(8) == 0) {
+                return; // pass the remaining actions
+            }
+            List<Zone> flooded = game.getZonesToForPlayerShoreUp(player);
+            if (!flooded.isEmpty() && random.nextBoolean()) {
+                game.setPlayerChooseZoneToShoreUp();
+                game.playerShoreUpZone(pick(flooded));
+                continue;
+            }
+            List<Zone> moves = game.getZonesForPlayerToMove(player);
+            if (moves.isEmpty()) {
+                return;
+            }
+            game.setPlayerChooseZoneToMoveTo();
+            game.movePlayerToZone(pick(moves));
+        }
+    }
+
+    @Override
+    public Card chooseCardToDiscard(BoardGame game, Player player) {
+        return pick(player.getHand().getCards());
+    }
+
+    @Override
+    public Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones) {
+        return pick(zones);
+    }
+
+    private <T> T pick(List<T> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+}
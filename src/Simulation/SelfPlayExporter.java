@@ -0,0 +1,282 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.LossCause;
+import Model.StateEncoding;
+import Model.TurnOutcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Records the decisions of headless self-play games to a compact binary file, to train evaluators offline.
+ * Every decision is written as one record: the position ({@link StateEncoding}), its legal actions, the action chosen,
+ * and the outcome the game had in the end.
+ * <p>
+ * The records of a game are kept in memory until the game ends, so that its outcome can be written into them, then
+ * copied into blocks of at most {@link #BLOCK_SIZE} bytes which are written to a FileChannel from a direct buffer.
+ * A record never spans two blocks, and with compression every block is deflated on its own, so a reader can
+ * decode the blocks independently ({@link SelfPlayReader}). Nothing is allocated per record.
+ *
+ * <pre>
+ * file     magic "FISP" (int), version (short), {@link StateEncoding#SIZE} (short), flags (int), then the blocks
+ * block    raw length (int), stored length (int), the records, deflated if the {@link #FLAG_DEFLATE} flag is set
+ * record   outcome (byte), chosen action (int), legal action count (short), the position, the legal actions (ints)
+ * outcome  0 unfinished, 1 won, 2 + the ordinal of the {@link LossCause} when lost
+ * </pre>
+ * All numbers are little-endian.
+ */
+public class SelfPlayExporter implements AutoCloseable {
+    public static final int MAGIC = 0x50534946; // "FISP" read as a little-endian int
+    public static final short VERSION = 1;
+    /** The flag of the files whose blocks are deflated. */
+    public static final int FLAG_DEFLATE = 1;
+    /** The largest number of raw bytes of a block. */
+    public static final int BLOCK_SIZE = 1 << 20;
+
+    static final int FILE_HEADER = 12;
+    static final int BLOCK_HEADER = 8;
+    static final int RECORD_HEADER = 7;
+
+    private final FileChannel channel;
+    private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer header = ByteBuffer.allocateDirect(BLOCK_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+    private final Deflater deflater;
+    private final ByteBuffer deflated; // the header and the deflated records of a block, when compressing
+    private final int[] actions = new int[BoardGame.MAX_LEGAL_ACTIONS];
+    private ByteBuffer game = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private int[] recordStarts = new int[256]; // the offsets of the records of the game in progress
+    private int gameRecords;
+    private long records;
+    private long games;
+
+    /**
+     * Creates the file and writes its header.
+     * @param file The file, replaced if it exists.
+     * @param compress Whether to deflate the blocks.
+     * @throws IOException if the file cannot be written.
+     */
+    public SelfPlayExporter(Path file, boolean compress) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.deflated = compress
+                ? ByteBuffer.allocateDirect(BLOCK_HEADER + BLOCK_SIZE + BLOCK_SIZE / 8 + 64).order(ByteOrder.LITTLE_ENDIAN)
+                : null;
+        ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        fileHeader.putInt(MAGIC).putShort(VERSION).putShort((short) StateEncoding.SIZE).putInt(compress ? FLAG_DEFLATE : 0);
+        fileHeader.flip();
+        writeFully(fileHeader);
+    }
+
+    /**
+     * Plays a started game to its end with a policy and records every decision.
+     * @param game The game, at the start of a turn or in the middle of one.
+     * @param policy Chooses every action, including the discards and the escapes.
+     * @param maxTurns The number of turns after which the game is stopped as unfinished.
+     * @return The result of the game.
+     * @throws IOException if the records cannot be written.
+     */
+    public GameResult playGame(BoardGame game, ActionPolicy policy, int maxTurns) throws IOException {
+        int turns = 0;
+        GameResult result = null;
+        while (result == null && turns < maxTurns) {
+            int count = game.getLegalActions(actions);
+            if (count == 0) { // a player trapped on a sunk tile has no escape
+                LossCause cause = game.getLossCause();
+                result = GameResult.lost(cause == null ? LossCause.PlayerDrowned : cause, turns);
+                break;
+            }
+            int action = policy.chooseAction(game, actions, count);
+            record(game, actions, count, action);
+            TurnOutcome outcome = game.apply(action);
+            if (outcome == null || outcome.mustDiscard()) {
+                continue;
+            }
+            if (outcome.isWon()) {
+                result = GameResult.won(turns);
+            } else if (outcome.isLost()) {
+                result = GameResult.lost(outcome.getLossCause(), turns);
+            } else {
+                turns++;
+            }
+        }
+        if (result == null) {
+            result = GameResult.unfinished(turns);
+        }
+        endGame(result);
+        return result;
+    }
+
+    /**
+     * Records a decision of the game in progress; it is written once the game ends with {@link #endGame(GameResult)}.
+     * @param position The game before the action is played.
+     * @param actions The legal actions of the position.
+     * @param count The number of legal actions.
+     * @param chosen The action chosen.
+     */
+    public void record(BoardGame position, int[] actions, int count, int chosen) {
+        int size = RECORD_HEADER + StateEncoding.SIZE + count * Integer.BYTES;
+        if (game.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(game.capacity() * 2, game.position() + size))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            game.flip();
+            game = larger.put(game);
+        }
+        if (gameRecords == recordStarts.length) {
+            recordStarts = Arrays.copyOf(recordStarts, gameRecords * 2);
+        }
+        recordStarts[gameRecords++] = game.position();
+        game.put((byte) 0).putInt(chosen).putShort((short) count);
+        StateEncoding.encode(position, game);
+        for (int i = 0; i < count; i++) {
+            game.putInt(actions[i]);
+        }
+    }
+
+    /**
+     * Writes the outcome of the game in progress into its records and queues them for writing.
+     * @param result The result of the game.
+     * @throws IOException if a full block cannot be written.
+     */
+    public void endGame(GameResult result) throws IOException {
+        byte outcome = (byte) outcomeCode(result);
+        int end = game.position();
+        for (int i = 0; i < gameRecords; i++) {
+            int start = recordStarts[i];
+            int next = i + 1 < gameRecords ? recordStarts[i + 1] : end;
+            game.put(start, outcome);
+            if (block.remaining() < next - start) {
+                flush();
+            }
+            block.put(game.array(), start, next - start);
+        }
+        records += gameRecords;
+        games++;
+        gameRecords = 0;
+        game.clear();
+    }
+
+    /** Encodes the result of a game as the outcome byte of its records. */
+    public static int outcomeCode(GameResult result) {
+        if (result.isWon()) {
+            return 1;
+        }
+        return result.isLost() ? 2 + result.getLossCause().ordinal() : 0;
+    }
+
+    /** Gets the number of records written, or queued once their game ended. */
+    public long getRecords() {
+        return records;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /** Writes the queued records and closes the file. The records of a game in progress are dropped. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    /** Writes the block, deflated if the file is compressed. */
+    private void flush() throws IOException {
+        block.flip();
+        int raw = block.remaining();
+        if (raw == 0) {
+            block.clear();
+            return;
+        }
+        if (deflater == null) {
+            header.clear();
+            header.putInt(raw).putInt(raw).flip();
+            writeFully(header);
+            writeFully(block);
+        } else {
+            deflater.reset();
+            deflater.setInput(block);
+            deflater.finish();
+            deflated.clear().position(BLOCK_HEADER);
+            while (!deflater.finished()) {
+                deflater.deflate(deflated);
+            }
+            deflated.putInt(0, raw).putInt(4, deflated.position() - BLOCK_HEADER).flip();
+            writeFully(deflated);
+        }
+        block.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Exports self-play games of the heuristic policy from the command line, one file per thread.
+     * Arguments (all optional): number of games, number of threads, output directory, "deflate" to compress, batch seed.
+     * The games have 2, 3 and 4 players in turn.
+     */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path directory = Paths.get(args.length > 2 ? args[2] : "selfplay");
+        boolean compress = args.length > 3 && args[3].equals("deflate");
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+        Files.createDirectories(directory);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            Future<?>[] shards = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int shard = t;
+                shards[t] = executor.submit(() -> {
+                    try (SelfPlayExporter exporter = new SelfPlayExporter(
+                            directory.resolve("selfplay-" + shard + ".bin"), compress)) {
+                        for (int i = shard; i < games; i += threads) {
+                            SplittableRandom random = new SplittableRandom(SimulationRunner.gameSeed(seed, i));
+                            BoardGame game = new BoardGame(random.nextLong());
+                            for (int p = 0; p < 2 + i % 3; p++) {
+                                game.addPlayer("Player " + (p + 1));
+                            }
+                            game.startGame();
+                            exporter.playGame(game, HeuristicPolicy.repositioning(random.split()),
+                                    GameSimulator.DEFAULT_MAX_TURNS);
+                        }
+                        return exporter.getRecords();
+                    }
+                });
+            }
+            long total = 0;
+            for (Future<?> shard : shards) {
+                total += (Long) shard.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("batch seed: %d%n%d games, %d records in %.2f s on %d threads (%.0f records/s)%n",
+                    seed, games, total, seconds, threads, total / seconds);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package Simulation;
+
+import Model.LossCause;
+import Model.StateEncoding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads back the records of a file written by the {@link SelfPlayExporter}, one at a time:
+ * {@link #next()} moves to the next record and the getters read the current one.
+ */
+public class SelfPlayReader implements AutoCloseable {
+    private static final LossCause[] LOSS_CAUSES = LossCause.values();
+
+    private final FileChannel channel;
+    private final boolean deflated;
+    private final Inflater inflater;
+    private final ByteBuffer header = ByteBuffer.allocate(SelfPlayExporter.BLOCK_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer stored;
+    private final ByteBuffer data = ByteBuffer.allocate(SelfPlayExporter.BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private int record = -1; // the offset of the current record in the data
+    private int next; // the offset of the next record in the data
+
+    /**
+     * Opens a file and checks its header.
+     * @param file The file.
+     * @throws IOException if the file cannot be read or is not a self-play file of this version.
+     */
+    public SelfPlayReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer fileHeader = ByteBuffer.allocate(SelfPlayExporter.FILE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(fileHeader);
+        fileHeader.flip();
+        if (fileHeader.getInt() != SelfPlayExporter.MAGIC || fileHeader.getShort() != SelfPlayExporter.VERSION
+                || fileHeader.getShort() != StateEncoding.SIZE) {
+            channel.close();
+            throw new IOException("Not a self-play file of version " + SelfPlayExporter.VERSION + ": " + file);
+        }
+        this.deflated = (fileHeader.getInt() & SelfPlayExporter.FLAG_DEFLATE) != 0;
+        this.inflater = deflated ? new Inflater() : null;
+        this.stored = deflated ? ByteBuffer.allocate(SelfPlayExporter.BLOCK_SIZE + SelfPlayExporter.BLOCK_SIZE / 8 + 64) : null;
+        data.limit(0);
+    }
+
+    /**
+     * Moves to the next record.
+     * @return false at the end of the file.
+     * @throws IOException if the file cannot be read or is truncated.
+     */
+    public boolean next() throws IOException {
+        if (next >= data.limit() && !readBlock()) {
+            record = -1;
+            return false;
+        }
+        record = next;
+        next = record + SelfPlayExporter.RECORD_HEADER + StateEncoding.SIZE + getActionCount() * Integer.BYTES;
+        return true;
+    }
+
+    /** Gets the outcome code of the game of the record, see {@link SelfPlayExporter#outcomeCode(GameResult)}. */
+    public int getOutcome() {
+        return data.get(current());
+    }
+
+    public boolean isWon() {
+        return getOutcome() == 1;
+    }
+
+    /** Gets the cause of the loss of the game of the record, or null if it was not lost. */
+    public LossCause getLossCause() {
+        int outcome = getOutcome();
+        return outcome >= 2 ? LOSS_CAUSES[outcome - 2] : null;
+    }
+
+    /** Gets the action chosen in the position of the record. */
+    public int getChosenAction() {
+        return data.getInt(current() + 1);
+    }
+
+    public int getActionCount() {
+        return data.getShort(current() + 5);
+    }
+
+    /** Gets a legal action of the position of the record. */
+    public int getAction(int index) {
+        return data.getInt(current() + SelfPlayExporter.RECORD_HEADER + StateEncoding.SIZE + index * Integer.BYTES);
+    }
+
+    /**
+     * Copies the encoded position of the record.
+     * @param out The array, of at least {@link StateEncoding#SIZE} bytes.
+     */
+    public void getState(byte[] out) {
+        int from = current() + SelfPlayExporter.RECORD_HEADER;
+        for (int i = 0; i < StateEncoding.SIZE; i++) {
+            out[i] = data.get(from + i);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private int current() {
+        if (record < 0) {
+            throw new IllegalStateException("There is no current record");
+        }
+        return record;
+    }
+
+    /** Reads the next block into the data. */
+    private boolean readBlock() throws IOException {
+        header.clear();
+        if (channel.read(header) < 0) {
+            return false;
+        }
+        readFully(header);
+        header.flip();
+        int raw = header.getInt();
+        int length = header.getInt();
+        data.clear();
+        if (!deflated) {
+            data.limit(raw);
+            readFully(data);
+        } else {
+            stored.clear().limit(length);
+            readFully(stored);
+            stored.flip();
+            inflater.reset();
+            inflater.setInput(stored);
+            data.limit(raw);
+            try {
+                while (data.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(data) == 0 && inflater.needsInput()) {
+                        throw new EOFException("Truncated block");
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted block", e);
+            }
+        }
+        data.flip();
+        next = 0;
+        return true;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated self-play file");
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Simulation;
+
+import Model.LossCause;
+
+/**
+ * The outcome of a batch of simulated games: the merged statistics and how long the batch took.
+ */
+public class SimulationReport {
+    private final SimulationStats stats;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public SimulationReport(SimulationStats stats, long elapsedNanos, int threads) {
+        this.stats = stats;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public SimulationStats getStats() {
+        return stats;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Gets the throughput of the batch in games per second. */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : stats.getGames() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games in %.2f s on %d threads (%.0f games/s)%n",
+                stats.getGames(), elapsedNanos / 1e9, threads, getGamesPerSecond()));
+        sb.append(String.format("win rate: %.2f%%, average turns: %.1f%n",
+                stats.getWinRate() * 100, stats.getAverageTurns()));
+        for (LossCause cause : LossCause.values()) {
+            int n = stats.getLosses(cause);
+            sb.append(String.format("lost, %s: %d (%.2f%%)%n",
+                    cause.getReason(), n, stats.getGames() == 0 ? 0 : n * 100.0 / stats.getGames()));
+        }
+        sb.append(String.format("unfinished: %d%n", stats.getUnfinished()));
+        return sb.toString();
+    }
+}
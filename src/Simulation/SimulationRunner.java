@@ -0,0 +1,124 @@
+package Simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays batches of headless games on all the cores.
+ * The batch is split recursively over a work-stealing ForkJoinPool, every task plays its games
+ * with its own policies and statistics, and the statistics are merged when the tasks join.
+ * The seed of every game is derived from the seed of the batch and the index of the game,
+ * so a batch is reproducible whatever the number of threads, and the workers share no random state.
+ */
+public class SimulationRunner {
+    private static final int GAMES_PER_TASK = 32; // below this a range of games is played sequentially
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final PolicyFactory policyFactory;
+    private final GameSimulator simulator;
+    private final int parallelism;
+
+    /**
+     * Creates a runner.
+     * @param policyFactory Creates the policy used for every game.
+     * @param playerCount The number of players in every game.
+     * @param parallelism The number of worker threads.
+     */
+    public SimulationRunner(PolicyFactory policyFactory, int playerCount, int parallelism) {
+        this.policyFactory = policyFactory;
+        this.simulator = new GameSimulator(playerCount, GameSimulator.DEFAULT_MAX_TURNS);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays the given number of games with a random batch seed and reports the results.
+     * @param games The number of games to play.
+     * @return The report of the batch.
+     */
+    public SimulationReport run(int games) {
+        return run(games, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays the given number of games and reports the results.
+     * @param games The number of games to play.
+     * @param batchSeed The seed every game seed is derived from.
+     * @return The report of the batch.
+     */
+    public SimulationReport run(int games, long batchSeed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            SimulationStats stats = pool.invoke(new GamesTask(batchSeed, 0, games));
+            return new SimulationReport(stats, System.nanoTime() - start, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one game of a batch. The board and the policy get independent streams split from the game seed.
+     * @param batchSeed The seed of the batch.
+     * @param index The index of the game in the batch.
+     * @return The result of the game.
+     */
+    public GameResult playGame(long batchSeed, int index) {
+        SplittableRandom random = new SplittableRandom(gameSeed(batchSeed, index));
+        long boardSeed = random.nextLong();
+        return simulator.play(boardSeed, policyFactory.create(random.split()));
+    }
+
+    /** Derives the seed of a game from the batch seed (SplitMix64 finalizer over the game index). */
+    public static long gameSeed(long batchSeed, int index) {
+        long z = batchSeed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Plays the games of the range [from, to), splitting it in halves while it is large. */
+    private class GamesTask extends RecursiveTask<SimulationStats> {
+        private final long batchSeed;
+        private final int from;
+        private final int to;
+
+        GamesTask(long batchSeed, int from, int to) {
+            this.batchSeed = batchSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from > GAMES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                GamesTask left = new GamesTask(batchSeed, from, mid);
+                left.fork();
+                SimulationStats stats = new GamesTask(batchSeed, mid, to).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+            SimulationStats stats = new SimulationStats();
+            for (int i = from; i < to; i++) {
+                stats.add(playGame(batchSeed, i));
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Runs a batch of random games from the command line.
+     * Arguments (all optional): number of games, number of players, number of threads, batch seed.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+
+        SimulationRunner runner = new SimulationRunner(RandomPolicy::new, players, threads);
+        System.out.println("batch seed: " + seed);
+        System.out.print(runner.run(games, seed));
+    }
+}
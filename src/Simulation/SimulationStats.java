@@ -0,0 +1,85 @@
+package Simulation;
+
+import Model.LossCause;
+
+import java.util.EnumMap;
+
+/**
+ * Accumulates the results of many simulated games.
+ * Not thread-safe: every worker fills its own instance and the instances are merged at the end.
+ */
+public class SimulationStats {
+    private int games;
+    private int wins;
+    private int unfinished;
+    private long totalTurns;
+    private final int[] losses = new int[LossCause.values().length];
+
+    /** Adds the result of one game. */
+    public void add(GameResult result) {
+        games++;
+        totalTurns += result.getTurns();
+        if (result.isWon()) {
+            wins++;
+        } else if (result.isLost()) {
+            losses[result.getLossCause().ordinal()]++;
+        } else {
+            unfinished++;
+        }
+    }
+
+    /** Adds all the results accumulated by another instance. */
+    public void merge(SimulationStats other) {
+        games += other.games;
+        wins += other.wins;
+        unfinished += other.unfinished;
+        totalTurns += other.totalTurns;
+        for (int i = 0; i < losses.length; i++) {
+            losses[i] += other.losses[i];
+        }
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getUnfinished() {
+        return unfinished;
+    }
+
+    public int getLosses() {
+        int total = 0;
+        for (int l : losses) total += l;
+        return total;
+    }
+
+    public int getLosses(LossCause cause) {
+        return losses[cause.ordinal()];
+    }
+
+    /** Gets the number of losses for every cause. */
+    public EnumMap<LossCause, Integer> getLossBreakdown() {
+        EnumMap<LossCause, Integer> res = new EnumMap<>(LossCause.class);
+        for (LossCause cause : LossCause.values()) {
+            res.put(cause, losses[cause.ordinal()]);
+        }
+        return res;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /** Gets the win rate with its 95% Wilson interval. */
+    public WinEstimate getWinEstimate() {
+        return new WinEstimate(wins, games);
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+}
@@ -0,0 +1,220 @@
+package Simulation;
+
+import Model.PlayerFactory;
+import Model.PlayerRole;
+import Search.MctsAgent;
+import Search.MctsPolicy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pits policies against each other on identical deals.
+ * The deals cover every number of players asked for and every team of distinct roles
+ * ({@link PlayerFactory#roleCombinations(int)}), with the same number of boards per team. Every entrant plays every
+ * deal with the same board seed and the same random stream for its own choices, so the results are paired deal by
+ * deal and the entrants can be compared with {@link PairedComparison} instead of independent batches.
+ * <p>
+ * Like the {@link SimulationRunner}, the deals are split over a work-stealing ForkJoinPool, and the seed of every
+ * deal is derived from the batch seed and the index of the deal, so a tournament is reproducible whatever the number
+ * of threads.
+ */
+public class Tournament {
+    private static final int DEALS_PER_TASK = 4; // a deal is played once per entrant
+    private static final int[] ALL_PLAYER_COUNTS = {2, 3, 4};
+
+    private final Map<String, PolicyFactory> entrants = new LinkedHashMap<>();
+    private final int[] playerCounts;
+    private final int dealsPerTeam;
+    private final int maxTurns;
+    private final int parallelism;
+
+    /**
+     * Creates a tournament over 2, 3 and 4 players.
+     * @param dealsPerTeam The number of boards played by every team.
+     * @param parallelism The number of worker threads.
+     */
+    public Tournament(int dealsPerTeam, int parallelism) {
+        this(dealsPerTeam, GameSimulator.DEFAULT_MAX_TURNS, parallelism, ALL_PLAYER_COUNTS);
+    }
+
+    /**
+     * Creates a tournament.
+     * @param dealsPerTeam The number of boards played by every team.
+     * @param maxTurns The number of turns after which a game is stopped as unfinished.
+     * @param parallelism The number of worker threads.
+     * @param playerCounts The numbers of players of the deals, each between 2 and 4.
+     */
+    public Tournament(int dealsPerTeam, int maxTurns, int parallelism, int... playerCounts) {
+        if (dealsPerTeam < 1) {
+            throw new IllegalArgumentException("At least one deal per team is needed");
+        }
+        if (playerCounts.length == 0) {
+            throw new IllegalArgumentException("At least one number of players is needed");
+        }
+        for (int count : playerCounts) {
+            if (count < 2 || count > 4) {
+                throw new IllegalArgumentException("The number of players must be between 2 and 4");
+            }
+        }
+        this.dealsPerTeam = dealsPerTeam;
+        this.maxTurns = maxTurns;
+        this.parallelism = parallelism;
+        this.playerCounts = playerCounts.clone();
+    }
+
+    /**
+     * Adds a policy to the tournament.
+     * A policy created by the factory that is {@link AutoCloseable} is closed after its game.
+     * @param name The name of the policy in the report.
+     * @param factory Creates the policy for every game.
+     * @return This tournament.
+     */
+    public Tournament addEntrant(String name, PolicyFactory factory) {
+        if (entrants.putIfAbsent(name, factory) != null) {
+            throw new IllegalArgumentException("There is already an entrant named " + name);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the deals of the tournament: for every number of players and every team, the given number of boards.
+     * @param batchSeed The seed every deal seed is derived from.
+     */
+    public List<Deal> deals(long batchSeed) {
+        List<Deal> deals = new ArrayList<>();
+        for (int count : playerCounts) {
+            for (PlayerRole[] roles : PlayerFactory.roleCombinations(count)) {
+                for (int i = 0; i < dealsPerTeam; i++) {
+                    deals.add(new Deal(roles, SimulationRunner.gameSeed(batchSeed, deals.size())));
+                }
+            }
+        }
+        return deals;
+    }
+
+    /**
+     * Plays every deal with every entrant and reports the results.
+     * @param batchSeed The seed every deal seed is derived from.
+     * @return The report of the tournament.
+     */
+    public TournamentReport run(long batchSeed) {
+        if (entrants.isEmpty()) {
+            throw new IllegalStateException("The tournament has no entrant");
+        }
+        List<String> names = new ArrayList<>(entrants.keySet());
+        List<PolicyFactory> factories = new ArrayList<>(entrants.values());
+        List<Deal> deals = deals(batchSeed);
+        GameResult[][] results = new GameResult[names.size()][deals.size()];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            pool.invoke(new DealsTask(factories, deals, results, 0, deals.size()));
+            return new TournamentReport(names, deals, results, System.nanoTime() - start, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one deal with one policy. The board and the policy get independent streams split from the deal seed,
+     * the same for every entrant.
+     */
+    private GameResult play(Deal deal, PolicyFactory factory) {
+        SplittableRandom random = new SplittableRandom(deal.getSeed());
+        long boardSeed = random.nextLong();
+        GamePolicy policy = factory.create(random.split());
+        try {
+            return new GameSimulator(deal.getPlayerCount(), maxTurns).play(boardSeed, deal.getRoles(), policy);
+        } finally {
+            if (policy instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) policy).close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Could not close the policy", e);
+                }
+            }
+        }
+    }
+
+    /** One board and team of the tournament, played by every entrant. */
+    public static final class Deal {
+        private final PlayerRole[] roles;
+        private final long seed;
+
+        Deal(PlayerRole[] roles, long seed) {
+            this.roles = roles.clone();
+            this.seed = seed;
+        }
+
+        public int getPlayerCount() {
+            return roles.length;
+        }
+
+        public PlayerRole[] getRoles() {
+            return roles.clone();
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+    }
+
+    /** Plays the deals of the range [from, to) with every entrant, splitting it in halves while it is large. */
+    private class DealsTask extends RecursiveAction {
+        private final List<PolicyFactory> factories;
+        private final List<Deal> deals;
+        private final GameResult[][] results;
+        private final int from;
+        private final int to;
+
+        DealsTask(List<PolicyFactory> factories, List<Deal> deals, GameResult[][] results, int from, int to) {
+            this.factories = factories;
+            this.deals = deals;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > DEALS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DealsTask(factories, deals, results, from, mid),
+                        new DealsTask(factories, deals, results, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                for (int e = 0; e < factories.size(); e++) {
+                    results[e][i] = play(deals.get(i), factories.get(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a tournament of the random and heuristic policies against single-threaded MCTS from the command line.
+     * Arguments (all optional): deals per team, MCTS budget in milliseconds per action, number of threads, batch seed.
+     */
+    public static void main(String[] args) {
+        int deals = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+
+        Tournament tournament = new Tournament(deals, threads)
+                .addEntrant("random", RandomPolicy::new)
+                .addEntrant("shore-up", HeuristicPolicy::shoreUp)
+                .addEntrant("funnel", HeuristicPolicy::treasureFunnel)
+                .addEntrant("repositioning", HeuristicPolicy::repositioning)
+                .addEntrant("mcts " + budget + "ms", random -> new MctsPolicy(new MctsAgent(1, budget, random.nextLong())));
+        System.out.println("batch seed: " + seed);
+        System.out.print(tournament.run(seed));
+    }
+}
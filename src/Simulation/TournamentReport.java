@@ -0,0 +1,133 @@
+package Simulation;
+
+import Model.LossCause;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The outcome of a {@link Tournament}: the result of every entrant on every deal,
+ * with its statistics per number of players and the paired comparisons of the entrants.
+ */
+public class TournamentReport {
+    private final List<String> entrants;
+    private final List<Tournament.Deal> deals;
+    private final GameResult[][] results; // [entrant][deal]
+    private final long elapsedNanos;
+    private final int threads;
+
+    public TournamentReport(List<String> entrants, List<Tournament.Deal> deals, GameResult[][] results,
+                            long elapsedNanos, int threads) {
+        this.entrants = Collections.unmodifiableList(new ArrayList<>(entrants));
+        this.deals = Collections.unmodifiableList(new ArrayList<>(deals));
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public List<String> getEntrants() {
+        return entrants;
+    }
+
+    public List<Tournament.Deal> getDeals() {
+        return deals;
+    }
+
+    /** Gets the result of an entrant on a deal. */
+    public GameResult getResult(String entrant, int deal) {
+        return results[indexOf(entrant)][deal];
+    }
+
+    /** Gets the statistics of an entrant over all the deals. */
+    public SimulationStats getStats(String entrant) {
+        return getStats(entrant, 0);
+    }
+
+    /**
+     * Gets the statistics of an entrant over the deals with the given number of players.
+     * @param playerCount The number of players, 0 for all the deals.
+     */
+    public SimulationStats getStats(String entrant, int playerCount) {
+        GameResult[] row = results[indexOf(entrant)];
+        SimulationStats stats = new SimulationStats();
+        for (int i = 0; i < row.length; i++) {
+            if (playerCount == 0 || deals.get(i).getPlayerCount() == playerCount) {
+                stats.add(row[i]);
+            }
+        }
+        return stats;
+    }
+
+    /** Compares two entrants deal by deal. */
+    public PairedComparison compare(String first, String second) {
+        GameResult[] a = results[indexOf(first)];
+        GameResult[] b = results[indexOf(second)];
+        int firstOnly = 0;
+        int secondOnly = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].isWon() && !b[i].isWon()) {
+                firstOnly++;
+            } else if (b[i].isWon() && !a[i].isWon()) {
+                secondOnly++;
+            }
+        }
+        return new PairedComparison(first, second, a.length, firstOnly, secondOnly);
+    }
+
+    /** Gets the numbers of players of the deals, in increasing order. */
+    public int[] getPlayerCounts() {
+        TreeSet<Integer> counts = new TreeSet<>();
+        for (Tournament.Deal deal : deals) {
+            counts.add(deal.getPlayerCount());
+        }
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    private int indexOf(String entrant) {
+        int index = entrants.indexOf(entrant);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown entrant: " + entrant);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d entrants on %d deals (%s players) in %.2f s on %d threads%n",
+                entrants.size(), deals.size(), Arrays.toString(getPlayerCounts()), elapsedNanos / 1e9, threads));
+        for (String entrant : entrants) {
+            SimulationStats all = getStats(entrant);
+            sb.append(String.format("%s: win rate %s, average turns: %.1f%n",
+                    entrant, all.getWinEstimate(), all.getAverageTurns()));
+            for (int count : getPlayerCounts()) {
+                SimulationStats stats = getStats(entrant, count);
+                sb.append(String.format("  %d players: win rate %s, average turns: %.1f%n",
+                        count, stats.getWinEstimate(), stats.getAverageTurns()));
+            }
+            for (LossCause cause : LossCause.values()) {
+                int n = all.getLosses(cause);
+                sb.append(String.format("  lost, %s: %d (%.2f%%)%n",
+                        cause.getReason(), n, all.getGames() == 0 ? 0 : n * 100.0 / all.getGames()));
+            }
+            sb.append(String.format("  unfinished: %d%n", all.getUnfinished()));
+        }
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) {
+                sb.append(compare(entrants.get(i), entrants.get(j))).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+}
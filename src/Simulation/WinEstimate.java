@@ -0,0 +1,89 @@
+package Simulation;
+
+/**
+ * An estimate of the probability of winning from some number of games, with its Wilson score interval.
+ * Unlike the normal approximation, the Wilson interval stays inside [0, 1] and is still meaningful
+ * when the games are few or the win rate is close to 0 or 1.
+ */
+public final class WinEstimate {
+    /** The z-score of a two-sided 95% confidence interval. */
+    public static final double Z_95 = 1.959964;
+
+    private final int wins;
+    private final int games;
+
+    public WinEstimate(int wins, int games) {
+        if (wins < 0 || games < 0 || wins > games) {
+            throw new IllegalArgumentException("Invalid estimate: " + wins + " wins out of " + games + " games");
+        }
+        this.wins = wins;
+        this.games = games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    /** Gets the proportion of the games that were won, 0 if there was none. */
+    public double getProbability() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /** Gets the lower bound of the 95% Wilson interval. */
+    public double getLower() {
+        return wilsonLower(wins, games, Z_95);
+    }
+
+    /** Gets the upper bound of the 95% Wilson interval. */
+    public double getUpper() {
+        return wilsonUpper(wins, games, Z_95);
+    }
+
+    /**
+     * Gets the lower bound of the Wilson score interval of a proportion.
+     * @param successes The number of successes.
+     * @param trials The number of trials; with none, the interval is [0, 1].
+     * @param z The z-score of the confidence level, e.g. {@link #Z_95}.
+     */
+    public static double wilsonLower(int successes, int trials, double z) {
+        if (trials == 0) {
+            return 0;
+        }
+        return Math.max(0, wilsonCenter(successes, trials, z) - wilsonHalfWidth(successes, trials, z));
+    }
+
+    /**
+     * Gets the upper bound of the Wilson score interval of a proportion.
+     * @param successes The number of successes.
+     * @param trials The number of trials; with none, the interval is [0, 1].
+     * @param z The z-score of the confidence level, e.g. {@link #Z_95}.
+     */
+    public static double wilsonUpper(int successes, int trials, double z) {
+        if (trials == 0) {
+            return 1;
+        }
+        return Math.min(1, wilsonCenter(successes, trials, z) + wilsonHalfWidth(successes, trials, z));
+    }
+
+    private static double wilsonCenter(int successes, int trials, double z) {
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        return (p + z2 / (2.0 * trials)) / (1 + z2 / trials);
+    }
+
+    private static double wilsonHalfWidth(int successes, int trials, double z) {
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        return z / (1 + z2 / trials) * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f%% (95%% CI %.1f-%.1f%%, %d games)",
+                getProbability() * 100, getLower() * 100, getUpper() * 100, games);
+    }
+}
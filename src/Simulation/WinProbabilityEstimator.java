@@ -0,0 +1,149 @@
+package Simulation;
+
+import Model.BoardGame;
+import Model.GameSnapshot;
+import Model.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Estimates the probability of winning from a position by playing random games to the end from it.
+ * The rollouts are split over a fixed pool of daemon threads, and each thread reports its wins every
+ * {@link #ROLLOUTS_PER_ROUND} rollouts, so the estimate and its confidence interval are refined while the rollouts run.
+ * The hidden cards are redealt before every rollout, so the estimate does not depend on the order of the decks.
+ * <p>
+ * The games the rollouts are played on are pooled: a thread borrows one, restores the position into it
+ * before every rollout ({@link GameSnapshot#restoreInto(BoardGame)} reuses its zones, players, cards and decks) and
+ * gives it back when it is done, and the rollouts are played by a {@link RandomActionPolicy}, which builds no list,
+ * so the rollouts leave little to the garbage collector.
+ */
+public class WinProbabilityEstimator implements AutoCloseable {
+    /** The number of rollouts a thread plays between two reports. */
+    public static final int ROLLOUTS_PER_ROUND = 32;
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final ConcurrentLinkedQueue<BoardGame> pool = new ConcurrentLinkedQueue<>();
+    private final SplittableRandom random;
+
+    /**
+     * Creates an estimator.
+     * @param threads The number of threads playing the rollouts.
+     * @param seed The seed of the random sources of the rollouts.
+     */
+    public WinProbabilityEstimator(int threads, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+        this.random = new SplittableRandom(seed);
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "win-estimate");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Estimates the probability of winning from the current position of a game, playing the rollouts in the background.
+     * @param game The game, captured at once and left untouched. It must not be waiting for a discard or an escape.
+     * @param rollouts The number of rollouts to play.
+     * @param cancelled Polled between the rounds; the rollouts stop once it returns true.
+     * @param progress Given the estimate of all the rollouts played so far after every round, from the threads
+     *                 of the estimator, one call at a time. The estimates it gets never go back.
+     * @return The estimate of all the rollouts played, once every thread is done.
+     * @throws IllegalArgumentException if the game is waiting for a discard or an escape.
+     */
+    public CompletableFuture<WinEstimate> estimate(BoardGame game, int rollouts, BooleanSupplier cancelled,
+                                                   Consumer<WinEstimate> progress) {
+        Player current = game.getPlayerForTheTurn();
+        if (current == null || game.arePlayersRunningFromInaccesbleZone() || game.isPlayerChoosingCardToDiscard()
+                || current.getHand().isOverflow()) {
+            throw new IllegalArgumentException("The game must be in the middle of a turn to estimate it");
+        }
+        GameSnapshot position = game.snapshot();
+        Tally tally = new Tally(progress);
+        List<CompletableFuture<Void>> parts = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int count = rollouts / threads + (i < rollouts % threads ? 1 : 0);
+            SplittableRandom source = random.split();
+            parts.add(CompletableFuture.runAsync(() -> play(position, count, source, tally, cancelled), executor));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(v -> tally.get());
+    }
+
+    /**
+     * Estimates the probability of winning from the current position of a game and waits for the estimate.
+     * @see #estimate(BoardGame, int, BooleanSupplier, Consumer)
+     */
+    public WinEstimate estimate(BoardGame game, int rollouts) {
+        return estimate(game, rollouts, () -> false, e -> { }).join();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Stops the threads of the estimator. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void play(GameSnapshot position, int count, SplittableRandom source, Tally tally, BooleanSupplier cancelled) {
+        BoardGame game = pool.poll();
+        if (game == null) {
+            game = position.restore();
+        }
+        try {
+            GameSimulator simulator = new GameSimulator(position.restoreInto(game).getPlayerCount(),
+                    GameSimulator.DEFAULT_MAX_TURNS);
+            GamePolicy policy = new RandomActionPolicy(source);
+            int done = 0;
+            while (done < count && !cancelled.getAsBoolean()) {
+                int round = Math.min(ROLLOUTS_PER_ROUND, count - done);
+                int wins = 0;
+                for (int i = 0; i < round; i++) {
+                    position.restoreInto(game);
+                    game.redealHiddenCards(source);
+                    if (simulator.playOut(game, policy).isWon()) {
+                        wins++;
+                    }
+                }
+                done += round;
+                tally.add(wins, round);
+            }
+        } finally {
+            pool.offer(game);
+        }
+    }
+
+    /** The wins and games of all the threads of one estimate. */
+    private static final class Tally {
+        private final Consumer<WinEstimate> progress;
+        private int wins;
+        private int games;
+
+        Tally(Consumer<WinEstimate> progress) {
+            this.progress = progress;
+        }
+
+        synchronized void add(int wins, int games) {
+            this.wins += wins;
+            this.games += games;
+            progress.accept(new WinEstimate(this.wins, this.games));
+        }
+
+        synchronized WinEstimate get() {
+            return new WinEstimate(wins, games);
+        }
+    }
+}
@@ -18,6 +18,7 @@ class FilteredImagePanel extends JPanel {
     private Zone zone;
     private Image overlayImage;
     private int TILE  = 150;
+    private static final int SINK_TURNS = 3; // the horizon of the sinking risk badge
     private boolean selectable;
     private GameController gameController;
     public boolean showBlueOverlay;
@@ -130,7 +131,35 @@ class FilteredImagePanel extends JPanel {
                 g2d.fillRect(0, 0, getWidth(), getHeight());
                 g2d.dispose();
             }
+
+            paintFloodRisk(g);
+        }
+    }
+
+    /**
+     * Draws in the top-left corner the chance that the zone floods this turn and, below it, the chance that it sinks
+     * within {@link #SINK_TURNS} turns if nobody shores it up; redder when the zone is more at risk.
+     */
+    private void paintFloodRisk(Graphics g) {
+        double risk = gameController.getFloodProbability(this.zone);
+        double sinking = gameController.getSinkingRisk(this.zone, SINK_TURNS);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setFont(g2d.getFont().deriveFont(Font.BOLD, 12f));
+        if (risk > 0) {
+            paintBadge(g2d, 4, Math.round(risk * 100) + "%", risk);
         }
+        if (sinking > 0) {
+            paintBadge(g2d, 28, "\u2193" + Math.round(sinking * 100) + "%", sinking);
+        }
+        g2d.dispose();
+    }
+
+    private static void paintBadge(Graphics2D g2d, int y, String text, double risk) {
+        g2d.setColor(new Color(200, 0, 0, 60 + (int) (160 * risk)));
+        g2d.fillRoundRect(4, y, 50, 20, 10, 10);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(text, 9, y + 15);
     }
 }
 
@@ -46,6 +46,10 @@ public class GUI extends JFrame implements GameView {
     private JPanel waterMeterPanel;
     private JProgressBar waterLevelBar;
     private JLabel floodRateLabel;
+    private JLabel winChanceLabel;
+
+    private JLabel hintLabel;
+    private HashSet<Zone> hintZones = new HashSet<>(); // highlighted like the choosable zones, but not clickable
 
 
     public void updateCornerArtefacts(){
@@ -198,6 +202,11 @@ public class GUI extends JFrame implements GameView {
                 if(zoneSet.contains(zones[i][j])){
                     panel.setBorder(BorderFactory.createLineBorder(Color.ORANGE, 5));
                     panel_im.setSelectable();
+                }else if(hintZones.contains(zones[i][j])){
+                    panel.setBorder(BorderFactory.createLineBorder(Color.ORANGE, 5));
+                    panel_im.setUnSelectable();
+                }else if(panel.getBorder() != null && !panel_im.isSelectable()){
+                    panel.setBorder(null); // a hint that is no longer shown
                 }else{
                     if(panel_im.isSelectable()){
                         panel.setBorder(null);
@@ -242,9 +251,19 @@ public class GUI extends JFrame implements GameView {
         fin_de_tour.setSize(100, 50);
         fin_de_tour.setVisible(true);
 
+        JButton hint = new JButton("Hint");
+        hint.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                gameController.requestHint();
+            }
+        });
+        hintLabel = new JLabel(" ");
+
         buttonPanel.remove(add_player);
         buttonPanel.remove(start_game);
         buttonPanel.add(fin_de_tour);
+        buttonPanel.add(hint);
+        buttonPanel.add(hintLabel);
         buttonPanel.setBackground(Color.WHITE);
         updatePlayerPanels();
         this.validate();
@@ -266,6 +285,60 @@ public class GUI extends JFrame implements GameView {
         getGlassPane().setVisible(true);
     }
 
+    @Override
+    public void showHint(HashSet<Zone> zones, String message) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showHint(zones, message));
+            return;
+        }
+        hintZones = new HashSet<>(zones);
+        if (hintLabel != null) {
+            hintLabel.setText("Hint: " + message);
+        }
+        updateZonePanels();
+    }
+
+    @Override
+    public void showWinEstimate(double probability, double lower, double upper, int games) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showWinEstimate(probability, lower, upper, games));
+            return;
+        }
+        if (winChanceLabel != null) {
+            winChanceLabel.setText(String.format("Win chance: %.0f%% (%.0f-%.0f%%)",
+                    probability * 100, lower * 100, upper * 100));
+            winChanceLabel.setToolTipText(games + " random games played from the start of the turn");
+            waterMeterPanel.revalidate();
+            waterMeterPanel.repaint();
+        }
+    }
+
+    @Override
+    public void clearHint() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::clearHint);
+            return;
+        }
+        if (hintLabel != null) {
+            hintLabel.setText(" ");
+        }
+        if (!hintZones.isEmpty()) {
+            hintZones = new HashSet<>();
+            updateZonePanels();
+        }
+    }
+
+    @Override
+    public void showHintMessage(String message) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showHintMessage(message));
+            return;
+        }
+        if (hintLabel != null) {
+            hintLabel.setText(message);
+        }
+    }
+
     @Override
     public void initialize(GameController controller) {
         this.gameController = controller;
@@ -335,6 +408,10 @@ public class GUI extends JFrame implements GameView {
         waterMeterPanel.add(new JLabel("Water Level:")); // Label before the bar
         waterMeterPanel.add(waterLevelBar);
         waterMeterPanel.add(floodRateLabel);
+
+        winChanceLabel = new JLabel("Win chance: ?");
+        winChanceLabel.setFont(winChanceLabel.getFont().deriveFont(Font.BOLD, 14f));
+        waterMeterPanel.add(winChanceLabel);
         // ============
 
         boardPanel.setLayout(new GridBagLayout());
@@ -88,4 +88,31 @@ public interface GameView {
      * Called when the game is over so the UI can lock down.
      */
     void onGameOver();
+
+    /**
+     * Show a hint: highlight the zones of the suggested action and describe it
+     * @param zones The zones to highlight, possibly none
+     * @param message The description of the suggested action
+     */
+    void showHint(HashSet<Zone> zones, String message);
+
+    /**
+     * Remove the hint shown, if any
+     */
+    void clearHint();
+
+    /**
+     * Show a message in place of the hint, while one is searched or when none can be given
+     * @param message The message to show
+     */
+    void showHintMessage(String message);
+
+    /**
+     * Show the estimated probability of winning from the start of the current turn, refined several times per turn
+     * @param probability The estimated probability of winning
+     * @param lower The lower bound of its confidence interval
+     * @param upper The upper bound of its confidence interval
+     * @param games The number of games the estimate was played from
+     */
+    void showWinEstimate(double probability, double lower, double upper, int games);
 }
@@ -0,0 +1,116 @@
+package test;
+
+import Model.*;
+import Simulation.GamePolicy;
+import Simulation.GameSimulator;
+import Simulation.HeuristicPolicy;
+import Simulation.RandomPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    /** Plays a whole recorded game from its setup. */
+    private BoardGame playRecorded(long seed, GamePolicy policy, Path file) throws IOException {
+        Player.resetPlayerCount();
+        BoardGame game = new BoardGame(seed);
+        try (ActionJournal journal = ActionJournal.record(game, file)) {
+            game.addPlayer("Yehor");
+            game.addPlayer("Ivan");
+            game.addPlayer("Anna");
+            game.startGame();
+            new GameSimulator(3, GameSimulator.DEFAULT_MAX_TURNS).playOut(game, policy);
+            assertTrue(journal.size() > 20);
+        }
+        return game;
+    }
+
+    @Test
+    @DisplayName("Replaying the journal of a game played step by step rebuilds its state")
+    void replaysStepByStepGames() throws IOException {
+        for (long seed = 0; seed < 10; seed++) {
+            Path file = dir.resolve("random-" + seed + ".fijl");
+            BoardGame game = playRecorded(seed, new RandomPolicy(new SplittableRandom(seed)), file);
+            assertEquals(game.snapshot(), ActionJournal.replay(file).snapshot(), "seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("Replaying the journal of a game played with encoded actions rebuilds its state")
+    void replaysEncodedActions() throws IOException {
+        for (long seed = 0; seed < 5; seed++) {
+            Path file = dir.resolve("heuristic-" + seed + ".fijl");
+            BoardGame game = playRecorded(seed, HeuristicPolicy.shoreUp(new SplittableRandom(seed)), file);
+            assertEquals(game.snapshot(), ActionJournal.replay(file).snapshot(), "seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("The first moves of a journal give the earlier states, refused moves included")
+    void replaysPrefixes() throws IOException {
+        BoardGame game = BoardGameTestHelper.startedGame(3L, "Yehor", "Ivan");
+        Path file = dir.resolve("prefix.fijl");
+        List<GameSnapshot> states = new ArrayList<>();
+        try (ActionJournal journal = ActionJournal.record(game, file)) {
+            states.add(game.snapshot());
+            assertThrows(RuntimeException.class, () -> game.movePlayerToZone(game.getZone(0, 0)));
+            states.add(game.snapshot());
+            game.setPlayerChooseZoneToShoreUp();
+            states.add(game.snapshot());
+            game.setPlayerGiveTreasureCards();
+            Player player = game.getPlayerForTheTurn();
+            game.playerChooseCardToGive(player, player.getHand().getCards().get(1));
+            states.add(game.snapshot());
+            game.finishTurn();
+            states.add(game.snapshot());
+            assertEquals(5, journal.size());
+        }
+        game.finishTurn(); // not recorded once the journal is closed
+        assertEquals(states.get(0), ActionJournal.replay(file, 0).snapshot());
+        assertEquals(states.get(1), ActionJournal.replay(file, 1).snapshot());
+        assertEquals(states.get(2), ActionJournal.replay(file, 2).snapshot());
+        assertEquals(states.get(3), ActionJournal.replay(file, 4).snapshot());
+        assertEquals(states.get(4), ActionJournal.replay(file).snapshot());
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> ActionJournal.replay(file));
+    }
+
+    @Test
+    @DisplayName("A replay which does not end every move the way the recorded game did is refused")
+    void rejectsDivergingReplays() throws IOException {
+        BoardGame game = BoardGameTestHelper.startedGame(3L, "Yehor", "Ivan");
+        int first = 14 + GameSave.write(game, ByteBuffer.allocate(1024)); // the header and save before the moves
+        Path file = dir.resolve("diverging.fijl");
+        try (ActionJournal journal = ActionJournal.record(game, file)) {
+            assertThrows(RuntimeException.class, () -> game.movePlayerToZone(game.getZone(0, 0)));
+            game.setPlayerChooseZoneToShoreUp();
+            assertEquals(2, journal.size());
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(ActionJournal.replay(file).snapshot(), game.snapshot());
+
+        bytes[first + 1] = 0; // the refused move recorded as played
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ActionJournal.replay(file));
+
+        bytes[first + 1] = 1;
+        bytes[first + 2] = 25; // a tile off the board
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ActionJournal.replay(file));
+    }
+}
@@ -0,0 +1,58 @@
+package test;
+
+import Model.AdjacencyIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdjacencyIndexTest {
+    private final AdjacencyIndex adjacency = new AdjacencyIndex(5);
+
+    @Test
+    @DisplayName("Corners, edges and inner tiles have the right number of neighbours")
+    void neighbourCounts() {
+        assertEquals(2, adjacency.orthogonalCount(adjacency.indexOf(0, 0)));
+        assertEquals(1, adjacency.diagonalCount(adjacency.indexOf(0, 0)));
+        assertEquals(3, adjacency.orthogonalCount(adjacency.indexOf(0, 2)));
+        assertEquals(2, adjacency.diagonalCount(adjacency.indexOf(0, 2)));
+        assertEquals(4, adjacency.orthogonalCount(adjacency.indexOf(2, 2)));
+        assertEquals(4, adjacency.diagonalCount(adjacency.indexOf(2, 2)));
+        assertEquals(-1, adjacency.indexOf(5, 0));
+        assertEquals(-1, adjacency.indexOf(0, -1));
+    }
+
+    @Test
+    @DisplayName("The masks and tables match the distance between tiles")
+    void matchesCoordinates() {
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                int index = adjacency.indexOf(x, y);
+                long orthogonal = 0;
+                long diagonal = 0;
+                for (int ox = 0; ox < 5; ox++) {
+                    for (int oy = 0; oy < 5; oy++) {
+                        int dx = Math.abs(ox - x);
+                        int dy = Math.abs(oy - y);
+                        if (dx + dy == 1) orthogonal |= 1L << adjacency.indexOf(ox, oy);
+                        if (dx == 1 && dy == 1) diagonal |= 1L << adjacency.indexOf(ox, oy);
+                    }
+                }
+                assertEquals(orthogonal, adjacency.orthogonal(index));
+                assertEquals(diagonal, adjacency.diagonal(index));
+                assertEquals(orthogonal, adjacency.neighbours(index, false));
+                assertEquals(orthogonal | diagonal, adjacency.neighbours(index, true));
+
+                long fromTable = 0;
+                int previous = -1;
+                for (int k = 0; k < adjacency.orthogonalCount(index); k++) {
+                    int tile = adjacency.orthogonalTile(index, k);
+                    assertTrue(tile > previous);
+                    previous = tile;
+                    fromTable |= 1L << tile;
+                }
+                assertEquals(orthogonal, fromTable);
+            }
+        }
+    }
+}
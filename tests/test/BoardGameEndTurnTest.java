@@ -622,4 +622,55 @@ class BoardGameEndTurnTest {
         assertEquals(GameState.PlayersRunningFromAnInaccessibleZone, BoardGameTestHelper.getGameState(boardGame));
         assertEquals(0, BoardGameTestHelper.getPlayerTurnId(boardGame));
     }
+
+    // --- Finish Turn: outcomes without exceptions ---
+
+    @Test
+    @DisplayName("Finish turn reports a full hand instead of throwing")
+    void finishTurnReportsMustDiscard() {
+        setCurrentPlayer(player1, 3);
+        for(int i=0; i<5; i++) {
+            player1.takeCard(new Card(CardType.FIRE_CARD));
+        }
+        BoardGameTestHelper.getTreasureDeck(boardGame).getDrawCards().add(new Card(CardType.WATER_CARD));
+        BoardGameTestHelper.getTreasureDeck(boardGame).getDrawCards().add(new Card(CardType.EARTH_CARD));
+
+        TurnOutcome outcome = boardGame.finishTurn();
+
+        assertSame(TurnOutcome.MUST_DISCARD, outcome);
+        assertEquals(GameState.Discarding, BoardGameTestHelper.getGameState(boardGame));
+        assertEquals(0, BoardGameTestHelper.getPlayerTurnId(boardGame));
+    }
+
+    @Test
+    @DisplayName("Finish turn reports a Water Rise and stranded players")
+    void finishTurnReportsWaterRiseAndStranding() {
+        BoardGameTestHelper.getTreasureDeck(boardGame).getDrawCards().add(new Card(CardType.FIRE_CARD));
+        BoardGameTestHelper.getTreasureDeck(boardGame).getDrawCards().add(new Card(CardType.WATER_RISE));
+        putPlayersOnZone(zoneToFlood1, player2);
+        zoneToFlood1.floodZone();
+        BoardGameTestHelper.getFloodDeck(boardGame).getDiscardCards().add(getZoneCardFromZone(zoneToFlood1));
+
+        TurnOutcome outcome = boardGame.finishTurn();
+
+        assertEquals(TurnOutcome.Type.Continue, outcome.getType());
+        assertTrue(outcome.hasWaterRisen());
+        assertTrue(outcome.arePlayersStranded());
+        assertFalse(outcome.isGameOver());
+        assertEquals(1, BoardGameTestHelper.getPlayerTurnId(boardGame));
+    }
+
+    @Test
+    @DisplayName("Finish turn reports the cause of a loss")
+    void finishTurnReportsLoss() {
+        helicopterZone.floodZone();
+        BoardGameTestHelper.getFloodDeck(boardGame).getDrawCards().add(getZoneCardFromZone(helicopterZone));
+        BoardGameTestHelper.setTreasureDrawnThisTurn(boardGame, true);
+
+        TurnOutcome outcome = boardGame.finishTurn();
+
+        assertTrue(outcome.isLost());
+        assertEquals(LossCause.HelicopterSunk, outcome.getLossCause());
+        assertSame(TurnOutcome.lost(LossCause.HelicopterSunk), outcome);
+    }
 }
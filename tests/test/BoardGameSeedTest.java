@@ -0,0 +1,73 @@
+package test;
+
+import Model.*;
+import Simulation.GameResult;
+import Simulation.SimulationRunner;
+import Simulation.RandomPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardGameSeedTest {
+
+    private static List<ZoneCard> layout(BoardGame game) {
+        List<ZoneCard> res = new ArrayList<>();
+        for (Zone[] row : game.getBoard()) {
+            for (Zone z : row) {
+                res.add(z.getZoneCard());
+            }
+        }
+        return res;
+    }
+
+    private static List<CardType> treasureOrder(BoardGame game) {
+        List<CardType> res = new ArrayList<>();
+        for (Card c : game.getTreasureDeck().getDrawCards()) {
+            res.add(c.getType());
+        }
+        return res;
+    }
+
+    @Test
+    @DisplayName("Games with the same seed have the same layout, roles and decks")
+    void sameSeedSameGame() {
+        BoardGame first = new BoardGame(1234L);
+        BoardGame second = new BoardGame(1234L);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(first.addPlayer("P" + i).getPlayer_role(), second.addPlayer("P" + i).getPlayer_role());
+        }
+        first.startGame();
+        second.startGame();
+
+        assertEquals(1234L, first.getSeed());
+        assertEquals(layout(first), layout(second));
+        assertEquals(treasureOrder(first), treasureOrder(second));
+        assertEquals(first.getFloodDeck().getDrawCards(), second.getFloodDeck().getDrawCards());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(first.getPlayers()[i].getPlayer_zone().getZoneCard(), second.getPlayers()[i].getPlayer_zone().getZoneCard());
+        }
+    }
+
+    @Test
+    @DisplayName("Games with different seeds have different layouts")
+    void differentSeedsDifferentLayouts() {
+        assertNotEquals(layout(new BoardGame(1L)), layout(new BoardGame(2L)));
+    }
+
+    @Test
+    @DisplayName("A simulated game is fully determined by its seed")
+    void simulatedGameIsReproducible() {
+        SimulationRunner runner = new SimulationRunner(RandomPolicy::new, 4, 1);
+        for (int i = 0; i < 10; i++) {
+            GameResult first = runner.playGame(7L, i);
+            GameResult second = runner.playGame(7L, i);
+            assertEquals(first.isWon(), second.isWon());
+            assertEquals(first.getLossCause(), second.getLossCause());
+            assertEquals(first.getTurns(), second.getTurns());
+        }
+    }
+}
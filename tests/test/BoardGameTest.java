@@ -69,4 +69,25 @@ class BoardGameTest {
                     "Players should start with 2 treasure cards");
         }
     }
+
+    @Test
+    void zoneByCardFindsEveryTile() {
+        for (Zone[] column : game.getBoard()) {
+            for (Zone z : column) {
+                if (z.getZoneCard() == null) continue;
+                assertSame(z, game.getZoneByCard(z.getZoneCard()));
+            }
+        }
+    }
+
+    @Test
+    void zoneByCardFollowsReplacedZones() {
+        Zone old = game.getZoneByCard(ZoneCard.watchtower);
+        Zone replacement = new Zone(old.getX(), old.getY(), true, ZoneCard.watchtower);
+        game.getBoard()[old.getX()][old.getY()] = replacement;
+        assertSame(replacement, game.getZoneByCard(ZoneCard.watchtower));
+
+        game.getBoard()[old.getX()][old.getY()] = new Zone(old.getX(), old.getY(), true, null);
+        assertThrows(IllegalStateException.class, () -> game.getZoneByCard(ZoneCard.watchtower));
+    }
 }
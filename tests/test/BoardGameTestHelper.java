@@ -10,6 +10,17 @@ import java.util.Set;
 
 public class BoardGameTestHelper { // for accessing private fields
 
+    /** Creates a game of a seed with the given players, and starts it. */
+    public static BoardGame startedGame(long seed, String... names) {
+        Player.resetPlayerCount();
+        BoardGame game = new BoardGame(seed);
+        for (String name : names) {
+            game.addPlayer(name);
+        }
+        game.startGame();
+        return game;
+    }
+
     public static Object getPrivateFieldValue(Object obj, String fieldName) {
         try {
             Field field = obj.getClass().getDeclaredField(fieldName);
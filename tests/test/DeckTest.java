@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,4 +97,53 @@ class DeckTest {
         assertNotEquals(beforeShuffle, afterShuffle, "Shuffle did not change card order (unlikely but possible)");
         assertTrue(afterShuffle.containsAll(initialCards) && initialCards.containsAll(afterShuffle), "Shuffled deck does not contain the same cards");
     }
+
+    @Test
+    @DisplayName("The first shuffle matches a Fisher-Yates shuffle with SplittableRandom")
+    void shuffleMatchesSplittableRandom() {
+        List<Integer> cards = new ArrayList<>();
+        for (int i = 0; i < 28; i++) {
+            cards.add(i);
+        }
+        Deck<Integer> seeded = new Deck<>(cards, new SplittableRandom(9));
+        seeded.shuffle();
+
+        SplittableRandom random = new SplittableRandom(new SplittableRandom(9).nextLong());
+        List<Integer> expected = new ArrayList<>(cards);
+        for (int i = expected.size() - 1; i > 0; i--) {
+            Collections.swap(expected, i, random.nextInt(i + 1));
+        }
+        assertEquals(expected, seeded.getDrawCards());
+    }
+
+    @Test
+    @DisplayName("The piles are live views and a reshuffle keeps every card")
+    void pilesAreViews() {
+        List<String> draw = deck.getDrawCards();
+        List<String> discard = deck.getDiscardCards();
+        String top = draw.get(draw.size() - 1);
+        assertEquals(top, deck.draw());
+        assertEquals(4, draw.size());
+        deck.discard(top);
+        deck.discard(deck.draw());
+        assertEquals(top, discard.get(0));
+        assertEquals(2, discard.size());
+
+        discard.add(0, "CardF");
+        assertEquals(List.of("CardF", top), discard.subList(0, 2));
+        assertEquals("CardF", discard.remove(0));
+        draw.add("CardG");
+        assertEquals("CardG", deck.draw());
+
+        deck.reshuffleDiscardIntoDraw();
+        assertEquals(0, deck.getDiscardSize());
+        assertEquals(5, deck.getDrawSize());
+        assertTrue(draw.containsAll(initialCards));
+        for (int i = 0; i < 20; i++) { // grows the shared array past its initial capacity
+            deck.discard("Extra" + i);
+        }
+        assertEquals(20, discard.size());
+        assertEquals("Extra0", discard.get(0));
+        assertTrue(draw.containsAll(initialCards));
+    }
 }
@@ -0,0 +1,124 @@
+package test;
+
+import Model.*;
+import Simulation.GamePolicy;
+import Simulation.GameSimulator;
+import Simulation.RandomPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiverReachabilityTest {
+
+    /** The breadth-first search the Diver moves were computed with before the mask engine. */
+    private static Set<Zone> referenceDiverZones(Zone[][] board, Zone zone, boolean is_dry) {
+        Set<Zone> res_zones = new HashSet<>(adjacent(board, zone, false, z -> is_dry ? z.isDry() : z.isAccessible()));
+        LinkedList<Zone> floodedQueue = new LinkedList<>(adjacent(board, zone, true, z -> !z.isDry()));
+        Set<Zone> exploredFlooded = new HashSet<>();
+        while (!floodedQueue.isEmpty()) {
+            Zone floodedZone = floodedQueue.poll();
+            exploredFlooded.add(floodedZone);
+            res_zones.addAll(adjacent(board, floodedZone, true, z -> is_dry ? z.isDry() : z.isAccessible()));
+            floodedQueue.addAll(adjacent(board, floodedZone, true, z -> !exploredFlooded.contains(z) && !z.isDry()));
+        }
+        return res_zones;
+    }
+
+    private static List<Zone> adjacent(Zone[][] board, Zone zone, boolean diagonals, Predicate<Zone> filter) {
+        List<Zone> res = new ArrayList<>();
+        for (int i = -1; i <= 1; i++) {
+            for (int j = -1; j <= 1; j++) {
+                if ((i == 0 && j == 0) || (i != 0 && j != 0 && !diagonals)) continue;
+                int x = zone.getX() + i;
+                int y = zone.getY() + j;
+                if (x < 0 || y < 0 || x >= board.length || y >= board[0].length) continue;
+                if (filter.test(board[x][y])) res.add(board[x][y]);
+            }
+        }
+        return res;
+    }
+
+    /** Checks the engine against the reference for the Diver standing on every tile of the board. */
+    private static int compareAllTiles(BoardGame game, DiverReachability engine) {
+        IslandBitboard island = game.getIsland();
+        Zone[][] board = game.getBoard();
+        int size = board.length;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int start = x * size + y;
+                Zone zone = board[x][y];
+                assertEquals(referenceDiverZones(board, zone, true),
+                        new HashSet<>(island.zonesOf(engine.moves(start, island.getDry()))),
+                        "moves from " + x + ", " + y);
+                assertEquals(referenceDiverZones(board, zone, false),
+                        new HashSet<>(island.zonesOf(engine.escapes(start, island.getDry(), island.getFlooded()))),
+                        "escapes from " + x + ", " + y);
+            }
+        }
+        return size * size;
+    }
+
+    @Test
+    @DisplayName("The mask engine matches the breadth-first search on every board of random games")
+    void matchesBreadthFirstSearchInRandomPlay() {
+        DiverReachability engine = new DiverReachability(new AdjacencyIndex(5));
+        int[] checks = {0};
+        GameSimulator simulator = new GameSimulator(4, GameSimulator.DEFAULT_MAX_TURNS);
+        for (int game = 0; game < 60; game++) {
+            RandomPolicy random = new RandomPolicy(new SplittableRandom(game));
+            simulator.play(game, new GamePolicy() {
+                @Override
+                public void playTurn(BoardGame g, Player player) {
+                    checks[0] += compareAllTiles(g, engine);
+                    random.playTurn(g, player);
+                }
+
+                @Override
+                public Card chooseCardToDiscard(BoardGame g, Player player) {
+                    return random.chooseCardToDiscard(g, player);
+                }
+
+                @Override
+                public Zone chooseZoneToRunTo(BoardGame g, Player player, List<Zone> zones) {
+                    checks[0] += compareAllTiles(g, engine);
+                    return random.chooseZoneToRunTo(g, player, zones);
+                }
+            });
+        }
+        assertTrue(checks[0] > 10_000);
+    }
+
+    @Test
+    @DisplayName("The Diver swims through a chain of sunk tiles, diagonals included")
+    void swimsThroughChain() {
+        Player.resetPlayerCount();
+        BoardGame game = new BoardGame(11L);
+        Zone[][] board = game.getBoard();
+        for (Zone[] column : board) {
+            for (Zone z : column) {
+                z.makeAccessible();
+            }
+        }
+        board[0][1].makeInaccessible();
+        board[1][2].makeInaccessible();
+        board[2][3].floodZone();
+        DiverReachability engine = new DiverReachability(new AdjacencyIndex(5));
+        IslandBitboard island = game.getIsland();
+
+        long moves = engine.moves(0, island.getDry());
+        assertNotEquals(0, moves & island.bitOf(board[3][4]));
+        assertEquals(0, moves & island.bitOf(board[4][4]));
+        assertEquals(0, moves & island.bitOf(board[2][3]));
+        assertNotEquals(0, engine.escapes(0, island.getDry(), island.getFlooded()) & island.bitOf(board[2][3]));
+        assertEquals(referenceDiverZones(board, board[0][0], true), new HashSet<>(island.zonesOf(moves)));
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import Model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloodTrackerTest {
+    private static final double EPSILON = 1e-12;
+
+    private static BoardGame newGame(long seed) {
+        BoardGame game = BoardGameTestHelper.startedGame(seed, "Yehor", "Ivan");
+        FloodDeck deck = game.getFloodDeck();
+        for (int i = 0; i < 6; i++) { // a few discards, like after the opening flood of the rules
+            deck.discard(deck.draw());
+        }
+        return game;
+    }
+
+    @Test
+    @DisplayName("Every card of the draw pile is equally likely and the discards cannot come up")
+    void uniformOverTheDrawPile() {
+        BoardGame game = newGame(8);
+        FloodDeck deck = game.getFloodDeck();
+        int rate = game.getFloodRate();
+        double total = 0;
+        for (ZoneCard card : ZoneCard.values()) {
+            double p = game.getFloodProbability(card);
+            total += p;
+            if (deck.getDiscardCards().contains(card)) {
+                assertEquals(0, p);
+            } else {
+                assertEquals((double) rate / deck.getDrawSize(), p, EPSILON);
+            }
+        }
+        assertEquals(rate, total, 1e-9);
+
+        double[] tiles = new double[25];
+        game.getFloodProbabilities(tiles);
+        assertEquals(0, tiles[12]); // the sea
+        Zone zone = game.getIsland().getZone(0);
+        assertEquals(game.getFloodProbability(zone.getZoneCard()), tiles[0]);
+    }
+
+    @Test
+    @DisplayName("Past the end of the draw pile, the discards come back reshuffled")
+    void drawsPastTheDrawPile() {
+        BoardGame game = newGame(9);
+        FloodDeck deck = game.getFloodDeck();
+        List<ZoneCard> draw = deck.getDrawCards();
+        ZoneCard last = draw.get(0);
+        draw.clear();
+        draw.add(last);
+        FloodTracker tracker = deck.getTracker();
+        assertEquals(1, tracker.getDrawCount(last));
+        assertEquals(1 << last.ordinal(), tracker.getDrawMask());
+
+        ZoneCard discarded = deck.getDiscardCards().get(0);
+        assertEquals(1, tracker.probability(last, 2));
+        assertEquals(1.0 / (deck.getDiscardSize() + 1), tracker.probability(discarded, 2), EPSILON);
+        assertEquals(2.0 / (deck.getDiscardSize() + 1), tracker.probability(discarded, 3), EPSILON);
+        assertEquals(1, tracker.probability(last, 1));
+
+        deck.reshuffleDiscardIntoDraw();
+        assertEquals(0, deck.getDiscardSize());
+        assertEquals(1, tracker.getDrawCount(discarded));
+        assertEquals(0, tracker.getDiscardCount(discarded));
+        assertEquals(2.0 / deck.getDrawSize(), tracker.probability(discarded, 2), EPSILON);
+    }
+
+    @Test
+    @DisplayName("The tracker follows the draws of a turn and the restores of a snapshot")
+    void followsTheGame() {
+        BoardGame game = newGame(10);
+        GameSnapshot start = game.snapshot();
+        ZoneCard next = game.getFloodDeck().getDrawCards().get(game.getFloodDeck().getDrawSize() - 1);
+        double before = game.getFloodProbability(next);
+        assertTrue(before > 0);
+
+        game.getFloodDeck().discard(game.getFloodDeck().draw());
+        assertEquals(0, game.getFloodProbability(next));
+        assertEquals(1, game.getFloodDeck().getTracker().getDiscardCount(next));
+
+        start.restoreInto(game);
+        assertEquals(before, game.getFloodProbability(next), EPSILON);
+        assertEquals(0, game.getFloodDeck().getTracker().getDiscardCount(next));
+    }
+}
@@ -10,7 +10,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class GameOverTest {
@@ -93,12 +92,8 @@ public class GameOverTest {
         floodField.setAccessible(true);
         FloodDeck deck = (FloodDeck) floodField.get(game);
 
-        Field drawField = Deck.class
-                .getDeclaredField("drawCards");
-        drawField.setAccessible(true);
-        drawField.set(deck, new ArrayList<>(
-                Collections.singletonList(corner.getZoneCard())
-        ));
+        deck.getDrawCards().clear();
+        deck.getDrawCards().add(corner.getZoneCard());
 
         try {
             game.endTurn();
@@ -110,8 +105,39 @@ public class GameOverTest {
         }
     }
 
+    @Test
+    void lossCause_followsSunkZones() {
+        assertNull(game.getLossCause());
 
+        Zone heli = game.getZoneByCard(ZoneCard.fodls_landing);
+        heli.floodZone();
+        assertNull(game.getLossCause());
+        heli.floodZone();
+        assertEquals(LossCause.HelicopterSunk, game.getLossCause());
+    }
 
+    @Test
+    void floodPhase_stopsOnTheLosingCard() throws Exception {
+        Zone heli = game.getZoneByCard(ZoneCard.fodls_landing);
+        heli.floodZone();
+        Zone other = null;
+        for (Zone[] row : game.getBoard()) {
+            for (Zone z : row) {
+                if (other == null && z != heli && z.getZoneCard() != null && z.isDry()) other = z;
+            }
+        }
 
-
+        Field treasureFlag = BoardGame.class.getDeclaredField("treasureDrawnThisTurn");
+        treasureFlag.setAccessible(true);
+        treasureFlag.set(game, true);
+        List<ZoneCard> draw = game.getFloodDeck().getDrawCards();
+        draw.clear();
+        draw.add(other.getZoneCard());
+        draw.add(heli.getZoneCard()); // drawn first
+
+        GameOverException ex = assertThrows(GameOverException.class, () -> game.endTurn());
+        assertEquals(LossCause.HelicopterSunk, ex.getLossCause());
+        assertEquals(1, game.getFloodDeck().getDrawSize(), "No card is drawn after the losing one");
+        assertTrue(other.isDry());
+    }
 }
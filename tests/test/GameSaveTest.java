@@ -0,0 +1,91 @@
+package test;
+
+import Model.*;
+import Simulation.GameSimulator;
+import Simulation.RandomPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSaveTest {
+
+    private BoardGame game;
+
+    @BeforeEach
+    void setUp() {
+        game = BoardGameTestHelper.startedGame(42L, "Yehor", "Ivan", "Anna", "Olha");
+        new GameSimulator(4, 3).playOut(game, new RandomPolicy(new SplittableRandom(7)));
+    }
+
+    @Test
+    @DisplayName("A game saved in the middle of a choice loads back in the same state")
+    void roundTrip() {
+        Player player = game.getPlayerForTheTurn();
+        Card card = player.getHand().getCards().get(player.getHand().getSize() - 1);
+        game.setPlayerGiveTreasureCards();
+        game.playerChooseCardToGive(player, card);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(-1); // the save does not have to start the buffer
+        int size = GameSave.write(game, buffer);
+        assertTrue(size < 1024, size + " bytes");
+        assertEquals(4 + size, buffer.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+
+        buffer.flip().position(4);
+        BoardGame loaded = GameSave.read(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(game.snapshot(), loaded.snapshot());
+        assertTrue(loaded.isPlayerChoosingPlayerToGiveCardTo());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(game.getPlayers()[i].getPlayerColor(), loaded.getPlayers()[i].getPlayerColor());
+        }
+
+        BoardGame reused = new BoardGame(42L);
+        buffer.position(4);
+        assertSame(reused, GameSave.readInto(buffer, reused));
+        assertEquals(game.snapshot(), reused.snapshot());
+    }
+
+    @Test
+    @DisplayName("A save that does not fit writes nothing and a damaged one is refused")
+    void rejectsBadBuffers() {
+        ByteBuffer small = ByteBuffer.allocate(GameSave.HEADER);
+        assertThrows(BufferOverflowException.class, () -> GameSave.write(game, small));
+        assertEquals(0, small.position());
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        GameSave.write(game, buffer);
+        buffer.flip();
+        buffer.put(GameSave.HEADER + 20, (byte) (buffer.get(GameSave.HEADER + 20) ^ 1));
+        assertThrows(IllegalArgumentException.class, () -> GameSave.read(buffer.duplicate()));
+
+        buffer.put(GameSave.HEADER + 20, (byte) (buffer.get(GameSave.HEADER + 20) ^ 1));
+        buffer.put(0, (byte) 0);
+        assertThrows(IllegalArgumentException.class, () -> GameSave.read(buffer.duplicate()));
+        assertThrows(IllegalArgumentException.class, () -> GameSave.read(ByteBuffer.allocate(3)));
+    }
+
+    @Test
+    @DisplayName("A game survives a save file")
+    void fileRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("game.fisv");
+        GameSave.save(game, file);
+        assertTrue(Files.size(file) < 1024);
+        assertEquals(game.snapshot(), GameSave.load(file).snapshot());
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> GameSave.load(file));
+    }
+}
@@ -0,0 +1,152 @@
+package test;
+
+import Model.*;
+import Simulation.GamePolicy;
+import Simulation.GameResult;
+import Simulation.GameSimulator;
+import Simulation.RandomPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+
+    private BoardGame game;
+
+    @BeforeEach
+    void setUp() {
+        game = BoardGameTestHelper.startedGame(99L, "Yehor", "Ivan", "Anna");
+    }
+
+    /** Plays with one random policy until the given turn, then with a fresh one seeded by the turn. */
+    private static class SwitchingPolicy implements GamePolicy {
+        private final int switchTurn;
+        private GamePolicy policy;
+        private int turn = 0;
+        GameSnapshot snapshot;
+        BoardGame game;
+
+        SwitchingPolicy(long seed, int switchTurn) {
+            this.switchTurn = switchTurn;
+            this.policy = new RandomPolicy(new SplittableRandom(seed));
+        }
+
+        @Override
+        public void playTurn(BoardGame g, Player player) {
+            if (turn++ == switchTurn) {
+                snapshot = g.snapshot();
+                game = g;
+                policy = new RandomPolicy(new SplittableRandom(switchTurn));
+            }
+            policy.playTurn(g, player);
+        }
+
+        @Override
+        public Card chooseCardToDiscard(BoardGame g, Player player) {
+            return policy.chooseCardToDiscard(g, player);
+        }
+
+        @Override
+        public Zone chooseZoneToRunTo(BoardGame g, Player player, List<Zone> zones) {
+            return policy.chooseZoneToRunTo(g, player, zones);
+        }
+    }
+
+    @Test
+    @DisplayName("A snapshot takes a few hundred bytes")
+    void snapshotIsCompact() {
+        GameSnapshot snapshot = game.snapshot();
+        assertTrue(snapshot.size() < 400, snapshot.size() + " bytes");
+        assertEquals(99L, snapshot.getSeed());
+    }
+
+    @Test
+    @DisplayName("A restored game has the state of the captured one")
+    void restoreGivesTheSameState() {
+        game.getZone(0, 1).floodZone();
+        game.getZone(3, 3).floodZone();
+        game.getZone(3, 3).floodZone();
+        game.setPlayerChooseZoneToMoveTo();
+
+        GameSnapshot snapshot = game.snapshot();
+        BoardGame restored = snapshot.restore();
+
+        assertEquals(snapshot, restored.snapshot());
+        assertNotSame(game.getBoard()[0][0], restored.getBoard()[0][0]);
+        assertEquals(ZoneState.Flooded, restored.getZone(0, 1).getZone_state());
+        assertEquals(ZoneState.Inaccessible, restored.getZone(3, 3).getZone_state());
+        assertTrue(restored.isPlayerChoosingZoneToMove());
+        assertEquals(game.getNumOfActiveZones(), restored.getNumOfActiveZones());
+        for (int i = 0; i < 3; i++) {
+            Player original = game.getPlayers()[i];
+            Player copy = restored.getPlayers()[i];
+            assertEquals(original.getPlayer_role(), copy.getPlayer_role());
+            assertEquals(original.getPlayer_zone().getZoneCard(), copy.getPlayer_zone().getZoneCard());
+            assertTrue(copy.getPlayer_zone().getPlayers_on_zone().contains(copy));
+            assertEquals(original.getHand().getSize(), copy.getHand().getSize());
+        }
+        assertEquals(game.getZonesPossibleForChoosing().size(), restored.getZonesPossibleForChoosing().size());
+    }
+
+    @Test
+    @DisplayName("Changing a restored game leaves the captured one untouched")
+    void restoredGameIsIndependent() {
+        GameSnapshot snapshot = game.snapshot();
+        BoardGame restored = snapshot.restore();
+        restored.getZone(0, 0).floodZone();
+        restored.getTreasureDeck().draw();
+
+        assertEquals(snapshot, game.snapshot());
+        assertNotEquals(snapshot, restored.snapshot());
+    }
+
+    @Test
+    @DisplayName("Restoring into a used game resets it to the snapshot")
+    void restoreIntoReusesTheGame() {
+        GameSnapshot snapshot = game.snapshot();
+        BoardGame copy = snapshot.restore();
+        Zone corner = copy.getBoard()[0][0];
+        new GameSimulator(3, GameSimulator.DEFAULT_MAX_TURNS).playOut(copy, new RandomPolicy(new SplittableRandom(1)));
+
+        assertSame(copy, snapshot.restoreInto(copy));
+        assertEquals(snapshot, copy.snapshot());
+        assertSame(corner, copy.getBoard()[0][0]);
+
+        BoardGame other = new BoardGame(5L);
+        snapshot.restoreInto(other);
+        assertEquals(snapshot, other.snapshot());
+    }
+
+    @Test
+    @DisplayName("A snapshot survives its byte form")
+    void bytesRoundTrip() {
+        GameSnapshot snapshot = game.snapshot();
+        assertEquals(snapshot, GameSnapshot.fromByteArray(snapshot.toByteArray()));
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.fromByteArray(new byte[3]));
+    }
+
+    @Test
+    @DisplayName("A game restored in the middle of a random game plays on exactly like the original")
+    void restoredGamePlaysOnIdentically() {
+        GameSimulator simulator = new GameSimulator(4, GameSimulator.DEFAULT_MAX_TURNS);
+        for (int seed = 0; seed < 30; seed++) {
+            SwitchingPolicy switching = new SwitchingPolicy(seed, 4);
+            GameResult original = simulator.play(seed, switching);
+            if (switching.snapshot == null) {
+                continue; // the game ended before the snapshot
+            }
+            BoardGame restored = switching.snapshot.restore();
+            GameResult replayed = simulator.playOut(restored, new RandomPolicy(new SplittableRandom(4)));
+
+            assertEquals(original.isWon(), replayed.isWon(), "seed " + seed);
+            assertEquals(original.getLossCause(), replayed.getLossCause(), "seed " + seed);
+            assertEquals(original.getTurns() - 4, replayed.getTurns(), "seed " + seed);
+            assertEquals(switching.game.snapshot(), restored.snapshot(), "seed " + seed);
+        }
+    }
+}
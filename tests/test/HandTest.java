@@ -118,5 +118,26 @@ class HandTest {
         assertEquals(6, hand.getSize());
         assertTrue(hand.isOverflow());
     }
-}
 
+    @Test
+    @DisplayName("The counts per type follow additions and removals")
+    void countsPerType() {
+        Card fire1 = new Card(CardType.FIRE_CARD);
+        Card fire2 = new Card(CardType.FIRE_CARD);
+        hand.add(fire1);
+        hand.add(card1);
+        hand.add(fire2);
+        assertEquals(2, hand.count(CardType.FIRE_CARD));
+        assertEquals(1, hand.count(CardType.EARTH_CARD));
+        assertEquals(0, hand.count(CardType.SANDBAGS));
+        assertTrue(hand.hasAtLeast(CardType.FIRE_CARD, 2));
+        assertFalse(hand.hasAtLeast(CardType.FIRE_CARD, 3));
+        assertTrue(hand.contains(fire2));
+        assertFalse(hand.contains(new Card(CardType.FIRE_CARD)));
+
+        assertSame(fire1, hand.removeFirst(CardType.FIRE_CARD));
+        assertNull(hand.removeFirst(CardType.SANDBAGS));
+        assertEquals(1, hand.count(CardType.FIRE_CARD));
+        assertEquals(List.of(card1, fire2), hand.getCards());
+    }
+}
@@ -0,0 +1,123 @@
+package test;
+
+import Model.*;
+import Simulation.HeuristicPolicy;
+import Simulation.PolicyFactory;
+import Simulation.SimulationReport;
+import Simulation.SimulationRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicPolicyTest {
+
+    private BoardGame game;
+    private Player first;
+    private Player second;
+
+    @BeforeEach
+    void setUp() {
+        Player.resetPlayerCount();
+        game = new BoardGame(4L);
+        first = game.addPlayer("Yehor", PlayerRole.Messenger);
+        second = game.addPlayer("Ivan", PlayerRole.Explorer);
+        game.startGame();
+        IslandBitboard island = game.getIsland();
+        for (long m = island.getFlooded(); m != 0; m &= m - 1) {
+            island.getZone(Long.numberOfTrailingZeros(m)).shoreUp();
+        }
+        if (game.getPlayerForTheTurn() != first) {
+            Player other = first;
+            first = second;
+            second = other;
+        }
+    }
+
+    private Zone zoneOf(Artefact artefact) {
+        IslandBitboard island = game.getIsland();
+        return island.getZone(Long.numberOfTrailingZeros(island.getArtefactTiles(artefact)));
+    }
+
+    @Test
+    @DisplayName("Every heuristic policy plays games to their end")
+    void policiesFinishGames() {
+        PolicyFactory[] factories = {HeuristicPolicy::shoreUp, HeuristicPolicy::treasureFunnel, HeuristicPolicy::repositioning};
+        for (PolicyFactory factory : factories) {
+            SimulationReport report = new SimulationRunner(factory, 3, 1).run(50, 1L);
+            assertEquals(50, report.getStats().getGames());
+            assertEquals(50, report.getStats().getWins() + report.getStats().getLosses() + report.getStats().getUnfinished());
+        }
+    }
+
+    @Test
+    @DisplayName("The artefact is taken as soon as the player can")
+    void takesArtefact() {
+        first.setPlayerToZone(zoneOf(Artefact.Fire));
+        for (int i = 0; i < 4; i++) {
+            first.takeCard(new Card(CardType.FIRE_CARD));
+        }
+        BoardGameTestHelper.setCurrentPlayerActionsNum(game, 1);
+
+        HeuristicPolicy.shoreUp(new SplittableRandom(1)).playTurn(game, first);
+        assertTrue(game.isArtefactTaken(Artefact.Fire));
+    }
+
+    @Test
+    @DisplayName("The helicopter landing is shored up before an ordinary tile")
+    void shoresUpLandingFirst() {
+        Zone landing = game.getZoneByCard(ZoneCard.fodls_landing);
+        IslandBitboard island = game.getIsland();
+        long key = island.getHelicopterTile();
+        for (Artefact artefact : Artefact.values()) {
+            key |= island.getArtefactTiles(artefact);
+        }
+        Zone ordinary = null;
+        for (int i = 0; i < island.getSize() * island.getSize() && ordinary == null; i++) {
+            Zone zone = island.getZone(i);
+            if (zone != null && zone.isAccessible() && (key & 1L << i) == 0 && landing.isAdjecantTo(zone)) {
+                ordinary = zone;
+            }
+        }
+        assertNotNull(ordinary);
+        first.setPlayerToZone(ordinary);
+        ordinary.floodZone();
+        landing.floodZone();
+        BoardGameTestHelper.setCurrentPlayerActionsNum(game, 1);
+
+        HeuristicPolicy.shoreUp(new SplittableRandom(2)).playTurn(game, first);
+        assertTrue(landing.isDry());
+        assertTrue(ordinary.isFlooded());
+    }
+
+    @Test
+    @DisplayName("Treasure cards are funnelled to the player collecting them")
+    void funnelsTreasureCards() {
+        for (CardType type : CardType.values()) {
+            while (first.getHand().count(type) > 0) {
+                first.getHand().remove(first.getHand().find(type));
+            }
+            while (second.getHand().count(type) > 0) {
+                second.getHand().remove(second.getHand().find(type));
+            }
+        }
+        first.takeCard(new Card(CardType.WATER_CARD));
+        for (int i = 0; i < 2; i++) {
+            second.takeCard(new Card(CardType.WATER_CARD));
+        }
+        first.setPlayerToZone(second.getPlayer_zone());
+        BoardGameTestHelper.setCurrentPlayerActionsNum(game, 1);
+
+        HeuristicPolicy.treasureFunnel(new SplittableRandom(3)).playTurn(game, first);
+        assertEquals(0, first.getHand().count(CardType.WATER_CARD));
+        assertEquals(3, second.getHand().count(CardType.WATER_CARD));
+
+        first.takeCard(new Card(CardType.EARTH_CARD));
+        BoardGameTestHelper.setCurrentPlayerActionsNum(game, 1);
+        HeuristicPolicy.shoreUp(new SplittableRandom(4)).playTurn(game, first);
+        assertEquals(1, first.getHand().count(CardType.EARTH_CARD)); // only the funnel trades
+    }
+}
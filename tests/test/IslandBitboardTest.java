@@ -0,0 +1,101 @@
+package test;
+
+import Model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandBitboardTest {
+    private BoardGame boardGame;
+
+    @BeforeEach
+    void setUp() {
+        Player.resetPlayerCount();
+        boardGame = new BoardGame(3L);
+    }
+
+    /** Recomputes the masks from the Zone objects, the way the board queries used to. */
+    private long mask(ZoneState state) {
+        long mask = 0;
+        Zone[][] board = boardGame.getBoard();
+        for (int x = 0; x < board.length; x++) {
+            for (int y = 0; y < board[x].length; y++) {
+                if (board[x][y].getZone_state() == state) {
+                    mask |= 1L << (x * board.length + y);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private void assertInSync() {
+        IslandBitboard island = boardGame.getIsland();
+        assertEquals(mask(ZoneState.Normal), island.getDry());
+        assertEquals(mask(ZoneState.Flooded), island.getFlooded());
+        assertEquals(mask(ZoneState.Inaccessible), island.getSunk());
+    }
+
+    @Test
+    @DisplayName("A new board has 24 dry tiles and the sunk center")
+    void initialMasks() {
+        IslandBitboard island = boardGame.getIsland();
+        assertEquals(24, island.countDry());
+        assertEquals(0, island.countFlooded());
+        assertEquals(1L << 12, island.getSunk());
+        assertEquals(24, boardGame.getNumOfActiveZones());
+        assertInSync();
+    }
+
+    @Test
+    @DisplayName("Flooding, shoring up and sinking zones update the masks")
+    void masksFollowZoneChanges() {
+        Zone a = boardGame.getZone(0, 1);
+        Zone b = boardGame.getZone(3, 4);
+        a.floodZone();
+        assertInSync();
+        b.floodZone();
+        b.floodZone();
+        assertInSync();
+        a.shoreUp();
+        assertInSync();
+        boardGame.floodAllZones();
+        assertInSync();
+        assertEquals(23, boardGame.getNumOfActiveZones());
+    }
+
+    @Test
+    @DisplayName("A zone replaced on the board is rebound and the old one no longer counts")
+    void replacedZoneIsRebound() {
+        Zone old = boardGame.getZone(1, 1);
+        Zone replacement = new Zone(1, 1, true, ZoneCard.watchtower);
+        replacement.floodZone();
+        boardGame.getBoard()[1][1] = replacement;
+        assertInSync();
+
+        old.floodZone();
+        old.floodZone();
+        assertInSync();
+        assertEquals(1L << 6, boardGame.getIsland().getFlooded());
+    }
+
+    @Test
+    @DisplayName("zonesOf lists the zones of a mask in board order")
+    void zonesOfBoardOrder() {
+        boardGame.getZone(4, 0).floodZone();
+        boardGame.getZone(0, 3).floodZone();
+        boardGame.getZone(2, 4).floodZone();
+        IslandBitboard island = boardGame.getIsland();
+
+        List<Zone> expected = new ArrayList<>();
+        expected.add(boardGame.getZone(0, 3));
+        expected.add(boardGame.getZone(2, 4));
+        expected.add(boardGame.getZone(4, 0));
+        assertEquals(expected, island.zonesOf(island.getFlooded()));
+        assertEquals(boardGame.getZone(2, 4), island.getZone(island.indexOf(boardGame.getZone(2, 4))));
+    }
+}
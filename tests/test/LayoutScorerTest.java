@@ -0,0 +1,126 @@
+package test;
+
+import Model.BoardGame;
+import Model.IslandLayout;
+import Model.ZoneCard;
+import Simulation.HeuristicPolicy;
+import Simulation.LayoutCache;
+import Simulation.LayoutScore;
+import Simulation.LayoutScorer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutScorerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("The eight rotations and reflections of a layout share its canonical hash")
+    void canonicalHash() {
+        IslandLayout layout = IslandLayout.random(new SplittableRandom(3));
+        IslandLayout canonical = layout.canonical();
+        for (int s = 0; s < IslandLayout.SYMMETRIES; s++) {
+            IslandLayout turned = layout.transform(s);
+            assertEquals(canonical, turned.canonical());
+            assertEquals(layout.canonicalHash(), turned.canonicalHash());
+        }
+        assertEquals(layout, layout.transform(0));
+        assertEquals(layout, layout.transform(1).transform(3));
+        assertEquals(layout, layout.transform(4).transform(4));
+        assertNotEquals(layout, layout.transform(1));
+
+        IslandLayout other = IslandLayout.random(new SplittableRandom(4));
+        assertNotEquals(layout.canonicalHash(), other.canonicalHash());
+        assertEquals(layout, IslandLayout.fromBytes(layout.toBytes()));
+    }
+
+    @Test
+    @DisplayName("A game built on a layout has its zones where the layout puts them")
+    void gameOnLayout() {
+        IslandLayout layout = IslandLayout.random(new SplittableRandom(7));
+        BoardGame game = new BoardGame(42, layout);
+        assertEquals(layout, IslandLayout.of(game));
+        assertNull(layout.getCard(2, 2));
+        assertEquals(IslandLayout.of(new BoardGame(42)), IslandLayout.of(new BoardGame(42, null)));
+
+        ZoneCard[] cards = new ZoneCard[25];
+        cards[0] = ZoneCard.values()[0];
+        cards[1] = ZoneCard.values()[0];
+        assertThrows(IllegalArgumentException.class, () -> new IslandLayout(cards));
+    }
+
+    @Test
+    @DisplayName("Scores are reproducible and the same for every rotation of a layout")
+    void scoresAreSymmetric() {
+        IslandLayout layout = IslandLayout.random(new SplittableRandom(11));
+        try (LayoutScorer scorer = new LayoutScorer("shoreUp", HeuristicPolicy::shoreUp, 2, 3, 2, 2, null)) {
+            LayoutScore score = scorer.score(layout);
+            LayoutScore turned = scorer.score(layout.transform(6));
+            assertEquals(6, score.getGames());
+            assertEquals(layout.canonical(), score.getLayout());
+            assertEquals(score.getWins(), turned.getWins());
+            assertEquals(score.getClaimed(), turned.getClaimed());
+            assertEquals(score.getTurns(), turned.getTurns());
+            assertTrue(score.getRating() >= 0 && score.getRating() <= 1);
+        }
+    }
+
+    @Test
+    @DisplayName("The cache answers every rotation of a scored layout and survives a save")
+    void cacheRoundTrip() throws IOException {
+        Path file = directory.resolve("layouts.bin");
+        IslandLayout layout = IslandLayout.random(new SplittableRandom(5));
+        LayoutCache cache = new LayoutCache(file, "shoreUp", 2, 2, 1);
+        LayoutScore score;
+        try (LayoutScorer scorer = new LayoutScorer("shoreUp", HeuristicPolicy::shoreUp, 2, 2, 1, 1, cache)) {
+            score = scorer.score(layout);
+            assertSame(score, scorer.score(layout.transform(5)));
+        }
+        assertEquals(1, cache.size());
+        assertNull(cache.get(IslandLayout.random(new SplittableRandom(6))));
+        cache.save();
+
+        LayoutCache loaded = new LayoutCache(file, "shoreUp", 2, 2, 1);
+        assertEquals(1, loaded.size());
+        LayoutScore read = loaded.get(layout.transform(2));
+        assertNotNull(read);
+        assertEquals(score.getLayout(), read.getLayout());
+        assertEquals(score.getGames(), read.getGames());
+        assertEquals(score.getClaimed(), read.getClaimed());
+        assertEquals(score.getTurns(), read.getTurns());
+
+        IslandLayout picked = loaded.pick(score.getRating(), score.getRating(), new SplittableRandom(1));
+        assertEquals(layout.canonical(), picked.canonical());
+        assertNull(loaded.pick(2, 3, new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("A cache is only used with the setup its layouts were scored with")
+    void cacheOfAnotherSetup() throws IOException {
+        Path file = directory.resolve("layouts.bin");
+        LayoutCache cache = new LayoutCache(file, "shoreUp", 2, 2, 1);
+        try (LayoutScorer scorer = new LayoutScorer("shoreUp", HeuristicPolicy::shoreUp, 2, 2, 1, 1, cache)) {
+            scorer.score(IslandLayout.random(new SplittableRandom(5)));
+        }
+        cache.save();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new LayoutScorer("repositioning", HeuristicPolicy::repositioning, 2, 2, 1, 1, cache));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LayoutScorer("shoreUp", HeuristicPolicy::shoreUp, 3, 2, 1, 1, cache));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LayoutScorer("shoreUp", HeuristicPolicy::shoreUp, 2, 4, 1, 1, cache));
+        assertThrows(IOException.class, () -> new LayoutCache(file, "repositioning", 2, 2, 1));
+        assertThrows(IOException.class, () -> new LayoutCache(file, "shoreUp", 4, 2, 1));
+        assertThrows(IOException.class, () -> new LayoutCache(file, "shoreUp", 2, 2, 3));
+        assertEquals(1, new LayoutCache(file, "shoreUp", 2, 2, 1).size());
+    }
+}
@@ -0,0 +1,197 @@
+package test;
+
+import Model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegalActionsTest {
+
+    /** Creates a started game whose first player has the given role. */
+    private static BoardGame gameWithFirstPlayer(PlayerRole role) {
+        for (long seed = 0; ; seed++) {
+            BoardGame game = BoardGameTestHelper.startedGame(seed, "A", "B");
+            if (game.getPlayerForTheTurn().getPlayer_role() == role) {
+                return game;
+            }
+        }
+    }
+
+    private static List<Integer> actionsOf(BoardGame game, GameAction.Kind kind) {
+        List<Integer> res = new ArrayList<>();
+        for (int action : game.getLegalActions()) {
+            if (GameAction.kind(action) == kind) {
+                res.add(action);
+            }
+        }
+        return res;
+    }
+
+    private static void moveTo(Player player, Zone zone) {
+        if (!zone.isDry()) {
+            zone.makeAccessible();
+        }
+        player.setPlayerToZone(zone);
+    }
+
+    @Test
+    @DisplayName("An encoded action gives back its parts")
+    void encodingRoundTrip() {
+        int lift = GameAction.helicopterLift(3, 24, 0b0101);
+        assertEquals(GameAction.Kind.HelicopterLift, GameAction.kind(lift));
+        assertEquals(3, GameAction.player(lift));
+        assertEquals(24, GameAction.tile(lift));
+        assertEquals(0b0101, GameAction.passengers(lift));
+
+        int give = GameAction.giveCard(CardType.WATER_CARD, 2);
+        assertEquals(GameAction.Kind.GiveCard, GameAction.kind(give));
+        assertEquals(CardType.WATER_CARD, GameAction.card(give));
+        assertEquals(2, GameAction.player(give));
+
+        int pair = GameAction.shoreUpPair(7, 12);
+        assertEquals(7, GameAction.tile(pair));
+        assertEquals(12, GameAction.secondTile(pair));
+        assertEquals(GameAction.Kind.EndTurn, GameAction.kind(GameAction.END_TURN));
+    }
+
+    @Test
+    @DisplayName("Random games played only with the listed actions never hit an illegal action")
+    void everyListedActionApplies() {
+        int[] buffer = new int[BoardGame.MAX_LEGAL_ACTIONS];
+        int games = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            BoardGame game = BoardGameTestHelper.startedGame(seed, "P0", "P1", "P2", "P3");
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int step = 0; step < 3000; step++) {
+                int n = game.getLegalActions(buffer);
+                if (n == 0) {
+                    assertNotNull(game.getLossCause(), "only a lost game has no action");
+                    break;
+                }
+                boolean turnPlaying = !game.arePlayersRunningFromInaccesbleZone() && !game.isPlayerChoosingCardToDiscard()
+                        && GameAction.kind(buffer[0]) != GameAction.Kind.Discard;
+                if (turnPlaying && n > 1 && game.getCurrentPlayerActionsNum() > 0) {
+                    Player current = game.getPlayerForTheTurn();
+                    List<Zone> moves = new ArrayList<>();
+                    for (int k = 0; k < n; k++) {
+                        if (GameAction.kind(buffer[k]) == GameAction.Kind.Move) {
+                            moves.add(game.getIsland().getZone(GameAction.tile(buffer[k])));
+                        }
+                    }
+                    if (game.canPlayerUseBasicAction(current)) {
+                        assertEquals(game.getZonesForPlayerToMove(current), moves);
+                    }
+                }
+                // end the turn less often, so that the actions get played
+                int action = buffer[random.nextInt(n)];
+                if (action == GameAction.END_TURN && n > 1 && random.nextInt(4) != 0) {
+                    continue;
+                }
+                TurnOutcome outcome = game.apply(action);
+                if (outcome != null && outcome.isGameOver()) {
+                    break;
+                }
+            }
+            games++;
+        }
+        assertEquals(40, games);
+    }
+
+    @Test
+    @DisplayName("The Engineer shores up two tiles for one action")
+    void engineerShoreUpPair() {
+        BoardGame game = gameWithFirstPlayer(PlayerRole.Engineer);
+        Player engineer = game.getPlayerForTheTurn();
+        Zone zone = engineer.getPlayer_zone();
+        List<Zone> flooded = new ArrayList<>();
+        for (Zone z : game.getZonesForPlayerToMove(engineer)) {
+            if (flooded.size() < 2) {
+                z.floodZone();
+                flooded.add(z);
+            }
+        }
+        assertEquals(2, flooded.size(), "start zone " + zone.getX() + ", " + zone.getY());
+
+        List<Integer> pairs = actionsOf(game, GameAction.Kind.ShoreUpPair);
+        assertEquals(1, pairs.size());
+        assertNull(game.apply(pairs.get(0)));
+        assertTrue(flooded.get(0).isDry());
+        assertTrue(flooded.get(1).isDry());
+        assertEquals(2, game.getCurrentPlayerActionsNum());
+    }
+
+    @Test
+    @DisplayName("Giving a card goes through the whole give sequence in one action")
+    void giveCard() {
+        BoardGame game = gameWithFirstPlayer(PlayerRole.Pilot);
+        Player giver = game.getPlayerForTheTurn();
+        Player receiver = game.getPlayers()[1];
+        assertTrue(actionsOf(game, GameAction.Kind.GiveCard).isEmpty(), "players on other tiles");
+
+        moveTo(receiver, giver.getPlayer_zone());
+        List<Integer> gives = actionsOf(game, GameAction.Kind.GiveCard);
+        assertFalse(gives.isEmpty());
+        int give = gives.get(0);
+        assertEquals(1, GameAction.player(give));
+        int before = receiver.getHand().getSize();
+        game.apply(give);
+        assertEquals(before + 1, receiver.getHand().getSize());
+        assertEquals(GameAction.card(give), receiver.getHand().getCards().get(before).getType());
+        assertEquals(2, game.getCurrentPlayerActionsNum());
+        assertTrue(game.isGamePlaying());
+    }
+
+    @Test
+    @DisplayName("A Helicopter Lift takes the chosen passengers along")
+    void helicopterLiftWithPassengers() {
+        BoardGame game = gameWithFirstPlayer(PlayerRole.Diver);
+        Player holder = game.getPlayerForTheTurn();
+        Player passenger = game.getPlayers()[1];
+        holder.takeCard(new Card(CardType.HELICOPTER_LIFT));
+        moveTo(passenger, holder.getPlayer_zone());
+        Zone target = game.getZoneByCard(ZoneCard.fodls_landing);
+        if (target == holder.getPlayer_zone()) {
+            target = game.getZoneByCard(ZoneCard.observatory);
+        }
+        int tile = game.getIsland().indexOf(target);
+
+        int lift = GameAction.helicopterLift(0, tile, 1 << 1);
+        int solo = GameAction.helicopterLift(0, tile, 0);
+        int[] actions = game.getLegalActions();
+        assertTrue(contains(actions, lift));
+        assertTrue(contains(actions, solo));
+
+        game.apply(lift);
+        assertSame(target, holder.getPlayer_zone());
+        assertSame(target, passenger.getPlayer_zone());
+        assertEquals(3, game.getCurrentPlayerActionsNum(), "action cards cost no action");
+        for (Card c : holder.getHand().getCards()) {
+            assertNotEquals(CardType.HELICOPTER_LIFT, c.getType());
+        }
+    }
+
+    @Test
+    @DisplayName("A choice left pending by the view is abandoned by apply")
+    void applyAbandonsPendingChoice() {
+        BoardGame game = gameWithFirstPlayer(PlayerRole.Explorer);
+        game.setPlayerChooseZoneToShoreUp();
+        int move = actionsOf(game, GameAction.Kind.Move).get(0);
+        game.apply(move);
+        assertEquals(GameAction.tile(move), game.getIsland().indexOf(game.getPlayerForTheTurn().getPlayer_zone()));
+        assertFalse(game.isPlayerChoosingSomething());
+    }
+
+    private static boolean contains(int[] actions, int action) {
+        for (int a : actions) {
+            if (a == action) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
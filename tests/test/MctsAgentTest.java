@@ -0,0 +1,103 @@
+package test;
+
+import Model.*;
+import Search.MctsAgent;
+import Search.MctsPolicy;
+import Search.SearchResult;
+import Simulation.GameResult;
+import Simulation.GameSimulator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsAgentTest {
+
+    private BoardGame game;
+
+    @BeforeEach
+    void setUp() {
+        game = BoardGameTestHelper.startedGame(3L, "Yehor", "Ivan");
+    }
+
+    private static boolean contains(int[] actions, int action) {
+        for (int a : actions) {
+            if (a == action) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("The search returns a legal action and leaves the game untouched")
+    void searchLeavesGameUntouched() {
+        GameSnapshot before = game.snapshot();
+        try (MctsAgent agent = new MctsAgent(2, 50, 1L)) {
+            SearchResult result = agent.search(game);
+            assertTrue(contains(game.getLegalActions(), result.getAction()));
+            assertTrue(result.getPlayouts() > 0);
+            assertEquals(2, result.getThreads());
+            assertTrue(result.getValue() >= 0 && result.getValue() <= 1);
+        }
+        assertEquals(before, game.snapshot());
+    }
+
+    @Test
+    @DisplayName("A cancelled search stops early and still returns a legal action")
+    void cancelledSearchStopsEarly() {
+        try (MctsAgent agent = new MctsAgent(2, 60_000, 5L)) {
+            SearchResult result = agent.search(game, () -> true);
+            assertTrue(contains(game.getLegalActions(), result.getAction()));
+            assertTrue(result.getElapsedNanos() < 30_000_000_000L);
+            assertTrue(result.getPlayouts() <= 2, "one iteration per thread");
+        }
+    }
+
+    @Test
+    @DisplayName("Over the hand limit, the agent discards")
+    void discardsOverHandLimit() {
+        Player current = game.getPlayerForTheTurn();
+        Zone fire = null;
+        for (Zone[] column : game.getBoard()) {
+            for (Zone z : column) {
+                if (z instanceof ArtefactZone && ((ArtefactZone) z).getArtefact() == Artefact.Fire) {
+                    fire = z;
+                }
+            }
+        }
+        current.setPlayerToZone(fire);
+        for (int i = 0; i < 4; i++) {
+            current.takeCard(new Card(CardType.FIRE_CARD));
+        }
+        game.setPlayerDiscardCard(); // over the hand limit: only discards are legal
+        try (MctsAgent agent = new MctsAgent(1, 30, 2L)) {
+            assertEquals(GameAction.Kind.Discard, GameAction.kind(agent.chooseAction(game)));
+        }
+    }
+
+    @Test
+    @DisplayName("A position with a single legal action is not searched")
+    void singleActionIsNotSearched() {
+        game.getPlayerForTheTurn().takeCard(new Card(CardType.FIRE_CARD));
+        game.apply(GameAction.END_TURN);
+        int[] actions = game.getLegalActions();
+        if (actions.length == 1) {
+            try (MctsAgent agent = new MctsAgent(2, 10_000, 3L)) {
+                SearchResult result = agent.search(game);
+                assertEquals(actions[0], result.getAction());
+                assertEquals(0, result.getPlayouts());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A whole game can be played by the agent")
+    void playsWholeGame() {
+        try (MctsAgent agent = new MctsAgent(2, 2, 4L)) {
+            GameResult result = new GameSimulator(2, 40).play(5L, new MctsPolicy(agent));
+            assertTrue(result.getTurns() > 0);
+        }
+    }
+}
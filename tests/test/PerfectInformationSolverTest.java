@@ -0,0 +1,117 @@
+package test;
+
+import Model.*;
+import Search.PerfectInformationSolver;
+import Search.SolverResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfectInformationSolverTest {
+
+    private PerfectInformationSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new PerfectInformationSolver(2, 1, 1 << 12);
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.close();
+    }
+
+    private static BoardGame newGame(long seed) {
+        return BoardGameTestHelper.startedGame(seed, "Yehor", "Ivan");
+    }
+
+    /** Gets an accessible zone next to the helicopter landing, or null if it has none. */
+    private static Zone accessibleNeighbourOfLanding(BoardGame game) {
+        Zone landing = game.getZoneByCard(ZoneCard.fodls_landing);
+        int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int[] step : steps) {
+            int x = landing.getX() + step[0];
+            int y = landing.getY() + step[1];
+            if (x >= 0 && y >= 0 && x < game.getSize() && y < game.getSize()
+                    && game.getZone(x, y).getZone_state() != ZoneState.Inaccessible) {
+                return game.getZone(x, y);
+            }
+        }
+        return null;
+    }
+
+    /** Claims every artefact and gives a Helicopter Lift to the player who does not play. */
+    private static void prepareEscape(BoardGame game) {
+        BoardGameTestHelper.getClaimedArtefacts(game).addAll(EnumSet.allOf(Artefact.class));
+        Player other = game.getPlayers()[0] == game.getPlayerForTheTurn() ? game.getPlayers()[1] : game.getPlayers()[0];
+        other.takeCard(new Card(CardType.HELICOPTER_LIFT));
+        other.setPlayerToZone(game.getZoneByCard(ZoneCard.fodls_landing));
+    }
+
+    @Test
+    @DisplayName("A game that is already won is solved by ending the turn")
+    void wonGameNeedsOneAction() {
+        BoardGame game = newGame(1L);
+        prepareEscape(game);
+        game.getPlayerForTheTurn().setPlayerToZone(game.getZoneByCard(ZoneCard.fodls_landing));
+
+        SolverResult result = solver.solve(game, 5);
+        assertEquals(SolverResult.Status.Winnable, result.getStatus());
+        assertArrayEquals(new int[]{GameAction.END_TURN}, result.getLine());
+    }
+
+    @Test
+    @DisplayName("The solver finds the shortest winning line, and it wins when played")
+    void findsShortestLine() {
+        BoardGame game = null;
+        Zone neighbour = null;
+        for (long seed = 0; neighbour == null; seed++) {
+            game = newGame(seed);
+            neighbour = accessibleNeighbourOfLanding(game);
+        }
+        prepareEscape(game);
+        game.getPlayerForTheTurn().setPlayerToZone(neighbour);
+        GameSnapshot before = game.snapshot();
+
+        SolverResult result = solver.solve(game, 4);
+        assertTrue(result.isWinnable());
+        assertEquals(2, result.getDepth());
+        assertEquals(before, game.snapshot());
+
+        int[] line = result.getLine();
+        assertEquals(2, line.length);
+        assertNull(game.apply(line[0]));
+        assertTrue(game.apply(line[1]).isWon());
+    }
+
+    @Test
+    @DisplayName("A game in a lose condition is unwinnable at once")
+    void lostGameIsUnwinnable() {
+        BoardGame game = newGame(2L);
+        Zone landing = game.getZoneByCard(ZoneCard.fodls_landing);
+        landing.makeInaccessible();
+
+        SolverResult result = solver.solve(game, 10);
+        assertEquals(SolverResult.Status.Unwinnable, result.getStatus());
+        assertEquals(0, result.getLine().length);
+    }
+
+    @Test
+    @DisplayName("Without a win within the depth, the answer is unknown and the game is untouched")
+    void shallowSearchIsUnknown() {
+        BoardGame game = newGame(3L);
+        GameSnapshot before = game.snapshot();
+
+        try (PerfectInformationSolver sequential = new PerfectInformationSolver(1, 0, 1 << 12)) {
+            SolverResult result = sequential.solve(game, 6);
+            assertEquals(SolverResult.Status.Unknown, result.getStatus());
+            assertTrue(result.getNodes() > 0);
+        }
+        assertEquals(before, game.snapshot());
+    }
+}
@@ -3,6 +3,7 @@ package test;
 import Model.PlayerFactory;
 import Model.Player;
 import Model.PlayerRole;
+import Errors.InvalidStateOfTheGameException;
 import Errors.NoRoleToAssignError;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -65,4 +66,15 @@ class PlayerFactoryTest {
         assertNull(player.getPlayer_zone());
         assertEquals(0, player.getPlayer_id()); // Assuming it's the first player created globally or after reset
     }
+
+    @Test
+    @DisplayName("createPlayer with a role gives that role, once")
+    void createPlayerWithRole() {
+        Player player = playerFactory.createPlayer("Diver", PlayerRole.Diver);
+        assertEquals(PlayerRole.Diver, player.getPlayer_role());
+        assertThrows(InvalidStateOfTheGameException.class, () -> playerFactory.createPlayer("Other", PlayerRole.Diver));
+        for (int i = 0; i < 5; i++) {
+            assertNotEquals(PlayerRole.Diver, playerFactory.createPlayer("Player" + i).getPlayer_role());
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package test;
+
+import Model.*;
+import Simulation.GameResult;
+import Simulation.GameSimulator;
+import Simulation.HeuristicPolicy;
+import Simulation.SelfPlayExporter;
+import Simulation.SelfPlayReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private static BoardGame newGame(long seed) {
+        return BoardGameTestHelper.startedGame(seed, "Yehor", "Ivan", "Oleh");
+    }
+
+    @Test
+    @DisplayName("The encoded position has a fixed size and follows the game")
+    void stateEncoding() {
+        BoardGame game = newGame(1L);
+        ByteBuffer buffer = ByteBuffer.allocate(StateEncoding.SIZE);
+        StateEncoding.encode(game, buffer);
+        assertEquals(StateEncoding.SIZE, buffer.position());
+
+        byte[] state = buffer.array();
+        assertEquals((byte) 0xFF, state[2 * 5 + 2]); // the sea in the middle
+        Player first = game.getPlayers()[0];
+        assertEquals(first.getPlayer_role().ordinal(), state[25]);
+        assertEquals(game.getIsland().indexOf(first.getPlayer_zone()), state[26]);
+        assertEquals((byte) 0xFF, state[31]); // no fourth player
+        assertEquals(first.getHand().count(CardType.FIRE_CARD), state[33 + CardType.FIRE_CARD.ordinal()]);
+        assertEquals(game.getWaterMeterLevel(), state[65]);
+        assertEquals(game.getPlayerTurnId(), state[66]);
+        assertEquals(3, state[67]);
+    }
+
+    @Test
+    @DisplayName("Every decision is read back with its legal actions and the outcome of its game")
+    void recordsAreReadBack() throws IOException {
+        for (boolean compress : new boolean[]{false, true}) {
+            Path file = directory.resolve("games-" + compress + ".bin");
+            List<GameResult> results = new ArrayList<>();
+            List<Integer> firstChoices = new ArrayList<>();
+            long written;
+            try (SelfPlayExporter exporter = new SelfPlayExporter(file, compress)) {
+                for (int i = 0; i < 5; i++) {
+                    HeuristicPolicy policy = HeuristicPolicy.treasureFunnel(new SplittableRandom(i));
+                    int[] first = new int[1];
+                    boolean[] recorded = new boolean[1];
+                    results.add(exporter.playGame(newGame(i), (game, actions, count) -> {
+                        int action = policy.chooseAction(game, actions, count);
+                        if (!recorded[0]) {
+                            first[0] = action;
+                            recorded[0] = true;
+                        }
+                        return action;
+                    }, GameSimulator.DEFAULT_MAX_TURNS));
+                    firstChoices.add(first[0]);
+                }
+                written = exporter.getRecords();
+                assertEquals(5, exporter.getGames());
+            }
+            assertTrue(written > 5);
+
+            long read = 0;
+            byte[] state = new byte[StateEncoding.SIZE];
+            byte[] start = new byte[StateEncoding.SIZE];
+            StateEncoding.encode(newGame(0), ByteBuffer.wrap(start));
+            try (SelfPlayReader reader = new SelfPlayReader(file)) {
+                while (reader.next()) {
+                    read++;
+                    reader.getState(state);
+                    boolean legal = false;
+                    for (int i = 0; i < reader.getActionCount(); i++) {
+                        legal |= reader.getAction(i) == reader.getChosenAction();
+                    }
+                    assertTrue(legal);
+                    if (read == 1) {
+                        assertArrayEquals(start, state);
+                        assertEquals(firstChoices.get(0), reader.getChosenAction());
+                        assertEquals(SelfPlayExporter.outcomeCode(results.get(0)), reader.getOutcome());
+                        assertEquals(results.get(0).getLossCause(), reader.getLossCause());
+                    }
+                }
+            }
+            assertEquals(written, read);
+        }
+    }
+
+    @Test
+    @DisplayName("A file of another format is refused")
+    void refusesOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IOException.class, () -> new SelfPlayReader(file));
+    }
+}
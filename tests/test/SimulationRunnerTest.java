@@ -0,0 +1,64 @@
+package test;
+
+import Model.LossCause;
+import Simulation.GameResult;
+import Simulation.GameSimulator;
+import Simulation.RandomPolicy;
+import Simulation.SimulationReport;
+import Simulation.SimulationRunner;
+import Simulation.SimulationStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationRunnerTest {
+
+    @Test
+    @DisplayName("A simulated game always ends with a result")
+    void simulatedGameEnds() {
+        GameSimulator simulator = new GameSimulator(4, GameSimulator.DEFAULT_MAX_TURNS);
+        for (int i = 0; i < 20; i++) {
+            GameResult result = simulator.play(i, new RandomPolicy(new SplittableRandom(i)));
+            assertTrue(result.isWon() || result.isLost() || result.getTurns() == GameSimulator.DEFAULT_MAX_TURNS);
+            assertTrue(result.getTurns() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("The report accounts for every game played")
+    void reportCountsAllGames() {
+        SimulationRunner runner = new SimulationRunner(RandomPolicy::new, 2, 2);
+        SimulationReport report = runner.run(100);
+        SimulationStats stats = report.getStats();
+
+        assertEquals(100, stats.getGames());
+        int losses = 0;
+        for (LossCause cause : LossCause.values()) {
+            losses += stats.getLosses(cause);
+        }
+        assertEquals(losses, stats.getLosses());
+        assertEquals(100, stats.getWins() + stats.getLosses() + stats.getUnfinished());
+        assertTrue(report.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("A batch played with the same seed gives the same results")
+    void sameBatchSeedSameResults() {
+        SimulationStats first = new SimulationRunner(RandomPolicy::new, 3, 1).run(64, 42L).getStats();
+        SimulationStats second = new SimulationRunner(RandomPolicy::new, 3, 2).run(64, 42L).getStats();
+
+        assertEquals(first.getWins(), second.getWins());
+        assertEquals(first.getLossBreakdown(), second.getLossBreakdown());
+        assertEquals(first.getAverageTurns(), second.getAverageTurns());
+    }
+
+    @Test
+    @DisplayName("Invalid player counts are rejected")
+    void invalidPlayerCount() {
+        assertThrows(IllegalArgumentException.class, () -> new GameSimulator(1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GameSimulator(5, 10));
+    }
+}
@@ -0,0 +1,111 @@
+package test;
+
+import Model.*;
+import Simulation.GamePolicy;
+import Simulation.GameSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SinkingForecastTest {
+
+    /** Ends every turn at once, so the zones sink as the decks say. */
+    private static final GamePolicy IDLE = new GamePolicy() {
+        @Override
+        public void playTurn(BoardGame game, Player player) {
+        }
+
+        @Override
+        public Card chooseCardToDiscard(BoardGame game, Player player) {
+            return player.getHand().getCards().get(0);
+        }
+
+        @Override
+        public Zone chooseZoneToRunTo(BoardGame game, Player player, List<Zone> zones) {
+            return zones.get(0);
+        }
+    };
+
+    /** A started game whose first six flood cards have flooded their zones. */
+    private static BoardGame newGame(long seed) {
+        BoardGame game = BoardGameTestHelper.startedGame(seed, "Yehor", "Ivan");
+        FloodDeck deck = game.getFloodDeck();
+        for (int i = 0; i < 6; i++) {
+            ZoneCard card = deck.draw();
+            game.getZoneByCard(card).floodZone();
+            deck.discard(card);
+        }
+        return game;
+    }
+
+    @Test
+    @DisplayName("The forecast matches the sinkings of games where nobody shores up")
+    void matchesSampledGames() {
+        int turns = 2;
+        BoardGame game = newGame(5);
+        double[] forecast = new double[25];
+        game.getSinkingRisks(forecast, turns);
+
+        GameSnapshot start = game.snapshot();
+        BoardGame work = start.restore();
+        SplittableRandom random = new SplittableRandom(1);
+        double[] sunk = new double[25];
+        int samples = 4000;
+        for (int n = 0; n < samples; n++) {
+            start.restoreInto(work);
+            work.redealHiddenCards(random.split());
+            new GameSimulator(2, turns).playOut(work, IDLE);
+            for (int i = 0; i < sunk.length; i++) {
+                Zone zone = work.getIsland().getZone(i);
+                if (zone.getZoneCard() != null && !zone.isAccessible()) {
+                    sunk[i]++;
+                }
+            }
+        }
+
+        double dryForecast = 0, drySampled = 0, floodedForecast = 0, floodedSampled = 0;
+        for (int i = 0; i < sunk.length; i++) {
+            Zone zone = game.getIsland().getZone(i);
+            if (zone.getZoneCard() == null) {
+                assertEquals(0, forecast[i]);
+            } else if (zone.getZone_state() == ZoneState.Flooded) {
+                floodedForecast += forecast[i];
+                floodedSampled += sunk[i] / samples;
+            } else {
+                dryForecast += forecast[i];
+                drySampled += sunk[i] / samples;
+            }
+        }
+        assertTrue(floodedForecast > dryForecast);
+        assertEquals(floodedForecast, floodedSampled, 0.03 * 6);
+        assertEquals(dryForecast, drySampled, 0.01 * 18);
+    }
+
+    @Test
+    @DisplayName("The forecast follows the decks and the zones")
+    void followsTheGame() {
+        BoardGame game = newGame(6);
+        FloodDeck deck = game.getFloodDeck();
+        Zone zone = game.getZoneByCard(deck.getDrawCards().get(deck.getDrawSize() - 1));
+        assertEquals(0, game.getSinkingRisk(zone, 0));
+        double dry = game.getSinkingRisk(zone, 3);
+        assertTrue(dry > 0 && dry < 1);
+        assertTrue(game.getSinkingRisk(zone, 6) > dry);
+
+        zone.floodZone();
+        double flooded = game.getSinkingRisk(zone, 3);
+        assertTrue(flooded > dry);
+
+        deck.discard(deck.draw()); // the card of the zone leaves the draw pile
+        assertTrue(game.getSinkingRisk(zone, 1) < flooded);
+
+        zone.floodZone();
+        assertEquals(1, game.getSinkingRisk(zone, 3));
+        Zone other = game.getZoneByCard(deck.getDrawCards().get(0));
+        assertThrows(IllegalArgumentException.class, () -> game.getSinkingRisk(other, -1));
+    }
+}
@@ -0,0 +1,83 @@
+package test;
+
+import Model.PlayerFactory;
+import Model.PlayerRole;
+import Simulation.PairedComparison;
+import Simulation.RandomPolicy;
+import Simulation.SimulationStats;
+import Simulation.Tournament;
+import Simulation.TournamentReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    @DisplayName("Every team of distinct roles is listed once")
+    void roleCombinations() {
+        assertEquals(15, PlayerFactory.roleCombinations(2).size());
+        assertEquals(20, PlayerFactory.roleCombinations(3).size());
+        assertEquals(15, PlayerFactory.roleCombinations(4).size());
+
+        Set<Set<PlayerRole>> teams = new HashSet<>();
+        for (PlayerRole[] roles : PlayerFactory.roleCombinations(3)) {
+            Set<PlayerRole> team = Set.of(roles);
+            assertEquals(3, team.size());
+            assertTrue(teams.add(team));
+        }
+    }
+
+    @Test
+    @DisplayName("Every entrant plays every deal, and identical entrants get identical results")
+    void identicalEntrantsTie() {
+        Tournament tournament = new Tournament(2, 100, 2, 2, 4)
+                .addEntrant("a", RandomPolicy::new)
+                .addEntrant("b", RandomPolicy::new);
+        TournamentReport report = tournament.run(5L);
+
+        assertEquals((15 + 15) * 2, report.getDeals().size());
+        SimulationStats a = report.getStats("a");
+        assertEquals(report.getDeals().size(), a.getGames());
+        assertEquals(30, report.getStats("a", 2).getGames());
+        assertEquals(0, report.getStats("a", 3).getGames());
+
+        PairedComparison comparison = report.compare("a", "b");
+        assertEquals(0, comparison.getFirstOnly());
+        assertEquals(0, comparison.getSecondOnly());
+        assertEquals(0, comparison.getDifference());
+        assertFalse(comparison.isSignificant());
+        for (int i = 0; i < report.getDeals().size(); i++) {
+            assertEquals(report.getResult("a", i).toString(), report.getResult("b", i).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("A tournament is reproducible whatever the number of threads")
+    void reproducibleAcrossThreads() {
+        TournamentReport one = new Tournament(1, 100, 1, 3).addEntrant("random", RandomPolicy::new).run(9L);
+        TournamentReport two = new Tournament(1, 100, 2, 3).addEntrant("random", RandomPolicy::new).run(9L);
+
+        List<Tournament.Deal> deals = one.getDeals();
+        assertEquals(20, deals.size());
+        for (int i = 0; i < deals.size(); i++) {
+            assertEquals(deals.get(i).getSeed(), two.getDeals().get(i).getSeed());
+            assertEquals(one.getResult("random", i).toString(), two.getResult("random", i).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("The paired difference and its interval come from the discordant deals")
+    void pairedComparison() {
+        PairedComparison comparison = new PairedComparison("a", "b", 100, 20, 5);
+        assertEquals(0.15, comparison.getDifference(), 1e-9);
+        assertEquals(Math.sqrt((0.25 - 0.0225) / 100), comparison.getStandardError(), 1e-9);
+        assertTrue(comparison.isSignificant());
+        assertThrows(IllegalArgumentException.class, () -> new PairedComparison("a", "b", 10, 6, 5));
+    }
+}
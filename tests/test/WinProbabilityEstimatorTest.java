@@ -0,0 +1,96 @@
+package test;
+
+import Model.*;
+import Simulation.WinEstimate;
+import Simulation.WinProbabilityEstimator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WinProbabilityEstimatorTest {
+
+    private BoardGame game;
+    private WinProbabilityEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        game = BoardGameTestHelper.startedGame(11L, "Yehor", "Ivan");
+        estimator = new WinProbabilityEstimator(2, 7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        estimator.close();
+    }
+
+    @Test
+    @DisplayName("The Wilson interval holds the proportion and stays inside [0, 1]")
+    void wilsonInterval() {
+        WinEstimate estimate = new WinEstimate(30, 100);
+        assertEquals(0.3, estimate.getProbability(), 1e-9);
+        assertEquals(0.219, estimate.getLower(), 1e-3);
+        assertEquals(0.396, estimate.getUpper(), 1e-3);
+
+        WinEstimate none = new WinEstimate(0, 50);
+        assertEquals(0, none.getLower());
+        assertTrue(none.getUpper() > 0 && none.getUpper() < 0.1);
+        assertEquals(1, new WinEstimate(0, 0).getUpper());
+        assertThrows(IllegalArgumentException.class, () -> new WinEstimate(3, 2));
+    }
+
+    @Test
+    @DisplayName("The estimate is refined progressively and leaves the game untouched")
+    void estimateIsProgressive() {
+        GameSnapshot before = game.snapshot();
+        List<Integer> reported = new ArrayList<>();
+        WinEstimate estimate = estimator.estimate(game, 200, () -> false, e -> reported.add(e.getGames())).join();
+
+        assertEquals(200, estimate.getGames());
+        assertTrue(estimate.getLower() <= estimate.getProbability() && estimate.getProbability() <= estimate.getUpper());
+        assertTrue(reported.size() >= 200 / WinProbabilityEstimator.ROLLOUTS_PER_ROUND);
+        for (int i = 1; i < reported.size(); i++) {
+            assertTrue(reported.get(i) > reported.get(i - 1));
+        }
+        assertEquals(200, (int) reported.get(reported.size() - 1));
+        assertEquals(before, game.snapshot());
+    }
+
+    @Test
+    @DisplayName("A won position is estimated as won, a lost one as lost")
+    void certainOutcomes() {
+        BoardGameTestHelper.getClaimedArtefacts(game).addAll(EnumSet.allOf(Artefact.class));
+        Zone landing = game.getZoneByCard(ZoneCard.fodls_landing);
+        for (Player player : game.getPlayers()) {
+            if (player != null) {
+                player.setPlayerToZone(landing);
+            }
+        }
+        game.getPlayerForTheTurn().takeCard(new Card(CardType.HELICOPTER_LIFT));
+        BoardGameTestHelper.setCurrentPlayerActionsNum(game, 0); // nobody can leave the landing before the turn ends
+        assertEquals(1.0, estimator.estimate(game, 50).getProbability());
+
+        landing.makeInaccessible();
+        assertEquals(0.0, estimator.estimate(game, 50).getProbability());
+    }
+
+    @Test
+    @DisplayName("A cancelled estimate stops early")
+    void cancelledEstimateStops() {
+        WinEstimate estimate = estimator.estimate(game, 100_000, () -> true, e -> { }).join();
+        assertEquals(0, estimate.getGames());
+    }
+
+    @Test
+    @DisplayName("A game waiting for an escape cannot be estimated")
+    void escapeCannotBeEstimated() {
+        BoardGameTestHelper.setGameState(game, GameState.PlayersRunningFromAnInaccessibleZone);
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(game, 10));
+    }
+}
@@ -0,0 +1,145 @@
+package test;
+
+import Model.*;
+import Search.TranspositionTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristHashTest {
+
+    private BoardGame game;
+
+    @BeforeEach
+    void setUp() {
+        game = BoardGameTestHelper.startedGame(17L, "Yehor", "Ivan");
+    }
+
+    /** Gets a dry zone of the board other than the given one. */
+    private Zone dryZoneOtherThan(Zone other) {
+        for (Zone zone : game.getIsland().zonesOf(game.getIsland().getDry())) {
+            if (zone != other) {
+                return zone;
+            }
+        }
+        throw new IllegalStateException("No dry zone");
+    }
+
+    @Test
+    @DisplayName("Flooding then shoring up a zone gives back the hash")
+    void floodAndShoreUpCancel() {
+        long before = game.getZobristHash();
+        Zone zone = dryZoneOtherThan(null);
+        zone.floodZone();
+        long flooded = game.getZobristHash();
+        assertNotEquals(before, flooded);
+        zone.shoreUp();
+        assertEquals(before, game.getZobristHash());
+    }
+
+    @Test
+    @DisplayName("The hash covers the tiles and the cards of the players")
+    void playersChangeTheHash() {
+        Player player = game.getPlayerForTheTurn();
+        Zone start = player.getPlayer_zone();
+        long before = game.getZobristHash();
+
+        player.takeCard(new Card(CardType.EARTH_CARD));
+        long withCard = game.getZobristHash();
+        assertNotEquals(before, withCard);
+
+        player.setPlayerToZone(dryZoneOtherThan(start));
+        assertNotEquals(withCard, game.getZobristHash());
+
+        player.setPlayerToZone(start);
+        assertEquals(withCard, game.getZobristHash());
+    }
+
+    @Test
+    @DisplayName("Cards taken in another order give the same hash")
+    void handOrderDoesNotMatter() {
+        Player player = game.getPlayerForTheTurn();
+        int fires = player.getHand().count(CardType.FIRE_CARD);
+        Card fire = new Card(CardType.FIRE_CARD);
+        Card air = new Card(CardType.AIR_CARD);
+        player.takeCard(fire);
+        player.takeCard(air);
+        long first = game.getZobristHash();
+        player.getHand().remove(fire);
+        player.getHand().remove(air);
+        player.takeCard(new Card(CardType.AIR_CARD));
+        player.takeCard(new Card(CardType.FIRE_CARD));
+        assertEquals(first, game.getZobristHash());
+        assertEquals(fires + 1, player.getHand().count(CardType.FIRE_CARD));
+    }
+
+    @Test
+    @DisplayName("The kept hash is the hash of the position built from scratch during a random game")
+    void incrementalHashMatchesRestoredGame() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int step = 0; step < 400; step++) {
+            assertEquals(game.snapshot().restore().getZobristHash(), game.getZobristHash(), "step " + step);
+            int[] actions = game.getLegalActions();
+            if (actions.length == 0) {
+                break;
+            }
+            TurnOutcome outcome = game.apply(actions[random.nextInt(actions.length)]);
+            if (outcome != null && outcome.isGameOver()) {
+                break;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The hidden order of the decks is not part of the hash")
+    void redealKeepsTheHash() {
+        long before = game.getZobristHash();
+        game.redealHiddenCards(new SplittableRandom(3));
+        assertEquals(before, game.getZobristHash());
+    }
+
+    @Test
+    @DisplayName("The transposition table gives back what was stored")
+    void tableStoresAndProbes() {
+        TranspositionTable table = new TranspositionTable(1000);
+        assertEquals(1024, table.capacity());
+        long key = game.getZobristHash();
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, -1234, 7, GameAction.END_TURN, TranspositionTable.LOWER);
+        long data = table.probe(key);
+        assertEquals(-1234, TranspositionTable.value(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(GameAction.END_TURN, TranspositionTable.action(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(TranspositionTable.MISS, table.probe(key ^ 1L << 40));
+    }
+
+    @Test
+    @DisplayName("The table keeps the deeper results and evicts the old generations first")
+    void tableReplacement() {
+        TranspositionTable table = new TranspositionTable(2); // a single bucket of two entries
+        table.store(1, 10, 9, 0, TranspositionTable.EXACT);
+        table.store(1, 20, 3, 0, TranspositionTable.EXACT);
+        assertEquals(10, TranspositionTable.value(table.probe(1)), "a shallower result does not replace a deeper one");
+
+        table.store(2, 30, 5, 0, TranspositionTable.EXACT);
+        table.store(3, 40, 6, 0, TranspositionTable.EXACT); // evicts the shallowest: key 2
+        assertNotEquals(TranspositionTable.MISS, table.probe(1));
+        assertEquals(TranspositionTable.MISS, table.probe(2));
+        assertNotEquals(TranspositionTable.MISS, table.probe(3));
+
+        for (int i = 0; i < 3; i++) {
+            table.newGeneration();
+        }
+        table.store(3, 41, 6, 0, TranspositionTable.EXACT); // refreshes key 3
+        table.store(4, 50, 1, 0, TranspositionTable.EXACT); // the old deep key 1 goes before the fresh key 3
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+        assertEquals(41, TranspositionTable.value(table.probe(3)));
+        assertEquals(50, TranspositionTable.value(table.probe(4)));
+    }
+}